@@ -66,6 +66,8 @@ public enum Group
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
+    /** Writes the record updates of large transactions to the different stores in parallel. */
+    STORE_UPDATE_APPLY( "StoreUpdateApply" ),
     /** Thread pool for anyone who want some help doing file IO in parallel. */
     FILE_IO_HELPER( "FileIOHelper" ),
     LOG_WRITER( "LOG_WRITER" ),
@@ -83,6 +85,8 @@ public enum Group
     /** Thread pool for parallel Cypher query execution. */
     CYPHER_WORKER( "CypherWorker", ExecutorServiceFactory.workStealing() ),
     CYPHER_CACHE( "CypherCache", ExecutorServiceFactory.workStealing() ),
+    /** Compares the candidate plans of the IDP planner in parallel, see unsupported.cypher.idp_solver_parallelism. */
+    CYPHER_PLANNER( "CypherPlanner", ExecutorServiceFactory.workStealing() ),
 
     // DATA COLLECTOR
     DATA_COLLECTOR( "DataCollector" ),
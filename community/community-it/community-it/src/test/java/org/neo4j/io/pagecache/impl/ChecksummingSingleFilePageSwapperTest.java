@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChecksummingSingleFilePageSwapperTest extends SingleFilePageSwapperTest
+{
+    private static final int PAGE_SIZE = 32;
+
+    private final PageChecksums checksums = new PageChecksums();
+
+    @Override
+    protected PageSwapperFactory swapperFactory( FileSystemAbstraction fileSystem )
+    {
+        return new SingleFilePageSwapperFactory( fileSystem, new DefaultPageCacheTracer(), checksums );
+    }
+
+    @Test
+    void mustVerifyPagesWrittenThroughTheSwapper() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        putLong( page, 0, X );
+        swapper.write( 0, page );
+        putLong( page, 0, Y );
+        swapper.write( 1, page );
+
+        clear( page );
+        swapper.read( 0, page );
+        assertEquals( X, getLong( page, 0 ) );
+        swapper.read( 1, page );
+        assertEquals( Y, getLong( page, 0 ) );
+
+        assertEquals( 2, checksums.verifiedPages() );
+        assertEquals( 0, checksums.mismatches() );
+    }
+
+    @Test
+    void mustFailReadOfPageCorruptedOnDisk() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        putLong( page, 0, X );
+        swapper.write( 0, page );
+        swapper.write( 1, page );
+
+        corrupt( getPath(), PAGE_SIZE + 3 );
+
+        swapper.read( 0, page );
+        assertThrows( PageChecksumMismatchException.class, () -> swapper.read( 1, page ) );
+        assertThrows( PageChecksumMismatchException.class, () -> swapper.read( 0, new long[]{page, createPage( PAGE_SIZE )},
+                new int[]{PAGE_SIZE, PAGE_SIZE}, 2 ) );
+        assertEquals( 2, checksums.mismatches() );
+
+        // Writing the page again makes it trusted again.
+        swapper.write( 1, page );
+        swapper.read( 1, page );
+        assertEquals( X, getLong( page, 0 ) );
+    }
+
+    @Test
+    void mustNotVerifyPagesAfterTruncate() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        putLong( page, 0, X );
+        swapper.write( 0, page );
+        swapper.truncate();
+
+        corrupt( getPath(), 0 );
+
+        swapper.read( 0, page );
+        assertEquals( 0, checksums.verifiedPages() );
+        assertEquals( 0, checksums.mismatches() );
+    }
+
+    @Test
+    void scrubberMustFindCorruptPagesWithoutReadingThemThroughThePageCache() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        for ( int filePageId = 0; filePageId < 10; filePageId++ )
+        {
+            putLong( page, 0, filePageId );
+            swapper.write( filePageId, page );
+        }
+        corrupt( getPath(), 4 * PAGE_SIZE );
+        corrupt( getPath(), 7 * PAGE_SIZE + 1 );
+
+        PageScrubber scrubber = new PageScrubber( checksums, 1_000_000 );
+        scrubber.run();
+
+        assertEquals( 8, scrubber.scrubbedPages() );
+        assertEquals( 8, checksums.verifiedPages() );
+        assertEquals( 2, checksums.mismatches() );
+        assertEquals( 0, scrubber.failedFiles() );
+    }
+
+    @Test
+    void scrubberMustSkipClosedSwappers() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        swapper.write( 0, page );
+        swapper.close();
+
+        PageScrubber scrubber = new PageScrubber( checksums, 1_000_000 );
+        scrubber.run();
+
+        assertThat( checksums.swappers() ).isEmpty();
+        assertEquals( 0, scrubber.scrubbedPages() );
+    }
+
+    @Test
+    void mustVerifyPagesWrittenBeforeReopening() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        putLong( page, 0, X );
+        swapper.write( 0, page );
+        swapper.write( 1, page );
+        swapper.close();
+        assertThat( checksums.usedHeapBytes() ).isZero();
+
+        PageSwapper reopened = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, false );
+        corrupt( getPath(), PAGE_SIZE + 3 );
+
+        reopened.read( 0, page );
+        assertEquals( X, getLong( page, 0 ) );
+        assertThrows( PageChecksumMismatchException.class, () -> reopened.read( 1, page ) );
+        assertEquals( 1, checksums.verifiedPages() );
+        assertEquals( 1, checksums.mismatches() );
+    }
+
+    @Test
+    void mustNotTrustStoredChecksumsOfFileThatWasNotClosed() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        swapper.write( 0, page );
+        swapper.close();
+        Path checksumFile = PageChecksumTable.checksumFile( getPath() );
+        assertThat( getFs().fileExists( checksumFile ) ).isTrue();
+
+        createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, false );
+
+        // Stored checksums are removed as soon as they are loaded, so they are gone should the file not be closed again
+        assertThat( getFs().fileExists( checksumFile ) ).isFalse();
+    }
+
+    @Test
+    void mustDiscardStoredChecksumsOfFileChangedWhileClosed() throws IOException
+    {
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        putLong( page, 0, X );
+        swapper.write( 0, page );
+        swapper.close();
+        try ( StoreChannel channel = getFs().write( getPath() ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( PAGE_SIZE ), PAGE_SIZE );
+        }
+        corrupt( getPath(), 0 );
+
+        PageSwapper reopened = createSwapper( createSwapperFactory( getFs() ), getPath(), PAGE_SIZE, NO_CALLBACK, false );
+        reopened.read( 0, page );
+
+        assertEquals( 0, checksums.verifiedPages() );
+        assertEquals( 0, checksums.mismatches() );
+    }
+
+    @Test
+    void mustNotKeepMoreChecksumsThanTheHeapAllows() throws IOException
+    {
+        PageChecksums checksums = new PageChecksums( PageChecksumTable.CHUNK_BYTES );
+        PageSwapperFactory factory = new SingleFilePageSwapperFactory( getFs(), new DefaultPageCacheTracer(), checksums );
+        PageSwapper swapper = createSwapper( factory, getPath(), PAGE_SIZE, NO_CALLBACK, true );
+        long page = createPage( PAGE_SIZE );
+        swapper.write( 0, page );
+        swapper.write( 10_000, page );
+        assertEquals( PageChecksumTable.CHUNK_BYTES, checksums.usedHeapBytes() );
+
+        corrupt( getPath(), 10_000 * PAGE_SIZE );
+        swapper.read( 10_000, page );
+        swapper.read( 0, page );
+
+        assertEquals( 1, checksums.verifiedPages() );
+        assertEquals( 0, checksums.mismatches() );
+        assertEquals( 3, checksums.checksummedPages() );
+        swapper.close();
+        assertEquals( 0, checksums.usedHeapBytes() );
+    }
+
+    private void corrupt( Path file, long position ) throws IOException
+    {
+        try ( StoreChannel channel = getFs().write( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( 1 );
+            channel.read( buffer, position );
+            buffer.put( 0, (byte) ~buffer.get( 0 ) );
+            buffer.clear();
+            channel.writeAll( buffer, position );
+        }
+    }
+}
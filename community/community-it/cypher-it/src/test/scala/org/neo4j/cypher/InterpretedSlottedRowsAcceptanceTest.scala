@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.graphdb.Node
+import org.neo4j.graphdb.config.Setting
+
+class InterpretedSlottedRowsAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(
+    GraphDatabaseInternalSettings.cypher_interpreted_slotted_rows -> java.lang.Boolean.TRUE
+  )
+
+  private def executeInterpreted(query: String): List[Map[String, AnyRef]] = execute(s"CYPHER runtime=interpreted $query").toList
+
+  private def createGraph(): (Node, Node, Node) = {
+    val a1 = createLabeledNode(Map("name" -> "a1"), "A")
+    val a2 = createLabeledNode(Map("name" -> "a2"), "A")
+    val b = createLabeledNode(Map("name" -> "b", "v" -> 3), "B")
+    relate(a1, b, "R")
+    relate(a1, a2, "R")
+    relate(a2, b, "R")
+    (a1, a2, b)
+  }
+
+  test("should expand and filter") {
+    createGraph()
+
+    executeInterpreted("MATCH (a:A)-[r:R]->(b) WHERE b.v > 1 RETURN a.name AS a, b.name AS b ORDER BY a") should equal(List(
+      Map("a" -> "a1", "b" -> "b"),
+      Map("a" -> "a2", "b" -> "b")
+    ))
+  }
+
+  test("should aggregate over expanded rows") {
+    createGraph()
+
+    executeInterpreted("MATCH (a)-[r:R]->(b) RETURN a.name AS a, count(b) AS c, collect(type(r)) AS types ORDER BY a") should equal(List(
+      Map("a" -> "a1", "c" -> 2, "types" -> List("R", "R")),
+      Map("a" -> "a2", "c" -> 1, "types" -> List("R"))
+    ))
+  }
+
+  test("should return entities") {
+    val (a1, _, b) = createGraph()
+
+    val result = executeInterpreted("MATCH (a {name: 'a1'})-[r]->(b:B) RETURN a, r, b")
+
+    result.map(row => (row("a"), row("b"))) should equal(List((a1, b)))
+  }
+
+  test("should produce nulls for optional match") {
+    createGraph()
+
+    executeInterpreted("MATCH (a:A) OPTIONAL MATCH (a)-[:MISSING]->(x) RETURN a.name AS a, x ORDER BY a") should equal(List(
+      Map("a" -> "a1", "x" -> null),
+      Map("a" -> "a2", "x" -> null)
+    ))
+  }
+
+  test("should handle variables that are nodes in one branch of a union only") {
+    createGraph()
+
+    executeInterpreted("MATCH (n:B) RETURN n.name AS x UNION UNWIND [1] AS n RETURN n AS x").toSet should equal(Set(
+      Map("x" -> "b"),
+      Map("x" -> 1)
+    ))
+  }
+
+  test("should handle apply and nested plans") {
+    createGraph()
+
+    executeInterpreted(
+      """MATCH (a:A)
+        |CALL {
+        |  WITH a
+        |  MATCH (a)-[:R]->(c)
+        |  RETURN count(c) AS degree
+        |}
+        |RETURN a.name AS a, degree, size([(a)-->(d) WHERE d.name <> 'x' | d.name]) AS n
+        |ORDER BY a""".stripMargin) should equal(List(
+      Map("a" -> "a1", "degree" -> 2, "n" -> 2),
+      Map("a" -> "a2", "degree" -> 1, "n" -> 1)
+    ))
+  }
+
+  test("should write through slotted rows") {
+    createGraph()
+
+    executeInterpreted("MATCH (a:A) CREATE (a)-[:S]->(c:C {v: 10}) SET a.seen = true RETURN count(c) AS c") should equal(List(Map("c" -> 2)))
+    executeInterpreted("MATCH (a:A {seen: true})-[:S]->(c:C) RETURN sum(c.v) AS s") should equal(List(Map("s" -> 20)))
+  }
+}
@@ -38,6 +38,7 @@ import org.neo4j.cypher.internal.RuntimeContext
 import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
 import org.neo4j.cypher.internal.compiler.phases.Compatibility4_4
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.IDPSolver
 import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.options.CypherPlannerOption
@@ -88,7 +89,8 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
       CypherPlannerOption.default,
       CypherUpdateStrategy.default,
       () => 1,
-      compatibilityMode = Compatibility4_4)
+      compatibilityMode = Compatibility4_4,
+      idpExecutor = IDPSolver.callingThread)
     createCompiler(planner, log)
   }
 
@@ -1218,6 +1218,7 @@ abstract class CompositeIndexAccessorCompatibility extends IndexAccessorCompatib
         PropertyIndexQuery secondPrefix = stringPrefix( 100, someString );
         PropertyIndexQuery secondSuffix = stringSuffix( 100, someString );
         PropertyIndexQuery secondContains = stringContains( 100, someString );
+        boolean skipScan = testSuite.supportsSkipScan();
 
         List<Pair<PropertyIndexQuery[],Boolean>> queries = Arrays.asList(
                 of( new PropertyIndexQuery[]{allEntries, allEntries}, false ),
@@ -1230,9 +1231,9 @@ abstract class CompositeIndexAccessorCompatibility extends IndexAccessorCompatib
 
                 of( new PropertyIndexQuery[]{firstExist, allEntries}, false ),
                 of( new PropertyIndexQuery[]{firstExist, secondExist}, true ),
-                of( new PropertyIndexQuery[]{firstExist, secondExact}, false ),
-                of( new PropertyIndexQuery[]{firstExist, secondRange}, false ),
-                of( new PropertyIndexQuery[]{firstExist, secondPrefix}, false ),
+                of( new PropertyIndexQuery[]{firstExist, secondExact}, skipScan ),
+                of( new PropertyIndexQuery[]{firstExist, secondRange}, skipScan ),
+                of( new PropertyIndexQuery[]{firstExist, secondPrefix}, skipScan ),
                 of( new PropertyIndexQuery[]{firstExist, secondSuffix}, false ),
                 of( new PropertyIndexQuery[]{firstExist, secondContains}, false ),
 
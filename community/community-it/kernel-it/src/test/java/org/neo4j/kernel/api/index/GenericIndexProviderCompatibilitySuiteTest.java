@@ -89,6 +89,12 @@ class GenericIndexProviderCompatibilitySuiteTest extends PropertyIndexProviderCo
         return true;
     }
 
+    @Override
+    boolean supportsSkipScan()
+    {
+        return true;
+    }
+
     @Override
     void consistencyCheck( IndexPopulator populator )
     {
@@ -79,6 +79,14 @@ abstract class PropertyIndexProviderCompatibilityTestSuite extends IndexProvider
         return false;
     }
 
+    /**
+     * @return true if index provider can answer composite queries with leading exists predicates by skip scan.
+     */
+    boolean supportsSkipScan()
+    {
+        return false;
+    }
+
     boolean supportFullValuePrecisionForNumbers()
     {
         return true;
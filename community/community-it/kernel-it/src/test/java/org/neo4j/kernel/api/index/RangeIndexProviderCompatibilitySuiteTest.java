@@ -86,6 +86,12 @@ class RangeIndexProviderCompatibilitySuiteTest extends PropertyIndexProviderComp
         return true;
     }
 
+    @Override
+    boolean supportsSkipScan()
+    {
+        return true;
+    }
+
     @Override
     boolean supportsContainsAndEndsWithQueries()
     {
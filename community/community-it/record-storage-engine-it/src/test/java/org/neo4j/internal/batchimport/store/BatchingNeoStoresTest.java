@@ -87,6 +87,7 @@ import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.scheduler.JobSchedulerAdapter;
 import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.test.utils.TestDirectory;
 import org.neo4j.time.Clocks;
@@ -394,7 +395,7 @@ class BatchingNeoStoresTest
             IndexConfigCompleter indexConfigCompleter = index -> index;
             RecoveryCleanupWorkCollector recoveryCleanupWorkCollector = immediate();
             RecordStorageEngine storageEngine = life.add(
-                    new RecordStorageEngine( databaseLayout, Config.defaults(), pageCache, fileSystem, NullLogProvider.getInstance(),
+                    new RecordStorageEngine( databaseLayout, Config.defaults(), pageCache, new JobSchedulerAdapter(), fileSystem, NullLogProvider.getInstance(),
                             NullLogProvider.getInstance(), tokenHolders, new DatabaseSchemaState( NullLogProvider.getInstance() ),
                             new StandardConstraintSemantics(), indexConfigCompleter, LockService.NO_LOCK_SERVICE,
                             new DatabaseHealth( PanicEventGenerator.NO_OP, nullLog ),
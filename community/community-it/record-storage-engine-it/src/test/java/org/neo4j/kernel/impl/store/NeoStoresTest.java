@@ -101,6 +101,7 @@ import org.neo4j.test.TestDatabaseManagementServiceBuilder;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.scheduler.JobSchedulerAdapter;
 import org.neo4j.test.utils.TestDirectory;
 import org.neo4j.token.DelegatingTokenHolder;
 import org.neo4j.token.TokenHolders;
@@ -745,8 +746,9 @@ public class NeoStoresTest
                 createReadOnlyTokenHolder( TokenHolder.TYPE_LABEL ),
                 createReadOnlyTokenHolder( TokenHolder.TYPE_RELATIONSHIP_TYPE ) );
         storageEngine =
-                new RecordStorageEngine( databaseLayout, config, pageCache, fs, NullLogProvider.getInstance(), NullLogProvider.getInstance(), tokenHolders,
-                        new DatabaseSchemaState( NullLogProvider.getInstance() ), new StandardConstraintRuleAccessor(), i -> i, NO_LOCK_SERVICE,
+                new RecordStorageEngine( databaseLayout, config, pageCache, new JobSchedulerAdapter(), fs, NullLogProvider.getInstance(),
+                        NullLogProvider.getInstance(), tokenHolders, new DatabaseSchemaState( NullLogProvider.getInstance() ),
+                        new StandardConstraintRuleAccessor(), i -> i, NO_LOCK_SERVICE,
                         mock( Health.class ), idGeneratorFactory, new DefaultIdController(), immediate(), PageCacheTracer.NULL, true, INSTANCE, writable(),
                         CommandLockVerification.Factory.IGNORE, LockVerificationMonitor.Factory.IGNORE );
         life = new LifeSupport();
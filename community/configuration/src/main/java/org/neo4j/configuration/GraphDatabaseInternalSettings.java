@@ -168,6 +168,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Long> cypher_idp_solver_duration_threshold =
             newBuilder( "unsupported.cypher.idp_solver_duration_threshold", LONG, 1000L ).addConstraint( min( 10L ) ).build();
 
+    @Internal
+    @Description( "Let the IDP query planner consider multi-way intersection joins, which close cycles in a pattern such as " +
+            "triangles and cliques by intersecting the neighbours of the already bound nodes, rather than by expanding and filtering." )
+    public static final Setting<Boolean> cypher_idp_solver_expand_intersection =
+            newBuilder( "unsupported.cypher.idp_solver_expand_intersection", BOOL, false ).build();
+
+    @Internal
+    @Description( "The number of threads the IDP query planner may use to cost and compare the candidate plans of the " +
+            "sub-problems of the same size. The chosen plan does not depend on this value. " +
+            "With the default of 1, all candidates are evaluated on the planning thread." )
+    public static final Setting<Integer> cypher_idp_solver_parallelism =
+            newBuilder( "unsupported.cypher.idp_solver_parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
     @Internal
     @Description( "Large databases might change slowly, and to prevent queries from never being replanned " +
             "the divergence threshold set by cypher.statistics_divergence_threshold is configured to " +
@@ -194,11 +207,72 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<CypherReplanAlgorithm> cypher_replan_algorithm =
             newBuilder( "unsupported.cypher.replan_algorithm", ofEnum( CypherReplanAlgorithm.class ), CypherReplanAlgorithm.DEFAULT ).build();
 
+    @Internal
+    @Description( "Set this to a value larger than 0 to let the interpreted runtime count the rows of every n:th execution of a cached plan. " +
+            "Predicates whose observed selectivity differs from the estimate by more than " +
+            "unsupported.cypher.cardinality_feedback_misestimation_factor are remembered, used by the planner in place of the estimate " +
+            "and cause the plans that relied on the estimate to be replanned." )
+    public static final Setting<Integer> cypher_cardinality_feedback_sample_interval =
+            newBuilder( "unsupported.cypher.cardinality_feedback_sample_interval", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The factor by which the observed selectivity of a predicate has to differ from the estimate, in either direction, " +
+            "for the observation to be fed back to the planner. See unsupported.cypher.cardinality_feedback_sample_interval." )
+    public static final Setting<Double> cypher_cardinality_feedback_misestimation_factor =
+            newBuilder( "unsupported.cypher.cardinality_feedback_misestimation_factor", DOUBLE, 10.0 ).addConstraint( min( 1.0 ) ).build();
+
+    @Internal
+    @Description( "The maximum number of plans to cache per query. With a value larger than 1, the planner estimates equality and range predicates on " +
+            "parameters from the value histograms of indexes, and a query is replanned when its parameters select a number of rows of a " +
+            "different order of magnitude than the parameters of the cached plans." )
+    public static final Setting<Integer> cypher_plan_variants_per_query =
+            newBuilder( "unsupported.cypher.plan_variants_per_query", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "Set this to persist the query strings, parameter types and query options of the query cache on shutdown and periodically, " +
+            "and to plan them again in the background when the database starts. No plans are persisted, only what is needed to recreate them. " +
+            "The query strings are stored as they were submitted, unobfuscated and including any literal values in them, in a file in the " +
+            "database directory." )
+    public static final Setting<Boolean> cypher_query_cache_warmup =
+            newBuilder( "unsupported.cypher.query_cache_warmup", BOOL, false ).build();
+
+    @Internal
+    @Description( "The interval at which the queries used to warm up the query cache are persisted, in addition to on shutdown." )
+    public static final Setting<Duration> cypher_query_cache_warmup_persist_interval =
+            newBuilder( "unsupported.cypher.query_cache_warmup_persist_interval", DURATION, ofMinutes( 10 ) )
+                    .addConstraint( min( ofSeconds( 1 ) ) ).build();
+
     @Internal
     @Description( "Set this to enable monitors in the Cypher runtime." )
     public static final Setting<Boolean> cypher_enable_runtime_monitors =
             newBuilder( "unsupported.cypher.enable_runtime_monitors", BOOL, false ).build();
 
+    @Internal
+    @Description( "Set this to make the interpreted runtime lay out rows in arrays, with slots allocated when the query is planned, " +
+                  "instead of in maps keyed by variable name. Node and relationship variables are stored as ids." )
+    public static final Setting<Boolean> cypher_interpreted_slotted_rows =
+            newBuilder( "unsupported.cypher.interpreted_slotted_rows", BOOL, false ).build();
+
+    @Internal
+    @Description( "Heap usage at which the sort, eager, aggregation and hash join operators of the interpreted runtime start writing rows " +
+                  "to temporary files instead of keeping them in memory. If set to 0, operators never spill to disk." )
+    public static final Setting<Long> cypher_interpreted_spill_threshold =
+            newBuilder( "unsupported.cypher.interpreted_spill_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Directory that the interpreted runtime writes its temporary files to, when operators spill rows to disk." )
+    public static final Setting<Path> cypher_interpreted_spill_directory =
+            newBuilder( "unsupported.cypher.interpreted_spill_directory", PATH, Path.of( "spill" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory )
+                    .immutable()
+                    .build();
+
+    @Internal
+    @Description( "Maximum size of all temporary files that the interpreted runtime writes for the queries of a database together. " +
+                  "A query that would write more fails. If set to 0, there is no limit." )
+    public static final Setting<Long> cypher_interpreted_spill_max_size =
+            newBuilder( "unsupported.cypher.interpreted_spill_max_size", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
     @Internal
     @Description( "Enable tracing of pipelined runtime scheduler." )
     public static final Setting<Boolean> enable_pipelined_runtime_trace =
@@ -360,6 +434,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> index_sampling_parallelism =
             newBuilder( "unsupported.dbms.index_sampling.parallelism", INT, 4 ).addConstraint( min( 0 ) ).build();
 
+    @Internal
+    @Description( "Factor by which the number of entries in a bucket of the value histogram of an index may grow or shrink through index updates, " +
+                  "before background sampling samples the index again to refresh the bucket bounds. " +
+                  "See unsupported.dbms.index_sampling.histogram_refresh_limit." )
+    public static final Setting<Double> index_sampling_histogram_drift =
+            newBuilder( "unsupported.dbms.index_sampling.histogram_drift", DOUBLE, 2.0 ).addConstraint( min( 1.0 ) ).build();
+
+    @Internal
+    @Description( "Maximum number of indexes that background sampling samples again in each round because their value histograms drifted, " +
+                  "the ones that drifted the most first. Zero disables refreshing histograms." )
+    public static final Setting<Integer> index_sampling_histogram_refresh_limit =
+            newBuilder( "unsupported.dbms.index_sampling.histogram_refresh_limit", INT, 1 ).addConstraint( min( 0 ) ).build();
+
     @Internal
     @Description( "Set the maximum number of concurrent index populations across system. " +
             "This also limit the number of threads used to scan store. " +
@@ -564,6 +651,36 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> consistency_check_on_apply =
             newBuilder( "unsupported.dbms.storage.consistency_check_on_apply", BOOL, Boolean.FALSE ).build();
 
+    @Internal
+    @Description( "Minimum number of node, relationship, property and relationship group commands in a transaction for the store updates " +
+            "of that transaction to be applied in parallel, one thread per store. A value of 0 disables parallel store application." )
+    public static final Setting<Integer> parallel_store_apply_threshold =
+            newBuilder( "unsupported.dbms.storage.parallel_apply_threshold", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Maximum amount of heap memory to use for caching the relationships of nodes, so that traversals of frequently " +
+            "traversed nodes can avoid reading relationship chains from the store. A value of 0 disables the cache." )
+    public static final Setting<Long> relationship_adjacency_cache_size =
+            newBuilder( "unsupported.dbms.storage.relationship_adjacency_cache_size", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Maximum number of dense nodes to keep a directory of relationship groups by type for, so that traversals of specific " +
+            "relationship types can go straight to the groups of those types instead of walking the group chain. A value of 0 disables the directory." )
+    public static final Setting<Integer> relationship_group_directory_size =
+            newBuilder( "unsupported.dbms.storage.relationship_group_directory_size", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Release the disk space of store file pages that hold no records in use, when the database starts. The pages read back " +
+            "as unused records, so their ids can still be reused. Has no effect on platforms or file systems that cannot punch holes in files." )
+    public static final Setting<Boolean> reclaim_unused_store_pages =
+            newBuilder( "unsupported.dbms.storage.reclaim_unused_pages", BOOL, false ).build();
+
+    @Internal
+    @Description( "When reclaiming unused store file pages, truncate store files that end with unused pages, instead of punching holes in them. " +
+            "The high ids of the stores are kept, so the freed ids at the end of a store grow its file again when they are reused." )
+    public static final Setting<Boolean> truncate_unused_trailing_store_pages =
+            newBuilder( "unsupported.dbms.storage.reclaim_unused_pages.truncate_trailing", BOOL, false ).build();
+
     @Internal
     @Description( "Time interval of inactivity after which a driver will be closed." )
     public static final Setting<Duration> routing_driver_idle_timeout =
@@ -812,6 +929,24 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> pagecache_warmup_legacy_profile_loader =
             newBuilder( "unsupported.dbms.memory.pagecache.warmup.legacy_profile_loader", BOOL, false ).build();
 
+    @Internal
+    @Description( "Enables checksums of the pages written by the page cache. A checksum is computed when a page is flushed, and verified when " +
+            "the page is read back into the page cache, such that corruption on disk is detected instead of served. The checksums are kept in " +
+            "memory for as long as a file is mapped, at a cost of 8 bytes of heap per page, and stored next to the file when it is unmapped." )
+    public static final Setting<Boolean> pagecache_checksums = newBuilder( "unsupported.dbms.memory.pagecache.checksums", BOOL, false ).build();
+
+    @Internal
+    @Description( "The maximum amount of heap to keep page checksums in, for all mapped files together. " +
+            "Pages that don't fit are read without verification. Only has an effect when page checksums are enabled." )
+    public static final Setting<Long> pagecache_checksums_max_heap_size =
+            newBuilder( "unsupported.dbms.memory.pagecache.checksums.max_heap_size", BYTES, mebiBytes( 256 ) ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "The number of pages per second that the background scrubber reads from disk and verifies against their checksums. " +
+            "Only has an effect when page checksums are enabled. Zero disables the scrubber." )
+    public static final Setting<Integer> pagecache_scrub_pages_per_second =
+            newBuilder( "unsupported.dbms.memory.pagecache.scrub_pages_per_second", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Internal
     @Description( "Enables sketching of next transaction log file in the background during reverse recovery." )
     public static final Setting<Boolean> pre_sketch_transaction_logs = newBuilder( "unsupported.dbms.tx_log.presketch", BOOL, false ).build();
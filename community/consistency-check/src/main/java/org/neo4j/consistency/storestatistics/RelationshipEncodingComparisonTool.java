@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.storestatistics;
+
+import java.nio.file.Path;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.helpers.Args;
+import org.neo4j.internal.id.ScanOnOpenReadOnlyIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison;
+import org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison.Comparison;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
+import static org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison.DEFAULT_MEASURED_ROUNDS;
+import static org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison.DEFAULT_SAMPLE_PAGES;
+import static org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison.DEFAULT_WARMUP_ROUNDS;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Runs a {@link RelationshipStoreEncodingComparison} on the relationship store of an existing, stopped, database and prints the result.
+ * <pre>
+ * RelationshipEncodingComparisonTool [--sample-pages=1000] [--warmup=10] [--rounds=10] &lt;database directory&gt;
+ * </pre>
+ */
+public final class RelationshipEncodingComparisonTool
+{
+    private static final String ARG_SAMPLE_PAGES = "sample-pages";
+    private static final String ARG_WARMUP = "warmup";
+    private static final String ARG_ROUNDS = "rounds";
+
+    private RelationshipEncodingComparisonTool()
+    {
+    }
+
+    public static void main( String[] args ) throws Exception
+    {
+        Args arguments = Args.parse( args );
+        if ( arguments.orphans().size() == 0 )
+        {
+            System.err.println( "Please supply database directory" );
+            return;
+        }
+
+        DatabaseLayout databaseLayout = DatabaseLayout.ofFlat( Path.of( arguments.orphans().get( 0 ) ) );
+        int samplePages = arguments.getNumber( ARG_SAMPLE_PAGES, DEFAULT_SAMPLE_PAGES ).intValue();
+        int warmupRounds = arguments.getNumber( ARG_WARMUP, DEFAULT_WARMUP_ROUNDS ).intValue();
+        int measuredRounds = arguments.getNumber( ARG_ROUNDS, DEFAULT_MEASURED_ROUNDS ).intValue();
+        try ( FileSystemAbstraction fs = new DefaultFileSystemAbstraction() )
+        {
+            System.out.println( compare( fs, databaseLayout, samplePages, warmupRounds, measuredRounds ) );
+        }
+    }
+
+    public static Comparison compare( FileSystemAbstraction fs, DatabaseLayout databaseLayout, int samplePages, int warmupRounds, int measuredRounds )
+            throws Exception
+    {
+        try ( JobScheduler jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+                PageCache pageCache = StandalonePageCacheFactory.createPageCache( fs, jobScheduler, PageCacheTracer.NULL ) )
+        {
+            StoreFactory factory = new StoreFactory( databaseLayout, Config.defaults(), new ScanOnOpenReadOnlyIdGeneratorFactory(), pageCache, fs,
+                    NullLogProvider.getInstance(), PageCacheTracer.NULL, readOnly() );
+            try ( NeoStores neoStores = factory.openNeoStores( StoreType.RELATIONSHIP ) )
+            {
+                RelationshipStore store = neoStores.getRelationshipStore();
+                return new RelationshipStoreEncodingComparison( store, neoStores.getRecordFormats().relationship(), NULL, samplePages )
+                        .compare( warmupRounds, measuredRounds );
+            }
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherVersion
 
 import java.io.File
+import java.nio.file.Path
 import scala.collection.JavaConverters.asScalaSetConverter
 
 /**
@@ -66,6 +67,8 @@ class CypherConfiguration private (val config: Config) {
   val useErrorsOverWarnings: Boolean = config.get(GraphDatabaseSettings.cypher_hints_error)
   val idpMaxTableSize: Int = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold).toInt
   val idpIterationDuration: Long = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_duration_threshold).toLong
+  val idpExpandIntersection: Boolean = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_expand_intersection)
+  val idpParallelism: Int = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_parallelism).toInt
   val errorIfShortestPathFallbackUsedAtRuntime: Boolean = config.get(GraphDatabaseSettings.forbid_exhaustive_shortestpath)
   val errorIfShortestPathHasCommonNodesAtRuntime: Boolean = config.get(GraphDatabaseSettings.forbid_shortestpath_common_nodes)
   val legacyCsvQuoteEscaping: Boolean = config.get(GraphDatabaseSettings.csv_legacy_quote_escaping)
@@ -82,10 +85,20 @@ class CypherConfiguration private (val config: Config) {
   val operatorFusionOverPipelineLimit: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_operator_fusion_over_pipeline_limit).intValue()
   val memoryTrackingController: MemoryTrackingController = new ConfigMemoryTrackingController(config)
   val enableMonitors: Boolean = config.get(GraphDatabaseInternalSettings.cypher_enable_runtime_monitors)
+  val interpretedSlottedRows: Boolean = config.get(GraphDatabaseInternalSettings.cypher_interpreted_slotted_rows)
+  val workers: Int = config.get(GraphDatabaseInternalSettings.cypher_worker_count)
+  val interpretedSpillThreshold: Long = config.get(GraphDatabaseInternalSettings.cypher_interpreted_spill_threshold)
+  val interpretedSpillDirectory: Path = config.get(GraphDatabaseInternalSettings.cypher_interpreted_spill_directory)
+  val interpretedSpillMaxSize: Long = config.get(GraphDatabaseInternalSettings.cypher_interpreted_spill_max_size)
   val useJavaCCParser: Boolean = config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED
   val disallowSplittingTop: Boolean = config.get(GraphDatabaseInternalSettings.cypher_splitting_top_behavior) == GraphDatabaseInternalSettings.SplittingTopBehavior.DISALLOW
   val enableExtraSemanticFeatures: Set[String] = config.get(GraphDatabaseInternalSettings.cypher_enable_extra_semantic_features).asScala.toSet
   val planningTextIndexesEnabled: Boolean = config.get(GraphDatabaseInternalSettings.planning_text_indexes_enabled)
+  val cardinalityFeedbackSampleInterval: Int = config.get(GraphDatabaseInternalSettings.cypher_cardinality_feedback_sample_interval)
+  val cardinalityFeedbackMisestimationFactor: Double = config.get(GraphDatabaseInternalSettings.cypher_cardinality_feedback_misestimation_factor)
+  val planVariantsPerQuery: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_variants_per_query)
+  val queryCacheWarmup: Boolean = config.get(GraphDatabaseInternalSettings.cypher_query_cache_warmup)
+  val queryCacheWarmupPersistIntervalMillis: Long = config.get(GraphDatabaseInternalSettings.cypher_query_cache_warmup_persist_interval).toMillis
 
   //dynamic configurations
   private var _obfuscateLiterals: Boolean = config.get(GraphDatabaseSettings.log_queries_obfuscate_literals)
@@ -113,6 +113,29 @@ case class PruningVarExpand(override val source: LogicalPlan,
   override val availableSymbols: Set[String] = source.availableSymbols + to
 }
 
+/**
+ * For every source row, find all nodes 'to' that are connected to the nodes of every leg, by intersecting
+ * the neighbour lists of the legs' 'from' nodes. Produce one row per combination of relationships
+ * connecting the found node to the 'from' nodes, and add the node and relationships as values on the
+ * produced rows.
+ *
+ * This is a worst-case optimal join over the star of relationships around 'to': unlike a chain of
+ * Expand(All) and Expand(Into), no intermediate rows are produced for neighbours that are not shared by all legs.
+ */
+case class ExpandIntersection(override val source: LogicalPlan,
+                              to: String,
+                              legs: Seq[IntersectionLeg])
+                             (implicit idGen: IdGen)
+  extends LogicalUnaryPlan(idGen) {
+  override def withLhs(newLHS: LogicalPlan)(idGen: IdGen): LogicalUnaryPlan = copy(source = newLHS)(idGen)
+  override val availableSymbols: Set[String] = source.availableSymbols ++ legs.map(_.relName) + to
+}
+
+/**
+ * One relationship of an [[ExpandIntersection]], from the bound node 'from' to the intersected node.
+ */
+case class IntersectionLeg(from: String, dir: SemanticDirection, types: Seq[RelTypeName], relName: String)
+
 sealed trait ExpansionMode
 
 /**
@@ -213,6 +213,12 @@ object LogicalPlanToPlanBuilderString {
         val (dirStrA, dirStrB) = arrows(dir)
         val typeStr = relTypeStr(types)
         s""" "($from)$dirStrA[$relName$typeStr]$dirStrB($to)" """.trim
+      case ExpandIntersection(_, to, legs) =>
+        val legStrs = legs.map { leg =>
+          val (dirStrA, dirStrB) = arrows(leg.dir)
+          wrapInQuotations(s"(${leg.from})$dirStrA[${leg.relName}${relTypeStr(leg.types)}]$dirStrB($to)")
+        }
+        (wrapInQuotations(to) +: legStrs).mkString(", ")
       case VarExpand(_, from, dir, pDir, types, to, relName, length, mode, nodePredicate, relationshipPredicate) =>
         val (dirStrA, dirStrB) = arrows(dir)
         val typeStr = relTypeStr(types)
@@ -123,6 +123,8 @@ class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val p
   def useErrorsOverWarnings: Boolean = config.useErrorsOverWarnings
   def idpMaxTableSize: Int = config.idpMaxTableSize
   def idpIterationDuration: Long = config.idpIterationDuration
+  def idpExpandIntersection: Boolean = config.idpExpandIntersection
+  def idpParallelism: Int = config.idpParallelism
   def errorIfShortestPathFallbackUsedAtRuntime: Boolean =  config.errorIfShortestPathFallbackUsedAtRuntime
   def errorIfShortestPathHasCommonNodesAtRuntime: Boolean = config.errorIfShortestPathHasCommonNodesAtRuntime
   def legacyCsvQuoteEscaping: Boolean = config.legacyCsvQuoteEscaping
@@ -134,4 +136,7 @@ class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val p
   def pipelinedBatchSizeBig: Int = config.pipelinedBatchSizeBig
   def enabledSemanticFeatures: Seq[SemanticFeature] = CompilationPhases.enabledSemanticFeatures(config.enableExtraSemanticFeatures)
   def planningTextIndexesEnabled: Boolean = config.planningTextIndexesEnabled
+  def cardinalityFeedback: Boolean = config.cardinalityFeedbackSampleInterval > 0
+  def planVariantsPerQuery: Int = config.planVariantsPerQuery
+  def parameterSensitivePlanning: Boolean = config.planVariantsPerQuery > 1
 }
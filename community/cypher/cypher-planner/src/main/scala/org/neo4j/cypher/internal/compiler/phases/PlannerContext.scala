@@ -98,10 +98,11 @@ object PlannerContext {
             logicalPlanIdGen: IdGen,
             evaluator: ExpressionEvaluator,
             params: MapValue,
-            cancellationChecker: CancellationChecker): PlannerContext = {
+            cancellationChecker: CancellationChecker,
+            parameterValues: MapValue = MapValue.EMPTY): PlannerContext = {
     val exceptionFactory = Neo4jCypherExceptionFactory(queryText, offset)
 
-    val metrics = metricsFactory.newMetrics(planContext, evaluator, executionModel, config.planningTextIndexesEnabled)
+    val metrics = metricsFactory.newMetrics(planContext, evaluator, executionModel, config.planningTextIndexesEnabled, config.cardinalityFeedback, parameterValues)
 
     new PlannerContext(exceptionFactory, tracer, notificationLogger, planContext,
       monitors, metrics, config, queryGraphSolver, updateStrategy, debugOptions, clock, logicalPlanIdGen, params, executionModel, cancellationChecker)
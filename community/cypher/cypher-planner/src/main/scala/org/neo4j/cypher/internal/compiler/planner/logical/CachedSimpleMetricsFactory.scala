@@ -30,12 +30,16 @@ import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompa
 import org.neo4j.cypher.internal.ir.QueryGraph
 import org.neo4j.cypher.internal.ir.helpers.CachedFunction
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.PlanContext
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.util.Cardinality
+import org.neo4j.cypher.internal.util.Cost
 import org.neo4j.cypher.internal.util.Ref
 
+import java.util.concurrent.ConcurrentHashMap
+
 object CachedSimpleMetricsFactory extends MetricsFactory {
   override def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel,
                                        selectivityCalculator: SelectivityCalculator,
@@ -45,24 +49,25 @@ object CachedSimpleMetricsFactory extends MetricsFactory {
   }
 
   /*
-   * The arguments to the CachedFunction are the cache-key, e.g plan, input, semanticTable, cardinalities, providedOrders, monitor.
+   * The arguments to the cost model are the cache-key, e.g plan, input, semanticTable, cardinalities, providedOrders, monitor.
    *
    * We wrap the Cardinalities/ProvidedOrders object in the `Ref` class since we don't need to compare the attributes inside
    * the Cardinalities/ProvidedOrders object.
    * The reason for this is that the objects are mutable and during planning we modify them instead of creating new ones.
+   *
+   * Unlike the other caches, this one is concurrent, since the IDP solver can compare candidates on several threads.
    */
-  override def newCostModel(executionModel: ExecutionModel): CostModel = {
-    val cached = CachedFunction((plan: LogicalPlan,
-       input: QueryGraphSolverInput,
-       semanticTable: SemanticTable,
-       cardinalities: Ref[Cardinalities],
-       providedOrders: Ref[ProvidedOrders],
-       monitor: CostModelMonitor) => {
-        SimpleMetricsFactory.newCostModel(executionModel).costFor (plan, input, semanticTable, cardinalities.value,
-          providedOrders.value, monitor)
-      })
+  override def newCostModel(executionModel: ExecutionModel): CostModel =
+    cached(SimpleMetricsFactory.newCostModel(executionModel))
+
+  override def newCostModel(executionModel: ExecutionModel, statistics: GraphStatistics): CostModel =
+    cached(SimpleMetricsFactory.newCostModel(executionModel, statistics))
+
+  private def cached(costModel: CostModel): CostModel = {
+    val cache = new ConcurrentHashMap[(LogicalPlan, QueryGraphSolverInput, SemanticTable, Ref[Cardinalities], Ref[ProvidedOrders], CostModelMonitor), Cost]()
     (plan: LogicalPlan, input: Metrics.QueryGraphSolverInput, semanticTable: SemanticTable, cardinalities: Cardinalities, providedOrders: ProvidedOrders, monitor: CostModelMonitor) => {
-      cached(plan, input, semanticTable, Ref(cardinalities), Ref(providedOrders), monitor)
+      cache.computeIfAbsent((plan, input, semanticTable, Ref(cardinalities), Ref(providedOrders), monitor),
+        _ => costModel.costFor(plan, input, semanticTable, cardinalities, providedOrders, monitor))
     }
   }
 
@@ -30,6 +30,8 @@ import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.P
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.costPerRow
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.effectiveCardinalities
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.getEffectiveBatchSize
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.skipScanIndex
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.skipScanSeeksCost
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CostModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolverInput
 import org.neo4j.cypher.internal.expressions.CachedProperty
@@ -46,6 +48,7 @@ import org.neo4j.cypher.internal.logical.plans.ApplyPlan
 import org.neo4j.cypher.internal.logical.plans.Argument
 import org.neo4j.cypher.internal.logical.plans.AssertSameNode
 import org.neo4j.cypher.internal.logical.plans.CartesianProduct
+import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
 import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipByIdSeek
 import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipIndexEndsWithScan
@@ -54,7 +57,9 @@ import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipIndexSeek
 import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipTypeScan
 import org.neo4j.cypher.internal.logical.plans.ExhaustiveLimit
 import org.neo4j.cypher.internal.logical.plans.ExhaustiveLogicalPlan
+import org.neo4j.cypher.internal.logical.plans.ExistenceQueryExpression
 import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
@@ -72,12 +77,14 @@ import org.neo4j.cypher.internal.logical.plans.NodeIndexContainsScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexEndsWithScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexScan
 import org.neo4j.cypher.internal.logical.plans.NodeIndexSeek
+import org.neo4j.cypher.internal.logical.plans.NodeIndexSeekLeafPlan
 import org.neo4j.cypher.internal.logical.plans.NodeUniqueIndexSeek
 import org.neo4j.cypher.internal.logical.plans.Optional
 import org.neo4j.cypher.internal.logical.plans.OrderedUnion
 import org.neo4j.cypher.internal.logical.plans.PartialSort
 import org.neo4j.cypher.internal.logical.plans.ProcedureCall
 import org.neo4j.cypher.internal.logical.plans.ProjectEndpoints
+import org.neo4j.cypher.internal.logical.plans.QueryExpression
 import org.neo4j.cypher.internal.logical.plans.RightOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.Selection
 import org.neo4j.cypher.internal.logical.plans.SingleFromRightLogicalPlan
@@ -94,6 +101,8 @@ import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.macros.AssertMacros
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.util.Cardinality
@@ -104,7 +113,16 @@ import org.neo4j.cypher.internal.util.Multiplier
 import org.neo4j.cypher.internal.util.Selectivity
 import org.neo4j.cypher.internal.util.WorkReduction
 
-case class CardinalityCostModel(executionModel: ExecutionModel) extends CostModel {
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * @param statistics the statistics to look up the number of seeks of skip scans with. Without them, skip scans are costed like any other index seek.
+ */
+case class CardinalityCostModel(executionModel: ExecutionModel, statistics: Option[GraphStatistics] = None) extends CostModel {
+
+  // The number of seeks of skip scans per index. Plans are costed on several threads by the IDP solver, but every index seek is first costed
+  // on the planning thread by the leaf planners, so the statistics are only read from there.
+  private val skipScanSeeks = new ConcurrentHashMap[IndexDescriptor, Option[Cardinality]]()
 
   override def costFor(plan: LogicalPlan,
                        input: QueryGraphSolverInput,
@@ -184,9 +202,23 @@ case class CardinalityCostModel(executionModel: ExecutionModel) extends CostMode
 
     case _ =>
       val rowCost = costPerRow(plan, effectiveCardinalities.inputCardinality, semanticTable)
-      val costForThisPlan = effectiveCardinalities.inputCardinality * rowCost
+      val costForThisPlan = effectiveCardinalities.inputCardinality * rowCost + seeksCost(plan)
       costForThisPlan + lhsCost + rhsCost
   }
+
+  /**
+   * The cost of the seeks of a skip scan, one for every distinct value of the leading property of its index. Zero for any other plan.
+   */
+  private def seeksCost(plan: LogicalPlan): Cost =
+    skipScanIndex(plan)
+      .flatMap(index => skipScanSeeks.computeIfAbsent(index, _ => leadingPropertyDistinctValues(index)))
+      .fold(Cost.ZERO)(skipScanSeeksCost)
+
+  private def leadingPropertyDistinctValues(index: IndexDescriptor): Option[Cardinality] =
+    statistics
+      .flatMap(_.leadingPropertyUniqueValueSelectivity(index))
+      .filter(_.factor > 0)
+      .map(selectivity => Cardinality(1.0 / selectivity.factor))
 }
 
 object CardinalityCostModel {
@@ -197,6 +229,8 @@ object CardinalityCostModel {
   val PROPERTY_ACCESS_DB_HITS = 2
   val LABEL_CHECK_DB_HITS = 1
   val EXPAND_INTO_COST: CostPerRow = 6.4
+  // Reading and sorting the neighbours of one leg of an ExpandIntersection, per incoming row
+  val EXPAND_INTERSECTION_LEG_COST: CostPerRow = 3.0
 
   val INDEX_SCAN_COST_PER_ROW = 1.0
   val INDEX_SEEK_COST_PER_ROW = 1.9
@@ -213,6 +247,48 @@ object CardinalityCostModel {
    */
   val PARTIAL_SORT_WORK_INCREASE = 0.1
 
+  /**
+   * The cost of reading all entries of an index.
+   */
+  def indexScanCost(entries: Cardinality): Cost = entries * CostPerRow(INDEX_SCAN_COST_PER_ROW)
+
+  /**
+   * The cost of a skip scan, an index seek on a composite index that seeks its predicate once for every distinct value of the leading properties.
+   * Unlike the cost per row of other index seeks, this accounts for the seeks, each of which reads one entry past the rows it finds.
+   */
+  def skipScanCost(seeks: Cardinality, rows: Cardinality): Cost = skipScanSeeksCost(seeks) + rows * CostPerRow(INDEX_SEEK_COST_PER_ROW)
+
+  /**
+   * The cost of the seeks of a skip scan, on top of the cost per row that it has like any other index seek.
+   */
+  def skipScanSeeksCost(seeks: Cardinality): Cost = seeks * CostPerRow(INDEX_SEEK_COST_PER_ROW)
+
+  /**
+   * The index of a skip scan: an index seek with a leading existence predicate followed by a more precise predicate.
+   * Other index seeks never start with an existence predicate, see [[steps.index.EntityIndexSeekPlanProvider.predicatesForSkipScanSeek]].
+   */
+  private[logical] def skipScanIndex(plan: LogicalPlan): Option[IndexDescriptor] = plan match {
+    case seek: NodeIndexSeekLeafPlan if isSkipScan(seek.valueExpr) =>
+      IndexDescriptor.IndexType.fromPublicApi(seek.indexType)
+        .map(IndexDescriptor.forLabel(_, seek.label.nameId, seek.properties.map(_.propertyKeyToken.nameId)))
+    case seek: DirectedRelationshipIndexSeek if isSkipScan(seek.valueExpr) =>
+      IndexDescriptor.IndexType.fromPublicApi(seek.indexType)
+        .map(IndexDescriptor.forRelType(_, seek.typeToken.nameId, seek.properties.map(_.propertyKeyToken.nameId)))
+    case seek: UndirectedRelationshipIndexSeek if isSkipScan(seek.valueExpr) =>
+      IndexDescriptor.IndexType.fromPublicApi(seek.indexType)
+        .map(IndexDescriptor.forRelType(_, seek.typeToken.nameId, seek.properties.map(_.propertyKeyToken.nameId)))
+    case _ =>
+      None
+  }
+
+  private def isSkipScan(valueExpr: QueryExpression[Expression]): Boolean = valueExpr match {
+    case CompositeQueryExpression(ExistenceQueryExpression() +: rest) => rest.exists {
+      case ExistenceQueryExpression() => false
+      case _ => true
+    }
+    case _ => false
+  }
+
   /**
    * The cost of evaluating an expression, per row.
    */
@@ -270,6 +346,9 @@ object CardinalityCostModel {
          _: VarExpand
     => 1.5
 
+    case e: ExpandIntersection
+    => EXPAND_INTERSECTION_LEG_COST * e.legs.size
+
     case _: NodeUniqueIndexSeek |
          _: NodeIndexSeek |
          _: NodeIndexContainsScan |
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CostModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphCardinalityModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.SelectivityCalculator
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.CompositeExpressionSelectivityCalculator
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.ObservedSelectivityCalculator
 import org.neo4j.cypher.internal.compiler.planner.logical.limit.LimitSelectivityConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompatiblePredicatesProviderContext
 import org.neo4j.cypher.internal.evaluator.SimpleInternalExpressionEvaluator
@@ -42,6 +43,7 @@ import org.neo4j.cypher.internal.ir.QueryGraph
 import org.neo4j.cypher.internal.ir.Selections
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.ResolvedFunctionInvocation
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.PlanContext
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
@@ -50,6 +52,7 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.Cost
 import org.neo4j.cypher.internal.util.CypherException
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.virtual.MapValue
 
 object Metrics {
 
@@ -187,15 +190,34 @@ trait MetricsFactory {
                               calculator: SelectivityCalculator,
                               expressionEvaluator: ExpressionEvaluator): CardinalityModel
   def newCostModel(executionModel: ExecutionModel): CostModel
+
+  /**
+   * @param statistics the statistics to cost plans with whose work does not follow from their cardinality alone, like skip scans
+   */
+  def newCostModel(executionModel: ExecutionModel, statistics: GraphStatistics): CostModel = newCostModel(executionModel)
   def newQueryGraphCardinalityModel(planContext: PlanContext, calculator: SelectivityCalculator): QueryGraphCardinalityModel
-  def newSelectivityCalculator(planContext: PlanContext, planningTextIndexesEnabled: Boolean): SelectivityCalculator =
-    CompositeExpressionSelectivityCalculator(planContext, planningTextIndexesEnabled)
+  def newSelectivityCalculator(planContext: PlanContext,
+                               planningTextIndexesEnabled: Boolean,
+                               parameterValues: MapValue = MapValue.EMPTY): SelectivityCalculator =
+    CompositeExpressionSelectivityCalculator(planContext, planningTextIndexesEnabled, parameterValues)
 
-  def newMetrics(planContext: PlanContext, expressionEvaluator: ExpressionEvaluator, executionModel: ExecutionModel, planningTextIndexesEnabled: Boolean): Metrics = {
-    val selectivityCalculator = newSelectivityCalculator(planContext, planningTextIndexesEnabled)
+  /**
+   * @param cardinalityFeedback if `true`, use the selectivities observed at runtime, see [[ObservedSelectivityCalculator]]
+   * @param parameterValues     the parameter values to estimate equality and range predicates on parameters with, see [[ExpressionSelectivityCalculator]]
+   */
+  def newMetrics(planContext: PlanContext,
+                 expressionEvaluator: ExpressionEvaluator,
+                 executionModel: ExecutionModel,
+                 planningTextIndexesEnabled: Boolean,
+                 cardinalityFeedback: Boolean = false,
+                 parameterValues: MapValue = MapValue.EMPTY): Metrics = {
+    val estimatingSelectivityCalculator = newSelectivityCalculator(planContext, planningTextIndexesEnabled, parameterValues)
+    val selectivityCalculator =
+      if (cardinalityFeedback) ObservedSelectivityCalculator(planContext.statistics, estimatingSelectivityCalculator)
+      else estimatingSelectivityCalculator
     val queryGraphCardinalityModel = newQueryGraphCardinalityModel(planContext, selectivityCalculator)
     val cardinality = newCardinalityEstimator(queryGraphCardinalityModel, selectivityCalculator, expressionEvaluator)
-    Metrics(newCostModel(executionModel), cardinality)
+    Metrics(newCostModel(executionModel, planContext.statistics), cardinality)
   }
 }
 
@@ -24,11 +24,14 @@ import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CostModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphCardinalityModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.SelectivityCalculator
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.QueryGraphCardinalityModel
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.PlanContext
 
 object SimpleMetricsFactory extends MetricsFactory {
   override def newCostModel(executionModel: ExecutionModel): CostModel = CardinalityCostModel(executionModel)
 
+  override def newCostModel(executionModel: ExecutionModel, statistics: GraphStatistics): CostModel = CardinalityCostModel(executionModel, Some(statistics))
+
   override def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel,
                                        selectivityCalculator: SelectivityCalculator,
                                        expressionEvaluator: ExpressionEvaluator): StatisticsBackedCardinalityModel =
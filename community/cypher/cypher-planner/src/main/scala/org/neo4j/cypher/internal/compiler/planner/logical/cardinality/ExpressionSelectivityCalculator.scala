@@ -56,31 +56,49 @@ import org.neo4j.cypher.internal.expressions.False
 import org.neo4j.cypher.internal.expressions.GreaterThan
 import org.neo4j.cypher.internal.expressions.GreaterThanOrEqual
 import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.InequalityExpression
 import org.neo4j.cypher.internal.expressions.LabelName
 import org.neo4j.cypher.internal.expressions.LessThan
 import org.neo4j.cypher.internal.expressions.LessThanOrEqual
+import org.neo4j.cypher.internal.expressions.ListLiteral
 import org.neo4j.cypher.internal.expressions.Not
 import org.neo4j.cypher.internal.expressions.Ors
+import org.neo4j.cypher.internal.expressions.Parameter
 import org.neo4j.cypher.internal.expressions.PartialPredicate
 import org.neo4j.cypher.internal.expressions.Property
 import org.neo4j.cypher.internal.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.IndexType
+import org.neo4j.cypher.internal.planner.spi.ParameterBound
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.NameId
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
 
 import scala.language.postfixOps
 
-case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner, planningTextIndexesEnabled: Boolean) {
+/**
+ * @param parameterValues the values of the query parameters, if equality and range predicates on parameters should be estimated from the index sample
+ *                        of the given values rather than from the average selectivity of any value.
+ */
+case class ExpressionSelectivityCalculator(stats: GraphStatistics,
+                                           combiner: SelectivityCombiner,
+                                           planningTextIndexesEnabled: Boolean,
+                                           parameterValues: MapValue = MapValue.EMPTY) {
 
   private val indexTypesPriorityForSubstringSargable: Seq[IndexType] = Seq(
     if (planningTextIndexesEnabled) Some(IndexType.Text) else None,
@@ -107,7 +125,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, labelInfo, relTypeInfo, seekable.propertyKey)
+      calculateSelectivityForPropertyEquality(seekable.name, seekable.args, labelInfo, relTypeInfo, seekable.propertyKey)
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
@@ -272,12 +290,13 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   }
 
   private def calculateSelectivityForPropertyEquality(variable: String,
-                                                      sizeHint: Option[Int],
+                                                      args: SeekableArgs,
                                                       labelInfo: LabelInfo,
                                                       relTypeInfo: RelTypeInfo,
                                                       propertyKey: PropertyKeyName)
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
-    indexSelectivityWithSizeHint(sizeHint, { size =>
+    val maybeParameterValue = singleParameterValue(args)
+    indexSelectivityWithSizeHint(args.sizeHint, { size =>
       val labels = labelInfo.getOrElse(variable, Set.empty)
       val relTypes = relTypeInfo.get(variable)
       val indexSelectivities = (labels ++ relTypes).toIndexedSeq.flatMap { name =>
@@ -288,7 +307,11 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
           case _ => None
         }
 
-        descriptor.flatMap(indexSelectivityForPropertyEquality(_, size))
+        descriptor.flatMap { descriptor =>
+          maybeParameterValue
+            .flatMap { case (parameterName, value) => parameterValueSelectivityForPropertyEquality(descriptor, parameterName, value) }
+            .orElse(indexSelectivityForPropertyEquality(descriptor, size))
+        }
       }
 
       combiner.orTogetherSelectivities(indexSelectivities)
@@ -300,6 +323,20 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   private def indexSelectivityForPropertyEquality(descriptor: IndexDescriptor, size: Int): Option[Selectivity] =
     selectivityForPropertyEquality(stats.indexPropertyIsNotNullSelectivity(descriptor), stats.uniqueValueSelectivity(descriptor), size)
 
+  private def parameterValueSelectivityForPropertyEquality(descriptor: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+    selectivityForPropertyEquality(stats.indexPropertyIsNotNullSelectivity(descriptor), stats.parameterValueSelectivity(descriptor, parameterName, value), 1)
+
+  private def singleParameterValue(args: SeekableArgs): Option[(String, Value)] = args match {
+    case SingleSeekableArg(parameter: Parameter) => parameterValue(parameter)
+    case ManySeekableArgs(ListLiteral(Seq(parameter: Parameter))) => parameterValue(parameter)
+    case _ => None
+  }
+
+  private def parameterValue(parameter: Parameter): Option[(String, Value)] = parameterValues.get(parameter.name) match {
+    case value: Value if value != Values.NO_VALUE => Some(parameter.name -> value)
+    case _ => None
+  }
+
 
   private def defaultSelectivityForPropertyEquality(size: Int): Option[Selectivity] =
     selectivityForPropertyEquality(Some(DEFAULT_PROPERTY_SELECTIVITY), Some(DEFAULT_EQUALITY_SELECTIVITY), size)
@@ -325,6 +362,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
       }
     }
 
+    val maybeParameterRange = parameterRange(seekable)
     val labels = labelInfo.getOrElse(seekable.ident.name, Set.empty)
     val relTypes = relTypeInfo.get(seekable.ident.name)
     val indexRangeSelectivities: Seq[Selectivity] = (labels ++ relTypes).toIndexedSeq.flatMap { name =>
@@ -340,13 +378,15 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
             case relTypeId: RelTypeId => IndexDescriptor.forRelType(IndexType.Btree, relTypeId, Seq(propertyKeyId))
           }
 
-          for {
-            propertyExistsSelectivity <- stats.indexPropertyIsNotNullSelectivity(descriptor)
-            propEqValueSelectivity <- stats.uniqueValueSelectivity(descriptor)
-          } yield {
-            val pRangeBounded: Selectivity = getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity)
-            pRangeBounded * propertyExistsSelectivity
-          }
+          maybeParameterRange
+            .flatMap(range => parameterRangeSelectivity(descriptor, range))
+            .orElse(for {
+              propertyExistsSelectivity <- stats.indexPropertyIsNotNullSelectivity(descriptor)
+              propEqValueSelectivity <- stats.uniqueValueSelectivity(descriptor)
+            } yield {
+              val pRangeBounded: Selectivity = getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity)
+              pRangeBounded * propertyExistsSelectivity
+            })
 
         case _ => Some(Selectivity.ZERO)
       }
@@ -355,6 +395,35 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     combiner.orTogetherSelectivities(indexRangeSelectivities).getOrElse(default)
   }
 
+  private def parameterRangeSelectivity(descriptor: IndexDescriptor, range: ParameterRange): Option[Selectivity] = for {
+    propertyExistsSelectivity <- stats.indexPropertyIsNotNullSelectivity(descriptor)
+    rangeSelectivity <- stats.parameterRangeSelectivity(descriptor, range)
+  } yield rangeSelectivity * propertyExistsSelectivity
+
+  /**
+   * The range of a seekable with at most one lower and one upper bound, where all bounds are parameters with values.
+   */
+  private def parameterRange(seekable: InequalityRangeSeekable): Option[ParameterRange] = {
+    val (lowerBounds, upperBounds) = seekable.expr.inequalities.toIndexedSeq.partition {
+      case _: GreaterThan | _: GreaterThanOrEqual => true
+      case _ => false
+    }
+
+    def bound(inequalities: Seq[InequalityExpression]): Option[Option[ParameterBound]] = inequalities match {
+      case Seq() => Some(None)
+      case Seq(inequality) => inequality.rhs match {
+        case parameter: Parameter => parameterValue(parameter).map { case (name, value) => Some(ParameterBound(name, value, inequality.includeEquality)) }
+        case _ => None
+      }
+      case _ => None
+    }
+
+    for {
+      lower <- bound(lowerBounds)
+      upper <- bound(upperBounds)
+    } yield ParameterRange(lower, upper)
+  }
+
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
                                                            labelInfo: LabelInfo,
                                                            relTypeInfo: RelTypeInfo)
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import org.neo4j.cypher.internal.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.LabelInfo
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.RelTypeInfo
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.SelectivityCalculator
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompatiblePredicatesProviderContext
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.util.Selectivity
+
+import scala.collection.mutable
+
+/**
+ * Uses the selectivities observed at runtime, see [[CardinalityFeedback]], in place of the estimates of the inner calculator.
+ *
+ * The runtime observes the selectivity of the predicates of a selection together, which captures correlations between them.
+ * The predicates are grouped by the variables they depend on, which is how the planner usually places them in selections.
+ * For every group, the observed selectivity of all its predicates is used if there is one, and otherwise the observed selectivity of each
+ * single predicate. The remaining predicates are estimated by the inner calculator.
+ *
+ * Observations are looked up together with the labels and relationship types known for the variables of the predicates,
+ * as the runtime finds them in the executed plan.
+ */
+case class ObservedSelectivityCalculator(statistics: GraphStatistics, inner: SelectivityCalculator) extends SelectivityCalculator {
+
+  private val combiner: SelectivityCombiner = IndependenceCombiner
+
+  private val fingerprints = mutable.Map.empty[(Set[Expression], Map[String, Set[String]]), String]
+
+  private val dependencies = mutable.Map.empty[Expression, Set[String]]
+
+  override def apply(selections: Selections,
+                     labelInfo: LabelInfo,
+                     relTypeInfo: RelTypeInfo,
+                     semanticTable: SemanticTable,
+                     indexPredicateProviderContext: IndexCompatiblePredicatesProviderContext): Selectivity = {
+    val groups = selections.flatPredicatesSet
+      .filter(CardinalityFeedback.canBeObserved)
+      .groupBy(predicate => dependencies.getOrElseUpdate(predicate, CardinalityFeedback.dependencies(predicate)))
+
+    val observed = groups.toSeq.flatMap {
+      case (variables, group) =>
+        val labelsAndTypes = variables.map { variable =>
+          variable -> (labelInfo.getOrElse(variable, Set.empty).map(_.name) ++ relTypeInfo.get(variable).map(_.name))
+        }.toMap
+        observedSelectivity(group, labelsAndTypes) match {
+          case Some(selectivity) => Seq(group -> selectivity)
+          case None if group.size > 1 =>
+            group.toSeq.flatMap(predicate => observedSelectivity(Set(predicate), labelsAndTypes).map(Set(predicate) -> _))
+          case None => Seq.empty
+        }
+    }
+
+    if (observed.isEmpty) {
+      inner(selections, labelInfo, relTypeInfo, semanticTable, indexPredicateProviderContext)
+    } else {
+      val observedPredicates = observed.flatMap(_._1).toSet
+      val remaining = selections.filter(predicate => !observedPredicates.contains(predicate.expr))
+      val estimated = inner(remaining, labelInfo, relTypeInfo, semanticTable, indexPredicateProviderContext)
+      combiner.andTogetherSelectivities(observed.map(_._2) :+ estimated).getOrElse(Selectivity.ONE)
+    }
+  }
+
+  private def observedSelectivity(predicates: Set[Expression], labelsAndTypes: Map[String, Set[String]]): Option[Selectivity] =
+    statistics.observedSelectivity(fingerprints.getOrElseUpdate((predicates, labelsAndTypes), CardinalityFeedback.fingerprint(predicates, labelsAndTypes)))
+}
@@ -27,7 +27,11 @@ import org.neo4j.cypher.internal.compiler.planner.logical.Selector
 import org.neo4j.exceptions.InternalException
 import org.neo4j.time.Stopwatch
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
 import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
 import scala.collection.immutable.BitSet
 
 trait IDPSolverMonitor {
@@ -65,6 +69,13 @@ case class BestResults[+Result](bestResult: Result,
   def result: Result = bestResultFulfillingReq.getOrElse(bestResult)
 }
 
+object IDPSolver {
+  /**
+   * Runs the comparisons on the planning thread, so that a parallelism above 1 only changes how goals are batched.
+   */
+  val callingThread: Executor = (command: Runnable) => command.run()
+}
+
 /**
  * Based on the main loop of the IDP1 algorithm described in the paper
  *
@@ -81,7 +92,42 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
                                            iterationDurationLimit: Long, // limits computation effort, reducing result quality
                                            extraRequirement: ExtraRequirement[Result],
                                            monitor: IDPSolverMonitor,
-                                           stopWatchFactory: () => Stopwatch) {
+                                           stopWatchFactory: () => Stopwatch,
+                                           parallelism: Int = 1, // number of goals of the same size whose candidates are compared at once, on different threads
+                                           executor: Executor = IDPSolver.callingThread) { // runs the comparisons of all but the first goal of a batch
+
+  /*
+   * Candidates are always generated on the planning thread, since generating them changes the state of the planner.
+   * With a parallelism above 1, the goals of the same size are taken in batches, and the candidates of the goals of a batch
+   * are compared on the threads of the given executor. This requires the projectingSelector and the candidateProjector to be safe to use from several threads.
+   * The goals of the same size do not depend on each other, and the results are put into the table in goal order,
+   * so the chosen plans do not depend on the parallelism. Only the table size and time limits are checked once per batch instead of once per goal.
+   */
+
+  /**
+   * Runs the given evaluations, in parallel if there is more than one, and returns their results in the same order.
+   */
+  private def evaluate[T](evaluations: Seq[() => T]): Seq[T] = evaluations match {
+    case Seq() => Seq.empty
+    case Seq(evaluation) => Seq(evaluation())
+    case first +: rest =>
+      val futures = rest.map(evaluation => CompletableFuture.supplyAsync(new Supplier[T] {
+        override def get(): T = evaluation()
+      }, executor))
+      // Wait for all evaluations before rethrowing a failure, so that none of them is still running when planning continues.
+      val firstResult = try {
+        first()
+      } finally {
+        futures.foreach(future => future.handle[Unit]((_, _) => ()).join())
+      }
+      firstResult +: futures.map { future =>
+        try {
+          future.join()
+        } catch {
+          case e: CompletionException => throw e.getCause
+        }
+      }
+  }
 
   /**
    * Run the IDP solver
@@ -110,26 +156,45 @@ class IDPSolver[Solvable, Result, Context](generator: IDPSolverStep[Solvable, Re
         blockSize += 1
         val goals = toDo.subGoals(blockSize)
         while (keepGoing && goals.hasNext) {
-          val goal = goals.next()
-          if (!table.contains(goal, sorted = false)) {
-            val candidates = LazyIterable(generator(registry, goal, table, context))
-            val (extraCandidates, baseCandidates) = candidates.partition(extraRequirement.fulfils)
-            val bestExtraCandidate = candidateSelector(s"best sorted plan for ${goal.bitSet}@${registry.explode(goal.bitSet)}")(extraCandidates)
-
-            // We don't want to compare just the ones that do not fulfil the requirement
-            // in isolation, because it could be that the best overall candidate fulfils the requirement.
-            // bestExtraCandidate has already been determined to be cheaper than any other extraCandidate,
-            // therefore it is enough to cost estimate the bestExtraCandidate against all baseCandidates.
-            candidateSelector(s"best overall plan for ${goal.bitSet}@${registry.explode(goal.bitSet)}")(baseCandidates ++ bestExtraCandidate.toIterable).foreach { candidate =>
-              foundNoCandidate = false
-              table.put(goal, sorted = false, candidate)
+          val batch = Vector.newBuilder[(Goal, Iterable[Result], Iterable[Result])]
+          var batchSize = 0
+          while (batchSize < parallelism && goals.hasNext) {
+            val goal = goals.next()
+            if (!table.contains(goal, sorted = false)) {
+              val candidates = generator(registry, goal, table, context).toVector
+              val (extraCandidates, baseCandidates) = candidates.partition(extraRequirement.fulfils)
+              batch += ((goal, extraCandidates, baseCandidates))
+              batchSize += 1
             }
-            // Also add the best candidate from all candidates that fulfil the requirement into the table
-            // with `true`.
-            bestExtraCandidate.foreach { candidate =>
-              foundNoCandidate = false
-              table.put(goal, sorted = true, candidate)
+          }
+
+          val bestCandidates = evaluate(batch.result().map {
+            case (goal, extraCandidates, baseCandidates) => () => {
+              val bestExtraCandidate = candidateSelector(s"best sorted plan for ${goal.bitSet}@${registry.explode(goal.bitSet)}")(extraCandidates)
+
+              // We don't want to compare just the ones that do not fulfil the requirement
+              // in isolation, because it could be that the best overall candidate fulfils the requirement.
+              // bestExtraCandidate has already been determined to be cheaper than any other extraCandidate,
+              // therefore it is enough to cost estimate the bestExtraCandidate against all baseCandidates.
+              val bestCandidate = candidateSelector(s"best overall plan for ${goal.bitSet}@${registry.explode(goal.bitSet)}")(baseCandidates ++ bestExtraCandidate)
+              (goal, bestCandidate, bestExtraCandidate)
             }
+          })
+
+          bestCandidates.foreach {
+            case (goal, bestCandidate, bestExtraCandidate) =>
+              bestCandidate.foreach { candidate =>
+                foundNoCandidate = false
+                table.put(goal, sorted = false, candidate)
+              }
+              // Also add the best candidate from all candidates that fulfil the requirement into the table
+              // with `true`.
+              bestExtraCandidate.foreach { candidate =>
+                foundNoCandidate = false
+                table.put(goal, sorted = true, candidate)
+              }
+          }
+          if (batchSize > 0) {
             keepGoing = blockSize == 2 ||
               (table.size <= maxTableSize && !start.hasTimedOut(iterationDurationLimit, TimeUnit.MILLISECONDS))
           }
@@ -24,12 +24,16 @@ import org.neo4j.cypher.internal.ir.PatternRelationship
 import org.neo4j.cypher.internal.ir.QueryGraph
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 
+import java.util.concurrent.Executor
+
 /**
  * The IDP inner loop can be optimized and tweaked in several ways, and this trait encapsulates those settings
  */
 trait IDPSolverConfig {
   def maxTableSize: Int = 128
   def iterationDurationLimit: Long = 1000
+  def parallelism: Int = 1
+  def executor: Executor = IDPSolver.callingThread
 }
 
 trait SingleComponentIDPSolverConfig extends IDPSolverConfig {
@@ -51,12 +55,20 @@ case object DPSolverConfig extends SingleComponentIDPSolverConfig {
 
 
 /* The default settings for IDP uses a maxTableSize and a inner loop duration threshold
-   to improve planning performance with minimal impact of plan quality */
+   to improve planning performance with minimal impact of plan quality.
+   Optionally, cycles can also be closed with multi-way intersection joins,
+   and the candidates of each step can be evaluated on several threads. */
 class ConfigurableIDPSolverConfig(override val maxTableSize: Int,
-                                  override val iterationDurationLimit: Long) extends SingleComponentIDPSolverConfig {
-  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_))
+                                  override val iterationDurationLimit: Long,
+                                  val expandIntersection: Boolean = false,
+                                  override val parallelism: Int = 1,
+                                  override val executor: Executor = IDPSolver.callingThread) extends SingleComponentIDPSolverConfig {
+  override def solvers(queryGraph: QueryGraph): Seq[QueryGraph => IDPSolverStep[PatternRelationship, LogicalPlan, LogicalPlanningContext]] =
+    if (expandIntersection) Seq(joinSolverStep(_), expandSolverStep(_), expandIntersectionSolverStep(_))
+    else Seq(joinSolverStep(_), expandSolverStep(_))
 
-  override def toString: String = s"${this.getClass.getSimpleName}(maxTableSize = $maxTableSize, iterationDurationLimit = $iterationDurationLimit})"
+  override def toString: String =
+    s"${this.getClass.getSimpleName}(maxTableSize = $maxTableSize, iterationDurationLimit = $iterationDurationLimit, expandIntersection = $expandIntersection, parallelism = $parallelism)"
 }
 
 /* For testing IDP we sometimes limit the solver to expands only */
@@ -119,6 +119,23 @@ case class Goal(bitSet: BitSet) {
     rightGoal = diff(leftGoal)
   } yield (leftGoal, rightGoal)
 
+  /**
+   * @return all non-empty goals, smaller than this goal, that cover this goal together with the given sub goal.
+   *         These are the goals that contain everything not in the sub goal, and any part of the sub goal except all of it.
+   *         The goals are in the same order as when filtering the [[subGoals]] of all sizes, but are enumerated directly.
+   */
+  def coveringComplements(subGoal: Goal): Iterator[Goal] = {
+    val complement = bitSet &~ subGoal.bitSet
+    if (complement.isEmpty) {
+      Iterator.empty
+    } else {
+      for {
+        overlapSize <- (0 until subGoal.size).iterator // leave out overlapSize == subGoal.size, which would cover this goal on its own
+        overlap <- subGoal.bitSet.subsets(overlapSize)
+      } yield Goal(complement | overlap)
+    }
+  }
+
   override def equals(obj: Any): Boolean = {
     obj match {
       case that: Goal => BitSetEquality.equalBitSets(this.bitSet, that.bitSet)
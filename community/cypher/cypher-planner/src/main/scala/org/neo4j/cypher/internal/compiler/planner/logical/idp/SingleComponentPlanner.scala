@@ -30,6 +30,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.idp.expandSolverStep.p
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.expandSolverStep.planSingleProjectEndpoints
 import org.neo4j.cypher.internal.compiler.planner.logical.ordering.InterestingOrderConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.BestPlans
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.devNullListener
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.leafPlanOptions
 import org.neo4j.cypher.internal.ir.PatternRelationship
 import org.neo4j.cypher.internal.ir.QueryGraph
@@ -67,7 +68,10 @@ case class SingleComponentPlanner(solverConfig: SingleComponentIDPSolverConfig =
           iterationDurationLimit = solverConfig.iterationDurationLimit,
           extraRequirement = orderRequirement,
           monitor = monitor,
-          stopWatchFactory = Stopwatch.start
+          stopWatchFactory = Stopwatch.start,
+          // Reported cost comparisons are printed in comparison order, so they are only made on the planning thread.
+          parallelism = if (context.costComparisonListener == devNullListener) solverConfig.parallelism else 1,
+          executor = solverConfig.executor
         )
 
         monitor.initTableFor(qg)
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.idp
+
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.ir.PatternRelationship
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.SimplePatternLength
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+
+/**
+ * Solves all relationships around a node at once with a multi-way intersection join, if the nodes at
+ * the other ends of these relationships are already bound. This closes cycles like triangles and cliques
+ * without planning the Expand(All) and Expand(Into) chain, whose intermediate result can be a lot larger
+ * than the final one on graphs with skewed degrees.
+ */
+case class expandIntersectionSolverStep(qg: QueryGraph) extends IDPSolverStep[PatternRelationship, LogicalPlan, LogicalPlanningContext] {
+
+  override def apply(registry: IdRegistry[PatternRelationship], goal: Goal, table: IDPCache[LogicalPlan], context: LogicalPlanningContext): Iterator[LogicalPlan] = {
+    val patterns = for {
+      patternId <- goal.bitSet.toSeq
+      pattern <- registry.lookup(patternId)
+      if pattern.length == SimplePatternLength && pattern.left != pattern.right
+    } yield patternId -> pattern
+
+    val patternsPerNode = patterns.flatMap {
+      case entry@(_, pattern) => Seq(pattern.left -> entry, pattern.right -> entry)
+    }.groupBy(_._1)
+
+    for {
+      (to, entries) <- patternsPerNode.iterator
+      if entries.size > 1
+      legs = entries.map(_._2._2)
+      plan <- table(Goal(goal.bitSet -- entries.map(_._2._1))).iterator
+      if canIntersect(plan, to, legs)
+    } yield context.logicalPlanProducer.planExpandIntersection(plan, to, legs, context)
+  }
+
+  private def canIntersect(plan: LogicalPlan, to: String, legs: Seq[PatternRelationship]): Boolean = {
+    val availableSymbols = plan.availableSymbols
+    !availableSymbols(to) && legs.forall(leg => availableSymbols(leg.otherSide(to)) && !availableSymbols(leg.name))
+  }
+}
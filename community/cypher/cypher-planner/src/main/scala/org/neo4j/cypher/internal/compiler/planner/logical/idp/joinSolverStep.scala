@@ -67,12 +67,14 @@ case class joinSolverStep(qg: QueryGraph, IGNORE_EXPAND_SOLUTIONS_FOR_TEST: Bool
     val planProducer = context.logicalPlanProducer
     val builder = Vector.newBuilder[LogicalPlan]
 
+    // The right goals are enumerated directly instead of filtering all pairs of sub goals, since there are
+    // 3^goalSize covering pairs but 4^goalSize pairs in total. The candidates are produced in the same order either way.
     for {
       leftSize <- 1.until(goalSize)
       leftGoal <- goal.subGoals(leftSize)
-      rightSize <- 1.until(goalSize)
-      rightGoal <- goal.subGoals(rightSize) if (leftGoal != rightGoal) && (Goal(leftGoal.bitSet | rightGoal.bitSet) == goal)
-      lhs <- table(leftGoal).iterator
+      lhsCandidates = table(leftGoal).iterator.toVector if lhsCandidates.nonEmpty
+      rightGoal <- goal.coveringComplements(leftGoal)
+      lhs <- lhsCandidates
       rhs <- table(rightGoal).iterator
     } {
         val overlappingNodes = computeOverlappingNodes(lhs, rhs, context.planningAttributes.solveds, argumentsToRemove)
@@ -138,6 +138,7 @@ import org.neo4j.cypher.internal.logical.plans.EmptyResult
 import org.neo4j.cypher.internal.logical.plans.ErrorPlan
 import org.neo4j.cypher.internal.logical.plans.ExhaustiveLimit
 import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.logical.plans.ExpansionMode
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.Foreach
@@ -148,6 +149,7 @@ import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
 import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionLeg
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -624,6 +626,19 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     annotate(Expand(left, from, dir, pattern.types, to, pattern.name, mode), solved, providedOrder, context)
   }
 
+  def planExpandIntersection(left: LogicalPlan,
+                             to: String,
+                             patterns: Seq[PatternRelationship],
+                             context: LogicalPlanningContext): LogicalPlan = {
+    val solved = solveds.get(left.id).asSinglePlannerQuery.amendQueryGraph(_.addPatternRelationships(patterns))
+    val providedOrder = providedOrders.get(left.id).fromLeft
+    val legs = patterns.map { pattern =>
+      val from = pattern.otherSide(to)
+      IntersectionLeg(from, pattern.directionRelativeTo(from), pattern.types, pattern.name)
+    }
+    annotate(ExpandIntersection(left, to, legs), solved, providedOrder, context)
+  }
+
   def planVarExpand(source: LogicalPlan,
                     from: String,
                     dir: SemanticDirection,
@@ -24,6 +24,7 @@ import org.neo4j.cypher.internal.ast.UsingIndexHint
 import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.mergeQueryExpressionsToSingleOne
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.predicatesForIndexSeek
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.predicatesForSkipScanSeek
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.NodeIndexLeafPlanner.NodeIndexMatch
 import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.expressions.LabelToken
@@ -59,28 +60,37 @@ abstract class AbstractNodeIndexSeekPlanProvider extends NodeIndexPlanProvider {
     if (predicateSet.propertyPredicates.forall(_.isExists)) {
       None
     } else {
+      Some(solutionFor(indexMatch, predicateSet, hints, argumentIds, context))
+    }
+  }
+
+  def createSkipScanSolution(indexMatch: NodeIndexMatch, hints: Set[Hint], argumentIds: Set[String], context: LogicalPlanningContext): Option[Solution] =
+    predicatesForSkipScanSeek(indexMatch.indexDescriptor, indexMatch.propertyPredicates).map { predicates =>
+      solutionFor(indexMatch, indexMatch.predicateSet(predicates, exactPredicatesCanGetValue = true), hints, argumentIds, context)
+    }
 
-      val queryExpression: QueryExpression[Expression] = mergeQueryExpressionsToSingleOne(predicateSet.propertyPredicates)
+  private def solutionFor(indexMatch: NodeIndexMatch, predicateSet: PredicateSet, hints: Set[Hint], argumentIds: Set[String], context: LogicalPlanningContext): Solution = {
 
-      val properties = predicateSet.indexedProperties(context)
+    val queryExpression: QueryExpression[Expression] = mergeQueryExpressionsToSingleOne(predicateSet.propertyPredicates)
 
-      val hint = predicateSet
-        .fulfilledHints(hints, indexMatch.indexDescriptor.indexType, planIsScan = false)
-        .headOption
+    val properties = predicateSet.indexedProperties(context)
 
-      Some(Solution(
-        indexMatch.variableName,
-        indexMatch.labelToken,
-        properties,
-        indexMatch.indexDescriptor.isUnique,
-        queryExpression,
-        hint,
-        argumentIds,
-        indexMatch.providedOrder,
-        indexMatch.indexOrder,
-        predicateSet.allSolvedPredicates,
-        indexMatch.indexDescriptor.indexType,
-      ))
-    }
+    val hint = predicateSet
+      .fulfilledHints(hints, indexMatch.indexDescriptor.indexType, planIsScan = false)
+      .headOption
+
+    Solution(
+      indexMatch.variableName,
+      indexMatch.labelToken,
+      properties,
+      indexMatch.indexDescriptor.isUnique,
+      queryExpression,
+      hint,
+      argumentIds,
+      indexMatch.providedOrder,
+      indexMatch.indexOrder,
+      predicateSet.allSolvedPredicates,
+      indexMatch.indexDescriptor.indexType,
+    )
   }
 }
@@ -19,11 +19,21 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical.steps.index
 
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel
 import org.neo4j.cypher.internal.compiler.planner.logical.LeafPlanRestrictions
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexLeafPlanner.IndexCompatiblePredicate
 import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.InequalitySeekRangeWrapper
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.ManyQueryExpression
+import org.neo4j.cypher.internal.logical.plans.PrefixSeekRangeWrapper
 import org.neo4j.cypher.internal.logical.plans.QueryExpression
+import org.neo4j.cypher.internal.logical.plans.RangeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.SingleQueryExpression
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.util.Cardinality
 
 object EntityIndexSeekPlanProvider {
 
@@ -43,6 +53,49 @@ object EntityIndexSeekPlanProvider {
     seekablePrefix ++ nonSeekableSuffix.map(_.convertToScannable)
   }
 
+  // Index seeks on indexes that support skip scans can also solve
+  //   1. existence predicates for a prefix of its properties, followed by
+  //   2. one equality, range or prefix predicate
+  //   3. existence predicates for any other of its properties
+  // by seeking the predicate once for every distinct value of the prefix.
+  // Those are the predicates for which an index seek would otherwise only solve existence predicates.
+  def predicatesForSkipScanSeek(indexDescriptor: IndexDescriptor,
+                                propertyPredicates: Seq[IndexCompatiblePredicate]): Option[Seq[IndexCompatiblePredicate]] = {
+    val (existsPrefix, rest) = propertyPredicates.span(_.isExists)
+
+    rest match {
+      case Seq(next, tail@_*) if indexDescriptor.supportsSkipScan && existsPrefix.nonEmpty && isSkipScannable(next.queryExpression) =>
+        // The prefix may also hold non-seekable predicates, like CONTAINS, which are only partially solved as existence predicates
+        Some(existsPrefix.map(_.convertToScannable) ++ (next +: tail.map(_.convertToScannable)))
+      case _ =>
+        None
+    }
+  }
+
+  // Point distance and bounding box predicates are not sought within each distinct prefix
+  private def isSkipScannable(queryExpression: QueryExpression[Expression]): Boolean = queryExpression match {
+    case _: SingleQueryExpression[Expression] |
+         _: ManyQueryExpression[Expression] |
+         RangeQueryExpression(_: InequalitySeekRangeWrapper | _: PrefixSeekRangeWrapper) => true
+    case _ => false
+  }
+
+  // The cost of an index seek does not include the number of seeks, so a skip scan is only planned if the number of distinct values
+  // of the leading property in the index sample makes it cheaper than reading all entries of the index, which it would otherwise be solved with.
+  def isSkipScanCheaperThanIndexScan(indexDescriptor: IndexDescriptor, plan: LogicalPlan, context: LogicalPlanningContext): Boolean = {
+    val statistics = context.statistics
+    statistics.leadingPropertyUniqueValueSelectivity(indexDescriptor).filter(_.factor > 0).exists { leadingSelectivity =>
+      val entities = indexDescriptor.entityType match {
+        case IndexDescriptor.EntityType.Node(label) => statistics.nodesWithLabelCardinality(Some(label))
+        case IndexDescriptor.EntityType.Relationship(relType) => statistics.patternStepCardinality(None, Some(relType), None)
+      }
+      val indexEntries = statistics.indexPropertyIsNotNullSelectivity(indexDescriptor).fold(entities)(entities * _)
+      val seeks = Cardinality(1.0 / leadingSelectivity.factor)
+      val rows = context.planningAttributes.cardinalities.get(plan.id)
+      CardinalityCostModel.skipScanCost(seeks, rows) < CardinalityCostModel.indexScanCost(indexEntries)
+    }
+  }
+
   // Test if solving using this match is valid given the leaf plan restrictions
   def isAllowedByRestrictions(propertyPredicates: Seq[IndexCompatiblePredicate], restrictions: LeafPlanRestrictions): Boolean = {
     def isAllowed(predicate: IndexCompatiblePredicate) = restrictions match {
@@ -23,8 +23,10 @@ import org.neo4j.cypher.internal.ast.Hint
 import org.neo4j.cypher.internal.compiler.planner.logical.LeafPlanRestrictions
 import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.isAllowedByRestrictions
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.isSkipScanCheaperThanIndexScan
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.mergeQueryExpressionsToSingleOne
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.predicatesForIndexSeek
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.predicatesForSkipScanSeek
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.RelationshipIndexLeafPlanner.RelationshipIndexMatch
 import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
@@ -50,9 +52,16 @@ object RelationshipIndexSeekPlanProvider extends RelationshipIndexPlanProvider {
       Some(predicateSet)
   }
 
+  private def skipScanPredicateSetToSolve(indexMatch: RelationshipIndexMatch): Option[PredicateSet] =
+    predicatesForSkipScanSeek(indexMatch.indexDescriptor, indexMatch.propertyPredicates).map(indexMatch.predicateSet(_, exactPredicatesCanGetValue = true))
+
   private def doCreatePlans(indexMatch: RelationshipIndexMatch, hints: Set[Hint], argumentIds: Set[String], context: LogicalPlanningContext): Set[LogicalPlan] = {
     val predicateSet = predicateSetToSolve(indexMatch)
-    predicateSet.map(constructPlan(_, indexMatch, hints, argumentIds, context)).toSet
+    val seeks = predicateSet.map(constructPlan(_, indexMatch, hints, argumentIds, context))
+    val skipScans = skipScanPredicateSetToSolve(indexMatch)
+      .map(constructPlan(_, indexMatch, hints, argumentIds, context))
+      .filter(isSkipScanCheaperThanIndexScan(indexMatch.indexDescriptor, _, context))
+    (seeks ++ skipScans).toSet
   }
 
   private def constructPlan(predicateSet: PredicateSet,
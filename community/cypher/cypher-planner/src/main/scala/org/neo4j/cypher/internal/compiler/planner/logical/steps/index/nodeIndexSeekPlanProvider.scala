@@ -23,14 +23,27 @@ import org.neo4j.cypher.internal.ast.Hint
 import org.neo4j.cypher.internal.compiler.planner.logical.LeafPlanRestrictions
 import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.isAllowedByRestrictions
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.EntityIndexSeekPlanProvider.isSkipScanCheaperThanIndexScan
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.NodeIndexLeafPlanner.NodeIndexMatch
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 
 object nodeIndexSeekPlanProvider extends AbstractNodeIndexSeekPlanProvider {
 
-  override def createPlans(indexMatches: Set[NodeIndexMatch], hints: Set[Hint], argumentIds: Set[String], restrictions: LeafPlanRestrictions, context: LogicalPlanningContext): Set[LogicalPlan] = for {
-    solution <- createSolutions(indexMatches, hints, argumentIds, restrictions, context)
-  } yield constructPlan(solution, context)
+  override def createPlans(indexMatches: Set[NodeIndexMatch], hints: Set[Hint], argumentIds: Set[String], restrictions: LeafPlanRestrictions, context: LogicalPlanningContext): Set[LogicalPlan] = {
+    val seeks = for {
+      solution <- createSolutions(indexMatches, hints, argumentIds, restrictions, context)
+    } yield constructPlan(solution, context)
+
+    val skipScans = for {
+      indexMatch <- indexMatches
+      if isAllowedByRestrictions(indexMatch.propertyPredicates, restrictions)
+      solution <- createSkipScanSolution(indexMatch, hints, argumentIds, context)
+      plan = constructPlan(solution, context)
+      if isSkipScanCheaperThanIndexScan(indexMatch.indexDescriptor, plan, context)
+    } yield plan
+
+    seeks ++ skipScans
+  }
 
   private def createSolutions(indexMatches: Set[NodeIndexMatch], hints: Set[Hint], argumentIds: Set[String], restrictions: LeafPlanRestrictions, context: LogicalPlanningContext): Set[Solution] = for {
     indexMatch <- indexMatches
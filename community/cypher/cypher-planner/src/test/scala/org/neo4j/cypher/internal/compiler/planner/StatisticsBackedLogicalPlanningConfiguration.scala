@@ -75,8 +75,12 @@ import org.neo4j.graphdb.config.Setting
 import org.neo4j.internal.schema.ConstraintType
 import org.neo4j.internal.schema.IndexType.BTREE
 import org.neo4j.internal.schema.IndexType.FULLTEXT
+import org.neo4j.internal.helpers.NamedThreadFactory
 import org.neo4j.internal.schema.IndexType.LOOKUP
 
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+
 trait StatisticsBackedLogicalPlanningSupport {
 
   /**
@@ -87,6 +91,11 @@ trait StatisticsBackedLogicalPlanningSupport {
 
 object StatisticsBackedLogicalPlanningConfigurationBuilder {
 
+  /**
+   * Compares the candidate plans of the IDP planner, when planning with a parallelism above 1.
+   */
+  private[planner] lazy val idpExecutor: Executor = Executors.newCachedThreadPool(NamedThreadFactory.daemon("IDPSolver"))
+
   def newBuilder(): StatisticsBackedLogicalPlanningConfigurationBuilder = StatisticsBackedLogicalPlanningConfigurationBuilder()
 
   case class Options(
@@ -154,7 +163,9 @@ object StatisticsBackedLogicalPlanningConfigurationBuilder {
                              propExistsSelectivity: Double,
                              isUnique: Boolean = false,
                              withValues: Boolean = false,
-                             withOrdering: IndexOrderCapability = IndexOrderCapability.NONE)
+                             withOrdering: IndexOrderCapability = IndexOrderCapability.NONE,
+                             // Indexes with a selectivity of their leading property support skip scans
+                             leadingPropertyUniqueValueSelectivity: Option[Double] = None)
 
   object IndexDefinition {
     sealed trait EntityType
@@ -256,7 +267,8 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
                    isUnique: Boolean = false,
                    withValues: Boolean = false,
                    providesOrder: IndexOrderCapability = IndexOrderCapability.NONE,
-                   indexType: graphdb.schema.IndexType = graphdb.schema.IndexType.BTREE): StatisticsBackedLogicalPlanningConfigurationBuilder = {
+                   indexType: graphdb.schema.IndexType = graphdb.schema.IndexType.BTREE,
+                   leadingPropertyUniqueSelectivity: Option[Double] = None): StatisticsBackedLogicalPlanningConfigurationBuilder = {
 
     val indexDef = IndexDefinition(IndexDefinition.EntityType.Node(label),
       indexType = indexType,
@@ -265,7 +277,8 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
       uniqueValueSelectivity = uniqueSelectivity,
       isUnique = isUnique,
       withValues = withValues,
-      withOrdering = providesOrder)
+      withOrdering = providesOrder,
+      leadingPropertyUniqueValueSelectivity = leadingPropertyUniqueSelectivity)
 
     addLabel(label).addIndexDefAndProperties(indexDef, properties)
   }
@@ -277,7 +290,8 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
                            isUnique: Boolean = false,
                            withValues: Boolean = false,
                            providesOrder: IndexOrderCapability = IndexOrderCapability.NONE,
-                           indexType: graphdb.schema.IndexType = graphdb.schema.IndexType.BTREE): StatisticsBackedLogicalPlanningConfigurationBuilder = {
+                           indexType: graphdb.schema.IndexType = graphdb.schema.IndexType.BTREE,
+                           leadingPropertyUniqueSelectivity: Option[Double] = None): StatisticsBackedLogicalPlanningConfigurationBuilder = {
 
     val indexDef = IndexDefinition(IndexDefinition.EntityType.Relationship(relType),
       indexType = indexType,
@@ -286,7 +300,8 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
       uniqueValueSelectivity = uniqueSelectivity,
       isUnique = isUnique,
       withValues = withValues,
-      withOrdering = providesOrder)
+      withOrdering = providesOrder,
+      leadingPropertyUniqueValueSelectivity = leadingPropertyUniqueSelectivity)
 
     addRelType(relType).addIndexDefAndProperties(indexDef, properties)
   }
@@ -505,6 +520,13 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
         }.flatMap(indexDef => Selectivity.of(indexDef.propExistsSelectivity))
       }
 
+      override def leadingPropertyUniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] = {
+        indexes.propertyIndexes.find { indexDef =>
+          indexDef.entityType == resolveEntityType(index) &&
+            indexDef.propertyKeys == index.properties.map(_.id).map(resolver.getPropertyKeyName)
+        }.flatMap(_.leadingPropertyUniqueValueSelectivity).flatMap(Selectivity.of)
+      }
+
       private def resolveEntityType(index: IndexDescriptor): IndexDefinition.EntityType = index.entityType match {
         case IndexDescriptor.EntityType.Node(label) =>
           IndexDefinition.EntityType.Node(resolver.getLabelName(label.id))
@@ -543,7 +565,7 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
 
       private def indexesGetForEntityAndIndexType(entityType: IndexDefinition.EntityType, indexType: graphdb.schema.IndexType): Iterator[IndexDescriptor] = {
         indexes.propertyIndexes.collect {
-          case indexDef@IndexDefinition(`entityType`, `indexType`, _, _, _, _, _, _) =>
+          case indexDef@IndexDefinition(`entityType`, `indexType`, _, _, _, _, _, _, _) =>
             newIndexDescriptor(indexDef)
         }.flatten
       }.iterator
@@ -636,7 +658,7 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
                                                               propertyKeys: Seq[String],
                                                               indexType: graphdb.schema.IndexType): Option[IndexDescriptor] = {
         indexes.propertyIndexes.collect {
-          case indexDef@IndexDefinition(`entityType`, `indexType`, `propertyKeys`, _, _, _, _, _) => newIndexDescriptor(indexDef)
+          case indexDef@IndexDefinition(`entityType`, `indexType`, `propertyKeys`, _, _, _, _, _, _) => newIndexDescriptor(indexDef)
         }.flatten.headOption
       }
 
@@ -674,7 +696,8 @@ case class StatisticsBackedLogicalPlanningConfigurationBuilder private(
             props,
             valueCapability = valueCapability,
             orderCapability = orderCapability,
-            isUnique = indexDef.isUnique
+            isUnique = indexDef.isUnique,
+            supportsSkipScan = indexDef.leadingPropertyUniqueValueSelectivity.isDefined
           )
         }
       }
@@ -706,7 +729,8 @@ class StatisticsBackedLogicalPlanningConfiguration(
     val exceptionFactory = Neo4jCypherExceptionFactory(queryString, Some(pos))
     val metrics = SimpleMetricsFactory.newMetrics(planContext, simpleExpressionEvaluator, options.executionModel, plannerConfiguration.planningTextIndexesEnabled)
 
-    val iDPSolverConfig = new ConfigurableIDPSolverConfig(plannerConfiguration.idpMaxTableSize, plannerConfiguration.idpIterationDuration)
+    val iDPSolverConfig = new ConfigurableIDPSolverConfig(plannerConfiguration.idpMaxTableSize, plannerConfiguration.idpIterationDuration,
+      plannerConfiguration.idpExpandIntersection, plannerConfiguration.idpParallelism, StatisticsBackedLogicalPlanningConfigurationBuilder.idpExecutor)
 
     val context = ContextHelper.create(
       planContext = planContext,
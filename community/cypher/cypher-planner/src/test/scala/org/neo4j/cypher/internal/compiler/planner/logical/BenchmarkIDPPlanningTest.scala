@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.compiler.ExecutionModel
+import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningIntegrationTestSupport
+import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfiguration
+import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfigurationBuilder
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolverInput
+import org.neo4j.cypher.internal.util.Cost
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Plans large synthetic query graphs of different shapes with IDP and reports planning time and plan cost.
+ * The IDP iteration duration limit is lifted, so that the planner explores the same search space on every run.
+ * Planning with parallel candidate evaluation must find the same plan as planning on a single thread,
+ * and planning with a larger plan table must not find a more expensive plan than planning with a small one.
+ */
+class BenchmarkIDPPlanningTest extends CypherFunSuite with LogicalPlanningIntegrationTestSupport {
+
+  private val labels = 3
+  private val types = 4
+
+  private lazy val statistics: StatisticsBackedLogicalPlanningConfigurationBuilder = {
+    val withLabels = (0 until labels).foldLeft(plannerBuilder().setAllNodesCardinality(100000)) {
+      (builder, label) => builder.setLabelCardinality(s"L$label", 7000 * (label + 1))
+    }
+    // Every combination of optional start label, optional type and optional end label needs a consistent count.
+    def factor(index: Int): Double = if (index < 0) 1.0 else 0.1 * (index + 1)
+    def label(index: Int): String = if (index < 0) "" else s":L$index"
+    val combinations = for {
+      from <- -1 until labels
+      relType <- -1 until types
+      to <- -1 until labels
+      if from >= 0 || relType >= 0 || to >= 0
+    } yield (from, relType, to)
+    combinations.foldLeft(withLabels.setAllRelationshipsCardinality(1000000)) {
+      case (builder, (from, relType, to)) =>
+        val typ = if (relType < 0) "" else s":R$relType"
+        builder.setRelationshipCardinality(s"(${label(from)})-[$typ]->(${label(to)})", 1000000 * factor(from) * factor(relType) * factor(to))
+    }.withSetting(GraphDatabaseInternalSettings.cypher_idp_solver_duration_threshold, Long.box(TimeUnit.HOURS.toMillis(1)))
+  }
+
+  private lazy val planner: StatisticsBackedLogicalPlanningConfiguration =
+    statistics.build()
+
+  private lazy val parallelPlanner: StatisticsBackedLogicalPlanningConfiguration =
+    statistics
+      .withSetting(GraphDatabaseInternalSettings.cypher_idp_solver_parallelism, Int.box(4))
+      .build()
+
+  private lazy val limitedPlanner: StatisticsBackedLogicalPlanningConfiguration =
+    statistics
+      .withSetting(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold, Int.box(16))
+      .build()
+
+  private def chain(length: Int): String =
+    (0 until length).map(i => s"(n$i:L${i % labels})-[:R${i % types}]->").mkString + s"(n$length:L${length % labels})"
+
+  private def cycle(length: Int): String =
+    s"${chain(length - 1)}, (n${length - 1})-[:R0]->(n0)"
+
+  private def star(arms: Int): String =
+    (1 to arms).map(i => s"(c:L0)-[:R${i % types}]->(n$i:L${i % labels})").mkString(", ")
+
+  private def grid(width: Int, height: Int): String = {
+    def node(x: Int, y: Int) = s"(g${x}_$y:L${(x + y) % labels})"
+    val edges = for {
+      x <- 0 until width
+      y <- 0 until height
+      (dx, dy) <- Seq((1, 0), (0, 1))
+      if x + dx < width && y + dy < height
+    } yield s"${node(x, y)}-[:R${(x * 7 + y) % types}]->${node(x + dx, y + dy)}"
+    edges.mkString(", ")
+  }
+
+  private def cost(planState: LogicalPlanState): Cost =
+    CardinalityCostModel(ExecutionModel.default).costFor(
+      planState.logicalPlan,
+      QueryGraphSolverInput.empty,
+      planState.semanticTable(),
+      planState.planningAttributes.cardinalities,
+      planState.planningAttributes.providedOrders,
+      CostModelMonitor.DEFAULT
+    )
+
+  private def timed[T](f: => T): (T, Long) = {
+    val start = System.nanoTime()
+    val result = f
+    (result, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+  }
+
+  Seq(
+    "chain of 10 relationships" -> chain(10),
+    "cycle of 8 relationships" -> cycle(8),
+    "star of 8 relationships" -> star(8),
+    "3x3 grid" -> grid(3, 3),
+  ).foreach {
+    case (name, pattern) =>
+      val query = s"MATCH $pattern RETURN *"
+
+      test(s"should plan $name the same with parallel candidate evaluation") {
+        val (sequential, sequentialTime) = timed(planner.planState(query))
+        val (parallel, parallelTime) = timed(parallelPlanner.planState(query))
+
+        info(s"planning time: $sequentialTime ms, with parallel candidate evaluation: $parallelTime ms, plan cost: ${cost(sequential).gummyBears}")
+        parallel.logicalPlan should equal(sequential.logicalPlan)
+        cost(parallel) should equal(cost(sequential))
+      }
+
+      test(s"should not plan $name worse with a larger plan table") {
+        val (large, largeTime) = timed(planner.planState(query))
+        val (limited, limitedTime) = timed(limitedPlanner.planState(query))
+
+        info(s"planning time: $largeTime ms, with a small plan table: $limitedTime ms")
+        info(s"plan cost: ${cost(large).gummyBears}, with a small plan table: ${cost(limited).gummyBears}")
+        cost(large) should be <= cost(limited)
+      }
+  }
+}
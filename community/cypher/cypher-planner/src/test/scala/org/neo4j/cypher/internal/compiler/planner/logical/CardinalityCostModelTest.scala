@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical
 
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.when
 import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
 import org.neo4j.cypher.internal.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.compiler.ExecutionModel
@@ -33,8 +35,13 @@ import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolv
 import org.neo4j.cypher.internal.compiler.planner.logical.limit.LimitSelectivityConfig
 import org.neo4j.cypher.internal.ir.ordering.ProvidedOrder
 import org.neo4j.cypher.internal.logical.plans.Ascending
+import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.ExistenceQueryExpression
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.LogicalPlanToPlanBuilderString
+import org.neo4j.cypher.internal.logical.plans.SingleQueryExpression
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.util.Cardinality
@@ -105,6 +112,23 @@ class CardinalityCostModelTest extends CypherFunSuite with AstConstructionTestSu
       equal(costFor(deepPlan, QueryGraphSolverInput.empty, deepPlanBuilder.getSemanticTable, deepPlanBuilder.cardinalities, deepPlanBuilder.providedOrders))
   }
 
+  test("skip scan should cost a seek for every distinct value of the leading property") {
+    val builder = new LogicalPlanBuilder(wholePlan = false)
+    val plan = builder
+      .nodeIndexOperator("a:A(prop1, prop2)",
+        customQueryExpression = Some(CompositeQueryExpression(Seq(ExistenceQueryExpression(), SingleQueryExpression(literalInt(42))))))
+      .withCardinality(100)
+      .build()
+    val statistics = mock[GraphStatistics]
+    when(statistics.leadingPropertyUniqueValueSelectivity(any[IndexDescriptor])).thenReturn(Some(Selectivity(0.001)))
+
+    val seekCost = Cost(100 * CardinalityCostModel.INDEX_SEEK_COST_PER_ROW)
+    CardinalityCostModel(ExecutionModel.default, Some(statistics))
+      .costFor(plan, QueryGraphSolverInput.empty, builder.getSemanticTable, builder.cardinalities, builder.providedOrders, CostModelMonitor.DEFAULT) should
+      equal(seekCost + CardinalityCostModel.skipScanSeeksCost(Cardinality(1000)))
+    costFor(plan, QueryGraphSolverInput.empty, builder.getSemanticTable, builder.cardinalities, builder.providedOrders) should equal(seekCost)
+  }
+
   test("limit should retain its cardinality") {
     val builder = new LogicalPlanBuilder(wholePlan = false)
     val plan = builder
@@ -19,9 +19,11 @@
  */
 package org.neo4j.cypher.internal.compiler.planner.logical
 
+import org.neo4j.configuration.GraphDatabaseInternalSettings
 import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningIntegrationTestSupport
 import org.neo4j.cypher.internal.logical.builder.AbstractLogicalPlanBuilder.Predicate
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 
 class ExpandPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningIntegrationTestSupport with AstConstructionTestSupport {
@@ -95,6 +97,35 @@ class ExpandPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningI
       .build()
   }
 
+  test("should close triangles with expand intersection if enabled") {
+    val cfg = plannerBuilder()
+      .setAllNodesCardinality(1000)
+      .setAllRelationshipsCardinality(50000)
+      .setRelationshipCardinality("()-[]->()", 50000)
+      .withSetting(GraphDatabaseInternalSettings.cypher_idp_solver_expand_intersection, java.lang.Boolean.TRUE)
+      .build()
+
+    val plan = cfg.plan("MATCH (a)-[r1]->(b)-[r2]->(c)-[r3]->(a) RETURN count(*)").stripProduceResults
+    plan shouldEqual cfg.subPlanBuilder()
+      .aggregation(Seq.empty, Seq("count(*) AS `count(*)`"))
+      .filter("not r2 = r3", "not r1 = r3", "not r1 = r2")
+      .expandIntersection("a", "(b)<-[r1]-(a)", "(c)-[r3]->(a)")
+      .expandAll("(b)-[r2]->(c)")
+      .allNodeScan("b")
+      .build()
+  }
+
+  test("should not plan expand intersection by default") {
+    val cfg = plannerBuilder()
+      .setAllNodesCardinality(1000)
+      .setAllRelationshipsCardinality(50000)
+      .setRelationshipCardinality("()-[]->()", 50000)
+      .build()
+
+    val plan = cfg.plan("MATCH (a)-[r1]->(b)-[r2]->(c)-[r3]->(a) RETURN count(*)").stripProduceResults
+    plan.folder.treeExists { case _: ExpandIntersection => true } shouldBe false
+  }
+
   test("Should build plans expanding from the cheaper side for single relationship pattern") {
     val cfg = plannerBuilder()
       .setAllNodesCardinality(100)
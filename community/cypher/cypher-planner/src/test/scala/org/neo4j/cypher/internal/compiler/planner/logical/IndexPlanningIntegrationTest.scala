@@ -26,8 +26,16 @@ import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.logical.builder.AbstractLogicalPlanBuilder.createNode
 import org.neo4j.cypher.internal.logical.builder.AbstractLogicalPlanBuilder.createNodeWithProperties
 import org.neo4j.cypher.internal.logical.builder.AbstractLogicalPlanBuilder.createRelationship
+import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.ExistenceQueryExpression
 import org.neo4j.cypher.internal.logical.plans.GetValue
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.InequalitySeekRangeWrapper
+import org.neo4j.cypher.internal.logical.plans.RangeGreaterThan
+import org.neo4j.cypher.internal.logical.plans.RangeQueryExpression
+import org.neo4j.cypher.internal.logical.plans.SingleQueryExpression
+import org.neo4j.cypher.internal.util.NonEmptyList
 import org.neo4j.cypher.internal.util.symbols.CTAny
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.schema.IndexType
@@ -1173,4 +1181,73 @@ class IndexPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningIn
         .build()
     }
   }
+
+  private def plannerConfigForSkipScanTests(leadingPropertyUniqueSelectivity: Option[Double]): StatisticsBackedLogicalPlanningConfiguration =
+    plannerBuilder()
+      .setAllNodesCardinality(10000)
+      .setLabelCardinality("Person", 10000)
+      .addNodeIndex("Person", Seq("country", "age"), existsSelectivity = 1.0, uniqueSelectivity = 0.001,
+        leadingPropertyUniqueSelectivity = leadingPropertyUniqueSelectivity)
+      .build()
+
+  test("should plan skip scan on composite index when the leading property has few distinct values") {
+    val cfg = plannerConfigForSkipScanTests(leadingPropertyUniqueSelectivity = Some(0.01))
+
+    for ((predicate, queryExpression) <- Seq(
+      "p.age = 42" -> SingleQueryExpression(literalInt(42)),
+      "p.age > 42" -> RangeQueryExpression(InequalitySeekRangeWrapper(RangeGreaterThan(NonEmptyList(ExclusiveBound(literalInt(42)))))(pos)),
+    )) withClue(predicate) {
+      val plan = cfg.plan(s"MATCH (p:Person) WHERE p.country IS NOT NULL AND $predicate RETURN p").stripProduceResults
+      plan shouldEqual cfg.subPlanBuilder()
+        .nodeIndexOperator("p:Person(country, age)",
+          customQueryExpression = Some(CompositeQueryExpression(Seq(ExistenceQueryExpression(), queryExpression))))
+        .build()
+    }
+  }
+
+  test("should not plan skip scan on composite index when the leading property has many distinct values") {
+    val cfg = plannerConfigForSkipScanTests(leadingPropertyUniqueSelectivity = Some(0.0001))
+
+    val plan = cfg.plan("MATCH (p:Person) WHERE p.country IS NOT NULL AND p.age = 42 RETURN p").stripProduceResults
+    plan shouldEqual cfg.subPlanBuilder()
+      .filter("p.age = 42")
+      .nodeIndexOperator("p:Person(country, age)")
+      .build()
+  }
+
+  test("should prefer a seek on another index over a skip scan that needs many seeks") {
+    val cfg = plannerBuilder()
+      .setAllNodesCardinality(10000)
+      .setLabelCardinality("Person", 10000)
+      .addNodeIndex("Person", Seq("country", "age"), existsSelectivity = 1.0, uniqueSelectivity = 0.001,
+        leadingPropertyUniqueSelectivity = Some(0.00025))
+      .addNodeIndex("Person", Seq("name"), existsSelectivity = 1.0, uniqueSelectivity = 0.1)
+      .build()
+
+    val plan = cfg.plan("MATCH (p:Person) WHERE p.country IS NOT NULL AND p.age = 42 AND p.name = 'Ada' RETURN p").stripProduceResults
+    plan shouldEqual cfg.subPlanBuilder()
+      .filter("p.age = 42", "p.country IS NOT NULL")
+      .nodeIndexOperator("p:Person(name = 'Ada')")
+      .build()
+  }
+
+  test("should not plan skip scan on composite index that does not support it") {
+    val cfg = plannerConfigForSkipScanTests(leadingPropertyUniqueSelectivity = None)
+
+    val plan = cfg.plan("MATCH (p:Person) WHERE p.country IS NOT NULL AND p.age = 42 RETURN p").stripProduceResults
+    plan shouldEqual cfg.subPlanBuilder()
+      .filter("p.age = 42")
+      .nodeIndexOperator("p:Person(country, age)")
+      .build()
+  }
+
+  test("should not plan skip scan on composite index without a predicate on the leading property") {
+    val cfg = plannerConfigForSkipScanTests(leadingPropertyUniqueSelectivity = Some(0.01))
+
+    val plan = cfg.plan("MATCH (p:Person) WHERE p.age = 42 RETURN p").stripProduceResults
+    plan shouldEqual cfg.subPlanBuilder()
+      .filter("p.age = 42")
+      .nodeByLabelScan("p", "Person")
+      .build()
+  }
 }
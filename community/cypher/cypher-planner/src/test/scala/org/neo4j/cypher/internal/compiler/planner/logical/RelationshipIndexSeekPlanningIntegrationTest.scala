@@ -23,7 +23,10 @@ import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningIntegrationTestSupport
 import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfiguration
 import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfigurationBuilder
+import org.neo4j.cypher.internal.logical.plans.CompositeQueryExpression
 import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipIndexSeek
+import org.neo4j.cypher.internal.logical.plans.ExistenceQueryExpression
+import org.neo4j.cypher.internal.logical.plans.SingleQueryExpression
 import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipIndexSeek
 import org.neo4j.cypher.internal.util.Foldable.FoldableAny
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
@@ -261,6 +264,23 @@ class RelationshipIndexSeekPlanningIntegrationTest extends CypherFunSuite
       .build()
   }
 
+  test("should plan relationship skip scan on composite index when the leading property has few distinct values") {
+    val planner = super.plannerBuilder()
+      .setAllNodesCardinality(10000)
+      .setAllRelationshipsCardinality(10000)
+      .setRelationshipCardinality("()-[:REL]-()", 10000)
+      .addRelationshipIndex("REL", Seq("prop1", "prop2"), existsSelectivity = 1.0, uniqueSelectivity = 0.001,
+        leadingPropertyUniqueSelectivity = Some(0.01))
+      .build()
+    val query = "MATCH (a)-[r:REL]->(b) WHERE r.prop1 IS NOT NULL AND r.prop2 = 42 RETURN r"
+    val plan = planner.plan(query).stripProduceResults
+
+    plan shouldBe planner.subPlanBuilder()
+      .relationshipIndexOperator("(a)-[r:REL(prop1, prop2)]->(b)",
+        customQueryExpression = Some(CompositeQueryExpression(Seq(ExistenceQueryExpression(), SingleQueryExpression(literalInt(42))))))
+      .build()
+  }
+
   test("should not plan relationship index seek for self-loops") {
     val planner = plannerBuilder().build()
 
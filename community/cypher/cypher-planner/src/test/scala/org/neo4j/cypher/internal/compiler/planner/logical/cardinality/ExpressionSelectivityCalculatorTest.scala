@@ -46,10 +46,13 @@ import org.neo4j.cypher.internal.expressions.Property
 import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.ir.Predicate
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.planner.spi.DelegatingGraphStatistics
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_ALL_CARDINALITY
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL_CARDINALITY
+import org.neo4j.cypher.internal.planner.spi.ParameterBound
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.ListSizeBucket
@@ -62,6 +65,10 @@ import org.neo4j.cypher.internal.util.symbols.CTAny
 import org.neo4j.cypher.internal.util.symbols.CTInteger
 import org.neo4j.cypher.internal.util.symbols.CTList
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualValues
 
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
@@ -272,6 +279,60 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     )
   }
 
+  test("closed (>= && <) range with one label, parameters with sampled values") {
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThanOrEqual(nProp, parameter("from", CTAny)),
+      lessThan(nProp, parameter("to", CTAny))
+    )))
+    val expectedRange = ParameterRange(Some(ParameterBound("from", Values.intValue(3), inclusive = true)),
+      Some(ParameterBound("to", Values.intValue(4), inclusive = false)))
+    val stats = new DelegatingGraphStatistics(mockStats()) {
+      override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] =
+        if (index == indexPersonBtree && range == expectedRange) Some(Selectivity(0.25)) else None
+    }
+    val parameterValues = VirtualValues.map(Array("from", "to"), Array(Values.intValue(3), Values.intValue(4)))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameterValues = parameterValues)
+
+    calculator(inequality.expr).factor should equal(personPropIsNotNullSel * 0.25 +- 0.00000001)
+  }
+
+  test("half-open (>) range with one label, parameter without sampled value") {
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, parameter("from", CTAny))
+    )))
+    val parameterValues = VirtualValues.map(Array("from"), Array(Values.intValue(3)))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, parameterValues = parameterValues)
+
+    calculator(inequality.expr).factor should equal(
+      personPropIsNotNullSel
+        * (1-indexPersonUniqueSel) // Selectivity for != x
+        * DEFAULT_RANGE_SEEK_FACTOR // Selectivity for range
+        +- 0.00000001
+    )
+  }
+
+  test("range with one label, two lower bounds on parameters") {
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, parameter("a", CTAny)),
+      greaterThan(nProp, parameter("b", CTAny))
+    )))
+    val stats = new DelegatingGraphStatistics(mockStats()) {
+      override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] = fail("Ranges with more than one lower bound are not estimated from values")
+    }
+    val parameterValues = VirtualValues.map(Array("a", "b"), Array(Values.intValue(3), Values.intValue(4)))
+
+    val literalInequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, literalInt(3)),
+      greaterThan(nProp, literalInt(4))
+    )))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameterValues = parameterValues)
+
+    calculator(inequality.expr) should equal(calculator(literalInequality.expr))
+  }
+
   test("half-open (>) range with one label, no index") {
     val inequality = nPredicate(nAnded(NonEmptyList(
       greaterThan(nProp, literalInt(3))
@@ -1209,6 +1270,51 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     eqResult should equal(existsSel * inSel)
   }
 
+  test("equality with one label, parameter with sampled value") {
+    val equals = nPredicate(super.equals(nProp, parameter("p", CTAny)))
+    val stats = new DelegatingGraphStatistics(mockStats()) {
+      override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+        if (index == indexPersonBtree && parameterName == "p" && value == Values.intValue(3)) Some(Selectivity(0.5)) else None
+    }
+    val parameterValues = VirtualValues.map(Array("p"), Array(Values.intValue(3)))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameterValues = parameterValues)
+
+    calculator(equals.expr).factor should equal(personPropIsNotNullSel * 0.5)
+  }
+
+  test("equality with one label, parameter with sampled value in single element list") {
+    val equals = nPredicate(in(nProp, listOf(parameter("p", CTAny))))
+    val stats = new DelegatingGraphStatistics(mockStats()) {
+      override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] = Some(Selectivity(0.5))
+    }
+    val parameterValues = VirtualValues.map(Array("p"), Array(Values.intValue(3)))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameterValues = parameterValues)
+
+    calculator(equals.expr).factor should equal(personPropIsNotNullSel * 0.5)
+  }
+
+  test("equality with one label, parameter without sampled value") {
+    val equals = nPredicate(super.equals(nProp, parameter("p", CTAny)))
+    val parameterValues = VirtualValues.map(Array("p"), Array(Values.intValue(3)))
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, parameterValues = parameterValues)
+
+    calculator(equals.expr).factor should equal(personPropIsNotNullSel * indexPersonUniqueSel)
+  }
+
+  test("equality with one label, parameter value not given") {
+    val equals = nPredicate(super.equals(nProp, parameter("p", CTAny)))
+    val stats = new DelegatingGraphStatistics(mockStats()) {
+      override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] = Some(Selectivity(0.5))
+    }
+
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats)
+
+    calculator(equals.expr).factor should equal(personPropIsNotNullSel * indexPersonUniqueSel)
+  }
+
   test("equality with one label, size unknown") {
     val equals = nPredicate(in(nProp, varFor("someList")))
 
@@ -1420,11 +1526,15 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
       .addTypeInfo(literalInt(7), CTInteger)
   }
 
-  protected def setUpCalculator(labelInfo: LabelInfo = Map.empty, relTypeInfo: RelTypeInfo = Map.empty, stats: GraphStatistics = mockStats(), planningTextIndexesEnabled: Boolean = true): Expression => Selectivity = {
+  protected def setUpCalculator(labelInfo: LabelInfo = Map.empty,
+                                relTypeInfo: RelTypeInfo = Map.empty,
+                                stats: GraphStatistics = mockStats(),
+                                planningTextIndexesEnabled: Boolean = true,
+                                parameterValues: MapValue = MapValue.EMPTY): Expression => Selectivity = {
     implicit val semanticTable: SemanticTable = setupSemanticTable()
 
     val combiner = IndependenceCombiner
-    val calculator = ExpressionSelectivityCalculator(stats, combiner, planningTextIndexesEnabled)
+    val calculator = ExpressionSelectivityCalculator(stats, combiner, planningTextIndexesEnabled, parameterValues)
     exp: Expression => calculator(exp, labelInfo, relTypeInfo)
   }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalitySupport.SelectivityEquality
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.LabelInfo
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.RelTypeInfo
+import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.SelectivityCalculator
+import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompatiblePredicatesProviderContext
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ObservedSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private val nProp: Expression = equals(prop("n", "prop"), literalInt(42))
+  private val nOther: Expression = greaterThan(prop("n", "other"), literalInt(1))
+  private val mProp: Expression = equals(prop("m", "prop"), literalInt(42))
+
+  // Estimates every predicate independently with a selectivity of 0.5
+  private val inner = new SelectivityCalculator {
+    override def apply(selections: Selections,
+                       labelInfo: LabelInfo,
+                       relTypeInfo: RelTypeInfo,
+                       semanticTable: SemanticTable,
+                       indexPredicateProviderContext: IndexCompatiblePredicatesProviderContext): Selectivity =
+      Selectivity(Math.pow(0.5, selections.flatPredicates.size))
+  }
+
+  test("should use the estimate of the inner calculator without observations") {
+    selectivity(Map.empty, nProp, nOther, mProp) should equal(Selectivity(0.125))
+  }
+
+  test("should use the observed selectivity of all predicates on the same variables") {
+    val observations = Map(Seq(nProp, nOther) -> Selectivity(0.001))
+
+    selectivity(observations, nProp, nOther, mProp) should equal(Selectivity(0.0005))
+  }
+
+  test("should use the observed selectivities of single predicates without an observation of all of them") {
+    val observations = Map(Seq(nProp) -> Selectivity(0.01), Seq(mProp) -> Selectivity(0.1))
+
+    selectivity(observations, nProp, nOther, mProp) should equal(Selectivity(0.0005))
+  }
+
+  test("should not use observations of some of the predicates on the same variables") {
+    val observations = Map(Seq(nProp, nOther) -> Selectivity(0.001))
+
+    selectivity(observations, nProp, nOther, hasLabels("n", "Label")) should equal(Selectivity(0.0005))
+    selectivity(observations, nProp, mProp) should equal(Selectivity(0.25))
+  }
+
+  test("should only use observations of predicates on variables with the same labels") {
+    val observations = Map(Seq(nProp) -> Selectivity(0.01))
+
+    selectivityWithLabels(observations, Map("n" -> Set("A")), Map("n" -> Set(labelName("A"))), nProp) should equal(Selectivity(0.01))
+    selectivityWithLabels(observations, Map("n" -> Set("A")), Map("n" -> Set(labelName("B"))), nProp) should equal(Selectivity(0.5))
+    selectivityWithLabels(observations, Map("n" -> Set("A")), Map.empty, nProp) should equal(Selectivity(0.5))
+  }
+
+  private def selectivity(observations: Map[Seq[Expression], Selectivity], predicates: Expression*): Selectivity =
+    selectivityWithLabels(observations, Map.empty, Map.empty, predicates: _*)
+
+  private def selectivityWithLabels(observations: Map[Seq[Expression], Selectivity],
+                                    observedLabels: Map[String, Set[String]],
+                                    labelInfo: LabelInfo,
+                                    predicates: Expression*): Selectivity = {
+    val statistics = mock[GraphStatistics]
+    when(statistics.observedSelectivity(any())).thenReturn(None)
+    observations.foreach {
+      case (observed, selectivity) =>
+        when(statistics.observedSelectivity(CardinalityFeedback.fingerprint(observed, observedLabels))).thenReturn(Some(selectivity))
+    }
+    val calculator = ObservedSelectivityCalculator(statistics, inner)
+    calculator(Selections.from(predicates), labelInfo, Map.empty, new SemanticTable(), IndexCompatiblePredicatesProviderContext.default)
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.idp
+
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport2
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.ir.PatternRelationship
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.RegularSinglePlannerQuery
+import org.neo4j.cypher.internal.ir.SimplePatternLength
+import org.neo4j.cypher.internal.ir.VarPatternLength
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
+import org.neo4j.cypher.internal.logical.plans.IntersectionLeg
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ExpandIntersectionSolverStepTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  private val pattern1 = PatternRelationship("r1", ("a", "b"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+  private val pattern2 = PatternRelationship("r2", ("b", "c"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+  private val pattern3 = PatternRelationship("r3", ("c", "a"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+
+  private val qg = mock[QueryGraph]
+
+  test("closes a triangle by intersecting the neighbours of the bound nodes") {
+    implicit val registry: DefaultIdRegistry[PatternRelationship] = IdRegistry[PatternRelationship]
+    val table = IDPTable.empty[LogicalPlan]
+
+    new given().withLogicalPlanningContext { (_, ctx) =>
+      val plan1 = fakeLogicalPlanFor(ctx.planningAttributes, "a", "r1", "b")
+      ctx.planningAttributes.solveds.set(plan1.id, RegularSinglePlannerQuery(QueryGraph.empty.addPatternNodes("a", "b")))
+      table.put(register(pattern1), sorted = false, plan1)
+
+      expandIntersectionSolverStep(qg)(registry, register(pattern1, pattern2, pattern3), table, ctx).toSet should equal(Set(
+        ExpandIntersection(plan1, "c", Seq(
+          IntersectionLeg("b", SemanticDirection.OUTGOING, Seq.empty, "r2"),
+          IntersectionLeg("a", SemanticDirection.INCOMING, Seq.empty, "r3")
+        ))
+      ))
+    }
+  }
+
+  test("does not intersect if the other end of a relationship is not bound") {
+    implicit val registry: DefaultIdRegistry[PatternRelationship] = IdRegistry[PatternRelationship]
+    val table = IDPTable.empty[LogicalPlan]
+
+    new given().withLogicalPlanningContext { (_, ctx) =>
+      val plan1 = fakeLogicalPlanFor(ctx.planningAttributes, "a", "r1", "b")
+      ctx.planningAttributes.solveds.set(plan1.id, RegularSinglePlannerQuery(QueryGraph.empty.addPatternNodes("a", "b")))
+      table.put(register(pattern1), sorted = false, plan1)
+
+      val patternX = PatternRelationship("r4", ("c", "d"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+
+      expandIntersectionSolverStep(qg)(registry, register(pattern1, pattern2, patternX), table, ctx) should be(empty)
+    }
+  }
+
+  test("does not intersect var length relationships") {
+    implicit val registry: DefaultIdRegistry[PatternRelationship] = IdRegistry[PatternRelationship]
+    val table = IDPTable.empty[LogicalPlan]
+
+    new given().withLogicalPlanningContext { (_, ctx) =>
+      val plan1 = fakeLogicalPlanFor(ctx.planningAttributes, "a", "r1", "b")
+      ctx.planningAttributes.solveds.set(plan1.id, RegularSinglePlannerQuery(QueryGraph.empty.addPatternNodes("a", "b")))
+      table.put(register(pattern1), sorted = false, plan1)
+
+      val varLength = pattern3.copy(length = VarPatternLength(1, Some(3)))
+
+      expandIntersectionSolverStep(qg)(registry, register(pattern1, pattern2, varLength), table, ctx) should be(empty)
+    }
+  }
+
+  def register[X](patRels: X*)(implicit registry: IdRegistry[X]): Goal = Goal(registry.registerAll(patRels))
+}
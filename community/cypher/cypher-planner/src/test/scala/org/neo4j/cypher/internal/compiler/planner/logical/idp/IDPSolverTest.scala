@@ -29,6 +29,11 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.time.FakeClock
 import org.neo4j.time.Stopwatch
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinWorkerThread
+
+import scala.collection.JavaConverters.asScalaSetConverter
 import scala.collection.immutable.BitSet
 
 class IDPSolverTest extends CypherFunSuite {
@@ -271,6 +276,47 @@ class IDPSolverTest extends CypherFunSuite {
     shortSolverIterations should be > longSolverIterations
   }
 
+  test("Compares candidates of goals of the same size on several threads with the same result") {
+    val threads = ConcurrentHashMap.newKeySet[Thread]()
+    val recordingFirstLongest = new ProjectingSelector[String] {
+      override def applyWithResolvedPerPlan[X](projector: X => String, input: Iterable[X], resolved: => String, resolvedPerPlan: LogicalPlan => String, heuristic: SelectorHeuristic): Option[X] = {
+        threads.add(Thread.currentThread())
+        firstLongest.applyWithResolvedPerPlan(projector, input, resolved, resolvedPerPlan, heuristic)
+      }
+    }
+
+    val executor = Executors.newFixedThreadPool(3)
+
+    def solve(parallelism: Int): BestResults[String] = {
+      val capitalization = Capitalization(false)
+      val solver = new IDPSolver[Char, String, Unit](
+        monitor = mock[IDPSolverMonitor],
+        generator = stringAppendingSolverStepWithCapitalization(capitalization),
+        projectingSelector = recordingFirstLongest,
+        maxTableSize = Int.MaxValue,
+        extraRequirement = CapitalizationRequirement(capitalization),
+        iterationDurationLimit = Int.MaxValue,
+        stopWatchFactory = neverTimesOut,
+        parallelism = parallelism,
+        executor = executor
+      )
+      val toDo = 'A' to 'F'
+      solver(toDo.map(c => (Set(c), false) -> c.toString), toDo, context)
+    }
+
+    solve(1) should equal(BestResults("ABCDEF", Some("abcdef")))
+    threads.asScala should equal(Set(Thread.currentThread()))
+
+    try {
+      threads.clear()
+      solve(4) should equal(BestResults("ABCDEF", Some("abcdef")))
+      threads.size() should be > 1
+      threads.asScala.exists(_.isInstanceOf[ForkJoinWorkerThread]) should be(false)
+    } finally {
+      executor.shutdown()
+    }
+  }
+
   /**
    * Longer strings win. If they are the same length, the first in alphabetical order wins.
    * That means upper case wins over lower case.
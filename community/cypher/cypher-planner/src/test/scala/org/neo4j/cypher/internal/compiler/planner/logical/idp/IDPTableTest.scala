@@ -69,4 +69,33 @@ class IDPTableTest extends CypherFunSuite {
       (Goal(BitSet(2, 3)), Goal(BitSet(1))),
     )
   }
+
+  test("goal coveringComplements of the goal itself") {
+    val goal = Goal(BitSet(1, 2))
+    goal.coveringComplements(goal).toSeq should be(empty)
+  }
+
+  test("goal coveringComplements multiple elements") {
+    val goal = Goal(BitSet(1, 2, 3))
+    goal.coveringComplements(Goal(BitSet(1, 2))).toSeq should equal(Seq(
+      Goal(BitSet(3)),
+      Goal(BitSet(1, 3)),
+      Goal(BitSet(2, 3)),
+    ))
+  }
+
+  test("goal coveringComplements enumerates covering sub goals in sub goal order") {
+    val goal = Goal(BitSet(1, 3, 4, 6, 9))
+    for {
+      subGoalSize <- 1 until goal.size
+      subGoal <- goal.subGoals(subGoalSize)
+    } {
+      val filtered = for {
+        size <- 1 until goal.size
+        otherGoal <- goal.subGoals(size) if otherGoal != subGoal && Goal(otherGoal.bitSet | subGoal.bitSet) == goal
+      } yield otherGoal
+
+      goal.coveringComplements(subGoal).toSeq should equal(filtered)
+    }
+  }
 }
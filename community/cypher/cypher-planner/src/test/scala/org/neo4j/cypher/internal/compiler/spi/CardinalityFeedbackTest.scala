@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.spi
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class CardinalityFeedbackTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private val fingerprint = "n.prop = 42"
+
+  test("should record selectivities that are misestimated by more than the factor") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 1) shouldBe true
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.001))
+
+    recordConsistently(feedback, Selectivity(0.001), 500)
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.5))
+  }
+
+  test("should not record selectivities that are estimated within the factor") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 100) shouldBe false
+    feedback.recordSelectivity(fingerprint, Selectivity(0.01), 1000, 50) shouldBe false
+    feedback.observedSelectivity(fingerprint) shouldBe None
+  }
+
+  test("should only change a recorded selectivity if it differs from the new observation by more than the factor") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 1) shouldBe true
+
+    // Misestimated by a plan that did not use the recorded selectivity, but close to it
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 5) shouldBe false
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.001))
+
+    recordConsistently(feedback, Selectivity(0.5), 20)
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.02))
+  }
+
+  test("should only change a recorded selectivity after consistent observations in a row") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 1) shouldBe true
+
+    // Parameter values of alternating selectivity
+    (1 to 2 * CardinalityFeedback.CONSISTENT_OBSERVATIONS).foreach { i =>
+      feedback.recordSelectivity(fingerprint, Selectivity(0.001), 1000, if (i % 2 == 0) 500 else 100) shouldBe false
+      feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 1) shouldBe false
+    }
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.001))
+
+    // Observations that differ from the recorded selectivity, but not from each other, confirm each other
+    (1 until CardinalityFeedback.CONSISTENT_OBSERVATIONS).foreach { i =>
+      feedback.recordSelectivity(fingerprint, Selectivity(0.001), 1000, if (i % 2 == 0) 500 else 100) shouldBe false
+    }
+    feedback.recordSelectivity(fingerprint, Selectivity(0.001), 1000, 200) shouldBe true
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.2))
+  }
+
+  private def recordConsistently(feedback: CardinalityFeedback, estimated: Selectivity, outputRows: Long): Unit = {
+    (1 until CardinalityFeedback.CONSISTENT_OBSERVATIONS).foreach { _ =>
+      feedback.recordSelectivity(fingerprint, estimated, 1000, outputRows) shouldBe false
+    }
+    feedback.recordSelectivity(fingerprint, estimated, 1000, outputRows) shouldBe true
+  }
+
+  test("should not record selectivities observed on too few rows") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), CardinalityFeedback.MIN_INPUT_ROWS - 1, 0) shouldBe false
+    feedback.observedSelectivity(fingerprint) shouldBe None
+  }
+
+  test("should record a selectivity of one row if no rows passed") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+
+    feedback.recordSelectivity(fingerprint, Selectivity(0.5), 1000, 0) shouldBe true
+    feedback.observedSelectivity(fingerprint) shouldBe Some(Selectivity(0.001))
+  }
+
+  test("should only observe predicates on variables that are not estimated from the counts store") {
+    CardinalityFeedback.canBeObserved(equals(prop("n", "prop"), literalInt(42))) shouldBe true
+    CardinalityFeedback.canBeObserved(hasLabels("n", "Label")) shouldBe false
+    CardinalityFeedback.canBeObserved(hasTypes("r", "TYPE")) shouldBe false
+    CardinalityFeedback.canBeObserved(equals(literalInt(1), literalInt(42))) shouldBe false
+  }
+
+  test("fingerprint should not depend on the order of the predicates") {
+    val p1 = equals(prop("n", "prop"), literalInt(42))
+    val p2 = greaterThan(prop("n", "other"), literalInt(1))
+
+    CardinalityFeedback.fingerprint(Seq(p1, p2), Map.empty) shouldEqual CardinalityFeedback.fingerprint(Seq(p2, p1), Map.empty)
+    CardinalityFeedback.fingerprint(Seq(p1, p2), Map.empty) should not equal CardinalityFeedback.fingerprint(Seq(p1), Map.empty)
+  }
+
+  test("fingerprint should depend on the labels and types of the variables of the predicates") {
+    val nodePredicate = equals(prop("n", "prop"), literalInt(42))
+    val relationshipPredicate = equals(prop("r", "prop"), literalInt(42))
+
+    CardinalityFeedback.fingerprint(Seq(nodePredicate), Map("n" -> Set("A"))) should not equal
+      CardinalityFeedback.fingerprint(Seq(nodePredicate), Map("n" -> Set("B")))
+    CardinalityFeedback.fingerprint(Seq(nodePredicate), Map("n" -> Set("A", "B"))) shouldEqual
+      CardinalityFeedback.fingerprint(Seq(nodePredicate), Map("n" -> Set("B", "A"), "m" -> Set("C")))
+    CardinalityFeedback.fingerprint(Seq(relationshipPredicate), Map("r" -> Set("T"))) should not equal
+      CardinalityFeedback.fingerprint(Seq(relationshipPredicate), Map.empty)
+  }
+
+  test("fingerprint and dependencies should not depend on whether properties are cached") {
+    val predicate = equals(prop("n", "prop"), literalInt(42))
+    val cachedPredicate = equals(cachedNodeProp("n", "prop"), literalInt(42))
+
+    CardinalityFeedback.fingerprint(Seq(cachedPredicate), Map.empty) shouldEqual CardinalityFeedback.fingerprint(Seq(predicate), Map.empty)
+    CardinalityFeedback.dependencies(cachedPredicate) shouldEqual Set("n")
+  }
+
+  test("fingerprint should not depend on whether an equality is planned as IN") {
+    val predicate = equals(prop("n", "prop"), parameter("param", CTInteger))
+    val inPredicate = in(prop("n", "prop"), listOf(parameter("param", CTInteger)))
+
+    CardinalityFeedback.fingerprint(Seq(inPredicate), Map.empty) shouldEqual CardinalityFeedback.fingerprint(Seq(predicate), Map.empty)
+  }
+}
@@ -27,12 +27,19 @@ import org.neo4j.cypher.internal.planner.spi.InstrumentedGraphStatistics
 import org.neo4j.cypher.internal.planner.spi.MutableGraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.NodesAllCardinality
 import org.neo4j.cypher.internal.planner.spi.NodesWithLabelCardinality
+import org.neo4j.cypher.internal.planner.spi.ObservedSelectivity
+import org.neo4j.cypher.internal.planner.spi.ParameterBound
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
+import org.neo4j.cypher.internal.planner.spi.ParameterRangeSelectivity
+import org.neo4j.cypher.internal.planner.spi.ParameterValueSelectivity
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
 
 class GraphStatisticsSnapshotTest extends CypherFunSuite {
 
@@ -214,6 +221,62 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
     frozen1.diverges(frozen2).divergence should not (be < 1.0)
   }
 
+  test("records observed selectivities and picks up when they change") {
+    val snapshot = new MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics()
+    val instrumentedStatistics = InstrumentedGraphStatistics(statistics, snapshot)
+    instrumentedStatistics.nodesAllCardinality()
+    instrumentedStatistics.observedSelectivity("n.prop = 42") shouldBe None
+
+    val frozen = snapshot.freeze
+    frozen.hasObservedSelectivities shouldBe true
+    frozen.changedObservedSelectivity(statistics) shouldBe None
+
+    statistics.observe("n.prop = 42", Selectivity(0.01))
+    val changed = frozen.changedObservedSelectivity(statistics)
+    changed.map(_.key) shouldBe Some(ObservedSelectivity("n.prop = 42"))
+    changed.map(_.after) shouldBe Some(0.01)
+  }
+
+  test("a snapshot without observed selectivities should not have any changed") {
+    val snapshot = new MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics()
+    InstrumentedGraphStatistics(statistics, snapshot).nodesAllCardinality()
+
+    statistics.observe("n.prop = 42", Selectivity(0.01))
+    snapshot.freeze.hasObservedSelectivities shouldBe false
+    snapshot.freeze.changedObservedSelectivity(statistics) shouldBe None
+  }
+
+  test("records parameter value selectivities") {
+    val snapshot = new MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics(idxSelectivity = 0.25)
+    val instrumentedStatistics = InstrumentedGraphStatistics(statistics, snapshot)
+    instrumentedStatistics.nodesAllCardinality()
+    instrumentedStatistics.parameterValueSelectivity(index, "p", Values.intValue(42)) shouldBe Some(Selectivity(0.25))
+
+    val frozen = snapshot.freeze
+    frozen.parameterSelectivities should equal(Map(ParameterValueSelectivity(index, "p", Values.intValue(42)) -> 0.25))
+
+    statistics.factor(2)
+    frozen.recompute(statistics).parameterSelectivities should equal(Map(ParameterValueSelectivity(index, "p", Values.intValue(42)) -> 0.125))
+  }
+
+  test("records parameter range selectivities") {
+    val snapshot = new MutableGraphStatisticsSnapshot()
+    val statistics = graphStatistics(idxSelectivity = 0.25)
+    val instrumentedStatistics = InstrumentedGraphStatistics(statistics, snapshot)
+    val range = ParameterRange(Some(ParameterBound("from", Values.intValue(10), inclusive = true)), None)
+    instrumentedStatistics.nodesAllCardinality()
+    instrumentedStatistics.parameterRangeSelectivity(index, range) shouldBe Some(Selectivity(0.5))
+
+    val frozen = snapshot.freeze
+    frozen.parameterSelectivities should equal(Map(ParameterRangeSelectivity(index, range) -> 0.5))
+
+    statistics.factor(2)
+    frozen.recompute(statistics).parameterSelectivities should equal(Map(ParameterRangeSelectivity(index, range) -> 0.25))
+  }
+
   private def graphStatistics(allNodes: Long = 500,
                               labeledNodes: Long = 500,
                               relCardinality: Long = 5000,
@@ -231,6 +294,7 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
                             idxSelectivity: Double ,
                             idxPropertyExistsSelectivity: Double) extends GraphStatistics {
     private var _factor: Double = 1L
+    private var observedSelectivities = Map.empty[String, Selectivity]
 
     def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality = labelId match {
       case None => Cardinality.SINGLE
@@ -247,6 +311,17 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
     def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity] =
       Selectivity.of(idxPropertyExistsSelectivity / _factor)
 
+    override def observedSelectivity(predicateFingerprint: String): Option[Selectivity] = observedSelectivities.get(predicateFingerprint)
+
+    override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+      Selectivity.of(idxSelectivity / _factor)
+
+    override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] =
+      Selectivity.of(2 * idxSelectivity / _factor)
+
+    def observe(predicateFingerprint: String, selectivity: Selectivity): Unit =
+      observedSelectivities += predicateFingerprint -> selectivity
+
     def factor(factor: Double): Unit = {
       _factor = factor
     }
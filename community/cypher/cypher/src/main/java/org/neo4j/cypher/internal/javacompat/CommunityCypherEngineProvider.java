@@ -24,10 +24,15 @@ import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.cypher.internal.CommunityCompilerFactory;
 import org.neo4j.cypher.internal.CompilerFactory;
 import org.neo4j.cypher.internal.CypherRuntimeConfiguration;
+import org.neo4j.cypher.internal.QueryCacheWarmup;
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
 import org.neo4j.cypher.internal.config.CypherConfiguration;
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -62,6 +67,11 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
         CypherConfiguration cypherConfig = CypherConfiguration.fromConfig( spi.config() );
         CypherPlannerConfiguration plannerConfig = CypherPlannerConfiguration.fromCypherConfiguration( cypherConfig, spi.config(), isSystemDatabase );
         CypherRuntimeConfiguration runtimeConfig = CypherRuntimeConfiguration.fromCypherConfiguration( cypherConfig );
+        if ( cypherConfig.cardinalityFeedbackSampleInterval() > 0 )
+        {
+            deps.satisfyDependency(
+                    new CardinalityFeedback( cypherConfig.cardinalityFeedbackSampleInterval(), cypherConfig.cardinalityFeedbackMisestimationFactor() ) );
+        }
         CompilerFactory compilerFactory = makeCompilerFactory( queryService, spi, plannerConfig, runtimeConfig );
         CaffeineCacheFactory cacheFactory = makeCacheFactory( spi );
         if ( isSystemDatabase )
@@ -76,10 +86,29 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
         }
         else
         {
-            return new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            ExecutionEngine engine = new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            if ( cypherConfig.queryCacheWarmup() )
+            {
+                spi.lifeSupport().add( makeQueryCacheWarmup( deps, queryService, engine, cypherConfig, spi ) );
+            }
+            return engine;
         }
     }
 
+    private static QueryCacheWarmup makeQueryCacheWarmup( Dependencies deps, GraphDatabaseCypherService queryService, ExecutionEngine engine,
+                                                          CypherConfiguration cypherConfig, SPI spi )
+    {
+        DatabaseLayout databaseLayout = deps.resolveDependency( DatabaseLayout.class );
+        return new QueryCacheWarmup( engine.getCypherExecutionEngine(),
+                                     queryService,
+                                     deps.resolveDependency( DatabaseAvailabilityGuard.class ),
+                                     deps.resolveDependency( FileSystemAbstraction.class ),
+                                     databaseLayout.file( QueryCacheWarmup.FILE_NAME() ),
+                                     spi.jobScheduler(),
+                                     cypherConfig.queryCacheWarmupPersistIntervalMillis(),
+                                     spi.logProvider().getLog( QueryCacheWarmup.class ) );
+    }
+
     private static CaffeineCacheFactory makeCacheFactory( SPI spi )
     {
         var monitoredExecutor = spi.jobScheduler().monitoredJobExecutor( Group.CYPHER_CACHE );
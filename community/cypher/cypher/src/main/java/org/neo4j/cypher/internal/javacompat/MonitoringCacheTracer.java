@@ -82,4 +82,16 @@ public class MonitoringCacheTracer implements CacheTracer<CacheKey<String>>
     {
         monitor.cacheFlushDetected( sizeOfCacheBeforeFlush );
     }
+
+    @Override
+    public void queryCacheVariantHit( CacheKey<String> queryKey, String metaData )
+    {
+        monitor.cacheVariantHit( queryKey );
+    }
+
+    @Override
+    public void queryCacheVariantMiss( CacheKey<String> queryKey, int numberOfVariants, String metaData )
+    {
+        monitor.cacheVariantMiss( queryKey, numberOfVariants );
+    }
 }
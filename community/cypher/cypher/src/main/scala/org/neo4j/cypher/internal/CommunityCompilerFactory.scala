@@ -24,16 +24,25 @@ import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration
 import org.neo4j.cypher.internal.compiler.phases.Compatibility3_5
 import org.neo4j.cypher.internal.compiler.phases.Compatibility4_3
 import org.neo4j.cypher.internal.compiler.phases.Compatibility4_4
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.IDPSolver
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherUpdateStrategy
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.planning.CypherPlanner
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.spi.TransactionBoundGraphStatistics
 import org.neo4j.exceptions.SyntaxException
+import org.neo4j.io.fs.FileSystemAbstraction
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.logging.Log
 import org.neo4j.logging.LogProvider
 import org.neo4j.monitoring
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
+
+import java.util.concurrent.Executor
 
 /**
  * Factory which creates cypher compilers.
@@ -48,6 +57,22 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
 
   private val log: Log = logProvider.getLog(getClass)
 
+  /**
+   * Shared by all compilers of the database, so that the limit applies to all of its queries together.
+   */
+  private lazy val spillSpace: SpillSpace = runtimeConfig.interpretedSpillDirectory match {
+    case Some(directory) =>
+      val resolver = graph.getDependencyResolver
+      new SpillSpace(resolver.resolveDependency(classOf[FileSystemAbstraction]),
+        directory.resolve(resolver.resolveDependency(classOf[NamedDatabaseId]).name()),
+        runtimeConfig.interpretedSpillMaxSize)
+    case None => SpillSpace.DEFAULT
+  }
+
+  private lazy val idpExecutor: Executor =
+    if (plannerConfig.idpParallelism > 1) graph.getDependencyResolver.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_PLANNER)
+    else IDPSolver.callingThread
+
   override def supportsAdministrativeCommands(): Boolean = plannerConfig.planSystemCommands
 
   override def createCompiler(cypherVersion: CypherVersion,
@@ -72,7 +97,8 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
         cypherPlanner,
         cypherUpdateStrategy,
         LastCommittedTxIdProvider(graph),
-        compatibilityMode)
+        compatibilityMode,
+        idpExecutor)
 
     val runtime = if (plannerConfig.planSystemCommands)
       cypherVersion match {
@@ -80,12 +106,12 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
         case _ => CommunityAdministrationCommandRuntime(executionEngineProvider(), graph.getDependencyResolver)
       }
     else
-      CommunityRuntimeFactory.getRuntime(cypherRuntime, plannerConfig.useErrorsOverWarnings)
+      CommunityRuntimeFactory.getRuntime(cypherRuntime, plannerConfig.useErrorsOverWarnings, Some(graph.getDependencyResolver))
 
     CypherCurrentCompiler(
       planner,
       runtime,
-      CommunityRuntimeContextManager(log, runtimeConfig),
+      CommunityRuntimeContextManager(log, runtimeConfig, TransactionBoundGraphStatistics.cardinalityFeedback(graph), spillSpace),
       kernelMonitors)
   }
 }
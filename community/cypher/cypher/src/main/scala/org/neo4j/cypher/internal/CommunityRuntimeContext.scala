@@ -24,7 +24,9 @@ import java.time.Clock
 import org.neo4j.cypher.internal.options.CypherDebugOptions
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.logging.Log
@@ -37,23 +39,28 @@ case class CommunityRuntimeContext(tokenContext: ReadTokenContext,
                                    log: Log,
                                    config: CypherRuntimeConfiguration,
                                    anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
-                                  ) extends RuntimeContext {
+                                   compileExpressions: Boolean = false,
+                                   cardinalityFeedback: CardinalityFeedback = CardinalityFeedback.NONE,
+                                   spillSpace: SpillSpace = SpillSpace.DEFAULT,
+                                  ) extends RuntimeContext
 
-  override def compileExpressions: Boolean = false
-}
-
-case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfiguration) extends RuntimeContextManager[CommunityRuntimeContext] {
+case class CommunityRuntimeContextManager(log: Log,
+                                          config: CypherRuntimeConfiguration,
+                                          cardinalityFeedback: CardinalityFeedback = CardinalityFeedback.NONE,
+                                          spillSpace: SpillSpace = SpillSpace.DEFAULT)
+  extends RuntimeContextManager[CommunityRuntimeContext] {
   override def create(tokenContext: ReadTokenContext,
                       schemaRead: SchemaRead,
                       clock: Clock,
                       debugOptions: CypherDebugOptions,
-                      ignore: Boolean,
+                      compileExpressions: Boolean,
                       ignore2: Boolean,
                       ignore3: CypherOperatorEngineOption,
                       ignore4: CypherInterpretedPipesFallbackOption,
                       anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
                      ): CommunityRuntimeContext =
-    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator)
+    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator, compileExpressions, cardinalityFeedback,
+      spillSpace)
 
   // As we rely completely on transaction bound resources in community,
   // there is no need for further assertions here.
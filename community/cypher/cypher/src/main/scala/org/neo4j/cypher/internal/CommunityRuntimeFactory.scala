@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal
 
+import org.neo4j.common.DependencyResolver
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.exceptions.RuntimeUnsupportedException
 
@@ -27,12 +28,20 @@ object CommunityRuntimeFactory {
   val interpreted = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.interpreted)
   val default = new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, InterpretedRuntime), CypherRuntimeOption.default)
 
-  def getRuntime(cypherRuntime: CypherRuntimeOption, disallowFallback: Boolean): CypherRuntime[RuntimeContext] =
+  /**
+   * @param dependencies used to look up the workers and the thread-safe cursors of the parallel runtime, which is unsupported without them
+   */
+  def getRuntime(cypherRuntime: CypherRuntimeOption,
+                 disallowFallback: Boolean,
+                 dependencies: Option[DependencyResolver] = None): CypherRuntime[RuntimeContext] =
     cypherRuntime match {
       case CypherRuntimeOption.interpreted => interpreted
 
       case CypherRuntimeOption.default => default
 
+      case CypherRuntimeOption.parallel if dependencies.isDefined =>
+        new FallbackRuntime[RuntimeContext](List(SchemaCommandRuntime, ParallelInterpretedRuntime(dependencies.get), InterpretedRuntime), cypherRuntime)
+
       case unsupported if disallowFallback =>
         throw new RuntimeUnsupportedException(s"This version of Neo4j does not support requested runtime: $unsupported")
 
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal
 
 import java.io.File
+import java.nio.file.Path
 import java.time.Clock
 
 import org.neo4j.configuration.Config
@@ -32,10 +33,12 @@ import org.neo4j.cypher.internal.options.CypherDebugOptions
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.LeveragedOrders
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.RecordingNotificationLogger
@@ -107,6 +110,8 @@ abstract class RuntimeContext {
   def compileExpressions: Boolean
   def log: Log
   def anonymousVariableNameGenerator: AnonymousVariableNameGenerator
+  def cardinalityFeedback: CardinalityFeedback
+  def spillSpace: SpillSpace
 }
 
 /**
@@ -233,7 +238,12 @@ object CypherRuntimeConfiguration {
       lenientCreateRelationship = config.lenientCreateRelationship,
       memoryTrackingController = config.memoryTrackingController,
       enableMonitors = config.enableMonitors,
-      executionPlanCacheSize = config.executionPlanCacheSize
+      executionPlanCacheSize = config.executionPlanCacheSize,
+      interpretedSlottedRows = config.interpretedSlottedRows,
+      workers = config.workers,
+      interpretedSpillThreshold = config.interpretedSpillThreshold,
+      interpretedSpillDirectory = Some(config.interpretedSpillDirectory),
+      interpretedSpillMaxSize = config.interpretedSpillMaxSize
     )
   }
 
@@ -248,7 +258,12 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       lenientCreateRelationship: Boolean,
                                       memoryTrackingController: MemoryTrackingController,
                                       enableMonitors: Boolean,
-                                      executionPlanCacheSize: Int) {
+                                      executionPlanCacheSize: Int,
+                                      interpretedSlottedRows: Boolean = false,
+                                      workers: Int = 0,
+                                      interpretedSpillThreshold: Long = 0,
+                                      interpretedSpillDirectory: Option[Path] = None,
+                                      interpretedSpillMaxSize: Long = 0) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 
@@ -46,20 +46,28 @@ class DefaultPlanStalenessCaller[EXECUTABLE_QUERY](clock: Clock,
     val reusability = reusabilityInfo(cachedExecutableQuery, transactionalContext)
     reusability match {
       case MaybeReusable(ref) =>
-        val ktx = transactionalContext.kernelTransaction()
-        staleness(ref, TransactionBoundGraphStatistics(ktx.dataRead, ktx.schemaRead, log))
+        staleness(ref, TransactionBoundGraphStatistics(transactionalContext, log))
 
       case FineToReuse => NotStale
       case NeedsReplan(x) => Stale(x, None)
     }
   }
 
-  private[internal] def staleness(ref: PlanFingerprintReference, statistics: => GraphStatistics): Staleness = {
+  private[internal] def staleness(ref: PlanFingerprintReference, graphStatistics: => GraphStatistics): Staleness = {
     val f = ref.fingerprint
     lazy val currentTimeMillis = clock.millis()
     lazy val lastCommittedTxId = lastCommittedTxIdProvider()
+    lazy val statistics = graphStatistics
 
-    if (divergenceCalculator.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) && lastCommittedTxId != f.lastCommittedTxId) {
+    // Observed selectivities change without any transactions committing, and only when a plan relying on them was misestimated.
+    val changedObservedSelectivity =
+      if (f.snapshot.hasObservedSelectivities) f.snapshot.changedObservedSelectivity(statistics) else None
+
+    if (changedObservedSelectivity.isDefined) {
+      val changed = changedObservedSelectivity.get
+      Stale(((currentTimeMillis - f.creationTimeMillis) / 1000).toInt,
+        Option(s"${changed.key} changed from ${changed.before} to ${changed.after}, since the plan was misestimated"))
+    } else if (divergenceCalculator.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) && lastCommittedTxId != f.lastCommittedTxId) {
       //check if we have diverged?
       val threshold = divergenceCalculator.decay(currentTimeMillis - f.creationTimeMillis)
       val divergence = f.snapshot.diverges(f.snapshot.recompute(statistics))
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.ParameterSelectivity
+import org.neo4j.cypher.internal.spi.TransactionBoundGraphStatistics
+import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.logging.Log
+import org.neo4j.values.virtual.MapValue
+
+/**
+ * Selects the variant of a plan by the order of magnitude of the selectivity of its parameter values.
+ *
+ * Only plans that estimated a predicate from the values of parameters have variants, see [[GraphStatistics.parameterValueSelectivity]]
+ * and [[GraphStatistics.parameterRangeSelectivity]]. A variant is identified by the selectivity bucket of each such estimate, so parameter values
+ * with selectivities of the same order of magnitude share a plan.
+ *
+ * @param maximumVariants The maximum number of plans to cache per query.
+ * @param reusabilityInfo Provides the fingerprint of a plan, with the parameter value selectivities it was planned with.
+ */
+class DefaultPlanVariantSelector[EXECUTABLE_QUERY](override val maximumVariants: Int,
+                                                   reusabilityInfo: (EXECUTABLE_QUERY, TransactionalContext) => ReusabilityState,
+                                                   log: Log) extends PlanVariantSelector[EXECUTABLE_QUERY] {
+
+  override def variant(transactionalContext: TransactionalContext,
+                       cachedExecutableQuery: EXECUTABLE_QUERY,
+                       params: MapValue): Option[AnyRef] =
+    reusabilityInfo(cachedExecutableQuery, transactionalContext) match {
+      case MaybeReusable(ref) =>
+        val plannedSelectivities = ref.fingerprint.snapshot.parameterSelectivities
+        if (plannedSelectivities.isEmpty) None
+        else variant(plannedSelectivities, params, TransactionBoundGraphStatistics(transactionalContext, log))
+
+      case _ => None
+    }
+
+  private[internal] def variant(plannedSelectivities: Map[ParameterSelectivity, Double],
+                                params: MapValue,
+                                graphStatistics: => GraphStatistics): Option[Map[(IndexDescriptor, String), Int]] = {
+    lazy val statistics = graphStatistics
+    var differs = false
+    val buckets = plannedSelectivities.map {
+      case (planned, plannedSelectivity) =>
+        val plannedBucket = DefaultPlanVariantSelector.bucket(plannedSelectivity)
+        val bucket = planned.withValues(params)
+          .flatMap(_.selectivity(statistics))
+          .fold(plannedBucket)(s => DefaultPlanVariantSelector.bucket(s.factor))
+        differs ||= bucket != plannedBucket
+        (planned.index, planned.parameters) -> bucket
+    }
+    if (differs) Some(buckets) else None
+  }
+}
+
+object DefaultPlanVariantSelector {
+  /**
+   * The order of magnitude of a selectivity, where a selectivity of 0 means there was no estimate.
+   */
+  def bucket(selectivity: Double): Int =
+    if (selectivity <= 0.0) Int.MinValue else Math.floor(Math.log10(selectivity)).toInt
+}
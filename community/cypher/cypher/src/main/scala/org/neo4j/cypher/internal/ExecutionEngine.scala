@@ -93,13 +93,23 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       planReusabilitiy,
       log)
 
+  private val planVariantSelector =
+    new DefaultPlanVariantSelector[ExecutableQuery](config.planVariantsPerQuery, planReusabilitiy, log)
+
   private val queryCache: QueryCache[CacheKey[String], ExecutableQuery] =
-    new QueryCache[CacheKey[String], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer)
+    new QueryCache[CacheKey[String], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer, planVariantSelector)
 
   private val masterCompiler: MasterCompiler = new MasterCompiler(compilerLibrary)
 
   private val schemaHelper = new SchemaHelper(queryCache, masterCompiler)
 
+  // Administration commands may contain passwords, so queries are not recorded by engines that plan them
+  private val warmupQueryRecorder =
+    if (config.queryCacheWarmup && config.queryCacheSize > 0 && !compilerLibrary.supportsAdministrativeCommands())
+      Some(new WarmupQueryRecorder(cacheFactory, config.queryCacheSize))
+    else
+      None
+
   // ACTUAL FUNCTIONALITY
 
   /**
@@ -179,6 +189,28 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     }
   }
 
+  /**
+   * Plans the query and caches its plan, without executing it.
+   *
+   * @param query the query to plan
+   * @param params parameters of the types that the query will be executed with
+   * @param context the transactional context in which to plan the query
+   */
+  def warmUp(query: String, params: MapValue, context: TransactionalContext): Unit = {
+    val queryTracer = tracer.compileQuery(query)
+    try {
+      val preParsedQuery = preParser.preParseQuery(query, profile = false, couldContainSensitiveFields = false)
+      getOrCompile(context, preParsedQuery, queryTracer, params)
+    } finally queryTracer.close()
+  }
+
+  /**
+   * @return the queries recorded to warm up the query cache with, the most used first.
+   */
+  def warmupQueries: Seq[WarmupQuery] = warmupQueryRecorder.fold(Seq.empty[WarmupQuery])(_.queries)
+
+  def maximumWarmupQueries: Int = warmupQueryRecorder.fold(0)(_.maximumQueries)
+
   private def closing[T](context: TransactionalContext, traceEvent: QueryCompilationEvent)(code: => T): T =
     try code catch {
       case t: Throwable =>
@@ -284,11 +316,16 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
           tc,
           compiler,
           inputQuery.options.queryOptions.replan,
-          context.executingQuery().id())
+          context.executingQuery().id(),
+          params)
 
         val lockedEntities = schemaHelper.lockEntities(schemaToken, executableQuery, tc)
 
         if (lockedEntities.successful) {
+          initialInputQuery match {
+            case preParsedQuery: PreParsedQuery => warmupQueryRecorder.foreach(_.record(preParsedQuery.rawStatement, cacheKey.parameterTypeMap))
+            case _ =>
+          }
           return executableQuery
         }
         forceReplan = lockedEntities.needsReplan
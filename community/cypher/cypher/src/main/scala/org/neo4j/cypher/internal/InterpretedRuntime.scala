@@ -29,24 +29,40 @@ import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.ResourceMonitor
+import org.neo4j.cypher.internal.runtime.ThreadSafeResourceManager
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
+import org.neo4j.cypher.internal.runtime.interpreted.CompiledExpressionPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilderFactory
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionResultBuilderFactory
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.ParallelGatherPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.ParallelWorkerPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.SlottedRowPipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.SpillingPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionsCountingQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.UpdateCountingQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.SlottedRowExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.parallelPlanSplitting
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
+import org.neo4j.cypher.internal.runtime.interpreted.profiler.CardinalityFeedbackCollector
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
+import org.neo4j.cypher.internal.runtime.rowSlotAllocation
 import org.neo4j.cypher.internal.runtime.slottedParameters
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.result.RuntimeResult
+import org.neo4j.exceptions.CantCompileQueryException
 import org.neo4j.exceptions.PeriodicCommitInOpenTransactionException
+import org.neo4j.internal.kernel.api.CursorFactory
 import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.scheduler.CallableExecutor
 import org.neo4j.values.virtual.MapValue
 
 object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
@@ -54,37 +70,76 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
   override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.interpreted)
 
-  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    compileToExecutable(query, context, None)
+
+  /**
+   * @param parallelism if defined, compile a plan that executes the query in parallel, see [[parallelPlanSplitting]].
+   *                    Throws [[CantCompileQueryException]] if the query cannot be executed in parallel.
+   */
+  def compileToExecutable(query: LogicalQuery, context: RuntimeContext, parallelism: Option[InterpretedParallelism]): ExecutionPlan = {
     val Result(logicalPlan, nExpressionSlots, availableExpressionVars) = expressionVariableAllocation.allocate(query.logicalPlan)
     val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
 
-    val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator))
+    val communityConverter = CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator)
+    val rowSlots = if (context.config.interpretedSlottedRows) Some(rowSlotAllocation.allocate(withSlottedParameters)) else None
+    val converters = rowSlots match {
+      case Some(slots) => new ExpressionConverters(SlottedRowExpressionConverter(slots), communityConverter)
+      case None => new ExpressionConverters(communityConverter)
+    }
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator)(query.semanticTable)
-    val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
+    val interpretedPipeMapper =
+      InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator)(query.semanticTable)
+    def pipeMapper(inner: PipeMapper): PipeMapper = {
+      val expressionPipeMapper = if (context.compileExpressions) CompiledExpressionPipeMapper(inner) else inner
+      val spillThreshold = context.config.interpretedSpillThreshold
+      val spillingPipeMapper =
+        if (spillThreshold > 0) SpillingPipeMapper(expressionPipeMapper, spillThreshold, context.spillSpace, query.providedOrders) else expressionPipeMapper
+      rowSlots.map(SlottedRowPipeMapper(spillingPipeMapper, _)).getOrElse(spillingPipeMapper)
+    }
+    val pipeTreeBuilder = PipeTreeBuilder(pipeMapper(interpretedPipeMapper))
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
     val columns = query.resultColumns
 
     val startsTransactions = doesStartTransactions(query)
 
-    val resultBuilderFactory = InterpretedExecutionResultBuilderFactory(pipe,
-      queryIndexRegistrator.result(),
-      nExpressionSlots,
-      parameterMapping,
-      columns,
-      context.config.lenientCreateRelationship,
-      context.config.memoryTrackingController,
-      query.hasLoadCSV,
-      startsTransactions)
-
-    new InterpretedExecutionPlan(query.periodicCommitInfo,
-      resultBuilderFactory,
-      InterpretedRuntimeName,
-      query.readOnly,
-      startsTransactions,
-      IndexedSeq.empty,
-      Set.empty)
+    def executionPlan(pipe: Pipe, runtimeName: RuntimeName, cardinalityFeedback: Option[CardinalityFeedbackCollector]): InterpretedExecutionPlan = {
+      val resultBuilderFactory = InterpretedExecutionResultBuilderFactory(pipe,
+        queryIndexRegistrator.result(),
+        nExpressionSlots,
+        parameterMapping,
+        columns,
+        context.config.lenientCreateRelationship,
+        context.config.memoryTrackingController,
+        query.hasLoadCSV,
+        startsTransactions)
+
+      new InterpretedExecutionPlan(query.periodicCommitInfo,
+        resultBuilderFactory,
+        runtimeName,
+        query.readOnly,
+        startsTransactions,
+        IndexedSeq.empty,
+        Set.empty,
+        cardinalityFeedback)
+    }
+
+    parallelism match {
+      case None =>
+        executionPlan(pipe, InterpretedRuntimeName, CardinalityFeedbackCollector(query.logicalPlan, query.effectiveCardinalities, context.cardinalityFeedback))
+
+      case Some(InterpretedParallelism(executor, maxWorkers, cursors)) =>
+        val parallelPlan = parallelPlanSplitting.split(logicalPlanWithConvertedNestedPlans).getOrElse(
+          throw new CantCompileQueryException("This query cannot be executed in parallel by the interpreted runtime"))
+        val workerPipe = PipeTreeBuilder(pipeMapper(ParallelWorkerPipeMapper(interpretedPipeMapper, parallelPlan, queryIndexRegistrator)))
+          .build(parallelPlan.worker)
+        val mainPipe = PipeTreeBuilder(pipeMapper(ParallelGatherPipeMapper(interpretedPipeMapper, parallelPlan, workerPipe, maxWorkers, executor)))
+          .build(parallelPlan.main)
+        // Both plans are built before the index registrator is read, so that they use the same indexes
+        val serialPlan = executionPlan(pipe, ParallelRuntimeName, None)
+        new ParallelInterpretedExecutionPlan(serialPlan, executionPlan(mainPipe, ParallelRuntimeName, None), cursors)
+    }
   }
 
   def doesStartTransactions(query: LogicalQuery): Boolean =
@@ -95,6 +150,8 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
   /**
    * Executable plan for a single cypher query. Warning, this class will get cached! Do not leak transaction objects
    * or other resources in here.
+   *
+   * @param cardinalityFeedback if defined, samples executions to observe the selectivities of the selections of the plan
    */
   class InterpretedExecutionPlan(periodicCommit: Option[PeriodicCommitInfo],
                                  resultBuilderFactory: ExecutionResultBuilderFactory,
@@ -102,7 +159,8 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                                  readOnly: Boolean,
                                  startsTransactions: Boolean,
                                  override val metadata: Seq[Argument],
-                                 warnings: Set[InternalNotification]) extends ExecutionPlan {
+                                 warnings: Set[InternalNotification],
+                                 cardinalityFeedback: Option[CardinalityFeedbackCollector] = None) extends ExecutionPlan {
 
     override def run(queryContext: QueryContext,
                      executionMode: ExecutionMode,
@@ -125,10 +183,51 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
       if (doProfile)
         builder.addProfileDecorator(new Profiler(queryContext.transactionalContext.dbmsInfo, profileInformation))
+      else if (executionMode != ExplainMode)
+        cardinalityFeedback.flatMap(_.sample()).foreach(builder.addProfileDecorator)
 
       builder.build(params, profileInformation, prePopulateResults, input, subscriber, doProfile)
     }
 
     override def notifications: Set[InternalNotification] = warnings
   }
+
+  /**
+   * Executable plan for a query which has a part that can be executed in parallel.
+   *
+   * Profiling executes `serial`, since the profiler is not thread-safe, and so do transactions with changes,
+   * since the partitioned scans of the kernel do not support concurrent access to transaction state.
+   */
+  class ParallelInterpretedExecutionPlan(serial: InterpretedExecutionPlan,
+                                         parallel: InterpretedExecutionPlan,
+                                         cursors: CursorFactory) extends ExecutionPlan {
+
+    override def run(queryContext: QueryContext,
+                     executionMode: ExecutionMode,
+                     params: MapValue,
+                     prePopulateResults: Boolean,
+                     input: InputDataStream,
+                     subscriber: QuerySubscriber): RuntimeResult = {
+      val plan = if (executionMode == ProfileMode || queryContext.transactionalContext.dataRead.transactionStateHasChanges) serial else parallel
+      plan.run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
+    }
+
+    override def threadSafeExecutionResources(): Option[(CursorFactory, ResourceManagerFactory)] =
+      Some((cursors, (monitor: ResourceMonitor) => new ThreadSafeResourceManager(monitor)))
+
+    override def runtimeName: RuntimeName = serial.runtimeName
+
+    override def metadata: Seq[Argument] = serial.metadata
+
+    override def notifications: Set[InternalNotification] = serial.notifications
+  }
 }
+
+/**
+ * How to execute queries in parallel.
+ *
+ * @param executor executes the workers of the queries
+ * @param maxWorkers the maximum number of workers of a single query
+ * @param cursors cursor factory which can be used from several threads
+ */
+case class InterpretedParallelism(executor: CallableExecutor, maxWorkers: Int, cursors: CursorFactory)
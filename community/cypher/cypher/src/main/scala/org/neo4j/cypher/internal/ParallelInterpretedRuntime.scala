@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.common.DependencyResolver
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.options.CypherRuntimeOption
+import org.neo4j.exceptions.CantCompileQueryException
+import org.neo4j.kernel.api.Kernel
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
+
+/**
+ * The interpreted runtime, executing the node scan and the operators reading from it in parallel, on the cypher worker threads.
+ * The number of workers of a single query is limited by [[GraphDatabaseInternalSettings.cypher_worker_count]].
+ *
+ * Only parts of read-only queries can be executed in parallel, see [[org.neo4j.cypher.internal.runtime.interpreted.parallelPlanSplitting]].
+ * For other queries compilation fails, so that they can fall back to [[InterpretedRuntime]].
+ */
+case class ParallelInterpretedRuntime(dependencies: DependencyResolver) extends CypherRuntime[RuntimeContext] {
+
+  override def name: String = "parallel"
+
+  override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.parallel)
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+    val maxWorkers = if (context.config.workers == 0) Runtime.getRuntime.availableProcessors() else context.config.workers
+    if (maxWorkers < 1) {
+      throw new CantCompileQueryException(s"Parallel execution is disabled by ${GraphDatabaseInternalSettings.cypher_worker_count.name()}")
+    }
+    if (!query.readOnly || query.hasLoadCSV || query.periodicCommitInfo.isDefined) {
+      throw new CantCompileQueryException("Only read-only queries can be executed in parallel")
+    }
+
+    val executor = dependencies.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_WORKER)
+    val cursors = dependencies.resolveDependency(classOf[Kernel]).cursors()
+    InterpretedRuntime.compileToExecutable(query, context, Some(InterpretedParallelism(executor, maxWorkers, cursors)))
+  }
+}
@@ -33,6 +33,8 @@ import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.values.virtual.MapValue
 
+import java.util.concurrent.ConcurrentHashMap
+
 /**
  * Tracer for cache activity.
  */
@@ -68,6 +70,18 @@ trait CacheTracer[QUERY_KEY] {
    * The query cache was flushed.
    */
   def queryCacheFlush(sizeOfCacheBeforeFlush: Long): Unit
+
+  /**
+   * The item was found in the cache, and a variant of it planned for other parameter values was used. Also traced as a hit.
+   */
+  def queryCacheVariantHit(queryKey: QUERY_KEY, metaData: String): Unit = {}
+
+  /**
+   * The item was found in the cache, but was planned for parameter values too different from the given ones, so a variant was compiled.
+   * Also traced as a miss.
+   * @param numberOfVariants the number of variants now cached for the item, not counting the item itself
+   */
+  def queryCacheVariantMiss(queryKey: QUERY_KEY, numberOfVariants: Int, metaData: String): Unit = {}
 }
 
 /**
@@ -112,6 +126,32 @@ trait PlanStalenessCaller[EXECUTABLE_QUERY] {
                 cachedExecutableQuery: EXECUTABLE_QUERY): Staleness
 }
 
+/**
+ * Callback interface to find out if a cached query was planned for parameter values
+ * so different from the given ones that another plan should be used.
+ */
+trait PlanVariantSelector[EXECUTABLE_QUERY] {
+  /**
+   * The maximum number of plans to cache per query, including the one it was first planned with.
+   */
+  def maximumVariants: Int
+
+  /**
+   * @return `Some(variant)` identifying the plan that fits the given parameters, if it is not the cached query itself, `None` otherwise.
+   */
+  def variant(transactionalContext: TransactionalContext,
+              cachedExecutableQuery: EXECUTABLE_QUERY,
+              params: MapValue): Option[AnyRef]
+}
+
+object PlanVariantSelector {
+  def none[EXECUTABLE_QUERY]: PlanVariantSelector[EXECUTABLE_QUERY] = new PlanVariantSelector[EXECUTABLE_QUERY] {
+    override def maximumVariants: Int = 1
+
+    override def variant(transactionalContext: TransactionalContext, cachedExecutableQuery: EXECUTABLE_QUERY, params: MapValue): Option[AnyRef] = None
+  }
+}
+
 /**
  * Cache which maps query strings into CachedExecutableQueries.
  *
@@ -122,6 +162,7 @@ trait PlanStalenessCaller[EXECUTABLE_QUERY] {
  * @param maximumSize Maximum size of this cache
  * @param stalenessCaller Decided whether CachedExecutionPlans are stale
  * @param tracer Traces cache activity
+ * @param variantSelector Decides whether to use another plan for the given parameters than the one cached for the query
  */
 
 class QueryCache[QUERY_KEY <: AnyRef,
@@ -129,16 +170,19 @@ class QueryCache[QUERY_KEY <: AnyRef,
                                                        val cacheFactory: CaffeineCacheFactory,
                                                        val maximumSize: Int,
                                                        val stalenessCaller: PlanStalenessCaller[EXECUTABLE_QUERY],
-                                                       val tracer: CacheTracer[QUERY_KEY]) {
+                                                       val tracer: CacheTracer[QUERY_KEY],
+                                                       val variantSelector: PlanVariantSelector[EXECUTABLE_QUERY] = PlanVariantSelector.none[EXECUTABLE_QUERY]) {
 
 
   private val inner: Cache[QUERY_KEY, CachedValue] = cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize)
 
   /*
     * The cached value wraps the value and maintains a count of how many times it has been fetched from the cache
-    * and whether or not it has been recompiled with expression code generation.
+    * and whether or not it has been recompiled with expression code generation, as well as the variants planned for other parameter values.
     */
-  private class CachedValue(val value: EXECUTABLE_QUERY, val recompiledWithExpressionCodeGen: Boolean) {
+  private class CachedValue(val value: EXECUTABLE_QUERY,
+                            val recompiledWithExpressionCodeGen: Boolean,
+                            val variants: ConcurrentHashMap[AnyRef, CachedValue] = new ConcurrentHashMap[AnyRef, CachedValue]()) {
 
     @volatile private var _numberOfHits = 0
 
@@ -173,13 +217,15 @@ class QueryCache[QUERY_KEY <: AnyRef,
    * @param tc TransactionalContext in which to compile and compute staleness
    * @param compiler Compiler
    * @param metaData String which will be passed to the CacheTracer
+   * @param params the parameters the query is executed with, used to select a variant of the cached execution plan
    * @return A CacheLookup with an CachedExecutionPlan
    */
   def computeIfAbsentOrStale(queryKey: QUERY_KEY,
                              tc: TransactionalContext,
                              compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
                              replanStrategy: CypherReplanOption,
-                             metaData: String = ""
+                             metaData: String = "",
+                             params: MapValue = MapValue.EMPTY
                             ): EXECUTABLE_QUERY = {
     if (maximumSize == 0) {
       val result = compiler.compile()
@@ -207,7 +253,13 @@ class QueryCache[QUERY_KEY <: AnyRef,
                   if(invalidNotificationExisting(cachedValue, tc)) {
                     compileAndCache(queryKey, compiler, metaData, hitCache = true)
                   } else {
-                    recompileOrGet(cachedValue, compiler, queryKey, metaData)
+                    val maybeVariant =
+                      if (variantSelector.maximumVariants > 1) variantSelector.variant(tc, cachedValue.value, params)
+                      else None
+                    maybeVariant match {
+                      case Some(variant) => getOrCompileVariant(queryKey, cachedValue, variant, tc, compiler, metaData)
+                      case None => recompileOrGet(cachedValue, compiler, queryKey, metaData)
+                    }
                   }
                 case Stale(secondsSincePlan, maybeReason) =>
                   tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
@@ -258,7 +310,7 @@ class QueryCache[QUERY_KEY <: AnyRef,
       compiler.maybeCompileWithExpressionCodeGen(cachedValue.numberOfHits) match {
         case Some(recompiledQuery) =>
           tracer.queryCompileWithExpressionCodeGen(queryKey, metaData)
-          val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true)
+          val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true, cachedValue.variants)
           inner.put(queryKey, recompiled)
           recompiled
         case None => cachedValue
@@ -268,6 +320,50 @@ class QueryCache[QUERY_KEY <: AnyRef,
     newCachedValue.value
   }
 
+  /**
+   * Get the variant of a cached query planned for parameter values like the given ones, or compile and keep it
+   * if the query does not have as many variants as allowed yet. Otherwise the cached query itself is used.
+   */
+  private def getOrCompileVariant(queryKey: QUERY_KEY,
+                                  cachedValue: CachedValue,
+                                  variant: AnyRef,
+                                  tc: TransactionalContext,
+                                  compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                                  metaData: String
+                                 ): EXECUTABLE_QUERY = {
+    cachedValue.variants.get(variant) match {
+      case null if cachedValue.variants.size() < variantSelector.maximumVariants - 1 =>
+        compileVariant(queryKey, cachedValue, variant, compiler, metaData)
+      case null =>
+        recompileOrGet(cachedValue, compiler, queryKey, metaData)
+      case cachedVariant =>
+        stalenessCaller.staleness(tc, cachedVariant.value) match {
+          case NotStale =>
+            cachedVariant.markHit()
+            tracer.queryCacheVariantHit(queryKey, metaData)
+            hit(queryKey, cachedVariant, metaData)
+          case Stale(secondsSincePlan, maybeReason) =>
+            tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
+            compileVariant(queryKey, cachedValue, variant, compiler, metaData)
+        }
+    }
+  }
+
+  private def compileVariant(queryKey: QUERY_KEY,
+                             cachedValue: CachedValue,
+                             variant: AnyRef,
+                             compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                             metaData: String
+                            ): EXECUTABLE_QUERY = {
+    val newExecutableQuery = compiler.compile()
+    tracer.queryCompile(queryKey, metaData)
+    if (newExecutableQuery.shouldBeCached) {
+      cachedValue.variants.put(variant, new CachedValue(newExecutableQuery, recompiledWithExpressionCodeGen = false))
+    }
+    tracer.queryCacheVariantMiss(queryKey, cachedValue.variants.size(), metaData)
+    miss(queryKey, newExecutableQuery, metaData)
+  }
+
   private def compileAndCache(queryKey: QUERY_KEY,
                               compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
                               metaData: String,
@@ -379,6 +475,9 @@ object QueryCache {
       }
     }
 
+    def cypherTypes: Map[String, CypherType] =
+      scala.collection.JavaConverters.mapAsScalaMap(resultMap).toMap
+
     // Implemented to simplify testing
     override def toString: String =
       scala.collection.JavaConverters.mapAsScalaMap(resultMap).toString
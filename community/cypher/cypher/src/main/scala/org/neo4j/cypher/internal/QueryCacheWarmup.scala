@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.symbols.CTBoolean
+import org.neo4j.cypher.internal.util.symbols.CTDate
+import org.neo4j.cypher.internal.util.symbols.CTDateTime
+import org.neo4j.cypher.internal.util.symbols.CTDuration
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.symbols.CTList
+import org.neo4j.cypher.internal.util.symbols.CTLocalDateTime
+import org.neo4j.cypher.internal.util.symbols.CTLocalTime
+import org.neo4j.cypher.internal.util.symbols.CTMap
+import org.neo4j.cypher.internal.util.symbols.CTPoint
+import org.neo4j.cypher.internal.util.symbols.CTString
+import org.neo4j.cypher.internal.util.symbols.CTTime
+import org.neo4j.cypher.internal.util.symbols.CypherType
+import org.neo4j.cypher.internal.util.symbols.ListType
+import org.neo4j.internal.kernel.api.security.LoginContext
+import org.neo4j.io.fs.FileSystemAbstraction
+import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.KernelTransaction
+import org.neo4j.kernel.availability.AvailabilityGuard
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
+import org.neo4j.kernel.lifecycle.LifecycleAdapter
+import org.neo4j.logging.Log
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobMonitoringParams.systemJob
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.util.concurrent.TimeUnit
+import scala.collection.JavaConverters.asScalaSetConverter
+import scala.util.control.NonFatal
+
+/**
+ * A query to plan when warming up the query cache.
+ *
+ * @param query          the query string, including any pre-parser options.
+ * @param parameterTypes the types of the parameters the query was planned with.
+ */
+case class WarmupQuery(query: String, parameterTypes: Map[String, CypherType]) {
+
+  /**
+   * Parameters of the recorded types, so that the warmed up plan is cached under the same key as the plan of the recorded query.
+   */
+  def parameters: MapValue =
+    if (parameterTypes.isEmpty) {
+      MapValue.EMPTY
+    } else {
+      val builder = new MapValueBuilder(parameterTypes.size)
+      parameterTypes.foreach {
+        case (name, cypherType) => builder.add(name, QueryCacheWarmup.representativeValue(cypherType))
+      }
+      builder.build()
+    }
+}
+
+/**
+ * Records the queries that are planned by an [[ExecutionEngine]], so that they can be persisted and planned again on the next start.
+ * At most as many queries are kept as there are plans in the query cache; the least used are evicted first.
+ */
+class WarmupQueryRecorder(cacheFactory: CaffeineCacheFactory, val maximumQueries: Int) {
+
+  private case class RecordedQuery(query: String, parameterTypes: ParameterTypeMap)
+
+  private val recorded = cacheFactory.createCache[RecordedQuery, java.lang.Boolean](maximumQueries)
+
+  def record(query: String, parameterTypes: ParameterTypeMap): Unit =
+    recorded.put(RecordedQuery(query, parameterTypes), java.lang.Boolean.TRUE)
+
+  /**
+   * @return the recorded queries, the most used first.
+   */
+  def queries: Seq[WarmupQuery] = {
+    val eviction = recorded.policy().eviction()
+    val keys = if (eviction.isPresent) eviction.get().hottest(maximumQueries).keySet() else recorded.asMap().keySet()
+    keys.asScala.toSeq.map(r => WarmupQuery(r.query, r.parameterTypes.cypherTypes))
+  }
+}
+
+/**
+ * Warms up the query cache of an [[ExecutionEngine]].
+ *
+ * The queries recorded by the engine are persisted to a file on shutdown and periodically. On start, the queries in that file are planned
+ * in the background as soon as the database is available, so that queries find their plans cached without waiting for the planner.
+ * Only query strings and the types of their parameters are persisted, not plans, so that plans always reflect the current schema and statistics.
+ * The query strings are persisted as they were given, including any literal values in them.
+ */
+class QueryCacheWarmup(engine: ExecutionEngine,
+                       queryService: GraphDatabaseQueryService,
+                       availabilityGuard: AvailabilityGuard,
+                       fs: FileSystemAbstraction,
+                       file: Path,
+                       jobScheduler: JobScheduler,
+                       persistIntervalMillis: Long,
+                       log: Log) extends LifecycleAdapter {
+
+  private val contextFactory = Neo4jTransactionalContextFactory.create(queryService)
+  @volatile private var stopped = false
+  // Loaded queries that have not been planned yet. They are persisted along with the recorded queries, so that no query is lost
+  // when the database is stopped, or the queries are persisted, before the warm-up has finished.
+  @volatile private var remaining: Seq[WarmupQuery] = Seq.empty
+  private var warmupJob: JobHandle[_] = _
+  private var persistJob: JobHandle[_] = _
+
+  override def start(): Unit = {
+    stopped = false
+    remaining = load()
+    if (remaining.nonEmpty) {
+      warmupJob = jobScheduler.schedule(Group.CYPHER_CACHE, systemJob("Query cache warm-up"), new Runnable {
+        override def run(): Unit = warmUp()
+      })
+    }
+    persistJob = jobScheduler.scheduleRecurring(Group.CYPHER_CACHE, systemJob("Query cache warm-up persistence"), new Runnable {
+        override def run(): Unit = persist()
+      },
+      persistIntervalMillis, persistIntervalMillis, TimeUnit.MILLISECONDS)
+  }
+
+  override def stop(): Unit = {
+    stopped = true
+    if (warmupJob != null) {
+      warmupJob.cancel()
+      warmupJob = null
+    }
+    if (persistJob != null) {
+      persistJob.cancel()
+      persistJob = null
+    }
+    persist()
+  }
+
+  private def load(): Seq[WarmupQuery] =
+    if (fs.fileExists(file)) {
+      try {
+        QueryCacheWarmup.read(fs, file)
+      } catch {
+        case e: IOException =>
+          log.warn(s"Could not read the queries to warm up the query cache with from $file", e)
+          Seq.empty
+      }
+    } else {
+      Seq.empty
+    }
+
+  private[internal] def persist(): Unit = synchronized {
+    val queries = (engine.warmupQueries ++ remaining).distinct.take(engine.maximumWarmupQueries)
+    try {
+      QueryCacheWarmup.write(fs, file, queries)
+    } catch {
+      case e: IOException =>
+        log.warn(s"Could not persist the queries to warm up the query cache with to $file", e)
+    }
+  }
+
+  private[internal] def warmUp(): Unit = {
+    while (!stopped && !availabilityGuard.isAvailable(QueryCacheWarmup.AVAILABILITY_POLL_MILLIS)) {
+      if (availabilityGuard.isShutdown) return
+    }
+    val total = remaining.size
+    var warmed = 0
+    var failed = 0
+    val start = System.nanoTime()
+    while (!stopped && remaining.nonEmpty && availabilityGuard.isAvailable) {
+      val warmupQuery = remaining.head
+      val queryStart = System.nanoTime()
+      try {
+        plan(warmupQuery)
+        warmed += 1
+        log.debug(s"Warmed up the query cache in ${TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart)} ms with: ${warmupQuery.query}")
+      } catch {
+        case NonFatal(e) =>
+          failed += 1
+          log.debug(s"Could not warm up the query cache with: ${warmupQuery.query}", e)
+      }
+      remaining = remaining.tail
+    }
+    log.info(s"Warmed up the query cache with $warmed of $total queries in ${TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)} ms" +
+      s"${if (failed > 0) s", $failed queries could not be planned" else ""}.")
+  }
+
+  private def plan(warmupQuery: WarmupQuery): Unit = {
+    val params = warmupQuery.parameters
+    val transaction = queryService.beginTransaction(KernelTransaction.Type.IMPLICIT, LoginContext.AUTH_DISABLED)
+    try {
+      val context = contextFactory.newContext(transaction, warmupQuery.query, params)
+      try {
+        engine.warmUp(warmupQuery.query, params, context)
+      } finally {
+        context.close()
+      }
+    } finally {
+      transaction.close()
+    }
+  }
+}
+
+object QueryCacheWarmup {
+  val FILE_NAME = "cypher-query-cache-warmup"
+
+  private val FORMAT_VERSION = 1
+  private val AVAILABILITY_POLL_MILLIS = 100L
+
+  // The types that parameters can be derived to, see [[org.neo4j.cypher.internal.compiler.helpers.ParameterValueTypeHelper]].
+  private val typeNames: Map[CypherType, String] = Map(
+    CTString -> "STRING",
+    CTBoolean -> "BOOLEAN",
+    CTInteger -> "INTEGER",
+    CTAny -> "ANY",
+    CTPoint -> "POINT",
+    CTDateTime -> "DATETIME",
+    CTLocalDateTime -> "LOCALDATETIME",
+    CTTime -> "TIME",
+    CTLocalTime -> "LOCALTIME",
+    CTDate -> "DATE",
+    CTDuration -> "DURATION",
+    CTMap -> "MAP",
+    CTList(CTString) -> "LIST OF STRING",
+    CTList(CTAny) -> "LIST OF ANY"
+  )
+
+  private val typesByName: Map[String, CypherType] = typeNames.map(_.swap)
+
+  /**
+   * A value that derives to the given parameter type.
+   */
+  def representativeValue(cypherType: CypherType): AnyValue = cypherType match {
+    case CTString => Values.stringValue("")
+    case CTBoolean => Values.FALSE
+    case CTInteger => Values.longValue(0)
+    case CTPoint => Values.pointValue(CoordinateReferenceSystem.Cartesian, 0.0, 0.0)
+    case CTDateTime => DateTimeValue.datetime(ZonedDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC))
+    case CTLocalDateTime => LocalDateTimeValue.localDateTime(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC))
+    case CTTime => TimeValue.time(OffsetTime.of(LocalTime.MIDNIGHT, ZoneOffset.UTC))
+    case CTLocalTime => LocalTimeValue.localTime(LocalTime.MIDNIGHT)
+    case CTDate => DateValue.epochDate(0)
+    case CTDuration => DurationValue.duration(0, 0, 0, 0)
+    case CTMap => VirtualValues.EMPTY_MAP
+    case listType: ListType if listType.innerType == CTString => VirtualValues.list(Values.stringValue(""))
+    case _: ListType => VirtualValues.EMPTY_LIST
+    // CTAny is derived from floating point values, among others
+    case _ => Values.doubleValue(0.0)
+  }
+
+  def write(fs: FileSystemAbstraction, file: Path, queries: Seq[WarmupQuery]): Unit = {
+    val writable = queries.filter(_.parameterTypes.values.forall(typeNames.contains))
+    // Written in place, since the file watcher of the database directory reports the files deleted by a rename.
+    // A partially written file fails to be read, and only costs the warm-up of the next start.
+    val out = new DataOutputStream(fs.openAsOutputStream(file, false))
+    try {
+      out.writeInt(FORMAT_VERSION)
+      out.writeInt(writable.size)
+      writable.foreach { warmupQuery =>
+        writeString(out, warmupQuery.query)
+        out.writeInt(warmupQuery.parameterTypes.size)
+        warmupQuery.parameterTypes.foreach {
+          case (name, cypherType) =>
+            writeString(out, name)
+            writeString(out, typeNames(cypherType))
+        }
+      }
+    } finally {
+      out.close()
+    }
+  }
+
+  def read(fs: FileSystemAbstraction, file: Path): Seq[WarmupQuery] = {
+    // Lengths and counts are checked against the size of the file, so that a corrupt file fails to be read instead of exhausting the heap
+    val fileSize = fs.getFileSize(file)
+    val in = new DataInputStream(fs.openAsInputStream(file))
+    try {
+      val version = in.readInt()
+      if (version != FORMAT_VERSION) {
+        throw new IOException(s"Unsupported query cache warm-up format version $version")
+      }
+      // Every query takes at least the length of its string and the number of its parameters
+      val count = readLength(in, fileSize / 8, "query count")
+      val queries = Seq.newBuilder[WarmupQuery]
+      var i = 0
+      while (i < count) {
+        val query = readString(in, fileSize)
+        // Every parameter takes at least the lengths of its name and type
+        val parameterCount = readLength(in, fileSize / 8, "parameter count")
+        val parameterTypes = Map.newBuilder[String, CypherType]
+        var j = 0
+        while (j < parameterCount) {
+          val name = readString(in, fileSize)
+          val typeName = readString(in, fileSize)
+          parameterTypes += name -> typesByName.getOrElse(typeName, throw new IOException(s"Unknown parameter type $typeName"))
+          j += 1
+        }
+        queries += WarmupQuery(query, parameterTypes.result())
+        i += 1
+      }
+      queries.result()
+    } finally {
+      in.close()
+    }
+  }
+
+  private def writeString(out: DataOutputStream, string: String): Unit = {
+    val bytes = string.getBytes(StandardCharsets.UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readString(in: DataInputStream, fileSize: Long): String = {
+    val bytes = new Array[Byte](readLength(in, fileSize, "string length"))
+    in.readFully(bytes)
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+
+  private def readLength(in: DataInputStream, maximum: Long, what: String): Int = {
+    val length = in.readInt()
+    if (length < 0 || length > maximum) {
+      throw new IOException(s"Invalid $what $length in query cache warm-up file")
+    }
+    length
+  }
+}
@@ -129,6 +129,7 @@ import org.neo4j.cypher.internal.logical.plans.ExistenceQueryExpression
 import org.neo4j.cypher.internal.logical.plans.Expand
 import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.Foreach
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
@@ -614,6 +615,10 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean,
         }
         PlanDescriptionImpl(id, modeText, children, Seq(expression), variables, withRawCardinalities)
 
+      case ExpandIntersection(_, toName, legs) =>
+        val expressions = legs.map(leg => expandExpressionDescription(leg.from, Some(leg.relName), leg.types.map(_.name), toName, leg.dir, 1, Some(1), None))
+        PlanDescriptionImpl(id, "ExpandIntersection", children, Seq(Details(expressions)), variables, withRawCardinalities)
+
       case Limit(_, count) =>
         PlanDescriptionImpl(id, "Limit", children, Seq(Details(asPrettyString(count))), variables, withRawCardinalities)
 
@@ -37,6 +37,7 @@ import org.neo4j.cypher.internal.plandescription.Arguments.Runtime
 import org.neo4j.cypher.internal.plandescription.Arguments.RuntimeImpl
 import org.neo4j.cypher.internal.plandescription.Arguments.RuntimeVersion
 import org.neo4j.cypher.internal.plandescription.Arguments.SourceCode
+import org.neo4j.cypher.internal.plandescription.Arguments.Spill
 import org.neo4j.cypher.internal.plandescription.Arguments.Time
 import org.neo4j.cypher.internal.plandescription.Arguments.Version
 import org.neo4j.cypher.internal.plandescription.asPrettyString.PrettyStringMaker
@@ -51,6 +52,7 @@ object PlanDescriptionArgumentSerializer {
       case GlobalMemory(value) => Long.box(value)
       case PageCacheHits(value) => Long.box(value)
       case PageCacheMisses(value) => Long.box(value)
+      case Spill(bytes, passes) => s"Spilled $bytes bytes in $passes passes"
       case Rows(value) => Long.box(value)
       case Time(value) => Long.box(value)
       case EstimatedRows(effectiveCardinality, _) => Double.box(effectiveCardinality)
@@ -100,6 +100,7 @@ class PlanDescriptionBuilder(logicalPlan: LogicalPlan,
           .addArgument(Arguments.PageCacheMisses, data.pageCacheMisses)
           .addArgument(Time, data.time())
           .addArgument(Arguments.Memory, data.maxAllocatedMemory())
+          .addArgument((bytes: Long) => Arguments.Spill(bytes, data.spillPasses()), data.spilledBytes())
           .plan
       }
 
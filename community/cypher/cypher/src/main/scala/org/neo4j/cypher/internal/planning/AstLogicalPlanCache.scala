@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.planning
 import org.neo4j.cypher.internal.CacheTracer
 import org.neo4j.cypher.internal.CacheabilityInfo
 import org.neo4j.cypher.internal.DefaultPlanStalenessCaller
+import org.neo4j.cypher.internal.DefaultPlanVariantSelector
 import org.neo4j.cypher.internal.PlanStalenessCaller
 import org.neo4j.cypher.internal.QueryCache
 import org.neo4j.cypher.internal.QueryCache.CacheKey
@@ -43,6 +44,7 @@ import java.time.Clock
  * @param clock                     Clock used to compute logical plan staleness
  * @param divergence                Statistics divergence calculator used to compute logical plan staleness
  * @param lastCommittedTxIdProvider Last committed transaction id provider used to compute logical plan staleness
+ * @param maximumVariants           Maximum number of logical plans to cache per statement, for different parameter values
  * @tparam STATEMENT Type of AST statement used as key
  */
 class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: CaffeineCacheFactory,
@@ -51,7 +53,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
                                                clock: Clock,
                                                divergence: StatsDivergenceCalculator,
                                                lastCommittedTxIdProvider: () => Long,
-                                               log: Log)
+                                               log: Log,
+                                               maximumVariants: Int = 1)
   extends QueryCache[CacheKey[STATEMENT], CacheableLogicalPlan](
     cacheFactory,
     maximumSize,
@@ -59,7 +62,8 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
       divergence,
       lastCommittedTxIdProvider,
       log),
-    tracer) {
+    tracer,
+    new DefaultPlanVariantSelector[CacheableLogicalPlan](maximumVariants, (state, _) => state.reusability, log)) {
 
   def logStalePlanRemovalMonitor(log: Log): CacheTracer[STATEMENT] =
     new CacheTracer[STATEMENT] {
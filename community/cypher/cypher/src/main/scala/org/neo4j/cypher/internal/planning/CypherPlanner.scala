@@ -104,6 +104,7 @@ import org.neo4j.values.virtual.MapValue
 import org.neo4j.values.virtual.MapValueBuilder
 
 import java.time.Clock
+import java.util.concurrent.Executor
 import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 
@@ -120,7 +121,8 @@ object CypherPlanner {
   private[planning] def createQueryGraphSolver(config: CypherPlannerConfiguration,
                                                plannerOption: CypherPlannerOption,
                                                connectComponentsPlannerOption: CypherConnectComponentsPlannerOption,
-                                               monitors: Monitors): IDPQueryGraphSolver = {
+                                               monitors: Monitors,
+                                               idpExecutor: Executor): IDPQueryGraphSolver = {
     val plannerName: CostBasedPlannerName =
       plannerOption match {
         case CypherPlannerOption.default => CostBasedPlannerName.default
@@ -135,7 +137,10 @@ object CypherPlanner {
         val monitor = monitors.newMonitor[IDPQueryGraphSolverMonitor]()
         val solverConfig = new ConfigurableIDPSolverConfig(
           maxTableSize = config.idpMaxTableSize,
-          iterationDurationLimit = config.idpIterationDuration
+          iterationDurationLimit = config.idpIterationDuration,
+          expandIntersection = config.idpExpandIntersection,
+          parallelism = config.idpParallelism,
+          executor = idpExecutor
         )
         (monitor, solverConfig)
       case DPPlannerName =>
@@ -165,6 +170,7 @@ object ParsedQueriesCacheKey {
  * Cypher planner, which either parses and plans a [[PreParsedQuery]] into a [[LogicalPlanResult]] or just plans [[FullyParsedQuery]].
  *
  * @param lastCommittedTxIdProvider Last committed transaction id provider used to compute logical plan staleness
+ * @param idpExecutor Executor that the IDP planner compares candidate plans on, when planning with a parallelism above 1
  */
 case class CypherPlanner(config: CypherPlannerConfiguration,
                          clock: Clock,
@@ -174,7 +180,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
                          plannerOption: CypherPlannerOption,
                          updateStrategy: CypherUpdateStrategy,
                          lastCommittedTxIdProvider: () => Long,
-                         compatibilityMode: CypherCompatibilityVersion
+                         compatibilityMode: CypherCompatibilityVersion,
+                         idpExecutor: Executor
     ) {
 
   private val parsedQueries = new LFUCache[ParsedQueriesCacheKey, BaseState](cacheFactory, config.queryCacheSize)
@@ -190,7 +197,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       clock,
       config.statsDivergenceCalculator,
       lastCommittedTxIdProvider,
-      log)
+      log,
+      config.planVariantsPerQuery)
 
   monitors.addMonitorListener(planCache.logStalePlanRemovalMonitor(log), "cypher")
 
@@ -315,6 +323,11 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       case _ => Volcano
     }
 
+    // Values to estimate equality and range predicates on parameters with, including the literals extracted while parsing
+    val parameterValues =
+      if (config.parameterSensitivePlanning) params.updatedWith(parameterNamesAndValues(syntacticQuery.statement())._2)
+      else MapValue.EMPTY
+
     // Context used to create logical plans
     val plannerContext = PlannerContext(
       tracer,
@@ -326,14 +339,15 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       Some(options.offset),
       monitors,
       CachedSimpleMetricsFactory,
-      createQueryGraphSolver(config, plannerOption, options.queryOptions.connectComponentsPlanner, monitors),
+      createQueryGraphSolver(config, plannerOption, options.queryOptions.connectComponentsPlanner, monitors, idpExecutor),
       config,
       maybeUpdateStrategy.getOrElse(defaultUpdateStrategy),
       clock,
       new SequentialIdGen(),
       simpleExpressionEvaluator,
       params,
-      transactionalContextWrapper.cancellationChecker)
+      transactionalContextWrapper.cancellationChecker,
+      parameterValues)
 
     // Prepare query for caching
     val preparedQuery = planner.normalizeQuery(syntacticQuery, plannerContext)
@@ -376,7 +390,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
           transactionalContextWrapper.kernelTransactionalContext,
           compilerWithExpressionCodeGenOption,
           options.queryOptions.replan,
-          transactionalContextWrapper.kernelTransactionalContext.executingQuery().id())
+          transactionalContextWrapper.kernelTransactionalContext.executingQuery().id(),
+          filteredParams)
       } else if (!enoughParametersSupplied) {
         createPlan(shouldBeCached = false, missingParameterNames = queryParamNames.filterNot(filteredParams.containsKey))
       } else {
@@ -489,6 +504,10 @@ trait CypherCacheHitMonitor[T] {
   def cacheCompile(key: T): Unit = {}
 
   def cacheCompileWithExpressionCodeGen(key: T): Unit = {}
+
+  def cacheVariantHit(key: T): Unit = {}
+
+  def cacheVariantMiss(key: T, numberOfVariants: Int): Unit = {}
 }
 
 /**
@@ -19,34 +19,57 @@
  */
 package org.neo4j.cypher.internal.spi
 
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.internal.kernel.api.PropertyIndexQuery
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.schema
+import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.ValueGroup
 
+import java.lang.Math.max
 import java.lang.Math.min
 
 object TransactionBoundGraphStatistics {
   def apply(transactionalContext: TransactionalContext, log: Log): MinimumGraphStatistics =
     apply(transactionalContext.kernelTransaction().dataRead(),
       transactionalContext.kernelTransaction().schemaRead(),
-      log)
+      log,
+      cardinalityFeedback(transactionalContext.graph()))
 
-  def apply(read: Read, schemaRead: SchemaRead, log: Log): MinimumGraphStatistics = {
-    new MinimumGraphStatistics(new BaseTransactionBoundGraphStatistics(read, schemaRead, log))
+  def apply(read: Read, schemaRead: SchemaRead, log: Log, cardinalityFeedback: CardinalityFeedback = CardinalityFeedback.NONE): MinimumGraphStatistics = {
+    new MinimumGraphStatistics(new BaseTransactionBoundGraphStatistics(read, schemaRead, log, cardinalityFeedback))
   }
 
-  private class BaseTransactionBoundGraphStatistics(read: Read, schemaRead: SchemaRead, log: Log) extends GraphStatistics with IndexDescriptorCompatibility {
+  /**
+   * The cardinality feedback of the database, or [[CardinalityFeedback.NONE]] if it is not enabled.
+   */
+  def cardinalityFeedback(graph: GraphDatabaseQueryService): CardinalityFeedback = {
+    val resolver = graph.getDependencyResolver
+    if (resolver.containsDependency(classOf[CardinalityFeedback])) resolver.resolveDependency(classOf[CardinalityFeedback])
+    else CardinalityFeedback.NONE
+  }
+
+  private class BaseTransactionBoundGraphStatistics(read: Read,
+                                                    schemaRead: SchemaRead,
+                                                    log: Log,
+                                                    cardinalityFeedback: CardinalityFeedback) extends GraphStatistics with IndexDescriptorCompatibility {
+
+    override def observedSelectivity(predicateFingerprint: String): Option[Selectivity] =
+      cardinalityFeedback.observedSelectivity(predicateFingerprint)
 
     override def uniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
       try {
@@ -78,6 +101,80 @@ object TransactionBoundGraphStatistics {
           None
       }
 
+    override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+      try {
+        maybeKernelIndexDescriptor(index).flatMap { indexDescriptor =>
+          val sample = schemaRead.indexSample(indexDescriptor)
+          val histogram = sample.histogram()
+          // The histogram of a composite index only covers its first property
+          if (sample.indexSize() == 0 || !histogram.isPresent || index.isComposite) {
+            None
+          } else {
+            // Values missing from the sample are assumed to still occur once, like any other rare value
+            val valueCount = max(histogram.get().estimateEquals(value), 1L)
+            Some(Selectivity(min(valueCount.toDouble / sample.indexSize(), 1.0)))
+          }
+        }
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug("Index not found for parameterValueSelectivity", e)
+          None
+      }
+
+    override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] =
+      try {
+        maybeKernelIndexDescriptor(index).flatMap { indexDescriptor =>
+          val sample = schemaRead.indexSample(indexDescriptor)
+          val histogram = sample.histogram()
+          // The histogram of a composite index only covers its first property
+          if (sample.indexSize() == 0 || !histogram.isPresent || index.isComposite) {
+            None
+          } else {
+            rangePredicate(index.property.id, range).map { predicate =>
+              // Like for equality, a range that matches nothing in the sample is assumed to still match once
+              val valueCount = max(histogram.get().estimateRange(predicate), 1L)
+              Selectivity(min(valueCount.toDouble / sample.indexSize(), 1.0))
+            }
+          }
+        }
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug("Index not found for parameterRangeSelectivity", e)
+          None
+      }
+
+    // Values of different groups are never in range of each other, and points are not ordered, so those are left to the default estimate
+    private def rangePredicate(propertyKeyId: Int, range: ParameterRange): Option[PropertyIndexQuery.RangePredicate[_]] = {
+      val lower = range.lower.map(_.value)
+      val upper = range.upper.map(_.value)
+      val groups = (lower ++ upper).map(_.valueGroup()).toSet
+      if (groups.size != 1 || groups.contains(ValueGroup.GEOMETRY)) {
+        None
+      } else {
+        Some(PropertyIndexQuery.range(propertyKeyId, lower.orNull, range.lower.exists(_.inclusive), upper.orNull, range.upper.exists(_.inclusive)))
+      }
+    }
+
+    override def leadingPropertyUniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+      try {
+        maybeKernelIndexDescriptor(index).flatMap { indexDescriptor =>
+          // The histogram of a composite index is built over its first property
+          val histogram = schemaRead.indexSample(indexDescriptor).histogram()
+          if (!histogram.isPresent) {
+            None
+          } else {
+            Some(Selectivity(1.0 / max(histogram.get().distinctValues(), 1L)))
+          }
+        }
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug("Index not found for leadingPropertyUniqueValueSelectivity", e)
+          None
+      }
+
     override def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity] =
       try {
         val entitiesCount = index.entityType match {
@@ -77,7 +77,7 @@ object TransactionBoundPlanContext {
             logger: InternalNotificationLogger,
             log: Log): TransactionBoundPlanContext = {
 
-    val statistics = TransactionBoundGraphStatistics(tc.dataRead, tc.schemaRead, log)
+    val statistics = TransactionBoundGraphStatistics(tc.dataRead, tc.schemaRead, log, TransactionBoundGraphStatistics.cardinalityFeedback(tc.graph))
 
     new TransactionBoundPlanContext(tc, logger, InstrumentedGraphStatistics(statistics, new MutableGraphStatisticsSnapshot()))
   }
@@ -264,7 +264,7 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
             None
           } else {
             kernelToCypher(reference.getIndexType) map { indexType =>
-              IndexDescriptor(indexType, entityType, properties, behaviours, orderCapability, valueCapability, isUnique)
+              IndexDescriptor(indexType, entityType, properties, behaviours, orderCapability, valueCapability, isUnique, reference.getCapability.supportsSkipScan())
             }
           }
         case _ => None
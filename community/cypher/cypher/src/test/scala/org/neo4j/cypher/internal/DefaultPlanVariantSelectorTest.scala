@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.planner.spi.DelegatingGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.GraphStatistics
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.ParameterBound
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
+import org.neo4j.cypher.internal.planner.spi.ParameterRangeSelectivity
+import org.neo4j.cypher.internal.planner.spi.ParameterSelectivity
+import org.neo4j.cypher.internal.planner.spi.ParameterValueSelectivity
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.PropertyKeyId
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.IntValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualValues
+
+class DefaultPlanVariantSelectorTest extends CypherFunSuite {
+
+  private val index = IndexDescriptor.forLabel(IndexDescriptor.IndexType.Btree, LabelId(0), Seq(PropertyKeyId(0)))
+  private val selector = new DefaultPlanVariantSelector[AnyRef](4, (_, _) => FineToReuse, null)
+  private val planned = Map[ParameterSelectivity, Double](ParameterValueSelectivity(index, "p", Values.stringValue("rare")) -> 0.0001)
+
+  test("should bucket selectivities by order of magnitude") {
+    DefaultPlanVariantSelector.bucket(1.0) shouldBe 0
+    DefaultPlanVariantSelector.bucket(0.5) shouldBe -1
+    DefaultPlanVariantSelector.bucket(0.01) shouldBe -2
+    DefaultPlanVariantSelector.bucket(0.0099) shouldBe -3
+    DefaultPlanVariantSelector.bucket(0.0) shouldBe Int.MinValue
+  }
+
+  test("should use the cached plan for the value it was planned with") {
+    selector.variant(planned, params("rare"), notUsed) shouldBe None
+  }
+
+  test("should use the cached plan for a value of similar selectivity") {
+    selector.variant(planned, params("other rare"), statistics("other rare" -> 0.0005)) shouldBe None
+  }
+
+  test("should use the cached plan if the parameter is not given") {
+    selector.variant(planned, MapValue.EMPTY, notUsed) shouldBe None
+  }
+
+  test("should use the cached plan if there is no estimate for the value") {
+    selector.variant(planned, params("unknown"), statistics()) shouldBe None
+  }
+
+  test("should use a variant for a value of different selectivity") {
+    selector.variant(planned, params("common"), statistics("common" -> 0.3)) shouldBe Some(Map((index, "p") -> -1))
+  }
+
+  test("should use a variant for a range of different selectivity") {
+    val range = ParameterRange(Some(ParameterBound("from", Values.intValue(90), inclusive = true)), Some(ParameterBound("to", Values.intValue(100), inclusive = false)))
+    val plannedRange = Map[ParameterSelectivity, Double](ParameterRangeSelectivity(index, range) -> 0.001)
+    val rangeStatistics = new DelegatingGraphStatistics(null) {
+      override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] = {
+        val width = range.upper.get.value.asInstanceOf[IntValue].value() - range.lower.get.value.asInstanceOf[IntValue].value()
+        Some(Selectivity(width / 10000.0))
+      }
+    }
+
+    selector.variant(plannedRange, rangeParams(90, 100), notUsed) shouldBe None
+    selector.variant(plannedRange, rangeParams(10, 25), rangeStatistics) shouldBe None
+    selector.variant(plannedRange, rangeParams(0, 5000), rangeStatistics) shouldBe Some(Map((index, "from..to") -> -1))
+    selector.variant(plannedRange, VirtualValues.map(Array("from"), Array(Values.intValue(0))), notUsed) shouldBe None
+  }
+
+  private def params(p: String): MapValue = VirtualValues.map(Array("p"), Array(Values.stringValue(p)))
+
+  private def rangeParams(from: Int, to: Int): MapValue = VirtualValues.map(Array("from", "to"), Array(Values.intValue(from), Values.intValue(to)))
+
+  private def notUsed: GraphStatistics = fail("Statistics should not be used")
+
+  private def statistics(selectivities: (String, Double)*): GraphStatistics = new DelegatingGraphStatistics(null) {
+    override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+      selectivities.collectFirst { case (v, s) if Values.stringValue(v) == value => Selectivity(s) }
+  }
+}
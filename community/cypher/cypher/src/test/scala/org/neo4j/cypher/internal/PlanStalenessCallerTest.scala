@@ -27,7 +27,9 @@ import org.neo4j.cypher.internal.compiler.StatsDivergenceCalculator
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.GraphStatisticsSnapshot
 import org.neo4j.cypher.internal.planner.spi.NodesWithLabelCardinality
+import org.neo4j.cypher.internal.planner.spi.ObservedSelectivity
 import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.Selectivity
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.time.Clocks
@@ -214,6 +216,36 @@ class PlanStalenessCallerTest extends CypherFunSuite {
     }
   }
 
+  test("should be stale if an observed selectivity changed, even if the txId didn't change") {
+    testAll { (algorithm, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0, ObservedSelectivity("n.prop = 42") -> 0.0))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(algorithm, 0.5, 0.1, 1000, 100000)
+
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.0)
+      when(stats.observedSelectivity("n.prop = 42")).thenReturn(Some(Selectivity(0.01)))
+      val planStalenessCaller = new DefaultPlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(17), not_used, null)
+
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe a[Stale]
+    }
+  }
+
+  test("should not be stale if an observed selectivity didn't change") {
+    testAll { (algorithm, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0, ObservedSelectivity("n.prop = 42") -> 0.01))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(algorithm, 0.5, 0.1, 1000, 100000)
+
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.0)
+      when(stats.observedSelectivity("n.prop = 42")).thenReturn(Some(Selectivity(0.01)))
+      val planStalenessCaller = new DefaultPlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(23), not_used, null)
+
+      clock.forward(2, SECONDS)
+
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe NotStale
+    }
+  }
+
   def testAll(f: (CypherReplanAlgorithm, FakeClock) => Unit): Unit = {
     for (algorithm <- divergenceCalculators)
       withClue(s"For divergence calculator '$algorithm': ") { f(algorithm, Clocks.fakeClock()) }
@@ -31,6 +31,8 @@ import org.neo4j.cypher.internal.QueryCacheTest.compilerWithExpressionCodeGenOpt
 import org.neo4j.cypher.internal.QueryCacheTest.newCache
 import org.neo4j.cypher.internal.QueryCacheTest.newKey
 import org.neo4j.cypher.internal.QueryCacheTest.newTracer
+import org.neo4j.cypher.internal.QueryCacheTest.numberingCompiler
+import org.neo4j.cypher.internal.QueryCacheTest.parameterVariants
 import org.neo4j.cypher.internal.QueryCacheTest.staleAfterNTimes
 import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
 import org.neo4j.cypher.internal.options.CypherReplanOption
@@ -38,6 +40,7 @@ import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
 import org.neo4j.values.virtual.VirtualValues
 import org.scalatest.mockito.MockitoSugar
 
@@ -319,6 +322,68 @@ class QueryCacheTest extends CypherFunSuite {
     verifyNoMoreInteractions(tracer)
   }
 
+  test("should compile and cache a variant for parameters the cached query was not planned for") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, variantSelector = parameterVariants(maximumVariants = 3))
+    val key = newKey("foo")
+    val compiler = numberingCompiler(key)
+    val params = VirtualValues.map(Array("p"), Array(Values.of(1)))
+
+    // When
+    val first = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", MapValue.EMPTY)
+    val variant = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", params)
+    val cachedVariant = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", params)
+    val cachedFirst = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", MapValue.EMPTY)
+
+    // Then
+    first.key should equal("foo-1")
+    variant.key should equal("foo-2")
+    cachedVariant should equal(variant)
+    cachedFirst should equal(first)
+
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer, times(2)).queryCompile(key, "")
+    o.verify(tracer).queryCacheVariantMiss(key, 1, "")
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCacheVariantHit(key, "")
+    o.verify(tracer, times(2)).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
+  test("should use the cached query once there are as many variants as allowed") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, variantSelector = parameterVariants(maximumVariants = 2))
+    val key = newKey("foo")
+    val compiler = numberingCompiler(key)
+
+    // When
+    cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", MapValue.EMPTY)
+    val variant = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", VirtualValues.map(Array("p"), Array(Values.of(1))))
+    val other = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", VirtualValues.map(Array("p"), Array(Values.of(2))))
+
+    // Then
+    variant.key should equal("foo-2")
+    other.key should equal("foo-1")
+  }
+
+  test("should not compile variants when only one plan per query is allowed") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, variantSelector = parameterVariants(maximumVariants = 1))
+    val key = newKey("foo")
+    val compiler = numberingCompiler(key)
+
+    // When
+    cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", MapValue.EMPTY)
+    val other = cache.computeIfAbsentOrStale(key, TC, compiler, CypherReplanOption.default, "", VirtualValues.map(Array("p"), Array(Values.of(1))))
+
+    // Then
+    other.key should equal("foo-1")
+  }
+
   test("parameterTypeMap should equal if same parameters") {
     val params1 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
     val params2 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
@@ -390,8 +455,40 @@ object QueryCacheTest extends MockitoSugar {
 
   def newKey(string: String): Key = CacheKey(string, ParameterTypeMap.empty, txStateHasChanges = false)
 
-  def newCache(tracer: Tracer = newTracer(), stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(), size: Int = 10): QueryCache[CacheKey[String], MyValue] = {
-    new QueryCache[CacheKey[String], MyValue](cacheFactory, size, stalenessCaller, tracer)
+  def newCache(tracer: Tracer = newTracer(),
+               stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(),
+               size: Int = 10,
+               variantSelector: PlanVariantSelector[MyValue] = PlanVariantSelector.none[MyValue]): QueryCache[CacheKey[String], MyValue] = {
+    new QueryCache[CacheKey[String], MyValue](cacheFactory, size, stalenessCaller, tracer, variantSelector)
+  }
+
+  /**
+   * Compiles a new value on each call, and never with expression code generation.
+   */
+  def numberingCompiler(key: Key): CompilerWithExpressionCodeGenOption[MyValue] = new CompilerWithExpressionCodeGenOption[MyValue] {
+    private var compilations = 0
+
+    override def compile(): MyValue = {
+      compilations += 1
+      MyValue(s"${key.queryRep}-$compilations")(compiledWithExpressionCodeGen = false)
+    }
+
+    override def compileWithExpressionCodeGen(): MyValue = compile()
+
+    override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[MyValue] = None
+  }
+
+  /**
+   * Uses a variant per value of the parameter `p`, and the cached query if there is no such parameter.
+   */
+  def parameterVariants(maximumVariants: Int): PlanVariantSelector[MyValue] = {
+    val max = maximumVariants
+    new PlanVariantSelector[MyValue] {
+      override def maximumVariants: Int = max
+
+      override def variant(transactionalContext: TransactionalContext, cachedExecutableQuery: MyValue, params: MapValue): Option[AnyRef] =
+        if (params.containsKey("p")) Some(params.get("p")) else None
+    }
   }
 
   def newTracer(): Tracer = mock[Tracer]
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
+import org.neo4j.cypher.internal.compiler.helpers.ParameterValueTypeHelper
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.symbols.CTBoolean
+import org.neo4j.cypher.internal.util.symbols.CTDate
+import org.neo4j.cypher.internal.util.symbols.CTDateTime
+import org.neo4j.cypher.internal.util.symbols.CTDuration
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.symbols.CTList
+import org.neo4j.cypher.internal.util.symbols.CTLocalDateTime
+import org.neo4j.cypher.internal.util.symbols.CTLocalTime
+import org.neo4j.cypher.internal.util.symbols.CTMap
+import org.neo4j.cypher.internal.util.symbols.CTPoint
+import org.neo4j.cypher.internal.util.symbols.CTString
+import org.neo4j.cypher.internal.util.symbols.CTTime
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.file.Path
+
+class QueryCacheWarmupTest extends CypherFunSuite {
+
+  private val allTypes = Seq(CTString, CTBoolean, CTInteger, CTAny, CTPoint, CTDateTime, CTLocalDateTime, CTTime, CTLocalTime, CTDate,
+    CTDuration, CTMap, CTList(CTString), CTList(CTAny))
+
+  private val file = Path.of("warmup")
+
+  test("should derive the parameter types of the recorded query from the synthesized parameters") {
+    allTypes.foreach { cypherType =>
+      ParameterValueTypeHelper.deriveCypherType(QueryCacheWarmup.representativeValue(cypherType)) shouldBe cypherType
+    }
+
+    val params = VirtualValues.map(Array("a", "b", "c"), Array(Values.stringValue("x"), Values.doubleValue(1.5), VirtualValues.list(Values.longValue(1))))
+    val parameterTypes = QueryCache.extractParameterTypeMap(params)
+    QueryCache.extractParameterTypeMap(WarmupQuery("RETURN $a, $b, $c", parameterTypes.cypherTypes).parameters) shouldBe parameterTypes
+    WarmupQuery("RETURN 1", Map.empty).parameters shouldBe MapValue.EMPTY
+  }
+
+  test("should read the persisted queries") {
+    val fs = new EphemeralFileSystemAbstraction()
+    try {
+      val queries = Seq(
+        WarmupQuery("CYPHER planner=dp MATCH (n:A {p: $p}) RETURN n", Map("p" -> CTInteger)),
+        WarmupQuery("MATCH (n)\nRETURN n.naïve", Map.empty),
+        WarmupQuery("RETURN 1", allTypes.zipWithIndex.map { case (t, i) => s"p$i" -> t }.toMap)
+      )
+
+      QueryCacheWarmup.write(fs, file, queries)
+
+      QueryCacheWarmup.read(fs, file) shouldBe queries
+    } finally {
+      fs.close()
+    }
+  }
+
+  test("should replace previously persisted queries") {
+    val fs = new EphemeralFileSystemAbstraction()
+    try {
+      QueryCacheWarmup.write(fs, file, Seq(WarmupQuery("RETURN 1", Map.empty), WarmupQuery("RETURN 2", Map.empty)))
+      QueryCacheWarmup.write(fs, file, Seq(WarmupQuery("RETURN 3", Map.empty)))
+
+      QueryCacheWarmup.read(fs, file) shouldBe Seq(WarmupQuery("RETURN 3", Map.empty))
+    } finally {
+      fs.close()
+    }
+  }
+
+  test("should not read files of an unknown format version") {
+    val fs = new EphemeralFileSystemAbstraction()
+    try {
+      val out = new DataOutputStream(fs.openAsOutputStream(file, false))
+      out.writeInt(42)
+      out.writeInt(0)
+      out.close()
+
+      an[IOException] should be thrownBy QueryCacheWarmup.read(fs, file)
+    } finally {
+      fs.close()
+    }
+  }
+
+  test("should not read files with invalid lengths") {
+    val corruptions: Seq[DataOutputStream => Unit] = Seq(
+      out => { out.writeInt(-1) },
+      out => { out.writeInt(Int.MaxValue) },
+      out => { out.writeInt(1); out.writeInt(-1) },
+      out => { out.writeInt(1); out.writeInt(Int.MaxValue) },
+      out => { out.writeInt(1); out.writeInt(0); out.writeInt(Int.MaxValue) },
+      out => { out.writeInt(1); out.writeInt(0); out.writeInt(1); out.writeInt(Int.MinValue) }
+    )
+    corruptions.zipWithIndex.foreach {
+      case (corruption, i) => withClue(s"corruption $i") {
+        val fs = new EphemeralFileSystemAbstraction()
+        try {
+          val out = new DataOutputStream(fs.openAsOutputStream(file, false))
+          out.writeInt(1)
+          corruption(out)
+          out.close()
+
+          an[IOException] should be thrownBy QueryCacheWarmup.read(fs, file)
+        } finally {
+          fs.close()
+        }
+      }
+    }
+  }
+
+  test("should record distinct queries up to the maximum") {
+    val recorder = new WarmupQueryRecorder(TestExecutorCaffeineCacheFactory, 2)
+    val intParams = QueryCache.extractParameterTypeMap(VirtualValues.map(Array("p"), Array(Values.longValue(1))))
+    val stringParams = QueryCache.extractParameterTypeMap(VirtualValues.map(Array("p"), Array(Values.stringValue("1"))))
+
+    recorder.record("RETURN $p", intParams)
+    recorder.record("RETURN $p", intParams)
+    recorder.record("RETURN $p", stringParams)
+
+    recorder.queries should contain theSameElementsAs Seq(
+      WarmupQuery("RETURN $p", Map("p" -> CTInteger)),
+      WarmupQuery("RETURN $p", Map("p" -> CTString))
+    )
+
+    recorder.record("RETURN 1", QueryCache.ParameterTypeMap.empty)
+    recorder.queries.size should be <= 2
+  }
+}
@@ -31,6 +31,7 @@ import org.neo4j.cypher.internal.compiler.phases.Compatibility4_3
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.ComponentConnectorPlanner
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.DPSolverConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.DefaultIDPSolverConfig
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.IDPSolver
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.JoinDisconnectedQueryGraphComponents
 import org.neo4j.cypher.internal.compiler.planner.logical.idp.cartesianProductsOrValueJoins
 import org.neo4j.cypher.internal.expressions.In
@@ -105,7 +106,7 @@ class CypherPlannerTest extends CypherFunSuite {
   test("should use correct solvers") {
     forAll(configOptions) {
       (planner: CypherPlannerOption, componentConnector: CypherConnectComponentsPlannerOption, expectedMaxTableSize: Int, expectedIterationDurationLimit: Long, componentConnectorAssertion: (Int, Long) => JoinDisconnectedQueryGraphComponents => Assertion) =>
-        val qgSolver = CypherPlanner.createQueryGraphSolver(CypherPlannerConfiguration.defaults(), planner, componentConnector, mock[Monitors])
+        val qgSolver = CypherPlanner.createQueryGraphSolver(CypherPlannerConfiguration.defaults(), planner, componentConnector, mock[Monitors], IDPSolver.callingThread)
 
         qgSolver.singleComponentSolver.solverConfig.maxTableSize should equal(expectedMaxTableSize)
         qgSolver.singleComponentSolver.solverConfig.iterationDurationLimit should equal(expectedIterationDurationLimit)
@@ -147,7 +148,8 @@ class CypherPlannerTest extends CypherFunSuite {
       CypherPlannerOption.default,
       CypherUpdateStrategy.default,
       getTx,
-      compatibilityMode = Compatibility4_3)
+      compatibilityMode = Compatibility4_3,
+      idpExecutor = IDPSolver.callingThread)
 
     val query =
       """MATCH (n)
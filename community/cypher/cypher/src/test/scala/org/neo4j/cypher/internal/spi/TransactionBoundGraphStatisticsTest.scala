@@ -25,6 +25,8 @@ import org.mockito.Mockito.verifyNoInteractions
 import org.mockito.Mockito.when
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.ParameterBound
+import org.neo4j.cypher.internal.planner.spi.ParameterRange
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.Selectivity
@@ -36,7 +38,11 @@ import org.neo4j.internal.schema
 import org.neo4j.internal.schema.IndexPrototype
 import org.neo4j.internal.schema.SchemaDescriptor
 import org.neo4j.internal.schema.SchemaDescriptors
+import org.neo4j.kernel.api.index.IndexSample
+import org.neo4j.kernel.api.index.IndexValueHistogram
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
 
 class TransactionBoundGraphStatisticsTest extends CypherFunSuite {
 
@@ -194,6 +200,73 @@ class TransactionBoundGraphStatisticsTest extends CypherFunSuite {
     verifyNoInteractions(theLog)
   }
 
+  test("leadingPropertyUniqueValueSelectivity should compute selectivity from the histogram") {
+    //given
+    val histogram = new IndexValueHistogram.Builder(4, 0)
+    (1 to 8).foreach(i => histogram.add(10, () => Values.intValue(i)))
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(80, 8, 80, 0, histogram.build(() => Values.intValue(8))))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.leadingPropertyUniqueValueSelectivity(index) should equal(Some(Selectivity(0.125)))
+  }
+
+  test("leadingPropertyUniqueValueSelectivity should handle missing histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(80, 8, 80))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.leadingPropertyUniqueValueSelectivity(index) should equal(None)
+  }
+
+  test("parameterRangeSelectivity should estimate selectivity from the histogram") {
+    //given
+    val histogram = new IndexValueHistogram.Builder(4, 0)
+    (1 to 8).foreach(i => histogram.add(10, () => Values.intValue(i)))
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(80, 8, 80, 0, histogram.build(() => Values.intValue(8))))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.parameterRangeSelectivity(index, range(Values.intValue(0), Values.intValue(100))) should equal(Some(Selectivity.ONE))
+    val narrow = statistics.parameterRangeSelectivity(index, range(Values.intValue(7), Values.intValue(8))).get
+    narrow should be < Selectivity(0.5)
+    narrow should be > Selectivity.ZERO
+  }
+
+  test("parameterRangeSelectivity should not estimate ranges over values of different groups") {
+    //given
+    val histogram = new IndexValueHistogram.Builder(4, 0)
+    (1 to 8).foreach(i => histogram.add(10, () => Values.intValue(i)))
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(80, 8, 80, 0, histogram.build(() => Values.intValue(8))))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.parameterRangeSelectivity(index, range(Values.intValue(0), Values.stringValue("a"))) should equal(None)
+  }
+
+  test("parameterRangeSelectivity should handle missing histogram") {
+    //given
+    when(schemaRead.indexSample(descriptor)).thenReturn(new IndexSample(80, 8, 80))
+
+    //when
+    val statistics = TransactionBoundGraphStatistics(read, schemaRead, log)
+
+    //then
+    statistics.parameterRangeSelectivity(index, range(Values.intValue(0), Values.intValue(100))) should equal(None)
+  }
+
+  private def range(from: Value, to: Value): ParameterRange =
+    ParameterRange(Some(ParameterBound("from", from, inclusive = true)), Some(ParameterBound("to", to, inclusive = true)))
+
   override protected def beforeEach(): Unit = {
     read = mock[Read]
     schemaRead = mock[SchemaRead]
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ExpressionCompiler
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.FilterPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ProjectionPipe
+import org.neo4j.cypher.internal.util.Eagerly
+
+/**
+ * Pipe mapper which replaces the predicates of filters and the expressions of projections
+ * with generated code, see [[ExpressionCompiler]].
+ */
+case class CompiledExpressionPipeMapper(inner: PipeMapper) extends PipeMapper {
+
+  override def onLeaf(plan: LogicalPlan): Pipe = inner.onLeaf(plan)
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source) match {
+    case pipe@FilterPipe(_, predicate) =>
+      val compiled = ExpressionCompiler.compile(predicate)
+      if (compiled eq predicate) pipe else pipe.copy(predicate = compiled)(pipe.id)
+
+    case pipe@ProjectionPipe(_, InterpretedCommandProjection(expressions)) if expressions.values.exists(ExpressionCompiler.isCompilable) =>
+      pipe.copy(projection = InterpretedCommandProjection(Eagerly.immutableMapValues(expressions, ExpressionCompiler.compile)))(pipe.id)
+
+    case pipe => pipe
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+}
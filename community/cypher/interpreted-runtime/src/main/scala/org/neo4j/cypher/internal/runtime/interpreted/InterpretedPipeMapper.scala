@@ -72,6 +72,7 @@ import org.neo4j.cypher.internal.logical.plans.ExhaustiveLimit
 import org.neo4j.cypher.internal.logical.plans.Expand
 import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.Foreach
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
@@ -202,6 +203,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.DirectedRelationshipI
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DirectedRelationshipIndexSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DirectedRelationshipTypeScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctSingleNodePipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctTwoNodesPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.EmptyResultPipe
@@ -209,11 +212,13 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ErrorPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExhaustiveLimitPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandAllPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntersectionPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.FilterPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ForeachApplyPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ForeachPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.IndexSeekModeFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IntersectionPipeLeg
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyPropertyKey
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyType
@@ -227,6 +232,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByIdSeekPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeByLabelScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeCountFromCountStorePipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinSingleNodePipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinTwoNodesPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexContainsScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexEndsWithScanPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeIndexScanPipe
@@ -560,6 +567,10 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandInto) =>
         ExpandIntoPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
 
+      case ExpandIntersection(_, toName, legs) =>
+        val pipeLegs = legs.map(leg => IntersectionPipeLeg(leg.from, leg.relName, leg.dir, RelationshipTypes(leg.types.toArray)))
+        ExpandIntersectionPipe(source, toName, pipeLegs)(id = id)
+
       case OptionalExpand(_, fromName, dir, types, toName, relName, ExpandAll, predicate) =>
         OptionalExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray), predicate.map(buildExpression))(id = id)
 
@@ -647,16 +658,10 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         ExhaustiveLimitPipe(source, buildExpression(count))(id = id)
 
       case Aggregation(_, groupingExpressions, aggregatingExpressions) if aggregatingExpressions.isEmpty =>
-        val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
-        }.toArray
-        DistinctPipe(source, projection)(id = id)
+        distinctPipe(source, groupingExpressions, buildExpression, id)
 
       case Distinct(_, groupingExpressions) =>
-        val projection = groupingExpressions.map {
-          case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
-        }.toArray
-        DistinctPipe(source, projection)(id = id)
+        distinctPipe(source, groupingExpressions, buildExpression, id)
 
       case OrderedDistinct(_, groupingExpressions, orderToLeverage) =>
         val projection = groupingExpressions.map {
@@ -916,7 +921,11 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         CartesianProductPipe(lhs, rhs)(id = id)
 
       case NodeHashJoin(nodes, _, _) =>
-        NodeHashJoinPipe(nodes, lhs, rhs)(id = id)
+        nodes.toList match {
+          case Seq(node) => NodeHashJoinSingleNodePipe(node, lhs, rhs)(id = id)
+          case Seq(firstNode, secondNode) => NodeHashJoinTwoNodesPipe(firstNode, secondNode, lhs, rhs)(id = id)
+          case _ => NodeHashJoinPipe(nodes, lhs, rhs)(id = id)
+        }
 
       case LeftOuterHashJoin(nodes, l, r) =>
         val nullableVariables = r.availableSymbols -- l.availableSymbols
@@ -993,6 +1002,24 @@ case class InterpretedPipeMapper(readOnly: Boolean,
     }
   }
 
+  private def distinctPipe(source: Pipe,
+                           groupingExpressions: Map[String, internal.expressions.Expression],
+                           buildExpression: internal.expressions.Expression => Expression,
+                           id: Id): Pipe = {
+    val projection = groupingExpressions.map {
+      case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+    }.toArray
+    val onlyNodes = groupingExpressions.values.forall {
+      case variable: internal.expressions.Variable => semanticTable.isNodeNoFail(variable.name)
+      case _ => false
+    }
+    projection match {
+      case Array(column) if onlyNodes => DistinctSingleNodePipe(source, column)(id = id)
+      case Array(firstColumn, secondColumn) if onlyNodes => DistinctTwoNodesPipe(source, firstColumn, secondColumn)(id = id)
+      case _ => DistinctPipe(source, projection)(id = id)
+    }
+  }
+
   private def buildPredicate(id: Id, expr: internal.expressions.Expression): Predicate =
     expressionConverters.toCommandPredicate(id, expr)
       .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelGatherPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedAllNodesScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedNodeByLabelScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedNodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.scheduler.CallableExecutor
+
+/**
+ * Pipe mapper for the worker part of a [[ParallelPlan]]. The node scan is replaced by an input pipe,
+ * which reads the nodes of the partitions reserved by the worker.
+ */
+case class ParallelWorkerPipeMapper(inner: PipeMapper, parallelPlan: ParallelPlan, indexRegistrator: QueryIndexRegistrator) extends PipeMapper {
+
+  override def onLeaf(plan: LogicalPlan): Pipe = plan match {
+    case p if p.id == parallelPlan.leaf.id =>
+      if (p.isInstanceOf[NodeByLabelScan]) indexRegistrator.registerLabelScan()
+      InputPipe(Array(parallelPlan.leaf.idName))(id = p.id)
+
+    case _ => inner.onLeaf(plan)
+  }
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source)
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+}
+
+/**
+ * Pipe mapper for the single threaded part of a [[ParallelPlan]], where the rows of all workers are gathered.
+ */
+case class ParallelGatherPipeMapper(inner: PipeMapper,
+                                    parallelPlan: ParallelPlan,
+                                    workerPipe: Pipe,
+                                    maxWorkers: Int,
+                                    executor: CallableExecutor) extends PipeMapper {
+
+  override def onLeaf(plan: LogicalPlan): Pipe = plan match {
+    case p if p.id == parallelPlan.gatherId => ParallelGatherPipe(workerPipe, partitionedScan, maxWorkers, executor)(id = p.id)
+    case _ => inner.onLeaf(plan)
+  }
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source)
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+
+  private def partitionedScan: PartitionedNodeScan = parallelPlan.leaf match {
+    case NodeByLabelScan(_, label, _, _) => PartitionedNodeByLabelScan(LazyLabel(label.name))
+    case _: AllNodesScan => PartitionedAllNodesScan
+  }
+}
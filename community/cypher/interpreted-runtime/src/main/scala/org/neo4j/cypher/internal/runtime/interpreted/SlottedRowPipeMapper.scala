@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunitySlottedCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+
+/**
+ * Pipe mapper which makes all pipes produce rows laid out according to the plan-time `slots` allocation.
+ */
+case class SlottedRowPipeMapper(inner: PipeMapper, slots: RowSlots) extends PipeMapper {
+
+  private val rowFactory = CommunitySlottedCypherRowFactory(slots)
+
+  override def onLeaf(plan: LogicalPlan): Pipe = withRowFactory(inner.onLeaf(plan))
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = withRowFactory(inner.onOneChildPlan(plan, source))
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = withRowFactory(inner.onTwoChildPlan(plan, lhs, rhs))
+
+  private def withRowFactory(pipe: Pipe): Pipe = {
+    pipe.rowFactory = rowFactory
+    pipe
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerAggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.EagerPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalSortPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinSingleNodePipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.NodeHashJoinTwoNodesPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.SortPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.SpoolingEagerPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ValueHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.SpillingGroupingAggTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+
+/**
+ * Pipe mapper which replaces the operators that buffer rows with variants that write rows to temporary files in
+ * `spillSpace` once they use more than `spillThreshold` bytes of heap. Hash joins are only replaced if nothing relies on them producing
+ * rows in the order of their right-hand side.
+ */
+case class SpillingPipeMapper(inner: PipeMapper,
+                              spillThreshold: Long,
+                              spillSpace: SpillSpace,
+                              providedOrders: ProvidedOrders) extends PipeMapper {
+
+  override def onLeaf(plan: LogicalPlan): Pipe = inner.onLeaf(plan)
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source) match {
+    case pipe@SortPipe(_, comparator) =>
+      ExternalSortPipe(source, comparator, spillThreshold, spillSpace)(pipe.id)
+
+    case pipe@EagerPipe(_) =>
+      SpoolingEagerPipe(source, spillThreshold, spillSpace)(pipe.id)
+
+    case pipe@EagerAggregationPipe(_, GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregations)) =>
+      pipe.copy(tableFactory = SpillingGroupingAggTable.Factory(groupingColumns, groupingFunction, aggregations, spillThreshold, spillSpace))(pipe.id)
+
+    case pipe => pipe
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs) match {
+    case pipe@NodeHashJoinPipe(nodes, _, _) if providedOrders.get(plan.id).isEmpty =>
+      graceNodeHashJoin(nodes, lhs, rhs, pipe.id)
+
+    case pipe@NodeHashJoinSingleNodePipe(node, _, _) if providedOrders.get(plan.id).isEmpty =>
+      graceNodeHashJoin(Set(node), lhs, rhs, pipe.id)
+
+    case pipe@NodeHashJoinTwoNodesPipe(firstNode, secondNode, _, _) if providedOrders.get(plan.id).isEmpty =>
+      graceNodeHashJoin(Set(firstNode, secondNode), lhs, rhs, pipe.id)
+
+    case pipe@ValueHashJoinPipe(lhsExpression, rhsExpression, _, _) if providedOrders.get(plan.id).isEmpty =>
+      GraceHashJoinPipe(lhsExpression(_, _), rhsExpression(_, _), lhs, rhs, spillThreshold, spillSpace)(pipe.id)
+
+    case pipe => pipe
+  }
+
+  private def graceNodeHashJoin(nodes: Set[String], lhs: Pipe, rhs: Pipe, id: Id): Pipe = {
+    val keyPipe = NodeHashJoinPipe(nodes, lhs, rhs)(id)
+    val key = (row: CypherRow, _: QueryState) => keyPipe.computeKey(row).orNull
+    GraceHashJoinPipe(key, key, lhs, rhs, spillThreshold, spillSpace)(id)
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.convert
+
+import org.neo4j.cypher.internal
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.GroupingExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.util.attribution.Id
+
+/**
+ * Converts variables that are part of the row layout into [[commands.expressions.SlottedVariable]]s.
+ * Must be placed before the [[CommunityExpressionConverter]], which converts everything else.
+ */
+case class SlottedRowExpressionConverter(slots: RowSlots) extends ExpressionConverter {
+
+  override def toCommandExpression(id: Id, expression: Expression, self: ExpressionConverters): Option[commands.expressions.Expression] =
+    expression match {
+      case e: internal.expressions.Variable if slots.slot(e.name) != RowSlots.NO_SLOT =>
+        Some(commands.expressions.SlottedVariable(e.name, slots))
+      case _ =>
+        None
+    }
+
+  override def toCommandProjection(id: Id, projections: Map[String, Expression], self: ExpressionConverters): Option[CommandProjection] = None
+
+  override def toGroupingExpression(id: Id,
+                                    groupings: Map[String, Expression],
+                                    orderToLeverage: Seq[Expression],
+                                    self: ExpressionConverters): Option[GroupingExpression] = None
+}
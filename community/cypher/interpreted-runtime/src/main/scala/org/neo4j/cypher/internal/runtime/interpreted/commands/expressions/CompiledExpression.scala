@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+
+/**
+ * Implemented by the classes generated by [[ExpressionCompiler]].
+ */
+trait CompiledExpressionEvaluator {
+  def evaluate(row: ReadableRow, state: QueryState): AnyValue
+}
+
+/**
+ * An expression evaluated by generated code instead of by walking the `original` expression tree.
+ * Everything except evaluation delegates to `original`, and rewriting gives back the rewritten
+ * interpreted expression.
+ */
+case class CompiledExpression(evaluator: CompiledExpressionEvaluator, original: Expression) extends Expression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = evaluator.evaluate(row, state)
+
+  override def rewrite(f: Expression => Expression): Expression = original.rewrite(f)
+
+  override def arguments: Seq[Expression] = original.arguments
+
+  override def children: Seq[AstNode[_]] = original.children
+
+  override def toString: String = original.toString
+}
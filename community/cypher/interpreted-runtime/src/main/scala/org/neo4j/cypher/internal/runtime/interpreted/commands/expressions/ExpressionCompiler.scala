@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.codegen.CodeGenerationNotSupportedException
+import org.neo4j.codegen.CompilationFailureException
+import org.neo4j.codegen.api.ClassDeclaration
+import org.neo4j.codegen.api.CodeGeneration
+import org.neo4j.codegen.api.CodeGeneration.ByteCodeGeneration
+import org.neo4j.codegen.api.CodeGeneration.CodeSaver
+import org.neo4j.codegen.api.IntermediateRepresentation
+import org.neo4j.codegen.api.IntermediateRepresentation.and
+import org.neo4j.codegen.api.IntermediateRepresentation.arrayLoad
+import org.neo4j.codegen.api.IntermediateRepresentation.assign
+import org.neo4j.codegen.api.IntermediateRepresentation.block
+import org.neo4j.codegen.api.IntermediateRepresentation.condition
+import org.neo4j.codegen.api.IntermediateRepresentation.constant
+import org.neo4j.codegen.api.IntermediateRepresentation.declareAndAssign
+import org.neo4j.codegen.api.IntermediateRepresentation.equal
+import org.neo4j.codegen.api.IntermediateRepresentation.fail
+import org.neo4j.codegen.api.IntermediateRepresentation.falseValue
+import org.neo4j.codegen.api.IntermediateRepresentation.getStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.ifElse
+import org.neo4j.codegen.api.IntermediateRepresentation.invoke
+import org.neo4j.codegen.api.IntermediateRepresentation.invokeStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.isNotNull
+import org.neo4j.codegen.api.IntermediateRepresentation.isNull
+import org.neo4j.codegen.api.IntermediateRepresentation.load
+import org.neo4j.codegen.api.IntermediateRepresentation.method
+import org.neo4j.codegen.api.IntermediateRepresentation.noValue
+import org.neo4j.codegen.api.IntermediateRepresentation.noop
+import org.neo4j.codegen.api.IntermediateRepresentation.notEqual
+import org.neo4j.codegen.api.IntermediateRepresentation.or
+import org.neo4j.codegen.api.IntermediateRepresentation.param
+import org.neo4j.codegen.api.IntermediateRepresentation.ternary
+import org.neo4j.codegen.api.IntermediateRepresentation.trueValue
+import org.neo4j.codegen.api.IntermediateRepresentation.tryCatch
+import org.neo4j.codegen.api.IntermediateRepresentation.typeRefOf
+import org.neo4j.codegen.api.MethodDeclaration
+import org.neo4j.codegen.api.StaticField
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.And
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.ComparablePredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Or
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.exceptions.CantCompileQueryException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+import java.util.concurrent.atomic.AtomicLong
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Compiles interpreted expression trees into generated classes.
+ *
+ * Boolean operators, comparisons, null checks, literals, variables and parameters are turned into
+ * straight-line code with the same semantics as their interpreted counterparts. Any other node is
+ * kept as an interpreted expression and called from the generated code, so every tree can be compiled.
+ */
+object ExpressionCompiler {
+
+  // Generated classes are defined as anonymous classes, which have to live in the package of the code loader.
+  private val PACKAGE_NAME = "org.neo4j.codegen"
+
+  private val classCounter = new AtomicLong()
+
+  /**
+   * Compile `expression`, or give it back unchanged if its root would not benefit from compilation or
+   * code generation fails.
+   */
+  def compile(expression: Expression): Expression =
+    if (!isCompilable(expression)) {
+      expression
+    } else {
+      try {
+        new ExpressionCompiler(expression).compile()
+      } catch {
+        case _: CodeGenerationNotSupportedException | _: CompilationFailureException | _: CantCompileQueryException => expression
+      }
+    }
+
+  def isCompilable(expression: Expression): Boolean = expression match {
+    case _: Ands | _: Ors | _: And | _: Or | _: Not | _: Equals | _: ComparablePredicate | _: IsNull => true
+    case _ => false
+  }
+
+  private def nextClassName(): String = s"CompiledExpression${classCounter.incrementAndGet()}"
+}
+
+private class ExpressionCompiler(root: Expression) {
+
+  private val fields = ArrayBuffer.empty[StaticField]
+  private var nameCounter = 0
+
+  private val ROW = load[ReadableRow]("row")
+  private val STATE = load[QueryState]("state")
+
+  def compile(): Expression = {
+    val body = compileExpression(root)
+    val declaration = ClassDeclaration[CompiledExpressionEvaluator](
+      ExpressionCompiler.PACKAGE_NAME,
+      ExpressionCompiler.nextClassName(),
+      extendsClass = None,
+      implementsInterfaces = Seq(typeRefOf[CompiledExpressionEvaluator]),
+      constructorParameters = Seq.empty,
+      initializationCode = noop(),
+      genFields = () => fields,
+      methods = Seq(MethodDeclaration("evaluate", typeRefOf[AnyValue], Seq(param[ReadableRow]("row"), param[QueryState]("state")), body)))
+
+    val generator = CodeGeneration.createGenerator(ByteCodeGeneration(new CodeSaver(false, false)))
+    val clazz = CodeGeneration.compileAnonymousClass(declaration, generator)
+    CompiledExpression(clazz.getDeclaredConstructor().newInstance(), root)
+  }
+
+  private def compileExpression(expression: Expression): IntermediateRepresentation = expression match {
+    case Literal(value) =>
+      getStatic(staticField[AnyValue](value))
+
+    case Null() =>
+      noValue
+
+    case True() =>
+      trueValue
+
+    case Variable(name) =>
+      invoke(ROW, method[ReadableRow, AnyValue, String]("getByName"), constant(name))
+
+    case ParameterFromSlot(offset, _) =>
+      arrayLoad(invoke(STATE, method[QueryState, Array[AnyValue]]("params")), offset)
+
+    case Equals(lhs, rhs) =>
+      val l = nextName("lhs")
+      val r = nextName("rhs")
+      block(
+        declareAndAssign(typeRefOf[AnyValue], l, compileExpression(lhs)),
+        declareAndAssign(typeRefOf[AnyValue], r, compileExpression(rhs)),
+        ternary(or(equal(load[AnyValue](l), noValue), equal(load[AnyValue](r), noValue)),
+          noValue,
+          invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue]("equals"), load[AnyValue](l), load[AnyValue](r))))
+
+    case comparison: ComparablePredicate =>
+      val comparator = comparison match {
+        case _: LessThan => "lessThan"
+        case _: LessThanOrEqual => "lessThanOrEqual"
+        case _: GreaterThan => "greaterThan"
+        case _: GreaterThanOrEqual => "greaterThanOrEqual"
+      }
+      invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue](comparator), compileExpression(comparison.left), compileExpression(comparison.right))
+
+    case IsNull(inner) =>
+      ternary(equal(compileExpression(inner), noValue), trueValue, falseValue)
+
+    case Not(inner) =>
+      val value = nextName("value")
+      block(
+        declareAndAssign(typeRefOf[AnyValue], value, compileExpression(inner)),
+        ternary(equal(load[AnyValue](value), noValue), noValue, invokeStatic(method[CypherBoolean, Value, AnyValue]("not"), load[AnyValue](value))))
+
+    case Ands(predicates) =>
+      compileComposite(predicates.toIndexedSeq, exitValue = falseValue, defaultValue = trueValue)
+
+    case and: And =>
+      compileComposite(Seq(and.a, and.b), exitValue = falseValue, defaultValue = trueValue)
+
+    case Ors(predicates) =>
+      compileComposite(predicates.toIndexedSeq, exitValue = trueValue, defaultValue = falseValue)
+
+    case or: Or =>
+      compileComposite(Seq(or.a, or.b), exitValue = trueValue, defaultValue = falseValue)
+
+    case _ =>
+      invoke(getStatic(staticField[Expression](expression)), method[Expression, AnyValue, ReadableRow, QueryState]("apply"), ROW, STATE)
+  }
+
+  /**
+   * Same semantics as [[org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CompositeBooleanPredicate]]:
+   * evaluation stops at the first `exitValue`, which also wins over any error thrown by earlier operands.
+   * Otherwise the first error is rethrown, and after that a null operand makes the result null.
+   */
+  private def compileComposite(predicates: Seq[Expression],
+                               exitValue: IntermediateRepresentation,
+                               defaultValue: IntermediateRepresentation): IntermediateRepresentation = {
+    val result = nextName("result")
+    val error = nextName("error")
+    val seenNull = nextName("seenNull")
+    val operands = predicates.map { predicate =>
+      val value = nextName("value")
+      val caught = nextName("e")
+      condition(notEqual(load[Value](result), exitValue))(
+        block(
+          declareAndAssign(typeRefOf[AnyValue], value, noValue),
+          tryCatch[RuntimeException](caught)(
+            block(
+              assign(value, compileExpression(predicate)),
+              ifElse(equal(load[AnyValue](value), exitValue))(
+                assign(result, exitValue))(
+                condition(equal(load[AnyValue](value), noValue))(assign(seenNull, constant(true))))))(
+            condition(isNull(load[RuntimeException](error)))(assign(error, load[RuntimeException](caught))))))
+    }
+
+    block(
+      Seq(
+        declareAndAssign(typeRefOf[Value], result, defaultValue),
+        declareAndAssign(typeRefOf[RuntimeException], error, constant(null)),
+        declareAndAssign(typeRefOf[Boolean], seenNull, constant(false))) ++
+        operands ++
+        Seq(
+          condition(and(notEqual(load[Value](result), exitValue), isNotNull(load[RuntimeException](error))))(fail(load[RuntimeException](error))),
+          ternary(and(load[Boolean](seenNull), notEqual(load[Value](result), exitValue)), noValue, load[Value](result))): _*)
+  }
+
+  private def staticField[T](value: T)(implicit typ: Manifest[T]): StaticField = {
+    val field = StaticField(typeRefOf[T], nextName("CONSTANT"), Some(value))
+    fields += field
+    field
+  }
+
+  private def nextName(prefix: String): String = {
+    nameCounter += 1
+    s"$prefix$nameCounter"
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+
+/**
+ * Variable whose slot has been resolved at plan time. Reads from rows laid out according to `slots`
+ * go straight to the slot, all other rows are read by name.
+ */
+case class SlottedVariable(name: String, slots: RowSlots) extends VariableCommand(name) {
+
+  private val slot = slots.slot(name)
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = row match {
+    case slotted: SlottedCypherRow if slotted.slots eq slots =>
+      val value = slotted.getBySlot(slot, name)
+      if (value == null) slotted.getByName(name) else value
+    case _ =>
+      row.getByName(name)
+  }
+
+  override def children: Seq[AstNode[_]] = Seq.empty
+}
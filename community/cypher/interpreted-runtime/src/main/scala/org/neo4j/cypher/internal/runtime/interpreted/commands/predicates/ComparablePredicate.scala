@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.runtime.ReadableRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SlottedVariable
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.operations.CypherBoolean
@@ -86,7 +87,7 @@ case class Equals(a: Expression, b: Expression) extends Predicate {
   override def toString = s"$a == $b"
 
   override def containsIsNull: Boolean = (a, b) match {
-    case (Variable(_), Literal(NO_VALUE)) => true
+    case (_: Variable | _: SlottedVariable, Literal(NO_VALUE)) => true
     case _ => false
   }
 
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.ast.ShowFunctionType
 import org.neo4j.cypher.internal.ast.UserDefinedFunctions
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunitySlottedCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.internal.kernel.api.procs.UserFunctionSignature
@@ -46,7 +47,10 @@ import scala.collection.JavaConverters.mapAsScalaMapConverter
 // SHOW [ALL | BUILT IN | USER DEFINED] FUNCTION[S] [EXECUTABLE [BY {CURRENT USER | username}]] [WHERE clause | YIELD clause]
 case class ShowFunctionsCommand(functionType: ShowFunctionType, executableBy: Option[ExecutableBy], verbose: Boolean, columns: List[ShowColumn]) extends Command(columns) {
   override def originalNameRows(state: QueryState): ClosingIterator[Map[String, AnyValue]] = {
-    val isCommunity = state.rowFactory.isInstanceOf[CommunityCypherRowFactory]
+    val isCommunity = state.rowFactory match {
+      case _: CommunityCypherRowFactory | _: CommunitySlottedCypherRowFactory => true
+      case _ => false
+    }
     lazy val systemGraph = state.query.systemGraph
 
     val privileges = 
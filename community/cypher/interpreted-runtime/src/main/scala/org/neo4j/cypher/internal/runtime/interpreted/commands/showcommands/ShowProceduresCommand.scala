@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.ast.ExecutableBy
 import org.neo4j.cypher.internal.ast.ShowColumn
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunitySlottedCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.internal.kernel.api.procs.FieldSignature
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature
@@ -42,7 +43,10 @@ import scala.collection.JavaConverters.asScalaSetConverter
 // SHOW PROCEDURE[S] [EXECUTABLE [BY {CURRENT USER | username}]] [WHERE clause | YIELD clause]
 case class ShowProceduresCommand(executableBy: Option[ExecutableBy], verbose: Boolean, columns: List[ShowColumn]) extends Command(columns) {
   override def originalNameRows(state: QueryState): ClosingIterator[Map[String, AnyValue]] = {
-    val isCommunity = state.rowFactory.isInstanceOf[CommunityCypherRowFactory]
+    val isCommunity = state.rowFactory match {
+      case _: CommunityCypherRowFactory | _: CommunitySlottedCypherRowFactory => true
+      case _ => false
+    }
     lazy val systemGraph = state.query.systemGraph
 
     val privileges = 
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.expressions.CountStar
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.FunctionName
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.expressions.functions
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Argument
+import org.neo4j.cypher.internal.logical.plans.CacheProperties
+import org.neo4j.cypher.internal.logical.plans.Distinct
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.LogicalUnaryPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.NodeLogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.OptionalExpand
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.cypher.internal.logical.plans.Top
+import org.neo4j.cypher.internal.util.InputPosition
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.attribution.SameId
+
+import scala.annotation.tailrec
+
+/**
+ * Splits a read-only plan into the part which can be executed by several workers in parallel, each working on
+ * some partitions of a node scan, and the part which combines the rows of all workers on a single thread.
+ *
+ * Only plans that are a single chain of operators are split. The chain has to start with a node scan
+ * without arguments, followed by operators which handle every row independently of the others, followed by
+ * an operator that has to see all rows before it can produce any: an aggregation, distinct, sort or top.
+ * Everything above that operator runs on a single thread.
+ *
+ * Distinct, top and aggregations of `count`, `sum`, `min` and `max` are also executed by every worker and
+ * combined on a single thread afterwards. Other operators see all rows of the workers.
+ *
+ * @param main the single threaded part of the plan, where `gatherId` is the id of the [[Argument]] leaf that produces
+ *             the rows of the workers
+ * @param worker the part of the plan executed by every worker
+ * @param leaf the node scan, which is the leaf of `worker`
+ */
+case class ParallelPlan(main: LogicalPlan, worker: LogicalPlan, gatherId: Id, leaf: NodeLogicalLeafPlan)
+
+object parallelPlanSplitting {
+
+  def split(plan: LogicalPlan): Option[ParallelPlan] = {
+    val chain = unaryChain(plan, List.empty)
+    chain.headOption match {
+      case Some(leaf: NodeLogicalLeafPlan) if isPartitionable(leaf) =>
+        val (streaming, rest) = chain.tail.span(isStreaming)
+        rest match {
+          case breaker :: above =>
+            val workerSource = (leaf :: streaming).last
+            splitAt(breaker.asInstanceOf[LogicalUnaryPlan], workerSource).map {
+              case (worker, combining) =>
+                val main = above.foldLeft[LogicalPlan](combining) {
+                  case (source, p: LogicalUnaryPlan) => p.withLhs(source)(SameId(p.id))
+                }
+                ParallelPlan(main, worker, workerSource.id, leaf)
+            }
+          case Nil => None
+        }
+      case _ => None
+    }
+  }
+
+  /**
+   * @return all plans from the leaf to `plan`, or an empty list if one of them has more than one child
+   */
+  @tailrec
+  private def unaryChain(plan: LogicalPlan, above: List[LogicalPlan]): List[LogicalPlan] = plan match {
+    case p: LogicalUnaryPlan => unaryChain(p.source, p :: above)
+    case leaf if leaf.lhs.isEmpty => leaf :: above
+    case _ => List.empty
+  }
+
+  private def isPartitionable(leaf: NodeLogicalLeafPlan): Boolean = leaf match {
+    case AllNodesScan(_, argumentIds) => argumentIds.isEmpty
+    case NodeByLabelScan(_, _, argumentIds, _) => argumentIds.isEmpty
+    case _ => false
+  }
+
+  private def isStreaming(plan: LogicalPlan): Boolean = plan match {
+    case _: Selection | _: Projection | _: Expand | _: ExpandIntersection | _: OptionalExpand | _: CacheProperties => true
+    case _ => false
+  }
+
+  /**
+   * @return the root of the worker plan and the breaker reading from the workers
+   */
+  private def splitAt(breaker: LogicalUnaryPlan, workerSource: LogicalPlan): Option[(LogicalPlan, LogicalPlan)] = {
+    val gather = Argument()(SameId(workerSource.id))
+    breaker match {
+      case Aggregation(_, grouping, aggregations) if aggregations.values.forall(combiningFunction(_).isDefined) =>
+        val combined = aggregations.map { case (key, expression) => key -> combiningFunction(expression).get(variable(key)) }
+        Some((breaker, Aggregation(gather, projectedVariables(grouping), combined)(SameId(breaker.id))))
+
+      case Distinct(_, grouping) =>
+        Some((breaker, Distinct(gather, projectedVariables(grouping))(SameId(breaker.id))))
+
+      case top: Top =>
+        Some((breaker, top.withLhs(gather)(SameId(breaker.id))))
+
+      case _: Aggregation | _: Sort =>
+        Some((workerSource, breaker.withLhs(gather)(SameId(breaker.id))))
+
+      case _ => None
+    }
+  }
+
+  /**
+   * The aggregation function which combines the values computed by the workers for `aggregation`, if there is one.
+   */
+  private def combiningFunction(aggregation: Expression): Option[Expression => Expression] = aggregation match {
+    case _: CountStar => Some(sum)
+    case f: FunctionInvocation if !f.distinct => f.function match {
+      case functions.Count | functions.Sum => Some(sum)
+      case functions.Min => Some(invocation(functions.Min, _))
+      case functions.Max => Some(invocation(functions.Max, _))
+      case _ => None
+    }
+    case _ => None
+  }
+
+  private def sum(partial: Expression): Expression = invocation(functions.Sum, partial)
+
+  private def invocation(function: functions.Function, argument: Expression): Expression =
+    FunctionInvocation(FunctionName(function.name)(InputPosition.NONE), argument)(InputPosition.NONE)
+
+  private def projectedVariables(projections: Map[String, Expression]): Map[String, Expression] =
+    projections.map { case (key, _) => key -> variable(key) }
+
+  private def variable(name: String): Variable = Variable(name)(InputPosition.NONE)
+}
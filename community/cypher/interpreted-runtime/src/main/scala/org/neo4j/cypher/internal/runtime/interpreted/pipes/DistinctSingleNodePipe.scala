@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.PrefetchingIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.NULL_NODE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.nodeId
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.LongDistinctSet
+
+/**
+ * Distinct on a single node, which keeps the primitive ids of the nodes it has seen.
+ */
+case class DistinctSingleNodePipe(source: Pipe, column: GroupingCol)
+                                 (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    new PrefetchingIterator[CypherRow] {
+      private var seen = LongDistinctSet.createLongDistinctSet(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+      private var seenNull = false
+
+      state.query.resources.trace(seen)
+
+      override def produceNext(): Option[CypherRow] = {
+        while (input.hasNext) {
+          val next: CypherRow = input.next()
+          val value = column.expression(next, state)
+          next.set(column.key, value)
+
+          val node = nodeId(value)
+          val added =
+            if (node == NULL_NODE) {
+              val wasSeen = seenNull
+              seenNull = true
+              !wasSeen
+            } else {
+              seen.add(node)
+            }
+          if (added) {
+            return Some(next)
+          }
+        }
+        seen.close()
+        seen = null
+        None
+      }
+
+      override protected[this] def closeMore(): Unit = if (seen != null) seen.close()
+    }
+  }
+}
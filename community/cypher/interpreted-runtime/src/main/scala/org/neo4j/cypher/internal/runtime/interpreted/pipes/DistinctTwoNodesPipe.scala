@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.PrefetchingIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.NULL_NODE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.fitsInKey
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.nodeId
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.pack
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.kernel.impl.util.collection.LongDistinctSet
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+ * Distinct on two nodes, which keeps the pairs of node ids it has seen packed into single primitive longs.
+ * Pairs that cannot be packed exactly, or that contain null, are kept as values instead.
+ */
+case class DistinctTwoNodesPipe(source: Pipe, firstColumn: GroupingCol, secondColumn: GroupingCol)
+                               (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    new PrefetchingIterator[CypherRow] {
+      private val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+      private var seen = LongDistinctSet.createLongDistinctSet(memoryTracker)
+      private var seenValues: DistinctSet[AnyValue] = _
+
+      state.query.resources.trace(seen)
+
+      override def produceNext(): Option[CypherRow] = {
+        while (input.hasNext) {
+          val next: CypherRow = input.next()
+          val firstValue = firstColumn.expression(next, state)
+          next.set(firstColumn.key, firstValue)
+          val secondValue = secondColumn.expression(next, state)
+          next.set(secondColumn.key, secondValue)
+
+          val first = nodeId(firstValue)
+          val second = nodeId(secondValue)
+          val added =
+            if (first != NULL_NODE && second != NULL_NODE && fitsInKey(first, second)) {
+              seen.add(pack(first, second))
+            } else {
+              if (seenValues == null) {
+                seenValues = DistinctSet.createDistinctSet[AnyValue](memoryTracker)
+                state.query.resources.trace(seenValues)
+              }
+              seenValues.add(VirtualValues.list(firstValue, secondValue))
+            }
+          if (added) {
+            return Some(next)
+          }
+        }
+        closeSets()
+        None
+      }
+
+      override protected[this] def closeMore(): Unit = closeSets()
+
+      private def closeSets(): Unit = {
+        if (seen != null) {
+          seen.close()
+          seen = null
+        }
+        if (seenValues != null) {
+          seenValues.close()
+          seenValues = null
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntersectionPipe.IntersectionIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntersectionPipe.SortedNeighbours
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.exceptions.ParameterWrongTypeException
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+case class IntersectionPipeLeg(fromName: String, relName: String, dir: SemanticDirection, types: RelationshipTypes)
+
+/**
+ * Finds the nodes connected to the 'from' nodes of all legs with a leapfrog intersection of their neighbour lists.
+ *
+ * The store does not keep relationship chains ordered by neighbour, so the neighbours of every leg are read
+ * into arrays and sorted by node id. The sorted neighbours of the last 'from' node of every leg are kept,
+ * which makes consecutive rows sharing a 'from' node - the common case after an Expand - cheap.
+ */
+case class ExpandIntersectionPipe(source: Pipe,
+                                  toName: String,
+                                  legs: Seq[IntersectionPipeLeg])
+                                 (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
+
+  private val legArray = legs.toArray
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val neighbours = legArray.map(new SortedNeighbours(_, memoryTracker))
+
+    val result = input.flatMap {
+      row =>
+        var i = 0
+        var missing = false
+        while (i < legArray.length && !missing) {
+          row.getByName(legArray(i).fromName) match {
+            case n: VirtualNodeValue => neighbours(i).load(n.id(), state)
+            case IsNoValue() => missing = true
+            case value => throw new ParameterWrongTypeException(s"Expected to find a node at '${legArray(i).fromName}' but found $value instead")
+          }
+          i += 1
+        }
+        if (missing) ClosingIterator.empty else new IntersectionIterator(row, toName, legArray, neighbours, rowFactory)
+    }
+    neighbours.foreach(result.closing)
+    result
+  }
+}
+
+object ExpandIntersectionPipe {
+
+  private val BYTES_PER_NEIGHBOUR = 4 * java.lang.Long.BYTES + Integer.BYTES
+  private val INSERTION_SORT_THRESHOLD = 16
+
+  /**
+   * The relationships of one leg's 'from' node, sorted by the node at the other end.
+   */
+  private[pipes] final class SortedNeighbours(leg: IntersectionPipeLeg, memoryTracker: MemoryTracker) extends AutoCloseable {
+    private var loadedNode = -1L
+    private var allocated = 0L
+    var size = 0
+    var neighbours: Array[Long] = Array.emptyLongArray
+    private var relationships: Array[Long] = Array.emptyLongArray
+    private var starts: Array[Long] = Array.emptyLongArray
+    private var ends: Array[Long] = Array.emptyLongArray
+    private var types: Array[Int] = Array.emptyIntArray
+
+    def load(node: Long, state: QueryState): Unit = {
+      if (node != loadedNode) {
+        size = 0
+        val cursor = state.query.getRelationshipsForIds(node, leg.dir, leg.types.types(state.query))
+        while (cursor.hasNext) {
+          val relationship = cursor.next()
+          if (size == neighbours.length) {
+            grow()
+          }
+          neighbours(size) = cursor.otherNodeId(node)
+          relationships(size) = relationship
+          starts(size) = cursor.startNodeId()
+          ends(size) = cursor.endNodeId()
+          types(size) = cursor.typeId()
+          size += 1
+        }
+        sort(0, size - 1)
+        loadedNode = node
+      }
+    }
+
+    /**
+     * @return the first position at or after `from` holding a neighbour not smaller than `target`, or `size` if there is none
+     */
+    def seek(from: Int, target: Long): Int = {
+      if (from >= size || neighbours(from) >= target) {
+        from
+      } else {
+        // gallop to bracket the target, then binary search the bracket
+        var bound = 1
+        while (from + bound < size && neighbours(from + bound) < target) {
+          bound <<= 1
+        }
+        var low = from + (bound >>> 1)
+        var high = math.min(from + bound, size)
+        while (high - low > 1) {
+          val mid = (low + high) >>> 1
+          if (neighbours(mid) < target) low = mid else high = mid
+        }
+        high
+      }
+    }
+
+    /**
+     * @return the position after the last relationship to the same neighbour as the one at `from`
+     */
+    def runEnd(from: Int): Int = {
+      val neighbour = neighbours(from)
+      var end = from + 1
+      while (end < size && neighbours(end) == neighbour) {
+        end += 1
+      }
+      end
+    }
+
+    def relationship(position: Int): VirtualRelationshipValue =
+      VirtualValues.relationship(relationships(position), starts(position), ends(position), types(position))
+
+    override def close(): Unit = {
+      memoryTracker.releaseHeap(allocated)
+      allocated = 0L
+      size = 0
+      loadedNode = -1L
+      neighbours = Array.emptyLongArray
+      relationships = Array.emptyLongArray
+      starts = Array.emptyLongArray
+      ends = Array.emptyLongArray
+      types = Array.emptyIntArray
+    }
+
+    private def grow(): Unit = {
+      val capacity = math.max(16, neighbours.length * 2)
+      val delta = (capacity - neighbours.length).toLong * BYTES_PER_NEIGHBOUR
+      memoryTracker.allocateHeap(delta)
+      allocated += delta
+      neighbours = java.util.Arrays.copyOf(neighbours, capacity)
+      relationships = java.util.Arrays.copyOf(relationships, capacity)
+      starts = java.util.Arrays.copyOf(starts, capacity)
+      ends = java.util.Arrays.copyOf(ends, capacity)
+      types = java.util.Arrays.copyOf(types, capacity)
+    }
+
+    private def sort(from: Int, to: Int): Unit = {
+      var low = from
+      var high = to
+      while (high - low > INSERTION_SORT_THRESHOLD) {
+        val a = neighbours(low)
+        val b = neighbours((low + high) >>> 1)
+        val c = neighbours(high)
+        val pivot = math.max(math.min(a, b), math.min(math.max(a, b), c))
+        var i = low
+        var j = high
+        while (i <= j) {
+          while (neighbours(i) < pivot) i += 1
+          while (neighbours(j) > pivot) j -= 1
+          if (i <= j) {
+            swap(i, j)
+            i += 1
+            j -= 1
+          }
+        }
+        // recurse into the smaller partition to bound the stack depth
+        if (j - low < high - i) {
+          sort(low, j)
+          low = i
+        } else {
+          sort(i, high)
+          high = j
+        }
+      }
+      var k = low + 1
+      while (k <= high) {
+        var m = k
+        while (m > low && neighbours(m - 1) > neighbours(m)) {
+          swap(m - 1, m)
+          m -= 1
+        }
+        k += 1
+      }
+    }
+
+    private def swap(i: Int, j: Int): Unit = {
+      val neighbour = neighbours(i); neighbours(i) = neighbours(j); neighbours(j) = neighbour
+      val relationship = relationships(i); relationships(i) = relationships(j); relationships(j) = relationship
+      val start = starts(i); starts(i) = starts(j); starts(j) = start
+      val end = ends(i); ends(i) = ends(j); ends(j) = end
+      val tpe = types(i); types(i) = types(j); types(j) = tpe
+    }
+  }
+
+  /**
+   * Produces one row per combination of relationships to every neighbour shared by all legs.
+   */
+  private[pipes] final class IntersectionIterator(row: CypherRow,
+                                                  toName: String,
+                                                  legs: Array[IntersectionPipeLeg],
+                                                  lists: Array[SortedNeighbours],
+                                                  rowFactory: CypherRowFactory) extends ClosingIterator[CypherRow] {
+    private val k = lists.length
+    private val positions = new Array[Int](k)
+    private val runEnds = new Array[Int](k)
+    private val cursors = new Array[Int](k)
+    private var inRun = false
+    private var exhausted = false
+
+    override protected[this] def innerHasNext: Boolean = inRun || (!exhausted && nextCommonNeighbour())
+
+    override def next(): CypherRow = {
+      if (!hasNext) {
+        ClosingIterator.empty.next()
+      }
+      val to = VirtualValues.node(lists(0).neighbours(cursors(0)))
+      val result =
+        if (k == 2) {
+          rowFactory.copyWith(row, toName, to, legs(0).relName, lists(0).relationship(cursors(0)), legs(1).relName, lists(1).relationship(cursors(1)))
+        } else {
+          val entries = new Array[(String, AnyValue)](k + 1)
+          entries(0) = toName -> to
+          var i = 0
+          while (i < k) {
+            entries(i + 1) = legs(i).relName -> lists(i).relationship(cursors(i))
+            i += 1
+          }
+          rowFactory.copyWith(row, entries)
+        }
+      advance()
+      result
+    }
+
+    override protected[this] def closeMore(): Unit = ()
+
+    private def advance(): Unit = {
+      var i = k - 1
+      while (i >= 0 && cursors(i) + 1 == runEnds(i)) {
+        cursors(i) = positions(i)
+        i -= 1
+      }
+      if (i >= 0) {
+        cursors(i) += 1
+      } else {
+        inRun = false
+        System.arraycopy(runEnds, 0, positions, 0, k)
+      }
+    }
+
+    /**
+     * Leapfrogs over the lists until all of them agree on a neighbour.
+     */
+    private def nextCommonNeighbour(): Boolean = {
+      var candidate = Long.MinValue
+      var agreeing = 0
+      var i = 0
+      while (agreeing < k) {
+        val list = lists(i)
+        val position = list.seek(positions(i), candidate)
+        if (position >= list.size) {
+          exhausted = true
+          return false
+        }
+        positions(i) = position
+        val neighbour = list.neighbours(position)
+        if (neighbour == candidate) {
+          agreeing += 1
+        } else {
+          candidate = neighbour
+          agreeing = 1
+        }
+        i = if (i + 1 == k) 0 else i + 1
+      }
+      i = 0
+      while (i < k) {
+        runEnds(i) = lists(i).runEnd(positions(i))
+        cursors(i) = positions(i)
+        i += 1
+      }
+      inRun = true
+      true
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.collection.trackable.HeapTrackingArrayList
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalSortPipe.MAX_MERGE_FAN_IN
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SortedRunsIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.ScopedMemoryTracker
+
+import java.util.Comparator
+import scala.collection.JavaConverters.asScalaIteratorConverter
+import scala.collection.mutable
+
+/**
+ * Like [[SortPipe]], but once the buffered rows use more than `spillThreshold` bytes of heap they are sorted and
+ * written to a temporary file in `spillSpace` as a run. When all input has been consumed the runs are merged, at most
+ * `MAX_MERGE_FAN_IN` at a time, so that the output is the same as that of a stable in-memory sort.
+ */
+case class ExternalSortPipe(source: Pipe, comparator: Comparator[ReadableRow], spillThreshold: Long, spillSpace: SpillSpace)
+                           (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(source) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val memoryTracker = new ScopedMemoryTracker(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+    var arrayList: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, memoryTracker)
+    var bufferedRowsHeap = 0L
+    val runs = mutable.ArrayBuffer.empty[SpillFile]
+
+    while (input.hasNext) {
+      val row = input.next()
+      val rowHeap = row.estimatedHeapUsage()
+      memoryTracker.allocateHeap(rowHeap)
+      bufferedRowsHeap += rowHeap
+      arrayList.add(row)
+      if (memoryTracker.estimatedHeapMemory() > spillThreshold) {
+        arrayList.sort(comparator)
+        runs += writeRun(arrayList.iterator().asScala, state)
+        arrayList.clear()
+        memoryTracker.releaseHeap(bufferedRowsHeap)
+        bufferedRowsHeap = 0
+      }
+    }
+    arrayList.sort(comparator)
+
+    if (runs.isEmpty) {
+      return new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
+        override def closeMore(): Unit = {
+          arrayList = null
+          memoryTracker.close()
+          input.close()
+        }
+      }
+    }
+
+    val spilled = mutable.ArrayBuffer.empty[SpillFile] ++= runs
+    var passes = 1
+    while (runs.size > MAX_MERGE_FAN_IN) {
+      val merged = runs.grouped(MAX_MERGE_FAN_IN).map { group =>
+        writeRun(new SortedRunsIterator(group.map(_.read(rowFactory)).toIndexedSeq, comparator), state)
+      }.toIndexedSeq
+      spilled ++= merged
+      runs.clear()
+      runs ++= merged
+      passes += 1
+    }
+
+    val inMemoryRun = new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
+      override def closeMore(): Unit = {
+        arrayList = null
+        memoryTracker.close()
+      }
+    }
+    val result = new SortedRunsIterator(runs.map(_.read(rowFactory)).toIndexedSeq :+ inMemoryRun, comparator)
+    state.decorator.spilled(id, spilled.map(_.bytes).sum, passes)
+    result.closing(input)
+  }
+
+  private def writeRun(rows: Iterator[CypherRow], state: QueryState): SpillFile = {
+    val run = spillSpace.newFile()
+    state.query.resources.trace(run)
+    rows.foreach(run.write)
+    run
+  }
+}
+
+object ExternalSortPipe {
+  final val MAX_MERGE_FAN_IN = 64
+}
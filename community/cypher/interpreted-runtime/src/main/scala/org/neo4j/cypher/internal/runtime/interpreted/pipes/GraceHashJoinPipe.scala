@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions.MAX_LEVEL
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions.PARTITIONS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection
+import org.neo4j.memory.ScopedMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+
+/**
+ * A hash join that behaves like [[NodeHashJoinPipe]] and [[ValueHashJoinPipe]] as long as its probe table uses at most
+ * `spillThreshold` bytes of heap. Once the table grows beyond that, the rows of both sides are written to
+ * [[SpillPartitions]] in `spillSpace` by their join key, and every pair of partitions is joined on its own,
+ * partitioning them again if necessary. Rows are then not produced in the order of the right-hand side.
+ *
+ * @param lhsKey the join key of a left-hand side row, or `null` if the row cannot match
+ * @param rhsKey the join key of a right-hand side row, or `null` if the row cannot match
+ */
+case class GraceHashJoinPipe(lhsKey: (CypherRow, QueryState) => AnyValue,
+                             rhsKey: (CypherRow, QueryState) => AnyValue,
+                             left: Pipe,
+                             right: Pipe,
+                             spillThreshold: Long,
+                             spillSpace: SpillSpace)
+                            (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(left) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    if (input.isEmpty)
+      return ClosingIterator.empty
+
+    val rhsIterator = right.createResults(state)
+
+    if (rhsIterator.isEmpty)
+      return ClosingIterator.empty
+
+    join(keyed(input, lhsKey, state), keyed(rhsIterator, rhsKey, state), state, 0)
+  }
+
+  private def keyed(rows: ClosingIterator[CypherRow],
+                    key: (CypherRow, QueryState) => AnyValue,
+                    state: QueryState): ClosingIterator[(AnyValue, CypherRow)] =
+    rows.map(row => (key(row, state), row)).filter {
+      case (joinKey, _) => joinKey != null && !(joinKey eq Values.NO_VALUE)
+    }
+
+  private def join(lhs: ClosingIterator[(AnyValue, CypherRow)],
+                   rhs: ClosingIterator[(AnyValue, CypherRow)],
+                   state: QueryState,
+                   level: Int): ClosingIterator[CypherRow] = {
+    val memoryTracker = new ScopedMemoryTracker(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+    val table = collection.ProbeTable.createProbeTable[AnyValue, CypherRow](memoryTracker)
+    state.query.resources.trace(table)
+
+    while (lhs.hasNext && (level == MAX_LEVEL || memoryTracker.estimatedHeapMemory() <= spillThreshold)) {
+      val (joinKey, row) = lhs.next()
+      table.put(joinKey, row)
+    }
+
+    if (!lhs.hasNext) {
+      if (table.isEmpty) {
+        table.close()
+        memoryTracker.close()
+        rhs.close()
+        return ClosingIterator.empty
+      }
+      val result =
+        for {
+          (joinKey, rhsRow) <- rhs
+          lhsRow <- table.get(joinKey).asScala
+        } yield {
+          val output = lhsRow.createClone()
+          output.mergeWith(rhsRow, state.query)
+          output
+        }
+      return result.closing(table).closing(memoryTracker)
+    }
+
+    val lhsPartitions = new SpillPartitions(state, level, spillSpace)
+    table.keySet().forEach(joinKey => table.get(joinKey).forEachRemaining(row => lhsPartitions.write(joinKey, row)))
+    table.close()
+    memoryTracker.close()
+    lhs.foreach { case (joinKey, row) => lhsPartitions.write(joinKey, row) }
+    val rhsPartitions = new SpillPartitions(state, level, spillSpace)
+    rhs.foreach { case (joinKey, row) => rhsPartitions.write(joinKey, row) }
+    state.decorator.spilled(id, lhsPartitions.bytes + rhsPartitions.bytes, level + 1)
+
+    val result = ClosingIterator(Iterator.range(0, PARTITIONS)).flatMap { i =>
+      val lhsPartition = lhsPartitions(i)
+      val rhsPartition = rhsPartitions(i)
+      if (lhsPartition == null || rhsPartition == null) {
+        ClosingIterator.empty
+      } else {
+        join(lhsPartition.readWithKeys(rowFactory), rhsPartition.readWithKeys(rowFactory), state, level + 1)
+      }
+    }
+    result.closing(lhsPartitions).closing(rhsPartitions)
+  }
+}
@@ -62,6 +62,8 @@ class LinenumberPipeDecorator(private var inner: PipeDecorator = NullPipeDecorat
     inner.afterCreateResults(planId, state)
   }
 
+  override def spilled(planId: Id, bytes: Long, passes: Long): Unit = inner.spilled(planId, bytes, passes)
+
   private class LinenumberIterator(inner: ClosingIterator[CypherRow],
                                    previousContextSupplier: () => Option[CypherRow])
     extends ClosingIterator[CypherRow] {
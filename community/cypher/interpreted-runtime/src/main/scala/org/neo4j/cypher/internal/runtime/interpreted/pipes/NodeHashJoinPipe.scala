@@ -79,7 +79,7 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
 
   private val cachedVariables = nodeVariables.toIndexedSeq
 
-  private def computeKey(context: CypherRow): Option[LongArray] = {
+  private[interpreted] def computeKey(context: CypherRow): Option[LongArray] = {
     val key = new Array[Long](cachedVariables.length)
 
     for (idx <- cachedVariables.indices) {
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.NULL_NODE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.nodeId
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+
+/**
+ * Node hash join on a single node, which keys its probe table on the primitive node id.
+ */
+case class NodeHashJoinSingleNodePipe(node: String, left: Pipe, right: Pipe)
+                                     (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(left) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    if (input.isEmpty)
+      return ClosingIterator.empty
+
+    val rhsIterator = right.createResults(state)
+
+    if (rhsIterator.isEmpty)
+      return ClosingIterator.empty
+
+    val table = buildProbeTable(input, state)
+    state.query.resources.trace(table)
+
+    if (table.isEmpty) {
+      table.close()
+      return ClosingIterator.empty
+    }
+
+    val result =
+      for {
+        rhsRow <- rhsIterator
+        joinKey = nodeId(rhsRow.getByName(node)) if joinKey != NULL_NODE
+        lhsRow <- table.get(joinKey).asScala
+      } yield {
+        val output = lhsRow.createClone()
+        output.mergeWith(rhsRow, state.query)
+        output
+      }
+
+    result.closing(table)
+  }
+
+  private def buildProbeTable(input: Iterator[CypherRow], state: QueryState): LongProbeTable[CypherRow] = {
+    val table = LongProbeTable.createLongProbeTable[CypherRow](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+
+    for {context <- input
+         joinKey = nodeId(context.getByName(node)) if joinKey != NULL_NODE} {
+      table.put(joinKey, context)
+    }
+
+    table
+  }
+}
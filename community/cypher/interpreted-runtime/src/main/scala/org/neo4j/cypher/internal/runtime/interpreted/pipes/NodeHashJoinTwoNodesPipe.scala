@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.NULL_NODE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.fitsInKey
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.nodeId
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PrimitiveNodeKeys.pack
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+
+/**
+ * Node hash join on two nodes, which keys its probe table on the two node ids packed into a single primitive long.
+ * As long as all ids fit in 32 bits the packed key is exact, otherwise matches are verified against the node ids of
+ * the left-hand side row.
+ */
+case class NodeHashJoinTwoNodesPipe(firstNode: String, secondNode: String, left: Pipe, right: Pipe)
+                                   (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(left) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    if (input.isEmpty)
+      return ClosingIterator.empty
+
+    val rhsIterator = right.createResults(state)
+
+    if (rhsIterator.isEmpty)
+      return ClosingIterator.empty
+
+    val table = LongProbeTable.createLongProbeTable[CypherRow](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+    state.query.resources.trace(table)
+    var wideKeys = false
+    input.foreach { lhsRow =>
+      val first = nodeId(lhsRow.getByName(firstNode))
+      val second = nodeId(lhsRow.getByName(secondNode))
+      if (first != NULL_NODE && second != NULL_NODE) {
+        wideKeys |= !fitsInKey(first, second)
+        table.put(pack(first, second), lhsRow)
+      }
+    }
+
+    if (table.isEmpty) {
+      table.close()
+      return ClosingIterator.empty
+    }
+
+    val result =
+      for {
+        rhsRow <- rhsIterator
+        first = nodeId(rhsRow.getByName(firstNode)) if first != NULL_NODE
+        second = nodeId(rhsRow.getByName(secondNode)) if second != NULL_NODE
+        verify = wideKeys || !fitsInKey(first, second)
+        lhsRow <- table.get(pack(first, second)).asScala
+        if !verify || (nodeId(lhsRow.getByName(firstNode)) == first && nodeId(lhsRow.getByName(secondNode)) == second)
+      } yield {
+        val output = lhsRow.createClone()
+        output.mergeWith(rhsRow, state.query)
+        output
+      }
+
+    result.closing(table)
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelGatherPipe.QUEUE_CAPACITY
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.scheduler.CallableExecutor
+
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.Future
+
+/**
+ * Leaf of the part of a query that runs on a single thread, which produces the rows of `workerPipe` executed
+ * by up to `maxWorkers` workers in parallel. The leaf of `workerPipe` is an [[InputPipe]] which reads the nodes
+ * of the partitions of `scan` that its worker reserves.
+ *
+ * Every worker has its own query context and expression cursors. The workers hand their rows over through a queue
+ * of at most [[ParallelGatherPipe.QUEUE_CAPACITY]] rows, such that they wait for the rows to be consumed rather than
+ * buffer them on the heap. Closing the result before all rows are consumed stops the workers.
+ *
+ * The workers run in a work-stealing pool shared by all parallel queries, and wait for room in the queue through
+ * [[ForkJoinPool.managedBlock]]. The pool then runs the workers of other queries on spare threads meanwhile, rather
+ * than having them starve behind the workers of a query whose rows aren't consumed.
+ */
+case class ParallelGatherPipe(workerPipe: Pipe,
+                              scan: PartitionedNodeScan,
+                              maxWorkers: Int,
+                              executor: CallableExecutor)
+                             (val id: Id = Id.INVALID_ID) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
+    val partitions = scan.partitions(state, maxWorkers)
+    val nWorkers = math.min(maxWorkers, partitions.numberOfPartitions)
+    val workerQueries = (0 until nWorkers).map(_ => state.query.createParallelQueryContext())
+    val gather = new GatherIterator(workerQueries)
+    try {
+      workerQueries.foreach(workerQuery => gather.started(executor.submit(() => runWorker(state, workerQuery, partitions, gather))))
+    } catch {
+      case e: Throwable =>
+        gather.close()
+        throw e
+    }
+    gather
+  }
+
+  private def runWorker(state: QueryState, workerQuery: QueryContext, partitions: NodeScanPartitions, gather: GatherIterator): Unit = {
+    try {
+      val input = partitions.workerInput(workerQuery)
+      val workerState = state.withParallelQueryContext(workerQuery, input)
+      try {
+        val results = workerPipe.createResults(workerState)
+        try {
+          while (results.hasNext && gather.put(results.next())) {}
+        } finally {
+          results.close()
+        }
+      } finally {
+        workerState.cursors.close()
+        input.close()
+      }
+    } catch {
+      case e: Throwable =>
+        // Stop the other workers, the failure is rethrown once all of them are done
+        gather.fail(e)
+    } finally {
+      gather.workerDone()
+    }
+  }
+
+  /**
+   * The rows of the workers, in the order they are handed over. Waits for all workers once they are done or the
+   * result is closed, since the query contexts of the workers are closed afterwards, and rethrows the first failure.
+   */
+  private class GatherIterator(workerQueries: Seq[QueryContext]) extends ClosingIterator[CypherRow] {
+
+    private val queue = new ArrayBlockingQueue[AnyRef](QUEUE_CAPACITY)
+    private val failures = new ConcurrentLinkedQueue[Throwable]()
+    @volatile private var cancelled = false
+    private var futures = Vector.empty[Future[Unit]]
+    private var runningWorkers = 0
+    private var nextRow: CypherRow = _
+    private var finished = false
+
+    def started(future: Future[Unit]): Unit = {
+      futures :+= future
+      runningWorkers += 1
+    }
+
+    /**
+     * Called by a worker for each of its rows, waits while the queue is full.
+     *
+     * @return `false` if the worker should stop producing rows
+     */
+    def put(row: CypherRow): Boolean = {
+      if (cancelled) {
+        false
+      } else {
+        blockingPut(row)
+        true
+      }
+    }
+
+    def workerDone(): Unit = blockingPut(ParallelGatherPipe.WorkerDone)
+
+    private def blockingPut(item: AnyRef): Unit =
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker {
+        override def block(): Boolean = {
+          queue.put(item)
+          true
+        }
+
+        override def isReleasable: Boolean = queue.offer(item)
+      })
+
+    def cancel(): Unit = cancelled = true
+
+    def fail(e: Throwable): Unit = {
+      failures.add(e)
+      cancel()
+    }
+
+    override protected[this] def innerHasNext: Boolean = {
+      while (nextRow == null && runningWorkers > 0) {
+        take()
+      }
+      if (nextRow == null) {
+        finish()
+      }
+      nextRow != null
+    }
+
+    override def next(): CypherRow = {
+      if (!hasNext) {
+        Iterator.empty.next()
+      }
+      val row = nextRow
+      nextRow = null
+      row
+    }
+
+    override protected[this] def closeMore(): Unit = {
+      cancel()
+      // Workers may be waiting for room in the queue, so keep taking rows until they are all done
+      while (runningWorkers > 0) {
+        take()
+        nextRow = null
+      }
+      finish()
+    }
+
+    private def take(): Unit = queue.take() match {
+      case ParallelGatherPipe.WorkerDone => runningWorkers -= 1
+      case row: CypherRow => nextRow = row
+    }
+
+    private def finish(): Unit = {
+      if (!finished) {
+        finished = true
+        try {
+          awaitWorkers()
+        } finally {
+          workerQueries.foreach(_.transactionalContext.close())
+        }
+      }
+    }
+
+    // The failures are recorded by the workers themselves, since a work-stealing pool doesn't rethrow the original exception
+    private def awaitWorkers(): Unit = {
+      futures.foreach { future =>
+        try {
+          future.get()
+        } catch {
+          case e: ExecutionException => failures.add(e.getCause)
+        }
+      }
+      val failure = failures.poll()
+      if (failure != null) {
+        failures.forEach(failure.addSuppressed(_))
+        throw failure
+      }
+    }
+  }
+}
+
+object ParallelGatherPipe {
+
+  /**
+   * Number of rows that the workers can hand over before they have to wait for the rows to be consumed.
+   */
+  val QUEUE_CAPACITY = 1024
+
+  private case object WorkerDone
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.InputCursor
+import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedNodeScan.ALL_NODES_BATCH_SIZE
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.internal.kernel.api.TokenPredicate
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+ * A node scan that can be split up between several workers, each of which gets the nodes of the
+ * partitions it reserves delivered as an [[InputDataStream]] with a single column.
+ */
+sealed trait PartitionedNodeScan {
+
+  /**
+   * Create the scan for one execution of the query.
+   *
+   * @param state the state of the thread that owns the query
+   * @param desiredNumberOfPartitions the number of partitions to aim for
+   */
+  def partitions(state: QueryState, desiredNumberOfPartitions: Int): NodeScanPartitions
+}
+
+object PartitionedNodeScan {
+  val ALL_NODES_BATCH_SIZE = 4096
+}
+
+case object PartitionedAllNodesScan extends PartitionedNodeScan {
+
+  override def partitions(state: QueryState, desiredNumberOfPartitions: Int): NodeScanPartitions = {
+    val scan = state.query.transactionalContext.dataRead.allNodesScan()
+    new AllNodesScanPartitions(scan, desiredNumberOfPartitions)
+  }
+}
+
+case class PartitionedNodeByLabelScan(label: LazyLabel) extends PartitionedNodeScan {
+
+  override def partitions(state: QueryState, desiredNumberOfPartitions: Int): NodeScanPartitions = {
+    val labelId = label.getId(state.query)
+    if (labelId == UNKNOWN) {
+      NoNodeScanPartitions
+    } else {
+      val transactionalContext = state.query.transactionalContext
+      val scan = transactionalContext.dataRead.nodeLabelScan(state.nodeLabelTokenReadSession.get,
+        desiredNumberOfPartitions,
+        transactionalContext.cursorContext,
+        new TokenPredicate(labelId))
+      new NodeLabelScanPartitions(scan)
+    }
+  }
+}
+
+/**
+ * The partitions of one execution of a [[PartitionedNodeScan]]. Partitions are reserved concurrently by the workers.
+ */
+trait NodeScanPartitions {
+
+  def numberOfPartitions: Int
+
+  /**
+   * Input of a worker that uses `workerQuery`. The input has to be closed by the worker when it is done.
+   */
+  def workerInput(workerQuery: QueryContext): InputDataStream with AutoCloseable
+}
+
+case object NoNodeScanPartitions extends NodeScanPartitions {
+
+  override def numberOfPartitions: Int = 0
+
+  override def workerInput(workerQuery: QueryContext): InputDataStream with AutoCloseable = new InputDataStream with AutoCloseable {
+    override def nextInputBatch(): InputCursor = null
+
+    override def close(): Unit = {}
+  }
+}
+
+class AllNodesScanPartitions(scan: Scan[NodeCursor], override val numberOfPartitions: Int) extends NodeScanPartitions {
+
+  override def workerInput(workerQuery: QueryContext): InputDataStream with AutoCloseable = {
+    val transactionalContext = workerQuery.transactionalContext
+    val cursor = transactionalContext.cursors.allocateNodeCursor(transactionalContext.cursorContext)
+    new NodeCursorInput(cursor) {
+      override protected def reserve(): Boolean =
+        scan.reserveBatch(cursor, ALL_NODES_BATCH_SIZE, transactionalContext.cursorContext, transactionalContext.securityContext.mode())
+
+      override protected def nodeReference: Long = cursor.nodeReference()
+    }
+  }
+}
+
+class NodeLabelScanPartitions(scan: PartitionedScan[NodeLabelIndexCursor]) extends NodeScanPartitions {
+
+  override def numberOfPartitions: Int = scan.getNumberOfPartitions
+
+  override def workerInput(workerQuery: QueryContext): InputDataStream with AutoCloseable = {
+    val transactionalContext = workerQuery.transactionalContext
+    val cursor = transactionalContext.cursors.allocateNodeLabelIndexCursor(transactionalContext.cursorContext)
+    new NodeCursorInput(cursor) {
+      override protected def reserve(): Boolean =
+        scan.reservePartition(cursor, transactionalContext.cursorContext, transactionalContext.securityContext.mode())
+
+      override protected def nodeReference: Long = cursor.nodeReference()
+    }
+  }
+}
+
+/**
+ * Serves every reserved batch of the scan as one input batch, reusing the same kernel cursor.
+ */
+abstract class NodeCursorInput(cursor: org.neo4j.internal.kernel.api.Cursor) extends InputDataStream with AutoCloseable {
+
+  protected def reserve(): Boolean
+
+  protected def nodeReference: Long
+
+  private val batch = new InputCursor {
+    override def next(): Boolean = cursor.next()
+
+    override def value(offset: Int): AnyValue = VirtualValues.node(nodeReference)
+
+    // The cursor is reused for the next batch and closed together with the whole input
+    override def close(): Unit = {}
+  }
+
+  override def nextInputBatch(): InputCursor = if (reserve()) batch else null
+
+  override def close(): Unit = cursor.close()
+}
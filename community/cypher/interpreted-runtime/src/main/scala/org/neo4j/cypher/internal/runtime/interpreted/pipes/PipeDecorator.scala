@@ -76,6 +76,15 @@ trait PipeDecorator {
    */
   def decorateRoot(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = iter
 
+  /**
+   * Called by pipes that wrote rows to temporary files because they did not fit in memory.
+   * Bytes are summed over all calls for a plan, while the reported passes is the largest seen.
+   *
+   * @param bytes  the number of bytes written
+   * @param passes the number of passes made over the written rows
+   */
+  def spilled(planId: Id, bytes: Long, passes: Long): Unit = {}
+
   /**
    * Returns the inner decorator of this decorator. The inner decorator is used for nested expressions
    * where the `decorate` should refer to the parent pipe instead of the calling pipe.
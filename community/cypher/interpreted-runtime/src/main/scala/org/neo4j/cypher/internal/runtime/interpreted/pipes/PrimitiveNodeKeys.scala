@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+
+/**
+ * Helpers for the operators that key their hash tables on primitive node ids instead of values.
+ */
+object PrimitiveNodeKeys {
+
+  /**
+   * Id used for a node variable that is null.
+   */
+  val NULL_NODE: Long = -1L
+
+  def nodeId(value: AnyValue): Long = value match {
+    case n: VirtualNodeValue => n.id()
+    case x if x eq Values.NO_VALUE => NULL_NODE
+    case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
+  }
+
+  /**
+   * True if both ids fit in 32 bits, in which case [[pack]] maps them to a unique key.
+   */
+  def fitsInKey(first: Long, second: Long): Boolean = ((first | second) >>> 32) == 0
+
+  /**
+   * Packs two node ids into a single key. The key is only unique for ids where [[fitsInKey]] holds.
+   */
+  def pack(first: Long, second: Long): Long = java.lang.Long.rotateLeft(first, 32) ^ second
+}
@@ -29,6 +29,8 @@ import org.neo4j.cypher.internal.runtime.NoInput
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryStatistics
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.RowSlots
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.CSVResources
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.PathValueBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.InCheckContainer
@@ -36,6 +38,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.InLRUCa
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.SingleThreadedLRUCache
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState.createDefaultInCache
 import org.neo4j.cypher.internal.runtime.memory.MemoryTrackerForOperatorProvider
+import org.neo4j.cypher.internal.runtime.memory.NoOpMemoryTrackerForOperatorProvider
+import org.neo4j.cypher.internal.runtime.memory.NoOpQueryMemoryTracker
 import org.neo4j.cypher.internal.runtime.memory.QueryMemoryTracker
 import org.neo4j.internal.kernel
 import org.neo4j.internal.kernel.api.IndexReadSession
@@ -152,6 +156,30 @@ class QueryState(val query: QueryContext,
       input)
   }
 
+  /**
+   * State of a worker which executes part of the query on another thread, using `workerQuery`, a query context
+   * created by [[QueryContext.createParallelQueryContext]]. Everything that is mutated during execution is
+   * recreated, and memory tracking is left to the owner of the worker.
+   */
+  def withParallelQueryContext(workerQuery: QueryContext, workerInput: InputDataStream): QueryState =
+    new QueryState(workerQuery,
+      resources,
+      params,
+      workerQuery.createExpressionCursors(),
+      queryIndexes,
+      nodeLabelTokenReadSession,
+      relTypeTokenReadSession,
+      new Array[AnyValue](expressionVariables.length),
+      subscriber,
+      NoOpQueryMemoryTracker,
+      NoOpMemoryTrackerForOperatorProvider,
+      NullPipeDecorator,
+      initialContext,
+      createDefaultInCache(),
+      lenientCreateRelationship,
+      prePopulateResults,
+      workerInput)
+
   def setExecutionContextFactory(rowFactory: CypherRowFactory): Unit = {
     _rowFactory = rowFactory
   }
@@ -313,3 +341,50 @@ case class CommunityCypherRowFactory() extends CypherRowFactory {
       context.copyWith(key1, value1, key2, value2, key3, value3)
   }
 }
+
+/**
+ * Row factory of the interpreted runtime when rows are laid out according to a plan-time [[RowSlots]] allocation.
+ * Rows created by other means, e.g. by tests, are still [[MapCypherRow]]s and are copied as such.
+ */
+case class CommunitySlottedCypherRowFactory(slots: RowSlots) extends CypherRowFactory {
+
+  override def newRow(): CypherRow = SlottedCypherRow(slots)
+
+  override def copyArgumentOf(row: ReadableRow): CypherRow = copyWith(row)
+
+  // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
+  override def copyWith(row: ReadableRow): CypherRow = row match {
+    case context: SlottedCypherRow =>
+      context.createClone()
+    case context: MapCypherRow =>
+      context.createClone()
+  }
+
+  override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = row match {
+    case context: SlottedCypherRow =>
+      context.copyWith(newEntries)
+    case context: MapCypherRow =>
+      context.copyWith(newEntries)
+  }
+
+  override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = row match {
+    case context: SlottedCypherRow =>
+      context.copyWith(key, value)
+    case context: MapCypherRow =>
+      context.copyWith(key, value)
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = row match {
+    case context: SlottedCypherRow =>
+      context.copyWith(key1, value1, key2, value2)
+    case context: MapCypherRow =>
+      context.copyWith(key1, value1, key2, value2)
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = row match {
+    case context: SlottedCypherRow =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+    case context: MapCypherRow =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+  }
+}
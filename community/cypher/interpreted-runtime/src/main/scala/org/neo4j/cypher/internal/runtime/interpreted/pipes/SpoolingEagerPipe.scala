@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.EagerBuffer
+import org.neo4j.memory.ScopedMemoryTracker
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+
+/**
+ * Like [[EagerPipe]], but once the buffered rows use more than `spillThreshold` bytes of heap, all further rows are
+ * written to a temporary file in `spillSpace` and read back after the buffered rows.
+ */
+case class SpoolingEagerPipe(src: Pipe, spillThreshold: Long, spillSpace: SpillSpace)(val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(src) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val memoryTracker = new ScopedMemoryTracker(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+    val buffer = EagerBuffer.createEagerBuffer[CypherRow](memoryTracker,
+                                                          1024,
+                                                          8192,
+                                                          EagerBuffer.GROW_NEW_CHUNKS_BY_100_PCT
+                                                          )
+    state.query.resources.trace(buffer)
+    while (input.hasNext && memoryTracker.estimatedHeapMemory() <= spillThreshold) {
+      buffer.add(input.next)
+    }
+    val buffered = ClosingIterator(buffer.autoClosingIterator().asScala).closing(buffer).closing(memoryTracker)
+    if (!input.hasNext) {
+      return buffered
+    }
+
+    val spool = spillSpace.newFile()
+    state.query.resources.trace(spool)
+    while (input.hasNext) {
+      spool.write(input.next())
+    }
+    val spooled = spool.read(rowFactory)
+    state.decorator.spilled(id, spool.bytes, 1)
+    buffered ++ spooled
+  }
+}
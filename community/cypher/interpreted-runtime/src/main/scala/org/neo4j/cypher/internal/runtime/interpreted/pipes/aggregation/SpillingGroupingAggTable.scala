@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
+
+import org.eclipse.collections.api.block.function.Function2
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.computeNewAggregatorsFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions.MAX_LEVEL
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions.PARTITIONS
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.memory.ScopedMemoryTracker
+import org.neo4j.values.AnyValue
+
+/**
+ * Like [[GroupingAggTable]], but once the table uses more than `spillThreshold` bytes of heap no new groups are
+ * created. Rows of groups that are not already in the table are instead written to [[SpillPartitions]] in
+ * `spillSpace` by their grouping key. When the result is requested, every partition is aggregated by
+ * a table of its own, which may partition its rows again, and the aggregated rows are written to another temporary
+ * file. All partitions are aggregated before the first row is returned, so that any writes done by later operators
+ * cannot affect the aggregation.
+ *
+ * @param level how many times the rows of this table have been partitioned already
+ */
+class SpillingGroupingAggTable(groupingColumns: Array[GroupingCol],
+                               groupingFunction: (CypherRow, QueryState) => AnyValue,
+                               aggregations: Array[AggregatingCol],
+                               spillThreshold: Long,
+                               spillSpace: SpillSpace,
+                               state: QueryState,
+                               rowFactory: CypherRowFactory,
+                               operatorId: Id,
+                               level: Int) extends AggregationTable {
+
+  private[this] var resultMap: HeapTrackingOrderedAppendMap[AnyValue, Array[AggregationFunction]] = _
+  private[this] var memoryTracker: ScopedMemoryTracker = _
+  private[this] var partitions: SpillPartitions = _
+  private[this] val addKeys: (CypherRow, AnyValue) => Unit = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
+  private[this] val newAggregators: Function2[AnyValue, MemoryTracker, Array[AggregationFunction]] =
+    computeNewAggregatorsFunction(aggregations.map(_.expression))
+
+  protected def close(): Unit = {
+    if (resultMap != null) {
+      resultMap.close()
+      memoryTracker.close()
+    }
+    if (partitions != null) {
+      partitions.close()
+      partitions = null
+    }
+  }
+
+  override def clear(): Unit = {
+    close()
+    memoryTracker = new ScopedMemoryTracker(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x))
+    resultMap = HeapTrackingOrderedAppendMap.createOrderedMap[AnyValue, Array[AggregationFunction]](memoryTracker)
+    state.query.resources.trace(resultMap)
+  }
+
+  override def processRow(row: CypherRow): Unit = processRow(groupingFunction(row, state), row)
+
+  private def processRow(groupingValue: AnyValue, row: CypherRow): Unit = {
+    var aggregationFunctions = resultMap.get(groupingValue)
+    if (aggregationFunctions == null) {
+      if (partitions == null && level < MAX_LEVEL && memoryTracker.estimatedHeapMemory() > spillThreshold) {
+        partitions = new SpillPartitions(state, level, spillSpace)
+      }
+      if (partitions != null) {
+        partitions.write(groupingValue, row)
+        return
+      }
+      aggregationFunctions = resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators)
+    }
+    var i = 0
+    while (i < aggregationFunctions.length) {
+      aggregationFunctions(i)(row, state)
+      i += 1
+    }
+  }
+
+  override def result(): ClosingIterator[CypherRow] = {
+    val inMemory = inMemoryResult()
+    if (partitions == null) {
+      return inMemory
+    }
+
+    val aggregated = spillSpace.newFile()
+    state.query.resources.trace(aggregated)
+    val bytes = partitions.bytes
+    var i = 0
+    while (i < PARTITIONS) {
+      val partition = partitions(i)
+      if (partition != null) {
+        val table = new SpillingGroupingAggTable(groupingColumns, groupingFunction, aggregations, spillThreshold, spillSpace, state, rowFactory,
+          operatorId, level + 1)
+        table.clear()
+        val rows = partition.readWithKeys(rowFactory)
+        while (rows.hasNext) {
+          val (groupingValue, row) = rows.next()
+          table.processRow(groupingValue, row)
+        }
+        table.result().foreach(aggregated.write)
+      }
+      i += 1
+    }
+    partitions = null
+    val aggregatedRows = aggregated.read(rowFactory)
+    state.decorator.spilled(operatorId, bytes + aggregated.bytes, level + 1)
+    inMemory ++ aggregatedRows
+  }
+
+  private def inMemoryResult(): ClosingIterator[CypherRow] = {
+    val innerIterator = resultMap.autoClosingEntryIterator()
+    new ClosingIterator[CypherRow] {
+
+      override protected[this] def closeMore(): Unit = {
+        resultMap.close()
+        memoryTracker.close()
+      }
+
+      override def innerHasNext: Boolean = innerIterator.hasNext
+
+      override def next(): CypherRow = {
+        val entry = innerIterator.next() // NOTE: This entry is transient and only valid until we call next() again
+        val unorderedGroupingValue = entry.getKey
+        val aggregateFunctions = entry.getValue
+        val row = state.newRow(rowFactory)
+        addKeys(row, unorderedGroupingValue)
+        var i = 0
+        while (i < aggregateFunctions.length) {
+          row.set(aggregations(i).key, aggregateFunctions(i).result(state))
+          i += 1
+        }
+        row
+      }
+    }
+  }
+}
+
+object SpillingGroupingAggTable {
+
+  case class Factory(groupingColumns: Array[GroupingCol],
+                     groupingFunction: (CypherRow, QueryState) => AnyValue,
+                     aggregations: Array[AggregatingCol],
+                     spillThreshold: Long,
+                     spillSpace: SpillSpace) extends AggregationTableFactory {
+    override def table(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): AggregationTable =
+      new SpillingGroupingAggTable(groupingColumns, groupingFunction, aggregations, spillThreshold, spillSpace, state, rowFactory, operatorId, 0)
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.io.IOUtils
+
+import java.util.Comparator
+import java.util.PriorityQueue
+
+/**
+ * Merges runs of rows that are each sorted according to `comparator` into a single sorted stream.
+ * Rows that compare equal are produced in the order of their runs, so merging runs of a stable sort is stable.
+ */
+class SortedRunsIterator(runs: IndexedSeq[ClosingIterator[CypherRow]], comparator: Comparator[ReadableRow])
+  extends ClosingIterator[CypherRow] {
+
+  private class Head(val run: Int, var row: CypherRow)
+
+  private[this] val heads = new PriorityQueue[Head](math.max(runs.size, 1), (a: Head, b: Head) => {
+    val cmp = comparator.compare(a.row, b.row)
+    if (cmp != 0) cmp else Integer.compare(a.run, b.run)
+  })
+
+  {
+    var i = 0
+    while (i < runs.size) {
+      if (runs(i).hasNext) {
+        heads.add(new Head(i, runs(i).next()))
+      }
+      i += 1
+    }
+  }
+
+  override protected[this] def innerHasNext: Boolean = !heads.isEmpty
+
+  override def next(): CypherRow = {
+    val head = heads.poll()
+    if (head == null) {
+      Iterator.empty.next()
+    }
+    val row = head.row
+    val run = runs(head.run)
+    if (run.hasNext) {
+      head.row = run.next()
+      heads.add(head)
+    }
+    row
+  }
+
+  override protected[this] def closeMore(): Unit = IOUtils.closeAll(runs: _*)
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.exceptions.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.ValueWriter
+import org.neo4j.values.storable.ValueWriter.ArrayType
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.ListValueBuilder
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualPathValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+
+/**
+ * Compact binary encoding of the values that can occur in rows, used when rows are written to temporary files.
+ *
+ * Every value is written as a one byte tag followed by its payload. Storable values keep their exact type, while
+ * nodes, relationships and paths are written by id and read back as references, just like the runtime produces them.
+ */
+object SpillCodec {
+
+  private final val NO_VALUE = 0
+  private final val TRUE = 1
+  private final val FALSE = 2
+  private final val BYTE = 3
+  private final val SHORT = 4
+  private final val INT = 5
+  private final val LONG = 6
+  private final val FLOAT = 7
+  private final val DOUBLE = 8
+  private final val CHAR = 9
+  private final val STRING = 10
+  private final val BYTE_ARRAY = 11
+  private final val ARRAY = 12
+  private final val POINT = 13
+  private final val DURATION = 14
+  private final val DATE = 15
+  private final val LOCAL_TIME = 16
+  private final val TIME = 17
+  private final val LOCAL_DATE_TIME = 18
+  private final val DATE_TIME = 19
+  private final val LIST = 20
+  private final val MAP = 21
+  private final val NODE = 22
+  private final val RELATIONSHIP = 23
+  private final val PATH = 24
+
+  private val ARRAY_TYPES = ArrayType.values()
+
+  def writeValue(out: DataOutput, value: AnyValue): Unit = value match {
+    case v: Value => v.writeTo(new StorableWriter(out))
+    case node: VirtualNodeValue =>
+      out.writeByte(NODE)
+      out.writeLong(node.id())
+    case relationship: VirtualRelationshipValue =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(relationship.id())
+    case path: VirtualPathValue =>
+      out.writeByte(PATH)
+      writeLongs(out, path.nodeIds())
+      writeLongs(out, path.relationshipIds())
+    case list: ListValue =>
+      out.writeByte(LIST)
+      out.writeInt(list.size())
+      val iterator = list.iterator()
+      while (iterator.hasNext) {
+        writeValue(out, iterator.next())
+      }
+    case map: MapValue =>
+      out.writeByte(MAP)
+      out.writeInt(map.size())
+      map.foreach[IOException]((key, v) => {
+        writeString(out, key)
+        writeValue(out, v)
+      })
+    case _ =>
+      throw new InternalException(s"Cannot write value of type ${value.getTypeName} to a temporary file")
+  }
+
+  def readValue(in: DataInput): AnyValue = readValue(in, in.readByte())
+
+  def writeString(out: DataOutput, value: String): Unit = {
+    val bytes = value.getBytes(StandardCharsets.UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  def readString(in: DataInput): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+
+  private def readValue(in: DataInput, tag: Byte): AnyValue = tag match {
+    case NO_VALUE => Values.NO_VALUE
+    case TRUE => Values.TRUE
+    case FALSE => Values.FALSE
+    case BYTE => Values.byteValue(in.readByte())
+    case SHORT => Values.shortValue(in.readShort())
+    case INT => Values.intValue(in.readInt())
+    case LONG => Values.longValue(in.readLong())
+    case FLOAT => Values.floatValue(in.readFloat())
+    case DOUBLE => Values.doubleValue(in.readDouble())
+    case CHAR => Values.charValue(in.readChar())
+    case STRING => Values.utf8Value(readBytes(in))
+    case BYTE_ARRAY => Values.byteArray(readBytes(in))
+    case ARRAY => readArray(in)
+    case POINT =>
+      val crs = CoordinateReferenceSystem.get(in.readInt())
+      val coordinate = new Array[Double](in.readInt())
+      var i = 0
+      while (i < coordinate.length) {
+        coordinate(i) = in.readDouble()
+        i += 1
+      }
+      Values.pointValue(crs, coordinate: _*)
+    case DURATION => DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readInt())
+    case DATE => DateValue.epochDate(in.readLong())
+    case LOCAL_TIME => LocalTimeValue.localTime(in.readLong())
+    case TIME => TimeValue.time(OffsetTime.of(LocalTime.ofNanoOfDay(in.readLong()), ZoneOffset.ofTotalSeconds(in.readInt())))
+    case LOCAL_DATE_TIME => LocalDateTimeValue.localDateTime(in.readLong(), in.readInt())
+    case DATE_TIME =>
+      val instant = Instant.ofEpochSecond(in.readLong(), in.readInt())
+      DateTimeValue.datetime(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))))
+    case LIST =>
+      val size = in.readInt()
+      val builder = ListValueBuilder.newListBuilder(size)
+      var i = 0
+      while (i < size) {
+        builder.add(readValue(in))
+        i += 1
+      }
+      builder.build()
+    case MAP =>
+      val size = in.readInt()
+      val builder = new MapValueBuilder(Math.max(size, 1))
+      var i = 0
+      while (i < size) {
+        builder.add(readString(in), readValue(in))
+        i += 1
+      }
+      builder.build()
+    case NODE => VirtualValues.node(in.readLong())
+    case RELATIONSHIP => VirtualValues.relationship(in.readLong())
+    case PATH => VirtualValues.pathReference(readLongs(in), readLongs(in))
+    case _ => throw new InternalException(s"Unknown value tag $tag in temporary file")
+  }
+
+  private def readArray(in: DataInput): Value = {
+    val arrayType = ARRAY_TYPES(in.readByte())
+    val elements = new Array[Value](in.readInt())
+    var i = 0
+    while (i < elements.length) {
+      elements(i) = readValue(in).asInstanceOf[Value]
+      i += 1
+    }
+    arrayType match {
+      case ArrayType.BYTE => Values.byteArray(elements.map(_.asObject().asInstanceOf[Byte]))
+      case ArrayType.SHORT => Values.shortArray(elements.map(_.asObject().asInstanceOf[Short]))
+      case ArrayType.INT => Values.intArray(elements.map(_.asObject().asInstanceOf[Int]))
+      case ArrayType.LONG => Values.longArray(elements.map(_.asObject().asInstanceOf[Long]))
+      case ArrayType.FLOAT => Values.floatArray(elements.map(_.asObject().asInstanceOf[Float]))
+      case ArrayType.DOUBLE => Values.doubleArray(elements.map(_.asObject().asInstanceOf[Double]))
+      case ArrayType.BOOLEAN => Values.booleanArray(elements.map(_.asObject().asInstanceOf[Boolean]))
+      case ArrayType.STRING => Values.stringArray(elements.map(_.asObject().asInstanceOf[String]): _*)
+      case ArrayType.CHAR => Values.charArray(elements.map(_.asObject().asInstanceOf[Char]))
+      case ArrayType.POINT => Values.pointArray(elements)
+      case ArrayType.ZONED_DATE_TIME => Values.dateTimeArray(elements.map(_.asObject().asInstanceOf[ZonedDateTime]))
+      case ArrayType.LOCAL_DATE_TIME => Values.localDateTimeArray(elements.map(_.asObject().asInstanceOf[LocalDateTime]))
+      case ArrayType.DATE => Values.dateArray(elements.map(_.asObject().asInstanceOf[LocalDate]))
+      case ArrayType.ZONED_TIME => Values.timeArray(elements.map(_.asObject().asInstanceOf[OffsetTime]))
+      case ArrayType.LOCAL_TIME => Values.localTimeArray(elements.map(_.asObject().asInstanceOf[LocalTime]))
+      case ArrayType.DURATION => Values.durationArray(elements.map(_.asInstanceOf[DurationValue]))
+    }
+  }
+
+  private def readBytes(in: DataInput): Array[Byte] = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    bytes
+  }
+
+  private def writeLongs(out: DataOutput, values: Array[Long]): Unit = {
+    out.writeInt(values.length)
+    var i = 0
+    while (i < values.length) {
+      out.writeLong(values(i))
+      i += 1
+    }
+  }
+
+  private def readLongs(in: DataInput): Array[Long] = {
+    val values = new Array[Long](in.readInt())
+    var i = 0
+    while (i < values.length) {
+      values(i) = in.readLong()
+      i += 1
+    }
+    values
+  }
+
+  private class StorableWriter(out: DataOutput) extends ValueWriter[IOException] {
+
+    override def writeNull(): Unit = out.writeByte(NO_VALUE)
+
+    override def writeBoolean(value: Boolean): Unit = out.writeByte(if (value) TRUE else FALSE)
+
+    override def writeInteger(value: Byte): Unit = {
+      out.writeByte(BYTE)
+      out.writeByte(value)
+    }
+
+    override def writeInteger(value: Short): Unit = {
+      out.writeByte(SHORT)
+      out.writeShort(value)
+    }
+
+    override def writeInteger(value: Int): Unit = {
+      out.writeByte(INT)
+      out.writeInt(value)
+    }
+
+    override def writeInteger(value: Long): Unit = {
+      out.writeByte(LONG)
+      out.writeLong(value)
+    }
+
+    override def writeFloatingPoint(value: Float): Unit = {
+      out.writeByte(FLOAT)
+      out.writeFloat(value)
+    }
+
+    override def writeFloatingPoint(value: Double): Unit = {
+      out.writeByte(DOUBLE)
+      out.writeDouble(value)
+    }
+
+    override def writeString(value: String): Unit = {
+      out.writeByte(STRING)
+      SpillCodec.writeString(out, value)
+    }
+
+    override def writeString(value: Char): Unit = {
+      out.writeByte(CHAR)
+      out.writeChar(value)
+    }
+
+    override def writeUTF8(bytes: Array[Byte], offset: Int, length: Int): Unit = {
+      out.writeByte(STRING)
+      out.writeInt(length)
+      out.write(bytes, offset, length)
+    }
+
+    override def beginArray(size: Int, arrayType: ArrayType): Unit = {
+      out.writeByte(ARRAY)
+      out.writeByte(arrayType.ordinal())
+      out.writeInt(size)
+    }
+
+    override def endArray(): Unit = {}
+
+    override def writeByteArray(value: Array[Byte]): Unit = {
+      out.writeByte(BYTE_ARRAY)
+      out.writeInt(value.length)
+      out.write(value)
+    }
+
+    override def writePoint(crs: CoordinateReferenceSystem, coordinate: Array[Double]): Unit = {
+      out.writeByte(POINT)
+      out.writeInt(crs.getCode)
+      out.writeInt(coordinate.length)
+      var i = 0
+      while (i < coordinate.length) {
+        out.writeDouble(coordinate(i))
+        i += 1
+      }
+    }
+
+    override def writeDuration(months: Long, days: Long, seconds: Long, nanos: Int): Unit = {
+      out.writeByte(DURATION)
+      out.writeLong(months)
+      out.writeLong(days)
+      out.writeLong(seconds)
+      out.writeInt(nanos)
+    }
+
+    override def writeDate(localDate: LocalDate): Unit = {
+      out.writeByte(DATE)
+      out.writeLong(localDate.toEpochDay)
+    }
+
+    override def writeLocalTime(localTime: LocalTime): Unit = {
+      out.writeByte(LOCAL_TIME)
+      out.writeLong(localTime.toNanoOfDay)
+    }
+
+    override def writeTime(offsetTime: OffsetTime): Unit = {
+      out.writeByte(TIME)
+      out.writeLong(offsetTime.toLocalTime.toNanoOfDay)
+      out.writeInt(offsetTime.getOffset.getTotalSeconds)
+    }
+
+    override def writeLocalDateTime(localDateTime: LocalDateTime): Unit = {
+      out.writeByte(LOCAL_DATE_TIME)
+      out.writeLong(localDateTime.toEpochSecond(ZoneOffset.UTC))
+      out.writeInt(localDateTime.getNano)
+    }
+
+    override def writeDateTime(zonedDateTime: ZonedDateTime): Unit = {
+      out.writeByte(DATE_TIME)
+      out.writeLong(zonedDateTime.toEpochSecond)
+      out.writeInt(zonedDateTime.getNano)
+      SpillCodec.writeString(out, zonedDateTime.getZone.getId)
+    }
+  }
+}
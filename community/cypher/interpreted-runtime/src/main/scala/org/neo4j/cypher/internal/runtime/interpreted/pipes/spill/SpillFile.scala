@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.MapCypherRow
+import org.neo4j.cypher.internal.runtime.ResourceLinenumber
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
+import org.neo4j.exceptions.InternalException
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.FilterOutputStream
+import java.io.OutputStream
+import java.nio.file.Path
+import scala.collection.mutable
+
+/**
+ * A temporary file that rows, optionally together with a key, are appended to and later read back in the order
+ * they were written. Variable names and cached property keys are written as ids into dictionaries kept in memory.
+ * The bytes written are accounted for in `space`, and the file is deleted when it is closed.
+ */
+class SpillFile(space: SpillSpace, path: Path) extends DefaultCloseListenable {
+
+  private[this] val output = new CountingOutputStream(space.openOutput(path))
+  private[this] var out = new DataOutputStream(new BufferedOutputStream(output))
+  private[this] var in: DataInputStream = _
+  private[this] var rowCount = 0L
+  private[this] var byteCount = 0L
+  private[this] var closed = false
+
+  private[this] val names = mutable.ArrayBuffer.empty[String]
+  private[this] val nameIds = mutable.HashMap.empty[String, Int]
+  private[this] val cachedPropertyKeys = mutable.ArrayBuffer.empty[ASTCachedProperty.RuntimeKey]
+  private[this] val cachedPropertyKeyIds = mutable.HashMap.empty[ASTCachedProperty.RuntimeKey, Int]
+
+  def rows: Long = rowCount
+
+  /**
+   * Number of bytes written to the file so far.
+   */
+  def bytes: Long = {
+    if (out != null) {
+      out.flush()
+    }
+    byteCount
+  }
+
+  def write(row: CypherRow): Unit = {
+    writeRow(row)
+    rowCount += 1
+  }
+
+  def write(key: AnyValue, row: CypherRow): Unit = {
+    SpillCodec.writeValue(out, key)
+    write(row)
+  }
+
+  /**
+   * Read back all written rows. No more rows can be written after this.
+   */
+  def read(rowFactory: CypherRowFactory): ClosingIterator[CypherRow] = {
+    startReading()
+    new SpillFileIterator[CypherRow] {
+      override protected def readNext(): CypherRow = readRow(rowFactory)
+    }
+  }
+
+  /**
+   * Read back all rows written together with a key. No more rows can be written after this.
+   */
+  def readWithKeys(rowFactory: CypherRowFactory): ClosingIterator[(AnyValue, CypherRow)] = {
+    startReading()
+    new SpillFileIterator[(AnyValue, CypherRow)] {
+      override protected def readNext(): (AnyValue, CypherRow) = {
+        val key = SpillCodec.readValue(in)
+        (key, readRow(rowFactory))
+      }
+    }
+  }
+
+  private def startReading(): Unit = {
+    if (in != null || closed) {
+      throw new InternalException("Temporary file can only be read once")
+    }
+    out.close()
+    out = null
+    in = new DataInputStream(new BufferedInputStream(space.openInput(path)))
+  }
+
+  private def writeRow(row: CypherRow): Unit = {
+    row match {
+      case mapRow: MapCypherRow =>
+        mapRow.toMap.foreach {
+          case (name, value) => writeVariable(name, value)
+        }
+        out.writeInt(-1)
+        mapRow.foreachCachedProperty(writeCachedProperty)
+      case slottedRow: SlottedCypherRow =>
+        slottedRow.foreachVariable(writeVariable)
+        out.writeInt(-1)
+        slottedRow.foreachCachedProperty(writeCachedProperty)
+      case _ =>
+        throw new InternalException(s"Cannot write row of type ${row.getClass.getSimpleName} to a temporary file")
+    }
+    out.writeInt(-1)
+    row.getLinenumber match {
+      case Some(ResourceLinenumber(filename, linenumber, last)) =>
+        out.writeBoolean(true)
+        SpillCodec.writeString(out, filename)
+        out.writeLong(linenumber)
+        out.writeBoolean(last)
+      case None =>
+        out.writeBoolean(false)
+    }
+  }
+
+  private def writeVariable(name: String, value: AnyValue): Unit = {
+    if (value != null) {
+      out.writeInt(nameIds.getOrElseUpdate(name, { names += name; names.size - 1 }))
+      SpillCodec.writeValue(out, value)
+    }
+  }
+
+  private def writeCachedProperty(key: ASTCachedProperty.RuntimeKey, value: Value): Unit = {
+    if (value != null) {
+      out.writeInt(cachedPropertyKeyIds.getOrElseUpdate(key, { cachedPropertyKeys += key; cachedPropertyKeys.size - 1 }))
+      SpillCodec.writeValue(out, value)
+    }
+  }
+
+  private def readRow(rowFactory: CypherRowFactory): CypherRow = {
+    val row = rowFactory.newRow()
+    var id = in.readInt()
+    while (id != -1) {
+      row.set(names(id), SpillCodec.readValue(in))
+      id = in.readInt()
+    }
+    id = in.readInt()
+    while (id != -1) {
+      row.setCachedProperty(cachedPropertyKeys(id), SpillCodec.readValue(in).asInstanceOf[Value])
+      id = in.readInt()
+    }
+    if (in.readBoolean()) {
+      row.setLinenumber(Some(ResourceLinenumber(SpillCodec.readString(in), in.readLong(), in.readBoolean())))
+    }
+    row
+  }
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      try {
+        if (out != null) {
+          // Buffered rows are not needed anymore, so they are not flushed
+          output.close()
+          out = null
+        }
+        if (in != null) {
+          in.close()
+        }
+      } finally {
+        space.delete(path)
+        space.release(byteCount)
+      }
+    }
+  }
+
+  override def isClosed: Boolean = closed
+
+  private class CountingOutputStream(file: OutputStream) extends FilterOutputStream(file) {
+
+    override def write(b: Int): Unit = {
+      space.reserve(1)
+      byteCount += 1
+      file.write(b)
+    }
+
+    override def write(b: Array[Byte], off: Int, len: Int): Unit = {
+      space.reserve(len)
+      byteCount += len
+      file.write(b, off, len)
+    }
+  }
+
+  private abstract class SpillFileIterator[T] extends ClosingIterator[T] {
+    private[this] var remaining = rowCount
+
+    protected def readNext(): T
+
+    override protected[this] def innerHasNext: Boolean = remaining > 0
+
+    override def next(): T = {
+      if (!hasNext) {
+        Iterator.empty.next()
+      }
+      remaining -= 1
+      readNext()
+    }
+
+    override protected[this] def closeMore(): Unit = SpillFile.this.close()
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillPartitions.PARTITIONS
+import org.neo4j.values.AnyValue
+
+import scala.util.hashing.MurmurHash3
+
+/**
+ * Spreads keyed rows over `PARTITIONS` temporary files of `space` by the hash of their key, so that all rows with
+ * equal keys end up in the same file. The `level` is mixed into the hash, so that partitioning the rows of one
+ * partition again spreads them over all partitions of the next level.
+ */
+class SpillPartitions(state: QueryState, level: Int, space: SpillSpace) extends AutoCloseable {
+
+  private[this] val files = new Array[SpillFile](PARTITIONS)
+
+  def write(key: AnyValue, row: CypherRow): Unit = {
+    val hash = MurmurHash3.finalizeHash(MurmurHash3.mix(level, key.hashCode()), level)
+    val index = Math.floorMod(hash, PARTITIONS)
+    var file = files(index)
+    if (file == null) {
+      file = space.newFile()
+      state.query.resources.trace(file)
+      files(index) = file
+    }
+    file.write(key, row)
+  }
+
+  /**
+   * The file of the given partition, or `null` if no rows have been written to it.
+   */
+  def apply(partition: Int): SpillFile = files(partition)
+
+  def bytes: Long = files.map(file => if (file == null) 0L else file.bytes).sum
+
+  override def close(): Unit = {
+    var i = 0
+    while (i < files.length) {
+      if (files(i) != null) {
+        files(i).close()
+      }
+      i += 1
+    }
+  }
+}
+
+object SpillPartitions {
+
+  final val PARTITIONS = 16
+
+  /**
+   * Rows are partitioned at most this many times, after which operators keep all remaining rows in memory.
+   */
+  final val MAX_LEVEL = 4
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace.FILE_PREFIX
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace.FILE_SUFFIX
+import org.neo4j.exceptions.CypherExecutionException
+import org.neo4j.io.fs.DefaultFileSystemAbstraction
+import org.neo4j.io.fs.FileSystemAbstraction
+
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.file.Path
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * The place where operators of the interpreted runtime spill rows to: temporary files in `directory` of `fs`.
+ * The files of all queries together may use at most `maxBytes` bytes, unless it is 0. Files that were left behind,
+ * e.g. by a crash, are deleted before the first file is created.
+ */
+class SpillSpace(fs: FileSystemAbstraction, directory: Path, maxBytes: Long) {
+
+  private[this] val used = new AtomicLong()
+  private[this] val fileIds = new AtomicLong()
+  @volatile private[this] var prepared = false
+
+  /**
+   * Number of bytes currently written to the temporary files of all queries.
+   */
+  def usedBytes: Long = used.get()
+
+  def newFile(): SpillFile = {
+    prepare()
+    new SpillFile(this, directory.resolve(FILE_PREFIX + fileIds.incrementAndGet() + FILE_SUFFIX))
+  }
+
+  private def prepare(): Unit = {
+    if (!prepared) {
+      synchronized {
+        if (!prepared) {
+          fs.mkdirs(directory)
+          fs.listFiles(directory, path => {
+            val name = path.getFileName.toString
+            name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)
+          }).foreach(fs.deleteFile)
+          prepared = true
+        }
+      }
+    }
+  }
+
+  private[spill] def openOutput(path: Path): OutputStream = fs.openAsOutputStream(path, false)
+
+  private[spill] def openInput(path: Path): InputStream = fs.openAsInputStream(path)
+
+  private[spill] def delete(path: Path): Unit = fs.deleteFile(path)
+
+  /**
+   * Account for `bytes` more bytes written to a temporary file, failing the query if that exceeds the limit.
+   */
+  private[spill] def reserve(bytes: Long): Unit = {
+    val total = used.addAndGet(bytes)
+    if (maxBytes > 0 && total > maxBytes) {
+      used.addAndGet(-bytes)
+      throw new CypherExecutionException(
+        s"The temporary files of the running queries would use more than $maxBytes bytes. " +
+        s"The limit is configured by '${GraphDatabaseInternalSettings.cypher_interpreted_spill_max_size.name()}'.")
+    }
+  }
+
+  private[spill] def release(bytes: Long): Unit = used.addAndGet(-bytes)
+}
+
+object SpillSpace {
+
+  final val FILE_PREFIX = "cypher-spill-"
+  final val FILE_SUFFIX = ".tmp"
+
+  /**
+   * Unlimited space in the temporary directory of the JVM, for when there is no database to take the directory from.
+   */
+  lazy val DEFAULT: SpillSpace =
+    new SpillSpace(new DefaultFileSystemAbstraction,
+      Path.of(System.getProperty("java.io.tmpdir"), FILE_PREFIX + ProcessHandle.current().pid()),
+      0)
+}
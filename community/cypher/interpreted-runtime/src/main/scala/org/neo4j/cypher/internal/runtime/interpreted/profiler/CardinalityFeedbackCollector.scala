@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.profiler
+
+import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.HasTypes
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipTypeScan
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.NodeIndexLeafPlan
+import org.neo4j.cypher.internal.logical.plans.OptionalExpand
+import org.neo4j.cypher.internal.logical.plans.RelationshipIndexLeafPlan
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipTypeScan
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeDecorator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.profiler.CardinalityFeedbackCollector.ObservableSelection
+import org.neo4j.cypher.internal.util.EffectiveCardinality
+import org.neo4j.cypher.internal.util.Foldable.FoldableAny
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.attribution.Id
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Observes the selectivities of the selections of a cached plan, and reports them to [[CardinalityFeedback]].
+ *
+ * Every `sampleInterval`:th execution, starting with the first, counts the rows going in and out of the selections,
+ * which is much cheaper than profiling since no other operators are decorated.
+ */
+class CardinalityFeedbackCollector private(selections: Array[ObservableSelection], maxPlanId: Int, feedback: CardinalityFeedback) {
+
+  private val executions = new AtomicLong()
+
+  /**
+   * @return a decorator counting the rows of this execution, if it should be sampled.
+   */
+  def sample(): Option[PipeDecorator] =
+    if (executions.getAndIncrement() % feedback.sampleInterval == 0) Some(new RowCountingPipeDecorator) else None
+
+  private class RowCountingPipeDecorator extends PipeDecorator {
+
+    private val rows = new Array[Long](maxPlanId + 1)
+
+    private val counted = {
+      val counted = new Array[Boolean](maxPlanId + 1)
+      selections.foreach { selection =>
+        counted(selection.selectionId.x) = true
+        counted(selection.sourceId.x) = true
+      }
+      counted
+    }
+
+    override def decorate(planId: Id, state: QueryState): QueryState = state
+
+    override def afterCreateResults(planId: Id, state: QueryState): Unit = {}
+
+    override def decorate(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] =
+      if (planId.x < counted.length && counted(planId.x)) {
+        new ClosingIterator[CypherRow] {
+          override protected[this] def closeMore(): Unit = iter.close()
+
+          override protected[this] def innerHasNext: Boolean = iter.hasNext
+
+          override def next(): CypherRow = {
+            rows(planId.x) += 1
+            iter.next()
+          }
+        }
+      } else {
+        iter
+      }
+
+    // The root is closed once the query has finished, or is closed early
+    override def decorateRoot(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] =
+      iter.closing(() => report())
+
+    override def innerDecorator(planId: Id): PipeDecorator = this
+
+    private def report(): Unit =
+      selections.foreach { selection =>
+        feedback.recordSelectivity(selection.predicateFingerprint, selection.estimated, rows(selection.sourceId.x), rows(selection.selectionId.x))
+      }
+  }
+}
+
+object CardinalityFeedbackCollector {
+
+  case class ObservableSelection(selectionId: Id, sourceId: Id, predicateFingerprint: String, estimated: Selectivity)
+
+  /**
+   * @return a collector for the plan, or `None` if feedback is disabled or the plan has no selections with predicates the planner would look up.
+   */
+  def apply(plan: LogicalPlan,
+            effectiveCardinalities: EffectiveCardinalities,
+            feedback: CardinalityFeedback): Option[CardinalityFeedbackCollector] = {
+    if (!feedback.enabled) {
+      None
+    } else {
+      lazy val knownLabelsAndTypes = labelsAndTypes(plan)
+      val selections = plan.folder.findAllByClass[Selection].flatMap { selection =>
+        val predicates = selection.predicate.exprs
+        val observable = predicates.forall(CardinalityFeedback.canBeObserved) && predicates.map(CardinalityFeedback.dependencies).toSet.size == 1
+        val estimated = for {
+          selected <- effectiveCardinalities.getOption(selection.id)
+          source <- effectiveCardinalities.getOption(selection.source.id)
+          selectivity <- Selectivity.of(withoutLimit(selected) / withoutLimit(source))
+        } yield selectivity
+        estimated.filter(_ => observable).map { selectivity =>
+          ObservableSelection(selection.id, selection.source.id, CardinalityFeedback.fingerprint(predicates, knownLabelsAndTypes), selectivity)
+        }
+      }
+
+      if (selections.isEmpty) {
+        None
+      } else {
+        val maxPlanId = plan.folder.findAllByClass[LogicalPlan].map(_.id.x).max
+        Some(new CardinalityFeedbackCollector(selections.toArray, maxPlanId, feedback))
+      }
+    }
+  }
+
+  /**
+   * The labels and relationship types of the variables of the plan, as the planner knows them when it looks up observations:
+   * the labels of label predicates and scans, and single relationship types.
+   */
+  private def labelsAndTypes(plan: LogicalPlan): Map[String, Set[String]] = {
+    def add(name: String, labelsOrTypes: Iterable[String]): Map[String, Set[String]] => Map[String, Set[String]] =
+      acc => acc.updated(name, acc.getOrElse(name, Set.empty[String]) ++ labelsOrTypes)
+
+    plan.folder.fold(Map.empty[String, Set[String]]) {
+      case HasLabels(Variable(name), labels) => add(name, labels.map(_.name))
+      case HasTypes(Variable(name), Seq(relType)) => add(name, Seq(relType.name))
+      case scan: NodeByLabelScan => add(scan.idName, Seq(scan.label.name))
+      case seek: NodeIndexLeafPlan => add(seek.idName, Seq(seek.label.name))
+      case seek: RelationshipIndexLeafPlan => add(seek.idName, Seq(seek.typeToken.name))
+      case scan: DirectedRelationshipTypeScan => add(scan.idName, Seq(scan.relType.name))
+      case scan: UndirectedRelationshipTypeScan => add(scan.idName, Seq(scan.relType.name))
+      case Expand(_, _, _, Seq(relType), _, relName, _) => add(relName, Seq(relType.name))
+      case OptionalExpand(_, _, _, Seq(relType), _, relName, _, _) => add(relName, Seq(relType.name))
+    }
+  }
+
+  // Effective cardinalities are reduced by limits, which would distort the estimated selectivity
+  private def withoutLimit(cardinality: EffectiveCardinality): Double =
+    cardinality.originalCardinality.fold(cardinality.amount)(_.amount)
+}
@@ -35,7 +35,9 @@ class InterpretedProfileInformation extends QueryProfile {
                           rows: Long,
                           pageCacheHits: Long,
                           pageCacheMisses: Long,
-                          maxAllocatedMemory: Long) extends OperatorProfile {
+                          maxAllocatedMemory: Long,
+                          override val spilledBytes: Long = OperatorProfile.NO_DATA,
+                          override val spillPasses: Long = OperatorProfile.NO_DATA) extends OperatorProfile {
 
     override def time: Long = OperatorProfile.NO_DATA
 
@@ -59,6 +61,7 @@ class InterpretedProfileInformation extends QueryProfile {
   val pageCacheMap: mutable.Map[Id, PageCacheStats] = mutable.Map.empty.withDefault(_ => PageCacheStats(0,0))
   val dbHitsMap: mutable.Map[Id, Counter] = mutable.Map.empty
   val rowMap: mutable.Map[Id, ProfilingIterator] = mutable.Map.empty
+  val spillMap: mutable.Map[Id, SpillStats] = mutable.Map.empty
 
   // Intended to be overridden by `setQueryMemoryTracker`
   private var memoryTracker: QueryMemoryTracker = NoOpQueryMemoryTracker
@@ -72,7 +75,12 @@ class InterpretedProfileInformation extends QueryProfile {
     val pageCacheStats = pageCacheMap(id)
     val maxMemoryAllocated = MemoryTrackerForOperatorProvider.memoryAsProfileData(memoryTracker.heapHighWaterMarkOfOperator(operatorId))
 
-    OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, maxMemoryAllocated)
+    spillMap.get(id) match {
+      case Some(spill) =>
+        OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, maxMemoryAllocated, spill.bytes, spill.passes)
+      case None =>
+        OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, maxMemoryAllocated)
+    }
   }
 
   def snapshot: InterpretedProfileInformationSnapshot = {
@@ -94,6 +102,10 @@ case class InterpretedProfileInformationSnapshot(dbHitsMap: collection.Map[Id, L
 
 case class InterpretedProfileInformationAggregatedSnapshot(dbHits: Long)
 
+case class SpillStats(bytes: Long, passes: Long) {
+  def +(other: SpillStats): SpillStats = SpillStats(this.bytes + other.bytes, Math.max(this.passes, other.passes))
+}
+
 case class PageCacheStats(hits: Long, misses: Long) {
   def -(other: PageCacheStats): PageCacheStats = {
     PageCacheStats(this.hits - other.hits, this.misses - other.misses)
@@ -135,6 +135,10 @@ class Profiler(dbmsInfo: DbmsInfo,
     }
   }
 
+  override def spilled(planId: Id, bytes: Long, passes: Long): Unit = {
+    stats.spillMap(planId) = stats.spillMap.getOrElse(planId, SpillStats(0, 0)) + SpillStats(bytes, passes)
+  }
+
   private def trackPageCacheStats = {
     dbmsInfo.edition != Edition.COMMUNITY
   }
@@ -150,6 +154,8 @@ class Profiler(dbmsInfo: DbmsInfo,
     override def decorate(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = iter
 
     override def afterCreateResults(planId: Id, state: QueryState): Unit = outerProfiler.afterCreateResults(outerPlanId, state)
+
+    override def spilled(planId: Id, bytes: Long, passes: Long): Unit = outerProfiler.spilled(outerPlanId, bytes, passes)
   }
 }
 
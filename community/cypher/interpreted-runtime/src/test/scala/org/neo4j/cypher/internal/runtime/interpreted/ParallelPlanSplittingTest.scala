@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.logical.plans
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Apply
+import org.neo4j.cypher.internal.logical.plans.Argument
+import org.neo4j.cypher.internal.logical.plans.Distinct
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.logical.plans.Sort
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ParallelPlanSplittingTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private implicit val idGen: IdGen = new SequentialIdGen()
+
+  test("should execute combinable aggregations in the workers and combine them afterwards") {
+    // given
+    val scan = NodeByLabelScan("a", labelName("A"), Set.empty, IndexOrderNone)
+    val filter = Selection(ands(greaterThan(prop("a", "x"), literalInt(1))), scan)
+    val aggregation = Aggregation(filter,
+      Map("x" -> prop("a", "x")),
+      Map("c" -> countStar(), "s" -> sum(prop("a", "y")), "mn" -> min(prop("a", "y")), "mx" -> max(prop("a", "y"))))
+    val plan = ProduceResult(aggregation, Seq("x", "c", "s", "mn", "mx"))
+
+    // when
+    val parallelPlan = parallelPlanSplitting.split(plan).get
+
+    // then
+    parallelPlan.leaf should be(scan)
+    parallelPlan.worker should be(aggregation)
+    parallelPlan.worker.id should be(aggregation.id)
+    parallelPlan.gatherId should be(filter.id)
+    parallelPlan.main should be(ProduceResult(Aggregation(Argument(),
+      Map("x" -> varFor("x")),
+      Map("c" -> sum(varFor("c")), "s" -> sum(varFor("s")), "mn" -> min(varFor("mn")), "mx" -> max(varFor("mx")))), Seq("x", "c", "s", "mn", "mx")))
+    parallelPlan.main.id should be(plan.id)
+    parallelPlan.main.lhs.get.id should be(aggregation.id)
+  }
+
+  test("should let other aggregations see the rows of all workers") {
+    // given
+    val scan = AllNodesScan("a", Set.empty)
+    val expand = Expand(scan, "a", SemanticDirection.OUTGOING, Seq.empty, "b", "r")
+    val aggregation = Aggregation(expand, Map.empty, Map("c" -> count(varFor("b")), "l" -> collect(varFor("a"))))
+    val plan = ProduceResult(aggregation, Seq("c", "l"))
+
+    // when
+    val parallelPlan = parallelPlanSplitting.split(plan).get
+
+    // then
+    parallelPlan.worker should be(expand)
+    parallelPlan.main should be(ProduceResult(aggregation.copy(source = Argument())(idGen), Seq("c", "l")))
+    parallelPlan.gatherId should be(expand.id)
+  }
+
+  test("should combine distinct and sort rows of the workers") {
+    // given
+    val scan = AllNodesScan("a", Set.empty)
+    val distinct = Distinct(Projection(scan, Map("x" -> prop("a", "x"))), Map("x" -> varFor("x")))
+    val sort = Sort(distinct, Seq(plans.Ascending("x")))
+    val plan = ProduceResult(sort, Seq("x"))
+
+    // when
+    val parallelPlan = parallelPlanSplitting.split(plan).get
+
+    // then
+    parallelPlan.worker should be(distinct)
+    parallelPlan.main should be(ProduceResult(Sort(Distinct(Argument(), Map("x" -> varFor("x"))), Seq(plans.Ascending("x"))), Seq("x")))
+  }
+
+  test("should not split plans without an operator that needs to see all rows") {
+    val plan = ProduceResult(Projection(AllNodesScan("a", Set.empty), Map("x" -> prop("a", "x"))), Seq("x"))
+
+    parallelPlanSplitting.split(plan) should be(None)
+  }
+
+  test("should not split plans with more than one child or scans with arguments") {
+    val withArguments = Aggregation(AllNodesScan("a", Set("b")), Map.empty, Map("c" -> countStar()))
+    val apply = Aggregation(Apply(Argument(), AllNodesScan("a", Set.empty)), Map.empty, Map("c" -> countStar()))
+
+    parallelPlanSplitting.split(ProduceResult(withArguments, Seq("c"))) should be(None)
+    parallelPlanSplitting.split(ProduceResult(apply, Seq("c"))) should be(None)
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+
+import scala.util.Try
+
+class ExpressionCompilerTest extends CypherFunSuite {
+
+  private val values: Seq[AnyValue] = Seq(intValue(1), intValue(2), stringValue("a"), Values.TRUE, Values.FALSE, NO_VALUE)
+
+  test("should compile boolean operators, comparisons and null checks") {
+    val expressions = Seq(
+      Equals(Variable("x"), Variable("y")),
+      GreaterThan(Variable("x"), Literal(intValue(1))),
+      LessThanOrEqual(Variable("x"), Variable("y")),
+      IsNull(Variable("x")),
+      Not(Equals(Variable("x"), Null())),
+      ands(GreaterThan(Variable("x"), Literal(intValue(0))), CoercedPredicate(Variable("y"))),
+      ors(CoercedPredicate(Variable("x")), Not(CoercedPredicate(Variable("y"))), IsNull(Variable("y"))),
+      ands(ors(Equals(Variable("x"), Variable("y")), True()), Not(IsNull(Variable("y")))))
+
+    for (expression <- expressions) {
+      val compiled = ExpressionCompiler.compile(expression)
+      compiled shouldBe a[CompiledExpression]
+      for (x <- values; y <- values) {
+        val row = CypherRow.from("x" -> x, "y" -> y)
+        outcome(compiled, row) should equal(outcome(expression, row))
+      }
+    }
+  }
+
+  test("should read parameters") {
+    val expression = Equals(ParameterFromSlot(1, "p"), Variable("x"))
+    val compiled = ExpressionCompiler.compile(expression)
+    val state = QueryStateHelper.emptyWith(params = Array(intValue(1), intValue(2)))
+
+    compiled(CypherRow.from("x" -> intValue(2)), state) should equal(Values.TRUE)
+    compiled(CypherRow.from("x" -> intValue(1)), state) should equal(Values.FALSE)
+  }
+
+  test("should fall back to interpretation for unsupported expressions") {
+    val expression = Equals(Add(Variable("x"), Literal(intValue(1))), Literal(intValue(3)))
+    val compiled = ExpressionCompiler.compile(expression)
+
+    compiled shouldBe a[CompiledExpression]
+    evaluate(compiled, CypherRow.from("x" -> intValue(2))) should equal(Values.TRUE)
+    evaluate(compiled, CypherRow.from("x" -> NO_VALUE)) should equal(NO_VALUE)
+  }
+
+  test("should not compile expressions that would only call the interpreter") {
+    val expression = Add(Variable("x"), Literal(intValue(1)))
+
+    ExpressionCompiler.compile(expression) should be theSameInstanceAs expression
+  }
+
+  test("should let a false operand of AND win over errors") {
+    val compiled = ExpressionCompiler.compile(ands(Exploding(), Not(True())))
+
+    evaluate(compiled, CypherRow.empty) should equal(Values.FALSE)
+  }
+
+  test("should let a true operand of OR win over errors") {
+    val compiled = ExpressionCompiler.compile(ors(Exploding(), True()))
+
+    evaluate(compiled, CypherRow.empty) should equal(Values.TRUE)
+  }
+
+  test("should rethrow errors over null operands") {
+    val compiled = ExpressionCompiler.compile(ands(IsNull(Variable("x")), CoercedPredicate(Null()), Exploding()))
+
+    an[IllegalStateException] should be thrownBy evaluate(compiled, CypherRow.from("x" -> NO_VALUE))
+  }
+
+  test("should not evaluate operands after the result is known") {
+    val compiled = ExpressionCompiler.compile(ands(Not(True()), Exploding()))
+
+    evaluate(compiled, CypherRow.empty) should equal(Values.FALSE)
+  }
+
+  test("should give back the interpreted expression when rewritten") {
+    val expression = Equals(Variable("x"), Variable("y"))
+    val compiled = ExpressionCompiler.compile(expression)
+
+    compiled.rewrite(identity) should equal(expression)
+    compiled.children should equal(expression.children)
+  }
+
+  private def evaluate(expression: Expression, row: CypherRow): AnyValue = expression(row, QueryStateHelper.empty)
+
+  private def outcome(expression: Expression, row: CypherRow): Either[Class[_], AnyValue] =
+    Try(evaluate(expression, row)).toEither.left.map(_.getClass)
+
+  private def ands(predicate: Predicate, predicates: Predicate*) = Ands(NonEmptyList(predicate, predicates: _*))
+
+  private def ors(predicate: Predicate, predicates: Predicate*) = Ors(NonEmptyList(predicate, predicates: _*))
+
+  case class Exploding() extends Predicate {
+    override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = throw new IllegalStateException("boom")
+    override def containsIsNull: Boolean = false
+    override def rewrite(f: Expression => Expression): Expression = f(this)
+    override def arguments: Seq[Expression] = Seq.empty
+    override def children: Seq[AstNode[_]] = Seq.empty
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.kernel.impl.util.collection.LongDistinctSet
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
+
+class DistinctSingleNodePipeTest extends CypherFunSuite {
+
+  test("should return the first row of every distinct node") {
+    val input = FakePipe(Seq(
+      Map("n" -> node(1), "i" -> 1),
+      Map("n" -> node(2), "i" -> 2),
+      Map("n" -> NO_VALUE, "i" -> 3),
+      Map("n" -> node(1), "i" -> 4),
+      Map("n" -> NO_VALUE, "i" -> 5),
+      Map("n" -> node(3), "i" -> 6)))
+    val pipe = DistinctSingleNodePipe(input, DistinctPipe.GroupingCol("m", Variable("n")))()
+
+    val result = pipe.createResults(QueryStateHelper.emptyWithValueSerialization).map(row => (row.getByName("m"), row.getByName("i"))).toList
+
+    result should equal(List(node(1) -> intValue(1), node(2) -> intValue(2), NO_VALUE -> intValue(3), node(3) -> intValue(6)))
+  }
+
+  test("should be lazy") {
+    val input = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(2)), Map("n" -> node(3)), Map("n" -> node(4))))
+    val pipe = DistinctSingleNodePipe(input, DistinctPipe.GroupingCol("n", Variable("n")))()
+
+    pipe.createResults(QueryStateHelper.emptyWithValueSerialization).next()
+
+    input.numberOfPulledRows should be <= 2 // We use a prefetching iterator, so we fetch one extra row
+  }
+
+  test("should fail on values that are not nodes") {
+    val input = FakePipe(Seq(Map("n" -> 1)))
+    val pipe = DistinctSingleNodePipe(input, DistinctPipe.GroupingCol("n", Variable("n")))()
+
+    a[CypherTypeException] should be thrownBy pipe.createResults(QueryStateHelper.emptyWithValueSerialization).toList
+  }
+
+  test("exhaust should close seen set") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val input = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(1))))
+    val pipe = DistinctSingleNodePipe(input, DistinctPipe.GroupingCol("n", Variable("n")))()
+
+    pipe.createResults(QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))).toList
+
+    input.wasClosed shouldBe true
+    monitor.closedResources.collect { case t: LongDistinctSet => t } should have size 1
+  }
+
+  test("close should close seen set") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val input = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(1))))
+    val pipe = DistinctSingleNodePipe(input, DistinctPipe.GroupingCol("n", Variable("n")))()
+
+    pipe.createResults(QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))).close()
+
+    input.wasClosed shouldBe true
+    monitor.closedResources.collect { case t: LongDistinctSet => t } should have size 1
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.kernel.impl.util.collection.LongDistinctSet
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
+
+class DistinctTwoNodesPipeTest extends CypherFunSuite {
+
+  private val wide = 1L << 32
+
+  test("should return the first row of every distinct pair of nodes") {
+    val input = FakePipe(Seq(
+      Map("a" -> node(1), "b" -> node(2), "i" -> 1),
+      Map("a" -> node(2), "b" -> node(1), "i" -> 2),
+      Map("a" -> node(1), "b" -> node(2), "i" -> 3),
+      Map("a" -> node(1), "b" -> NO_VALUE, "i" -> 4),
+      Map("a" -> node(1), "b" -> NO_VALUE, "i" -> 5),
+      Map("a" -> node(1), "b" -> node(0), "i" -> 6),
+      Map("a" -> node(wide), "b" -> node(wide + 1), "i" -> 7),
+      Map("a" -> node(wide), "b" -> node(wide + 1), "i" -> 8)))
+
+    val result = pipe(input).createResults(QueryStateHelper.emptyWithValueSerialization).map(_.getByName("i")).toList
+    val expected = DistinctPipe(input, Array(DistinctPipe.GroupingCol("a", Variable("a")), DistinctPipe.GroupingCol("b", Variable("b"))))()
+      .createResults(QueryStateHelper.emptyWithValueSerialization).map(_.getByName("i")).toList
+
+    result should equal(List(1, 2, 4, 6, 7).map(intValue))
+    result should equal(expected)
+  }
+
+  test("exhaust should close seen sets") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val input = FakePipe(Seq(Map("a" -> node(1), "b" -> node(2)), Map("a" -> node(1), "b" -> NO_VALUE)))
+
+    pipe(input).createResults(QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))).toList
+
+    input.wasClosed shouldBe true
+    monitor.closedResources.collect { case t: LongDistinctSet => t } should have size 1
+    monitor.closedResources.collect { case t: DistinctSet[_] => t } should have size 1
+  }
+
+  test("close should close seen set") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val input = FakePipe(Seq(Map("a" -> node(1), "b" -> node(2)), Map("a" -> node(1), "b" -> node(2))))
+
+    pipe(input).createResults(QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))).close()
+
+    input.wasClosed shouldBe true
+    monitor.closedResources.collect { case t: LongDistinctSet => t } should have size 1
+  }
+
+  private def pipe(input: Pipe) =
+    DistinctTwoNodesPipe(input, DistinctPipe.GroupingCol("a", Variable("a")), DistinctPipe.GroupingCol("b", Variable("b")))()
+}
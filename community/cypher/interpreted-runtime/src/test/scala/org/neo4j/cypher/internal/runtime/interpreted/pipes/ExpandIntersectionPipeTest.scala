@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.invocation.InvocationOnMock
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.runtime.PrimitiveLongHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.util.Random
+
+class ExpandIntersectionPipeTest extends CypherFunSuite {
+
+  private val types = new EagerTypes(Array(0))
+
+  test("should produce a row per relationship combination to every common neighbour") {
+    // (1)-->(3) twice, (1)-->(5), (1)-->(7), (1)-->(9); (2)-->(3), (2)-->(7), (2)-->(8)
+    val state = stateWith(Map(
+      1L -> Seq(neighbour(10, 1, 5), neighbour(11, 1, 3), neighbour(12, 1, 9), neighbour(13, 1, 7), neighbour(14, 1, 3)),
+      2L -> Seq(neighbour(20, 2, 7), neighbour(21, 2, 8), neighbour(22, 2, 3))
+    ))
+    val input = FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2))))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2"))()
+
+    val result = pipe.createResults(state).map(row =>
+      (row.getByName("c"), relId(row.getByName("r1")), relId(row.getByName("r2")))
+    ).toList
+
+    result should contain theSameElementsAs Seq(
+      (VirtualValues.node(3), 11L, 22L),
+      (VirtualValues.node(3), 14L, 22L),
+      (VirtualValues.node(7), 13L, 20L)
+    )
+    input.wasClosed shouldBe true
+  }
+
+  test("should intersect more than two legs") {
+    val state = stateWith(Map(
+      1L -> Seq(neighbour(10, 1, 4), neighbour(11, 1, 5), neighbour(12, 1, 6)),
+      2L -> Seq(neighbour(20, 2, 6), neighbour(21, 2, 5)),
+      3L -> Seq(neighbour(30, 3, 6), neighbour(31, 3, 4))
+    ))
+    val input = FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2), "x" -> VirtualValues.node(3))))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2", "x" -> "r3"))()
+
+    val result = pipe.createResults(state).map(row =>
+      (row.getByName("c"), relId(row.getByName("r1")), relId(row.getByName("r2")), relId(row.getByName("r3")))
+    ).toList
+
+    result should equal(Seq((VirtualValues.node(6), 12L, 20L, 30L)))
+  }
+
+  test("should find the same neighbours as a naive intersection on large unordered neighbour lists") {
+    val random = new Random(42)
+    val adjacency = (1L to 3L).map { node =>
+      node -> Seq.fill(2000)(random.nextInt(1000).toLong).zipWithIndex.map {
+        case (other, i) => neighbour(node * 10000 + i, node, other)
+      }
+    }.toMap
+    val state = stateWith(adjacency)
+    val input = FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2), "x" -> VirtualValues.node(3))))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2", "x" -> "r3"))()
+
+    val result = pipe.createResults(state).map(row =>
+      (relId(row.getByName("r1")), relId(row.getByName("r2")), relId(row.getByName("r3")))
+    ).toList
+
+    val expected = for {
+      (r1, _, _, c1) <- adjacency(1L)
+      (r2, _, _, c2) <- adjacency(2L) if c2 == c1
+      (r3, _, _, c3) <- adjacency(3L) if c3 == c1
+    } yield (r1, r2, r3)
+    expected should not be empty
+    result should contain theSameElementsAs expected
+  }
+
+  test("should not produce rows when a leg starts from null") {
+    val state = stateWith(Map(1L -> Seq(neighbour(10, 1, 3))))
+    val input = FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> NO_VALUE)))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2"))()
+
+    pipe.createResults(state).toList shouldBe empty
+  }
+
+  test("should stay exhausted after closing") {
+    val state = stateWith(Map(
+      1L -> Seq(neighbour(10, 1, 3), neighbour(11, 1, 4), neighbour(12, 1, 5)),
+      2L -> Seq(neighbour(20, 2, 3))
+    ))
+    val input = FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2))))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2"))()
+
+    val result = pipe.createResults(state)
+    result.map(_.getByName("c")).toList should equal(Seq(VirtualValues.node(3)))
+    result.hasNext shouldBe false
+  }
+
+  test("should only read the neighbours of a node once for consecutive rows") {
+    val state = stateWith(Map(
+      1L -> Seq(neighbour(10, 1, 5), neighbour(11, 1, 6)),
+      2L -> Seq(neighbour(20, 2, 5)),
+      3L -> Seq(neighbour(30, 3, 6))
+    ))
+    val input = FakePipe(Seq(
+      Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2)),
+      Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(3))
+    ))
+    val pipe = ExpandIntersectionPipe(input, "c", legs("a" -> "r1", "b" -> "r2"))()
+
+    pipe.createResults(state).map(_.getByName("c")).toList should equal(Seq(VirtualValues.node(5), VirtualValues.node(6)))
+    verify(state.query, times(1)).getRelationshipsForIds(ArgumentMatchers.eq(1L), any[SemanticDirection], any[Array[Int]])
+  }
+
+  private def legs(names: (String, String)*): Seq[IntersectionPipeLeg] =
+    names.map { case (from, rel) => IntersectionPipeLeg(from, rel, SemanticDirection.OUTGOING, types) }
+
+  private def neighbour(relId: Long, from: Long, to: Long): (Long, Int, Long, Long) = (relId, 0, from, to)
+
+  private def relId(value: Any): Long = value.asInstanceOf[VirtualRelationshipValue].id()
+
+  private def stateWith(adjacency: Map[Long, Seq[(Long, Int, Long, Long)]]): QueryState = {
+    val state = QueryStateHelper.emptyWithValueSerialization
+    Mockito.when(state.query.getRelationshipsForIds(anyLong(), any[SemanticDirection], any[Array[Int]])).thenAnswer(
+      (invocation: InvocationOnMock) => PrimitiveLongHelper.relationshipIteratorFrom(adjacency.getOrElse(invocation.getArgument[Long](0), Seq.empty): _*)
+    )
+    state
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.Ascending
+import org.neo4j.cypher.internal.runtime.interpreted.Descending
+import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionContextOrdering
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.values.storable.IntValue
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+
+import java.nio.file.Path
+import scala.util.Random
+
+class ExternalSortPipeTest extends CypherFunSuite {
+
+  private val fs = new EphemeralFileSystemAbstraction
+  private val spillSpace = new SpillSpace(fs, Path.of("spill"), 0)
+  private val comparator = InterpretedExecutionContextOrdering.asComparator(List(Ascending("x"), Descending("y")))
+
+  test("should sort in memory when rows fit") {
+    val input = Seq(Map("x" -> 2, "y" -> 1), Map("x" -> 1, "y" -> 1), Map("x" -> 1, "y" -> 2))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val result = ExternalSortPipe(FakePipe(input), comparator, Long.MaxValue, spillSpace)().createResults(state).map(_.getByName("y")).toList
+
+    result should equal(List(intValue(2), intValue(1), intValue(1)))
+    monitor.closedResources.collect { case f: SpillFile => f } shouldBe empty
+  }
+
+  test("should sort rows that do not fit in memory like an in-memory sort") {
+    val random = new Random(42)
+    val input = (0 until 500).map(i => Map[String, Any]("x" -> random.nextInt(20), "y" -> random.nextInt(3), "i" -> i, "s" -> s"row $i"))
+    val state = QueryStateHelper.emptyWithValueSerialization
+
+    val expected = SortPipe(FakePipe(input), comparator)().createResults(state).map(_.getByName("i")).toList
+    val result = ExternalSortPipe(FakePipe(input), comparator, 1, spillSpace)().createResults(state).toList
+
+    result.map(_.getByName("i")) should equal(expected)
+    result.map(_.getByName("s")) should equal(expected.map(i => stringValue(s"row ${i.asInstanceOf[IntValue].value()}")))
+  }
+
+  test("should delete all temporary files") {
+    val input = (0 until 200).map(i => Map("x" -> (200 - i)))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+    val pipe = ExternalSortPipe(FakePipe(input), comparator, 1, spillSpace)()
+
+    val result = pipe.createResults(state)
+    result.next().getByName("x") should equal(intValue(1))
+    result.close()
+
+    val files = monitor.closedResources.collect { case f: SpillFile => f }
+    files should not be empty
+    all(files.map(_.isClosed)) shouldBe true
+    spillSpace.usedBytes shouldBe 0
+    fs.listFiles(Path.of("spill")) shouldBe empty
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.MapCypherRow
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.values.AnyValue
+
+import java.nio.file.Path
+
+class GraceHashJoinPipeTest extends CypherFunSuite {
+
+  private val spillSpace = new SpillSpace(new EphemeralFileSystemAbstraction, Path.of("spill"), 0)
+
+  private val lhsKey = (row: CypherRow, state: QueryState) => Variable("a")(row, state)
+  private val rhsKey = (row: CypherRow, state: QueryState) => Variable("b")(row, state)
+
+  test("should join sides that do not fit in memory like an in-memory hash join") {
+    val left = (0 until 300).map(i => Map("a" -> (if (i % 17 == 0) null else i % 50), "l" -> i))
+    val right = (0 until 200).map(i => Map("b" -> (if (i % 13 == 0) null else i % 70), "r" -> i))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val expected = ValueHashJoinPipe(Variable("a"), Variable("b"), FakePipe(left), FakePipe(right))().createResults(state).map(asMap).toList
+    val result = GraceHashJoinPipe(lhsKey, rhsKey, FakePipe(left), FakePipe(right), 1, spillSpace)().createResults(state).map(asMap).toList
+
+    result should contain theSameElementsAs expected
+    val files = monitor.closedResources.collect { case f: SpillFile => f }
+    files should not be empty
+    all(files.map(_.isClosed)) shouldBe true
+  }
+
+  test("should keep the order of the right-hand side when the left-hand side fits in memory") {
+    val left = (0 until 10).map(i => Map("a" -> i))
+    val right = (0 until 100).map(i => Map("b" -> (i % 10), "r" -> i))
+    val state = QueryStateHelper.emptyWithValueSerialization
+
+    val expected = ValueHashJoinPipe(Variable("a"), Variable("b"), FakePipe(left), FakePipe(right))().createResults(state).map(asMap).toList
+    val result = GraceHashJoinPipe(lhsKey, rhsKey, FakePipe(left), FakePipe(right), Long.MaxValue, spillSpace)().createResults(state).map(asMap).toList
+
+    result should equal(expected)
+  }
+
+  private def asMap(row: CypherRow): Map[String, AnyValue] = row.asInstanceOf[MapCypherRow].toMap
+}
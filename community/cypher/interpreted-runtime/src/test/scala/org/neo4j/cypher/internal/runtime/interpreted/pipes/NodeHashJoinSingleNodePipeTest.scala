@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
+
+class NodeHashJoinSingleNodePipeTest extends CypherFunSuite {
+
+  test("should not fetch results from RHS if LHS is empty") {
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(ClosingIterator.empty)
+    val right = mock[Pipe]
+
+    val result = NodeHashJoinSingleNodePipe("b", left, right)().createResults(queryState)
+
+    result shouldBe empty
+    verify(right, never()).createResults(any())
+  }
+
+  test("should join on node id like the generic node hash join") {
+    val left = FakePipe(Seq(
+      Map("n" -> node(1), "l" -> 1),
+      Map("n" -> node(2), "l" -> 2),
+      Map("n" -> node(1), "l" -> 3),
+      Map("n" -> NO_VALUE, "l" -> 4)))
+    val right = FakePipe(Seq(
+      Map("n" -> node(1), "r" -> 1),
+      Map("n" -> NO_VALUE, "r" -> 2),
+      Map("n" -> node(3), "r" -> 3),
+      Map("n" -> node(2), "r" -> 4)))
+
+    val result = NodeHashJoinSingleNodePipe("n", left, right)().createResults(QueryStateHelper.emptyWithValueSerialization)
+      .map(row => (row.getByName("l"), row.getByName("r"))).toList
+    val expected = NodeHashJoinPipe(Set("n"), left, right)().createResults(QueryStateHelper.emptyWithValueSerialization)
+      .map(row => (row.getByName("l"), row.getByName("r"))).toList
+
+    result should equal(List((intValue(1), intValue(1)), (intValue(3), intValue(1)), (intValue(2), intValue(4))))
+    result should equal(expected)
+  }
+
+  test("exhaust should close table") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val left = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(2))))
+    val right = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(2))))
+
+    NodeHashJoinSingleNodePipe("n", left, right)().createResults(queryState).toList
+
+    monitor.closedResources.collect { case t: LongProbeTable[_] => t } should have size 1
+  }
+
+  test("close should close table") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val left = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(2))))
+    val right = FakePipe(Seq(Map("n" -> node(1)), Map("n" -> node(2))))
+
+    NodeHashJoinSingleNodePipe("n", left, right)().createResults(queryState).close()
+
+    monitor.closedResources.collect { case t: LongProbeTable[_] => t } should have size 1
+  }
+}
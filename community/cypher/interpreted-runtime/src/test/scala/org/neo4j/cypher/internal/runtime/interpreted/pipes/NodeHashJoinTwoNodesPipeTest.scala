@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
+
+class NodeHashJoinTwoNodesPipeTest extends CypherFunSuite {
+
+  private val wide = 1L << 32
+
+  test("should join on both node ids like the generic node hash join") {
+    val left = FakePipe(Seq(
+      Map("a" -> node(1), "b" -> node(2), "l" -> 1),
+      Map("a" -> node(2), "b" -> node(1), "l" -> 2),
+      Map("a" -> node(1), "b" -> node(2), "l" -> 3),
+      Map("a" -> node(1), "b" -> NO_VALUE, "l" -> 4)))
+    val right = FakePipe(Seq(
+      Map("a" -> node(1), "b" -> node(2), "r" -> 1),
+      Map("a" -> node(1), "b" -> NO_VALUE, "r" -> 2),
+      Map("a" -> node(2), "b" -> node(2), "r" -> 3),
+      Map("a" -> node(2), "b" -> node(1), "r" -> 4)))
+
+    val result = NodeHashJoinTwoNodesPipe("a", "b", left, right)().createResults(QueryStateHelper.emptyWithValueSerialization)
+      .map(row => (row.getByName("l"), row.getByName("r"))).toList
+    val expected = NodeHashJoinPipe(Set("a", "b"), left, right)().createResults(QueryStateHelper.emptyWithValueSerialization)
+      .map(row => (row.getByName("l"), row.getByName("r"))).toList
+
+    result should equal(List((intValue(1), intValue(1)), (intValue(3), intValue(1)), (intValue(2), intValue(4))))
+    result should equal(expected)
+  }
+
+  test("should not join ids that pack to the same key") {
+    // (1, 0) and (2^32, 2^32 + 1) pack to the same key
+    val left = FakePipe(Seq(
+      Map("a" -> node(1), "b" -> node(0), "l" -> 1),
+      Map("a" -> node(wide), "b" -> node(wide + 1), "l" -> 2)))
+    val right = FakePipe(Seq(
+      Map("a" -> node(wide), "b" -> node(wide + 1), "r" -> 1),
+      Map("a" -> node(1), "b" -> node(0), "r" -> 2)))
+
+    val result = NodeHashJoinTwoNodesPipe("a", "b", left, right)().createResults(QueryStateHelper.emptyWithValueSerialization)
+      .map(row => (row.getByName("l"), row.getByName("r"))).toList
+
+    result should equal(List((intValue(2), intValue(1)), (intValue(1), intValue(2))))
+  }
+
+  test("should not join wide probe ids with narrow build ids that pack to the same key") {
+    val left = FakePipe(Seq(Map("a" -> node(1), "b" -> node(0), "l" -> 1)))
+    val right = FakePipe(Seq(Map("a" -> node(wide), "b" -> node(wide + 1), "r" -> 1)))
+
+    NodeHashJoinTwoNodesPipe("a", "b", left, right)().createResults(QueryStateHelper.emptyWithValueSerialization).toList shouldBe empty
+  }
+
+  test("exhaust should close table") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val queryState = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val left = FakePipe(Seq(Map("a" -> node(1), "b" -> node(2))))
+    val right = FakePipe(Seq(Map("a" -> node(1), "b" -> node(2))))
+
+    NodeHashJoinTwoNodesPipe("a", "b", left, right)().createResults(queryState).toList
+
+    monitor.closedResources.collect { case t: LongProbeTable[_] => t } should have size 1
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.pagecache.context.CursorContext
+import org.neo4j.scheduler.CallableExecutor
+import org.neo4j.values.storable.Values.longValue
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+class ParallelGatherPipeTest extends CypherFunSuite {
+
+  private val workers = 4
+  private var pool: ExecutorService = _
+  private var executor: CallableExecutor = _
+
+  override protected def beforeEach(): Unit = {
+    // Like the pool of the CypherWorker group
+    pool = new ForkJoinPool(workers)
+    executor = new CallableExecutor {
+      override def submit[T](callable: Callable[T]): Future[T] = pool.submit(callable)
+
+      override def execute(command: Runnable): Unit = pool.execute(command)
+    }
+  }
+
+  override protected def afterEach(): Unit = {
+    pool.shutdownNow()
+  }
+
+  test("should return the rows of all workers, also when they produce more rows than fit in the queue") {
+    val (query, workerTransactionalContext) = mockQuery()
+    val rowsPerWorker = 3 * ParallelGatherPipe.QUEUE_CAPACITY
+    val pipe = ParallelGatherPipe(new RowsPipe(() => Iterator.range(0, rowsPerWorker)), PartitionedAllNodesScan, workers, executor)()
+
+    val rows = pipe.createResults(QueryStateHelper.emptyWith(query = query)).toList
+
+    rows should have size workers * rowsPerWorker
+    rows.map(_.getByName("x")).distinct should have size rowsPerWorker
+    verify(workerTransactionalContext, times(workers)).close()
+  }
+
+  test("should stop the workers when closed before all rows are consumed") {
+    val (query, workerTransactionalContext) = mockQuery()
+    val pipe = ParallelGatherPipe(new RowsPipe(() => Iterator.from(0)), PartitionedAllNodesScan, workers, executor)()
+
+    val result = pipe.createResults(QueryStateHelper.emptyWith(query = query))
+    result.take(10).toList should have size 10
+    result.close()
+
+    verify(workerTransactionalContext, times(workers)).close()
+  }
+
+  test("should run the workers of another query while the workers of a query whose rows aren't consumed wait") {
+    val (blockedQuery, _) = mockQuery()
+    val blockedPipe = ParallelGatherPipe(new RowsPipe(() => Iterator.from(0)), PartitionedAllNodesScan, workers, executor)()
+    val (query, _) = mockQuery()
+    val rowsPerWorker = 3 * ParallelGatherPipe.QUEUE_CAPACITY
+    val pipe = ParallelGatherPipe(new RowsPipe(() => Iterator.range(0, rowsPerWorker)), PartitionedAllNodesScan, workers, executor)()
+
+    // Every worker of the pool ends up waiting for room in the queue of this result
+    val blockedResult = blockedPipe.createResults(QueryStateHelper.emptyWith(query = blockedQuery))
+    blockedResult.next()
+    val consumer = Executors.newSingleThreadExecutor()
+    try {
+      val rows = consumer.submit(new Callable[Int] {
+        override def call(): Int = pipe.createResults(QueryStateHelper.emptyWith(query = query)).size
+      }).get(1, TimeUnit.MINUTES)
+
+      rows shouldBe workers * rowsPerWorker
+    } finally {
+      consumer.shutdownNow()
+      blockedResult.close()
+    }
+  }
+
+  test("should rethrow the failure of a worker once all workers are done") {
+    val (query, workerTransactionalContext) = mockQuery()
+    val failingRows = () => Iterator.from(0).map(i => if (i == 100) throw new IllegalStateException("worker failed") else i)
+    val pipe = ParallelGatherPipe(new RowsPipe(failingRows), PartitionedAllNodesScan, workers, executor)()
+
+    val result = pipe.createResults(QueryStateHelper.emptyWith(query = query))
+
+    the[IllegalStateException] thrownBy result.toList should have message "worker failed"
+    verify(workerTransactionalContext, times(workers)).close()
+  }
+
+  /**
+   * Query whose workers share a mocked transactional context. Everything the workers touch is stubbed up front, since stubbing
+   * on first use isn't thread-safe.
+   */
+  private def mockQuery(): (QueryContext, QueryTransactionalContext) = {
+    val scan = mock[Scan[NodeCursor]]
+    val read = mock[Read]
+    when(read.allNodesScan()).thenReturn(scan)
+    val transactionalContext = mock[QueryTransactionalContext]
+    when(transactionalContext.dataRead).thenReturn(read)
+
+    val cursors = mock[CursorFactory]
+    when(cursors.allocateNodeCursor(any[CursorContext])).thenReturn(mock[NodeCursor])
+    val workerTransactionalContext = mock[QueryTransactionalContext]
+    when(workerTransactionalContext.cursors).thenReturn(cursors)
+    when(workerTransactionalContext.cursorContext).thenReturn(CursorContext.NULL)
+    val workerQuery = mock[QueryContext]
+    when(workerQuery.transactionalContext).thenReturn(workerTransactionalContext)
+    when(workerQuery.createExpressionCursors()).thenReturn(mock[ExpressionCursors])
+
+    val query = mock[QueryContext]
+    when(query.transactionalContext).thenReturn(transactionalContext)
+    when(query.createParallelQueryContext()).thenReturn(workerQuery)
+    (query, workerTransactionalContext)
+  }
+
+  /**
+   * Worker pipe producing a row for each of the given numbers in every worker, ignoring the input of the worker.
+   */
+  private class RowsPipe(numbers: () => Iterator[Int]) extends Pipe {
+    override val id: Id = Id.INVALID_ID
+
+    override protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] =
+      ClosingIterator(numbers().map(i => CypherRow.from("x" -> longValue(i))))
+  }
+}
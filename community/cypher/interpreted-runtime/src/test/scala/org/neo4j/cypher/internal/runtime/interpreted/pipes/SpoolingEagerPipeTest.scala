@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.CypherExecutionException
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.values.storable.Values.intValue
+
+import java.nio.file.Path
+
+class SpoolingEagerPipeTest extends CypherFunSuite {
+
+  private val fs = new EphemeralFileSystemAbstraction
+  private val spillSpace = new SpillSpace(fs, Path.of("spill"), 0)
+
+  test("should be eager and keep the order of rows that do not fit in memory") {
+    val src = FakePipe((0 until 100).map(i => Map("a" -> i)))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    val result = SpoolingEagerPipe(src, 1, spillSpace)().createResults(state)
+
+    src.numberOfPulledRows shouldBe 100
+    result.map(_.getByName("a")).toList should equal((0 until 100).map(intValue))
+    monitor.closedResources.collect { case f: SpillFile => f } should have size 1
+  }
+
+  test("should not spill rows that fit in memory") {
+    val src = FakePipe((0 until 100).map(i => Map("a" -> i)))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(monitor))
+
+    SpoolingEagerPipe(src, Long.MaxValue, spillSpace)().createResults(state).toList should have size 100
+    monitor.closedResources.collect { case f: SpillFile => f } shouldBe empty
+  }
+
+  test("should fail when the temporary files would exceed the limit of the spill space") {
+    val src = FakePipe((0 until 10000).map(i => Map("a" -> i)))
+    val limited = new SpillSpace(fs, Path.of("limited"), 1024)
+    val resources = new ResourceManager()
+    val state = QueryStateHelper.emptyWithResourceManager(resources)
+
+    a[CypherExecutionException] should be thrownBy SpoolingEagerPipe(src, 1, limited)().createResults(state)
+    resources.close()
+
+    limited.usedBytes shouldBe 0
+    fs.listFiles(Path.of("limited")) shouldBe empty
+  }
+}
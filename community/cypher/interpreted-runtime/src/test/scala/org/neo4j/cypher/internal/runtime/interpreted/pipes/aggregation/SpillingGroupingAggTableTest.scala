@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Collect
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillSpace
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
+import org.neo4j.values.storable.IntValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+
+import java.nio.file.Path
+import scala.collection.JavaConverters.iterableAsScalaIterableConverter
+
+class SpillingGroupingAggTableTest extends CypherFunSuite {
+
+  private val spillSpace = new SpillSpace(new EphemeralFileSystemAbstraction, Path.of("spill"), 0)
+
+  test("should aggregate groups that do not fit in memory") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val table = newTable(spillThreshold = 1, new ResourceManager(monitor))
+    table.clear()
+
+    (0 until 1000).foreach(i => table.processRow(CypherRow.from("a" -> Values.intValue(i % 100), "b" -> Values.intValue(i))))
+
+    val result = table.result().map(row => (row.getByName("a"), row.getByName("c"), row.getByName("d"))).toList
+    result.map(_._1) should contain theSameElementsAs (0 until 100).map(Values.intValue)
+    result.foreach {
+      case (a, c, d) =>
+        c should equal(Values.longValue(10))
+        d.asInstanceOf[ListValue].asScala.toList should equal((0 until 10).map(i => Values.intValue(a.asInstanceOf[IntValue].value() + i * 100)))
+    }
+    val files = monitor.closedResources.collect { case f: SpillFile => f }
+    files should not be empty
+    all(files.map(_.isClosed)) shouldBe true
+  }
+
+  test("should not spill groups that fit in memory") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val table = newTable(spillThreshold = Long.MaxValue, new ResourceManager(monitor))
+    table.clear()
+
+    (0 until 1000).foreach(i => table.processRow(CypherRow.from("a" -> Values.intValue(i % 100), "b" -> Values.intValue(i))))
+
+    table.result().toList should have size 100
+    monitor.closedResources.collect { case f: SpillFile => f } shouldBe empty
+  }
+
+  private def newTable(spillThreshold: Long, resourceManager: ResourceManager) =
+    new SpillingGroupingAggTable(
+      Array(DistinctPipe.GroupingCol("a", Variable("a"))),
+      { case (row, _) => row.getByName("a") },
+      Array(AggregationPipe.AggregatingCol("c", CountStar()), AggregationPipe.AggregatingCol("d", Collect(Variable("b")))),
+      spillThreshold,
+      spillSpace,
+      QueryStateHelper.emptyWithResourceManager(resourceManager),
+      CommunityCypherRowFactory(),
+      Id(0),
+      0)
+}
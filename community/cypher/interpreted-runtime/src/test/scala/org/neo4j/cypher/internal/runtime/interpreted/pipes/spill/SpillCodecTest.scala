@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+class SpillCodecTest extends CypherFunSuite {
+
+  private val values: Seq[AnyValue] = Seq(
+    Values.NO_VALUE,
+    Values.TRUE,
+    Values.FALSE,
+    Values.byteValue(1),
+    Values.shortValue(2),
+    Values.intValue(3),
+    Values.longValue(Long.MaxValue),
+    Values.floatValue(1.5f),
+    Values.doubleValue(Math.PI),
+    Values.charValue('x'),
+    Values.stringValue("hello åäö"),
+    Values.byteArray(Array[Byte](1, 2, 3)),
+    Values.longArray(Array(1L, 2L, 3L)),
+    Values.stringArray("a", "b"),
+    Values.pointValue(CoordinateReferenceSystem.WGS84, 12.5, 56.0),
+    Values.pointValue(CoordinateReferenceSystem.Cartesian_3D, 1.0, 2.0, 3.0),
+    DurationValue.duration(1, 2, 3, 4),
+    DateValue.date(2021, 1, 31),
+    LocalTimeValue.localTime(12, 30, 15, 1000),
+    TimeValue.time(12, 30, 15, 1000, ZoneOffset.ofHours(2)),
+    LocalDateTimeValue.localDateTime(2021, 1, 31, 12, 30, 15, 1000),
+    DateTimeValue.datetime(2021, 1, 31, 12, 30, 15, 1000, ZoneId.of("Europe/Stockholm")),
+    DateTimeValue.datetime(2021, 1, 31, 12, 30, 15, 1000, ZoneOffset.ofHours(-5)),
+    VirtualValues.list(Values.intValue(1), VirtualValues.list(Values.stringValue("nested"))),
+    VirtualValues.map(Array("a", "b"), Array(Values.longValue(1), VirtualValues.EMPTY_MAP)),
+    VirtualValues.node(42),
+    VirtualValues.relationship(43),
+    VirtualValues.pathReference(Array(1L, 2L), Array(3L))
+  )
+
+  test("should round trip values") {
+    values.foreach { value =>
+      val read = roundTrip(value)
+      read should equal(value)
+      if (!value.isInstanceOf[TextValue]) {
+        read.getClass should equal(value.getClass)
+      }
+    }
+  }
+
+  test("should round trip values back to back") {
+    val bytes = new ByteArrayOutputStream()
+    val out = new DataOutputStream(bytes)
+    values.foreach(SpillCodec.writeValue(out, _))
+    out.flush()
+
+    val in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))
+    values.map(_ => SpillCodec.readValue(in)) should equal(values)
+  }
+
+  private def roundTrip(value: AnyValue): AnyValue = {
+    val bytes = new ByteArrayOutputStream()
+    val out = new DataOutputStream(bytes)
+    SpillCodec.writeValue(out, value)
+    out.flush()
+    SpillCodec.readValue(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray)))
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.profiler
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.ProduceResult
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.planner.spi.CardinalityFeedback
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.util.EffectiveCardinality
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class CardinalityFeedbackCollectorTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private implicit val idGen: IdGen = new SequentialIdGen()
+
+  private val predicates: Seq[Expression] = Seq(equals(prop("n", "a"), literalInt(1)), equals(prop("n", "b"), literalInt(1)))
+  private val scan = NodeByLabelScan("n", labelName("N"), Set.empty, IndexOrderNone)
+  private val selection = Selection(predicates, scan)
+  private val plan = ProduceResult(selection, Seq("n"))
+
+  private val effectiveCardinalities = new EffectiveCardinalities
+  effectiveCardinalities.set(plan.id, EffectiveCardinality(10))
+  effectiveCardinalities.set(selection.id, EffectiveCardinality(10))
+  effectiveCardinalities.set(scan.id, EffectiveCardinality(1000))
+
+  test("should not collect anything if feedback is disabled") {
+    CardinalityFeedbackCollector(plan, effectiveCardinalities, CardinalityFeedback.NONE) shouldBe None
+  }
+
+  test("should not collect anything for selections on label predicates") {
+    val labelSelection = Selection(Seq(hasLabels("n", "M")), scan)
+    effectiveCardinalities.set(labelSelection.id, EffectiveCardinality(10))
+
+    CardinalityFeedbackCollector(ProduceResult(labelSelection, Seq("n")), effectiveCardinalities, new CardinalityFeedback(1, 10.0)) shouldBe None
+  }
+
+  test("should sample every n:th execution") {
+    val collector = CardinalityFeedbackCollector(plan, effectiveCardinalities, new CardinalityFeedback(3, 10.0)).get
+
+    Seq.fill(7)(collector.sample().isDefined) shouldBe Seq(true, false, false, true, false, false, true)
+  }
+
+  test("should record the selectivity observed when the query finished") {
+    val feedback = new CardinalityFeedback(1, 10.0)
+    val decorator = CardinalityFeedbackCollector(plan, effectiveCardinalities, feedback).get.sample().get
+
+    var i = 0
+    val scanned = decorator.decorate(scan.id, null, rows(1000))
+    val selected = decorator.decorate(selection.id, null, scanned.filter { _ => i += 1; i % 2 == 0 })
+    val result = decorator.decorateRoot(plan.id, null, decorator.decorate(plan.id, null, selected))
+
+    feedback.observedSelectivity(CardinalityFeedback.fingerprint(predicates, Map("n" -> Set("N")))) shouldBe None
+    result.size shouldBe 500
+    feedback.observedSelectivity(CardinalityFeedback.fingerprint(predicates, Map("n" -> Set("N")))) shouldBe Some(Selectivity(500.0 / 1000))
+  }
+
+  private def rows(count: Int): ClosingIterator[CypherRow] = ClosingIterator(Iterator.fill(count)(CypherRow.empty))
+}
@@ -107,6 +107,7 @@ import org.neo4j.cypher.internal.logical.plans.ExhaustiveLimit
 import org.neo4j.cypher.internal.logical.plans.Expand
 import org.neo4j.cypher.internal.logical.plans.ExpandAll
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
 import org.neo4j.cypher.internal.logical.plans.ExpansionMode
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.Foreach
@@ -118,6 +119,7 @@ import org.neo4j.cypher.internal.logical.plans.IndexSeek
 import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.logical.plans.InjectCompilationError
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionLeg
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -464,6 +466,18 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
 
   def expandInto(pattern: String): IMPL = expand(pattern, ExpandInto)
 
+  def expandIntersection(to: String, patterns: String*): IMPL = {
+    val legs = patterns.map(patternParser.parse).map { p =>
+      if (p.to != to || p.length != SimplePatternLength) {
+        throw new IllegalArgumentException(s"Every pattern of an intersection has to be a single relationship ending in $to")
+      }
+      newRelationship(varFor(p.relName))
+      IntersectionLeg(p.from, p.dir, p.relTypes, p.relName)
+    }
+    newNode(varFor(to))
+    appendAtCurrentIndent(UnaryOperator(lp => ExpandIntersection(lp, to, legs)(_)))
+  }
+
   def optionalExpandAll(pattern: String,
                         predicate: Option[String] = None): IMPL =
     optionalExpandAll(
@@ -193,6 +193,14 @@ class LogicalPlanToPlanBuilderStringTest extends CypherFunSuite with TestName {
       .argument()
       .build())
 
+  testPlan("expandIntersection",
+    new TestPlanBuilder()
+      .produceResults("x")
+      .expandIntersection("z", "(x)-[r1]->(z)", "(y)<-[r2:REL]-(z)")
+      .expandIntersection("z", "(x)-[r1]-(z)", "(y)-[r2:REL|LER]->(z)", "(w)<-[r3]-(z)")
+      .argument()
+      .build())
+
   testPlan("optionalExpandAll",
     new TestPlanBuilder()
       .produceResults("x")
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.cypher.internal.ast.prettifier.ExpressionStringifier
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.expressions.Equals
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.HasAnyLabel
+import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.HasLabelsOrTypes
+import org.neo4j.cypher.internal.expressions.HasTypes
+import org.neo4j.cypher.internal.expressions.In
+import org.neo4j.cypher.internal.expressions.ListLiteral
+import org.neo4j.cypher.internal.expressions.PartialPredicate
+import org.neo4j.cypher.internal.expressions.Property
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.util.Rewritable.RewritableAny
+import org.neo4j.cypher.internal.util.Rewriter
+import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.cypher.internal.util.topDown
+
+import java.lang.Math.max
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Selectivities of predicates, as observed when executing cached plans.
+ *
+ * The runtime counts the rows going in and out of the selections of every `sampleInterval`:th execution of a plan,
+ * and records the observed selectivity of the predicates of a selection if it differs from the estimate of the planner by more than
+ * `misestimationFactor`. The planner uses recorded selectivities in place of its estimates. Since the planner reads them through
+ * [[GraphStatistics]], they are part of the statistics snapshot of a plan, and a plan is replanned once a selectivity it relied on is recorded or changed.
+ * To keep plans from being replanned over and over by observations that vary a little between executions, a recorded selectivity
+ * is only changed if the new observation also differs from it by more than `misestimationFactor`. Since executions with different parameter values
+ * share a fingerprint, a recorded selectivity is also only changed after [[CardinalityFeedback.CONSISTENT_OBSERVATIONS]] such observations in a row
+ * that are within `misestimationFactor` of each other, so that parameter values of alternating selectivity do not replan on every sample.
+ *
+ * Observations are keyed by a fingerprint of the predicates, see [[CardinalityFeedback.fingerprint]], and are shared by all queries of a database.
+ *
+ * @param sampleInterval      count the rows of every n:th execution of a plan, or never if 0
+ * @param misestimationFactor record an observed selectivity if it is this many times larger or smaller than the estimate
+ */
+class CardinalityFeedback(val sampleInterval: Int, misestimationFactor: Double) {
+
+  private val observedSelectivities = new ConcurrentHashMap[String, Selectivity]()
+  // Observations that differ from the recorded selectivity, by fingerprint, that have not been confirmed by enough consistent observations yet
+  private val pendingSelectivities = new ConcurrentHashMap[String, PendingSelectivity]()
+
+  def enabled: Boolean = sampleInterval > 0
+
+  def observedSelectivity(predicateFingerprint: String): Option[Selectivity] = Option(observedSelectivities.get(predicateFingerprint))
+
+  /**
+   * Records the selectivity observed for the predicates with the given fingerprint, if it was misestimated
+   * and differs enough from the selectivity recorded before, if any, consistently.
+   *
+   * @param estimated  the selectivity the executed plan was planned with
+   * @param inputRows  the number of rows the predicates were evaluated on
+   * @param outputRows the number of rows that passed the predicates
+   * @return `true` if the observed selectivity was recorded
+   */
+  def recordSelectivity(predicateFingerprint: String, estimated: Selectivity, inputRows: Long, outputRows: Long): Boolean = {
+    if (inputRows < CardinalityFeedback.MIN_INPUT_ROWS) {
+      false
+    } else {
+      // No rows passing means a selectivity smaller than 1 / inputRows, but a selectivity of 0 would make every plan look free
+      val observed = Selectivity(max(outputRows, 1L).toDouble / max(inputRows, outputRows))
+      val recorded = observedSelectivities.get(predicateFingerprint)
+      val record =
+        if (!differs(observed, estimated)) {
+          false
+        } else if (recorded == null) {
+          observedSelectivities.size() < CardinalityFeedback.MAX_OBSERVATIONS
+        } else if (!differs(observed, recorded)) {
+          // The recorded selectivity still holds, so the observations that differed from it were not consistent
+          pendingSelectivities.remove(predicateFingerprint)
+          false
+        } else {
+          confirmed(predicateFingerprint, observed)
+        }
+      if (record) {
+        observedSelectivities.put(predicateFingerprint, observed)
+      }
+      record
+    }
+  }
+
+  private def confirmed(predicateFingerprint: String, observed: Selectivity): Boolean = {
+    val pending = pendingSelectivities.compute(predicateFingerprint, (_: String, previous: PendingSelectivity) =>
+      if (previous == null || differs(observed, previous.first)) PendingSelectivity(observed, 1)
+      else previous.copy(observations = previous.observations + 1))
+    pending.observations >= CardinalityFeedback.CONSISTENT_OBSERVATIONS && pendingSelectivities.remove(predicateFingerprint, pending)
+  }
+
+  private def differs(observed: Selectivity, expected: Selectivity): Boolean =
+    observed.factor > expected.factor * misestimationFactor || observed.factor * misestimationFactor < expected.factor
+}
+
+/**
+ * @param first        the first of the consistent observations
+ * @param observations the number of consistent observations in a row
+ */
+private case class PendingSelectivity(first: Selectivity, observations: Int)
+
+object CardinalityFeedback {
+
+  val NONE: CardinalityFeedback = new CardinalityFeedback(0, Double.PositiveInfinity)
+
+  /**
+   * Selections that have seen fewer rows than this are too small to tell anything about the selectivity of their predicates.
+   */
+  val MIN_INPUT_ROWS: Long = 100
+
+  /**
+   * Bounds the memory used for observations. Once reached, only already observed predicates are updated.
+   */
+  val MAX_OBSERVATIONS: Int = 10000
+
+  /**
+   * The number of observations in a row, within the misestimation factor of each other, that it takes to change a recorded selectivity.
+   */
+  val CONSISTENT_OBSERVATIONS: Int = 3
+
+  private val stringifier = ExpressionStringifier(
+    extension = new ExpressionStringifier.Extension {
+      override def apply(ctx: ExpressionStringifier)(expression: Expression): String = expression.asCanonicalStringVal
+    },
+    alwaysParens = false,
+    alwaysBacktick = false,
+    preferSingleQuotes = false,
+    sensitiveParamsAsParams = true,
+  )
+
+  // Properties might have been cached in the executed plan, but not when the planner estimated the predicate,
+  // and the planner sees equalities as IN predicates on a single element, which are rewritten back to equalities after planning
+  private val normalize: Rewriter = topDown(Rewriter.lift {
+    case cached: ASTCachedProperty => Property(Variable(cached.originalEntityName)(cached.position), cached.propertyKey)(cached.position)
+    case in@In(lhs, ListLiteral(Seq(rhs))) => Equals(lhs, rhs)(in.position)
+  })
+
+  /**
+   * Label and type predicates are estimated from the counts store, and predicates not depending on any variable
+   * keep or discard all rows, so there is nothing to learn about those.
+   */
+  def canBeObserved(predicate: Expression): Boolean = predicate match {
+    case _: HasLabels | _: HasAnyLabel | _: HasTypes | _: HasLabelsOrTypes | _: PartialPredicate[_] => false
+    case _ => predicate.dependencies.nonEmpty
+  }
+
+  /**
+   * The names of the variables a predicate depends on. The planner looks up observed selectivities for the predicates
+   * on the same variables together, so the runtime only records them for selections where all predicates depend on the same variables.
+   */
+  def dependencies(predicate: Expression): Set[String] = predicate.endoRewrite(normalize).dependencies.map(_.name)
+
+  /**
+   * A fingerprint of a conjunction of predicates and of the labels and relationship types of the variables they depend on,
+   * independent of the order of the predicates, of cached properties and of how equalities are written.
+   * Since literals are auto-parameterized, the fingerprint is shared by queries that differ only in their literals,
+   * but not by the same predicates on entities with different labels or types.
+   *
+   * @param labelsAndTypes the labels of the nodes and the types of the relationships that are known, by variable name
+   */
+  def fingerprint(predicates: Iterable[Expression], labelsAndTypes: Map[String, Set[String]]): String = {
+    val normalized = predicates.map(_.endoRewrite(normalize))
+    val variables = normalized.flatMap(_.dependencies.map(_.name)).toSeq.distinct.sorted
+    val entities = variables.map(variable => (variable +: labelsAndTypes.getOrElse(variable, Set.empty).toSeq.sorted).mkString("(", ":", ")"))
+    entities.mkString("", ", ", " WHERE ") + normalized.map(stringifier(_)).toSeq.distinct.sorted.mkString(" AND ")
+  }
+}
@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
 
 trait GraphStatistics {
 
@@ -64,6 +65,37 @@ trait GraphStatistics {
    * indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop IS NOT NULL|
    */
   def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /**
+   * Selectivity observed at runtime for the conjunction of predicates with the given fingerprint, if it differed enough from the estimate.
+   *
+   * @see [[CardinalityFeedback]]
+   */
+  def observedSelectivity(predicateFingerprint: String): Option[Selectivity] = None
+
+  /**
+   * Probability of any node or relationship in the index to have the given value, estimated from the index sample.
+   * The name of the parameter the value was given for does not affect the estimate, but lets a cached plan know which parameters it is sensitive to.
+   *
+   * parameterValueSelectivity(:X, prop, p, v) = s => |MATCH (a:X) WHERE has(x.prop)| * s = |MATCH (a:X) WHERE x.prop = v|
+   */
+  def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] = None
+
+  /**
+   * Probability of any node or relationship in the index to have a value in the given range, estimated from the index sample.
+   * As for [[parameterValueSelectivity]], the names of the parameters the bounds were given for let a cached plan know which parameters it is sensitive to.
+   *
+   * parameterRangeSelectivity(:X, prop, r) = s => |MATCH (a:X) WHERE has(x.prop)| * s = |MATCH (a:X) WHERE x.prop > r.lower AND x.prop < r.upper|
+   */
+  def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] = None
+
+  /**
+   * Probability of any node or relationship in the index to have a particular value for the first property of the index, estimated from the index sample.
+   * This is = 1 / number of distinct values of the first property, which is the number of seeks a skip scan over the index needs.
+   *
+   * leadingPropertyUniqueValueSelectivity(:X, (prop1, prop2)) = s => |MATCH (a:X) WHERE has(x.prop1) AND has(x.prop2)| * s = |MATCH (a:X) WHERE x.prop1 = '*' AND has(x.prop2)|
+   */
+  def leadingPropertyUniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -80,4 +112,16 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
     delegate.indexPropertyIsNotNullSelectivity(index)
 
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
+
+  override def observedSelectivity(predicateFingerprint: String): Option[Selectivity] =
+    delegate.observedSelectivity(predicateFingerprint)
+
+  override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] =
+    delegate.parameterValueSelectivity(index, parameterName, value)
+
+  override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] =
+    delegate.parameterRangeSelectivity(index, range)
+
+  override def leadingPropertyUniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] =
+    delegate.leadingPropertyUniqueValueSelectivity(index)
 }
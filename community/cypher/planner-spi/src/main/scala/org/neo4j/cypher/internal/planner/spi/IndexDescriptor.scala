@@ -105,7 +105,8 @@ case class IndexDescriptor(indexType: IndexType,
                            behaviours: Set[IndexBehaviour] = Set.empty[IndexBehaviour],
                            orderCapability: OrderCapability = IndexDescriptor.noOrderCapability,
                            valueCapability: ValueCapability = IndexDescriptor.noValueCapability,
-                           isUnique: Boolean = false) {
+                           isUnique: Boolean = false,
+                           supportsSkipScan: Boolean = false) {
   val isComposite: Boolean = properties.length > 1
 
   def property: PropertyKeyId = if (isComposite) throw new IllegalArgumentException("Cannot get single property of multi-property index") else properties.head
@@ -121,12 +122,13 @@ case class IndexDescriptor(indexType: IndexType,
         entityType == that.entityType &&
         properties == that.properties &&
         behaviours == that.behaviours &&
-        isUnique == that.isUnique
+        isUnique == that.isUnique &&
+        supportsSkipScan == that.supportsSkipScan
     case _ => false
   }
 
   override def hashCode(): Int = {
-    val state = Seq(indexType, entityType, properties, behaviours, isUnique)
+    val state = Seq(indexType, entityType, properties, behaviours, isUnique, supportsSkipScan)
     state.map(_.hashCode()).foldLeft(0)((a, b) => 31 * a + b)
   }
 
@@ -134,4 +136,5 @@ case class IndexDescriptor(indexType: IndexType,
   def withOrderCapability(oc: OrderCapability): IndexDescriptor = copy(orderCapability = oc)
   def withValueCapability(vc: ValueCapability): IndexDescriptor = copy(valueCapability = vc)
   def unique(setUnique: Boolean = true): IndexDescriptor = copy(isUnique = setUnique)
+  def withSkipScan(setSkipScan: Boolean = true): IndexDescriptor = copy(supportsSkipScan = setSkipScan)
 }
@@ -23,6 +23,9 @@ import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
 import org.neo4j.cypher.internal.util.Selectivity
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
 
 import java.lang.Math.abs
 import java.lang.Math.max
@@ -34,6 +37,57 @@ case object NodesAllCardinality extends StatisticsKey
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(index: IndexDescriptor) extends StatisticsKey
 case class IndexPropertyExistsSelectivity(index: IndexDescriptor) extends StatisticsKey
+case class ObservedSelectivity(predicateFingerprint: String) extends StatisticsKey
+
+/**
+ * Selectivity estimated from the values given for parameters, which a plan is only valid for as long as the parameters have values of similar selectivity.
+ */
+sealed trait ParameterSelectivity extends StatisticsKey {
+  def index: IndexDescriptor
+
+  /**
+   * Identifies the parameters of the estimate, among the estimates on the same index.
+   */
+  def parameters: String
+
+  /**
+   * @return the same estimate for the values given in `params`, if they differ from the ones of this estimate and there are values for all parameters.
+   */
+  def withValues(params: MapValue): Option[ParameterSelectivity]
+
+  def selectivity(statistics: GraphStatistics): Option[Selectivity]
+}
+
+object ParameterSelectivity {
+
+  /**
+   * @return the value given for the parameter, if it has one that is not null.
+   */
+  def value(params: MapValue, parameterName: String): Option[Value] = params.get(parameterName) match {
+    case value: Value if value != Values.NO_VALUE => Some(value)
+    case _ => None
+  }
+}
+
+case class ParameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value) extends ParameterSelectivity {
+  override def parameters: String = parameterName
+
+  override def withValues(params: MapValue): Option[ParameterSelectivity] =
+    ParameterSelectivity.value(params, parameterName).filter(_ != value).map(newValue => copy(value = newValue))
+
+  override def selectivity(statistics: GraphStatistics): Option[Selectivity] = statistics.parameterValueSelectivity(index, parameterName, value)
+}
+
+case class ParameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange) extends ParameterSelectivity {
+  override def parameters: String = range.parameterNames.mkString("..")
+
+  override def withValues(params: MapValue): Option[ParameterSelectivity] =
+    range.withValues(params).filter(_ != range).map(newRange => copy(range = newRange))
+
+  override def selectivity(statistics: GraphStatistics): Option[Selectivity] = statistics.parameterRangeSelectivity(index, range)
+}
+
+case class LeadingPropertyIndexSelectivity(index: IndexDescriptor) extends StatisticsKey
 
 class MutableGraphStatisticsSnapshot(val map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -57,10 +111,40 @@ case class GraphStatisticsSnapshot(statsValues: Map[StatisticsKey, Double] = Map
         instrumented.uniqueValueSelectivity(index)
       case IndexPropertyExistsSelectivity(index) =>
         instrumented.indexPropertyIsNotNullSelectivity(index)
+      case ObservedSelectivity(predicateFingerprint) =>
+        instrumented.observedSelectivity(predicateFingerprint)
+      case ParameterValueSelectivity(index, parameterName, value) =>
+        instrumented.parameterValueSelectivity(index, parameterName, value)
+      case ParameterRangeSelectivity(index, range) =>
+        instrumented.parameterRangeSelectivity(index, range)
+      case LeadingPropertyIndexSelectivity(index) =>
+        instrumented.leadingPropertyUniqueValueSelectivity(index)
     }
     snapshot.freeze
   }
 
+  /**
+   * Finds a selectivity observed at runtime that was recorded or changed since this snapshot was taken, see [[CardinalityFeedback]].
+   * Unlike the other statistics these only change when a plan relying on them was misestimated, and then by more than
+   * the misestimation factor of [[CardinalityFeedback]], so any change is significant.
+   */
+  def changedObservedSelectivity(statistics: GraphStatistics): Option[DivergenceState] =
+    statsValues.iterator.collect {
+      case (key@ObservedSelectivity(predicateFingerprint), before) =>
+        (key, before, statistics.observedSelectivity(predicateFingerprint).fold(0.0)(_.factor))
+    }.collectFirst {
+      case (key, before, after) if before != after => DivergenceState(key, abs(before - after) / max(before, after), before, after)
+    }
+
+  lazy val hasObservedSelectivities: Boolean = statsValues.keys.exists(_.isInstanceOf[ObservedSelectivity])
+
+  /**
+   * The selectivities of parameter values that the plan was estimated with, used to tell whether new parameter values would call for a different plan.
+   */
+  lazy val parameterSelectivities: Map[ParameterSelectivity, Double] = statsValues.collect {
+    case (key: ParameterSelectivity, selectivity) => key -> selectivity
+  }
+
   def diverges(snapshot: GraphStatisticsSnapshot): DivergenceState = {
     assert(statsValues.keySet == snapshot.statsValues.keySet)
     //find the maximum relative difference (|e1 - e2| / max(e1, e2))
@@ -100,4 +184,28 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
   }
 
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
+
+  // An observed selectivity is never 0, so 0 records that there was no observation
+  override def observedSelectivity(predicateFingerprint: String): Option[Selectivity] = {
+    val factor = snapshot.map.getOrElseUpdate(ObservedSelectivity(predicateFingerprint), inner.observedSelectivity(predicateFingerprint).fold(0.0)(_.factor))
+    if (factor == 0.0) None else Some(Selectivity(factor))
+  }
+
+  override def parameterValueSelectivity(index: IndexDescriptor, parameterName: String, value: Value): Option[Selectivity] = {
+    val selectivity = inner.parameterValueSelectivity(index, parameterName, value)
+    snapshot.map.getOrElseUpdate(ParameterValueSelectivity(index, parameterName, value), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def parameterRangeSelectivity(index: IndexDescriptor, range: ParameterRange): Option[Selectivity] = {
+    val selectivity = inner.parameterRangeSelectivity(index, range)
+    snapshot.map.getOrElseUpdate(ParameterRangeSelectivity(index, range), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def leadingPropertyUniqueValueSelectivity(index: IndexDescriptor): Option[Selectivity] = {
+    val selectivity = inner.leadingPropertyUniqueValueSelectivity(index)
+    snapshot.map.getOrElseUpdate(LeadingPropertyIndexSelectivity(index), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.values.storable.Value
+import org.neo4j.values.virtual.MapValue
+
+/**
+ * Bound of a [[ParameterRange]], with the value given for the parameter.
+ */
+case class ParameterBound(parameterName: String, value: Value, inclusive: Boolean) {
+
+  /**
+   * @return this bound with the value given for the parameter in `params`, if there is one.
+   */
+  def withValue(params: MapValue): Option[ParameterBound] = ParameterSelectivity.value(params, parameterName).map(value => copy(value = value))
+}
+
+/**
+ * Range of property values with bounds given by parameters, where at least one of the bounds is defined.
+ */
+case class ParameterRange(lower: Option[ParameterBound], upper: Option[ParameterBound]) {
+  require(lower.isDefined || upper.isDefined, "A range needs at least one bound")
+
+  def parameterNames: Seq[String] = (lower ++ upper).map(_.parameterName).toSeq
+
+  /**
+   * @return this range with the values given for its parameters in `params`, if there are values for all of them.
+   */
+  def withValues(params: MapValue): Option[ParameterRange] = {
+    val newLower = lower.map(_.withValue(params))
+    val newUpper = upper.map(_.withValue(params))
+    if (newLower.contains(None) || newUpper.contains(None)) None
+    else Some(ParameterRange(newLower.flatten, newUpper.flatten))
+  }
+}
@@ -53,6 +53,7 @@ import org.neo4j.cypher.internal.runtime.spec.tests.EsotericAssertSameNodeTestBa
 import org.neo4j.cypher.internal.runtime.spec.tests.ExhaustiveLimitTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntersectionTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpandIntoWithOtherOperatorsTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.ExpressionTestBase
@@ -187,6 +188,7 @@ class InterpretedExpandAllTest extends ExpandAllTestBase(COMMUNITY.EDITION, Inte
                                with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
 class InterpretedExpandIntoTest extends ExpandIntoTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
                                 with ExpandIntoWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class InterpretedExpandIntersectionTest extends ExpandIntersectionTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedOptionalExpandAllTest extends OptionalExpandAllTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedOptionalExpandIntoTest extends OptionalExpandIntoTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedVarExpandAllTest extends VarLengthExpandTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
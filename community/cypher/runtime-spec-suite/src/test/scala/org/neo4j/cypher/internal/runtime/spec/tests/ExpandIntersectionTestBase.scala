@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.tests
+
+import org.neo4j.cypher.internal.CypherRuntime
+import org.neo4j.cypher.internal.RuntimeContext
+import org.neo4j.cypher.internal.runtime.spec.Edition
+import org.neo4j.cypher.internal.runtime.spec.LogicalQueryBuilder
+import org.neo4j.cypher.internal.runtime.spec.RuntimeTestSuite
+
+import scala.util.Random
+
+abstract class ExpandIntersectionTestBase[CONTEXT <: RuntimeContext](
+  edition: Edition[CONTEXT],
+  runtime: CypherRuntime[CONTEXT],
+  protected val sizeHint: Int
+) extends RuntimeTestSuite[CONTEXT](edition, runtime) {
+
+  test("should find all triangles in a graph with a hub") {
+    // given
+    val n = sizeHint
+    val random = new Random(42)
+    val relTuples = (for (i <- 1 until n) yield {
+      Seq((0, i, "R"), (i, 0, "R")) ++ Seq.fill(3)((i, 1 + random.nextInt(n - 1), "R")).filter(t => t._1 != t._2)
+    }).reduce(_ ++ _)
+    val (nodes, rels) = given {
+      val nodes = nodeGraph(n)
+      val rels = connect(nodes, relTuples)
+      (nodes, rels)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("a", "b", "c", "r1", "r2", "r3")
+      .expandIntersection("c", "(b)-[r2]->(c)", "(a)<-[r3]-(c)")
+      .expandAll("(a)-[r1]->(b)")
+      .allNodeScan("a")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val indexed = relTuples.zipWithIndex
+    val outgoing = indexed.groupBy(_._1._1)
+    val expected = for {
+      ((a, b, _), r1) <- indexed
+      ((_, c, _), r2) <- outgoing.getOrElse(b, Seq.empty)
+      ((_, a2, _), r3) <- outgoing.getOrElse(c, Seq.empty) if a2 == a
+    } yield Array(nodes(a), nodes(b), nodes(c), rels(r1), rels(r2), rels(r3))
+
+    expected should not be empty
+    runtimeResult should beColumns("a", "b", "c", "r1", "r2", "r3").withRows(expected)
+  }
+
+  test("should produce a row per combination of parallel relationships") {
+    // given
+    val (nodes, rels) = given {
+      val nodes = nodeGraph(3)
+      val rels = connect(nodes, Seq((0, 1, "R"), (1, 2, "R"), (1, 2, "R"), (2, 0, "R"), (2, 0, "S")))
+      (nodes, rels)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "r2", "r3")
+      .expandIntersection("c", "(b)-[r2]->(c)", "(a)<-[r3]-(c)")
+      .expandAll("(a)-[r1]->(b)")
+      .nodeByIdSeek("a", Set.empty, nodes.head.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = for {
+      r2 <- Seq(rels(1), rels(2))
+      r3 <- Seq(rels(3), rels(4))
+    } yield Array(nodes(2), r2, r3)
+    runtimeResult should beColumns("c", "r2", "r3").withRows(expected)
+  }
+
+  test("should only follow relationships of the given types") {
+    // given
+    val (nodes, rels) = given {
+      val nodes = nodeGraph(3)
+      val rels = connect(nodes, Seq((0, 1, "R"), (1, 2, "R"), (1, 2, "S"), (2, 0, "R"), (2, 0, "S")))
+      (nodes, rels)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "r2", "r3")
+      .expandIntersection("c", "(b)-[r2:S]->(c)", "(a)<-[r3:R]-(c)")
+      .expandAll("(a)-[r1]->(b)")
+      .nodeByIdSeek("a", Set.empty, nodes.head.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c", "r2", "r3").withSingleRow(nodes(2), rels(2), rels(3))
+  }
+
+  test("should not produce rows for a null start node") {
+    // given
+    val nodes = given {
+      nodeGraph(3)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .expandIntersection("c", "(a)-[r1]->(c)", "(b)-[r2]->(c)")
+      .input(nodes = Seq("a", "b"))
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime, inputValues(Array(nodes.head, null)))
+
+    // then
+    runtimeResult should beColumns("c").withNoRows()
+  }
+}
@@ -57,6 +57,22 @@ public interface OperatorProfile
      */
     long maxAllocatedMemory();
 
+    /**
+     * Number of bytes this operator wrote to temporary files because its rows did not fit in memory.
+     */
+    default long spilledBytes()
+    {
+        return NO_DATA;
+    }
+
+    /**
+     * Largest number of passes this operator made over rows it had written to temporary files.
+     */
+    default long spillPasses()
+    {
+        return NO_DATA;
+    }
+
     long NO_DATA = -1L;
 
     OperatorProfile NONE = new ConstOperatorProfile( NO_DATA );
@@ -62,6 +62,8 @@ object Arguments {
 
   case class PageCacheMisses(value: Long) extends Argument
 
+  case class Spill(bytes: Long, passes: Long) extends Argument
+
   case class EstimatedRows(effectiveCardinality: Double, cardinality: Option[Double] = None) extends Argument
 
   case class PipelineInfo(pipelineId: Int, fused: Boolean) extends Argument
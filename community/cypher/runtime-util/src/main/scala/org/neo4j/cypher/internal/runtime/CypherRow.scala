@@ -144,9 +144,18 @@ class MapCypherRow(private val m: mutable.Map[String, AnyValue], private var cac
         //otherMapCtx.cachedProperties is null so do nothing
       }
       setLinenumberIfEmpty(otherMapCtx.getLinenumber)
+    case otherSlotted: SlottedCypherRow =>
+      otherSlotted.foreachVariable((k, v) => m.put(k, v))
+      otherSlotted.foreachCachedProperty(setCachedProperty)
+      setLinenumberIfEmpty(otherSlotted.getLinenumber)
     case _ => fail()
   }
 
+  private[runtime] def foreachCachedProperty(f: (ASTCachedProperty.RuntimeKey, Value) => Unit): Unit =
+    if (cachedProperties != null) {
+      cachedProperties.foreach { case (k, v) => f(k, v) }
+    }
+
   override def set(newEntries: Seq[(String, AnyValue)]): Unit =
     m ++= newEntries
 
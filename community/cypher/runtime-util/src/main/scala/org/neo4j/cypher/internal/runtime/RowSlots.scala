@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap
+
+/**
+ * Plan-time layout of a [[SlottedCypherRow]]. Node and relationship variables are stored as ids in long slots,
+ * all other variables are stored in ref slots.
+ *
+ * A slot is encoded as a single int: ref slots are encoded as their (non-negative) offset, long slots
+ * as `-(offset + 1)`, and [[RowSlots.NO_SLOT]] is used for variables that are not part of the layout.
+ */
+final class RowSlots private(slotsByName: ObjectIntHashMap[String],
+                             private[runtime] val longNames: Array[String],
+                             longIsNode: Array[Boolean],
+                             private[runtime] val refNames: Array[String]) {
+
+  def numberOfLongs: Int = longNames.length
+
+  def numberOfRefs: Int = refNames.length
+
+  def slot(name: String): Int = slotsByName.getIfAbsent(name, RowSlots.NO_SLOT)
+
+  def isNodeSlot(longOffset: Int): Boolean = longIsNode(longOffset)
+
+  override def toString: String =
+    s"RowSlots(longs=${longNames.mkString("[", ", ", "]")}, refs=${refNames.mkString("[", ", ", "]")})"
+}
+
+object RowSlots {
+  final val NO_SLOT: Int = Int.MinValue
+
+  val empty: RowSlots = apply(Seq.empty, Seq.empty, Seq.empty)
+
+  def isLongSlot(slot: Int): Boolean = slot < 0 && slot != NO_SLOT
+
+  def longOffset(slot: Int): Int = -slot - 1
+
+  /**
+   * @param nodes variables holding nodes, stored in long slots
+   * @param relationships variables holding relationships, stored in long slots
+   * @param refs all other variables, stored in ref slots
+   */
+  def apply(nodes: Seq[String], relationships: Seq[String], refs: Seq[String]): RowSlots = {
+    val longs = (nodes ++ relationships).toArray
+    val slotsByName = new ObjectIntHashMap[String](longs.length + refs.length)
+    var i = 0
+    while (i < longs.length) {
+      slotsByName.put(longs(i), -i - 1)
+      i += 1
+    }
+    val refNames = refs.toArray
+    i = 0
+    while (i < refNames.length) {
+      slotsByName.put(refNames(i), i)
+      i += 1
+    }
+    require(slotsByName.size() == longs.length + refNames.length,
+      s"Variables must be allocated exactly once, got longs=${longs.mkString(", ")} and refs=${refNames.mkString(", ")}")
+    new RowSlots(slotsByName, longs, longs.indices.map(_ < nodes.length).toArray, refNames)
+  }
+}
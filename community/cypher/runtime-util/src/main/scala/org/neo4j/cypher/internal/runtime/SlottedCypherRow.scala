@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow.LONG_BIAS
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow.NULL_ENTITY
+import org.neo4j.cypher.internal.runtime.SlottedCypherRow.UNSET
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.memory.HeapEstimator.sizeOfLongArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.util.Arrays
+import scala.collection.mutable
+
+object SlottedCypherRow {
+  private final val SHALLOW_SIZE = shallowSizeOfInstance(classOf[SlottedCypherRow])
+
+  // Long slots store `id + LONG_BIAS`, so that a freshly allocated (zeroed) slot can be told apart from a null entity
+  private final val UNSET = 0L
+  private final val NULL_ENTITY = 1L
+  private final val LONG_BIAS = 2L
+
+  def apply(slots: RowSlots): SlottedCypherRow =
+    new SlottedCypherRow(slots, new Array[Long](slots.numberOfLongs), new Array[AnyValue](slots.numberOfRefs), null, null)
+}
+
+/**
+ * Array backed [[CypherRow]] laid out according to a plan-time [[RowSlots]] allocation.
+ *
+ * Variables can be accessed either by slot offset, or by name, in which case the name is resolved through the
+ * shared [[RowSlots]]. Variables that are not part of the layout, and non-entity values written to long slots,
+ * are kept in a map on the side, so that the row behaves exactly like a [[MapCypherRow]] for name based access.
+ * Copying a row is a plain array copy.
+ */
+final class SlottedCypherRow private(val slots: RowSlots,
+                                     private val longs: Array[Long],
+                                     private val refs: Array[AnyValue],
+                                     private var extras: mutable.Map[String, AnyValue],
+                                     private var cachedProperties: mutable.Map[ASTCachedProperty.RuntimeKey, Value])
+  extends CypherRow {
+
+  private var linenumber: Option[ResourceLinenumber] = None
+
+  override def setLinenumber(line: Option[ResourceLinenumber]): Unit = {
+    linenumber = line
+  }
+
+  override def getLinenumber: Option[ResourceLinenumber] = linenumber
+
+  override def getLongAt(offset: Int): Long = longs(offset) - LONG_BIAS
+
+  override def setLongAt(offset: Int, value: Long): Unit = longs(offset) = value + LONG_BIAS
+
+  override def getRefAt(offset: Int): AnyValue = refs(offset)
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = refs(offset) = value
+
+  override def getByName(name: String): AnyValue = {
+    val value = getBySlot(slots.slot(name), name)
+    if (value == null) throw new NotFoundException(s"Unknown variable `$name`.")
+    value
+  }
+
+  /**
+   * Reads a variable by a slot resolved from [[RowSlots.slot]] at plan time.
+   *
+   * @return the value of the variable, or `null` if the variable has not been set.
+   */
+  def getBySlot(slot: Int, name: String): AnyValue = {
+    if (slot >= 0) {
+      refs(slot)
+    } else if (slot != RowSlots.NO_SLOT) {
+      val offset = RowSlots.longOffset(slot)
+      longs(offset) match {
+        case UNSET => getExtra(name)
+        case NULL_ENTITY => Values.NO_VALUE
+        case raw if slots.isNodeSlot(offset) => VirtualValues.node(raw - LONG_BIAS)
+        case raw => VirtualValues.relationship(raw - LONG_BIAS)
+      }
+    } else {
+      getExtra(name)
+    }
+  }
+
+  override def containsName(name: String): Boolean = getBySlot(slots.slot(name), name) != null
+
+  override def numberOfColumns: Int = {
+    var count = 0
+    foreachVariable((_, _) => count += 1)
+    count
+  }
+
+  override def isNull(key: String): Boolean = getBySlot(slots.slot(key), key) eq Values.NO_VALUE
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach { case (key, value) => set(key, value) }
+
+  override def set(key: String, value: AnyValue): Unit = {
+    val slot = slots.slot(key)
+    if (slot >= 0) {
+      refs(slot) = value
+    } else if (slot != RowSlots.NO_SLOT) {
+      setLong(RowSlots.longOffset(slot), key, value)
+    } else {
+      setExtra(key, value)
+    }
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  private def setLong(offset: Int, key: String, value: AnyValue): Unit = {
+    val raw = value match {
+      case n: VirtualNodeValue if slots.isNodeSlot(offset) => n.id() + LONG_BIAS
+      case r: VirtualRelationshipValue if !slots.isNodeSlot(offset) => r.id() + LONG_BIAS
+      case v if v eq Values.NO_VALUE => NULL_ENTITY
+      case _ => UNSET
+    }
+    longs(offset) = raw
+    if (raw == UNSET) {
+      setExtra(key, value)
+    } else if (extras != null) {
+      extras.remove(key)
+    }
+  }
+
+  private def getExtra(name: String): AnyValue = if (extras == null) null else extras.getOrElse(name, null)
+
+  private def setExtra(key: String, value: AnyValue): Unit = {
+    if (extras == null) {
+      extras = MutableMaps.empty
+    }
+    extras.put(key, value)
+  }
+
+  /**
+   * Calls `f` for every variable which has been set on this row.
+   */
+  def foreachVariable(f: (String, AnyValue) => Unit): Unit = {
+    var i = 0
+    while (i < longs.length) {
+      if (longs(i) != UNSET) {
+        val name = slots.longNames(i)
+        f(name, getBySlot(-i - 1, name))
+      }
+      i += 1
+    }
+    i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        f(slots.refNames(i), refs(i))
+      }
+      i += 1
+    }
+    if (extras != null) {
+      extras.foreach { case (k, v) => f(k, v) }
+    }
+  }
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById, checkNullability: Boolean = true): Unit = other match {
+    case otherSlotted: SlottedCypherRow if otherSlotted.slots eq slots =>
+      var i = 0
+      while (i < longs.length) {
+        if (otherSlotted.longs(i) != UNSET) {
+          longs(i) = otherSlotted.longs(i)
+        }
+        i += 1
+      }
+      i = 0
+      while (i < refs.length) {
+        if (otherSlotted.refs(i) != null) {
+          refs(i) = otherSlotted.refs(i)
+        }
+        i += 1
+      }
+      if (otherSlotted.extras != null) {
+        otherSlotted.extras.foreach { case (k, v) => set(k, v) }
+      }
+      mergeCachedProperties(otherSlotted.cachedProperties)
+      setLinenumberIfEmpty(otherSlotted.getLinenumber)
+    case otherSlotted: SlottedCypherRow =>
+      otherSlotted.foreachVariable(set)
+      mergeCachedProperties(otherSlotted.cachedProperties)
+      setLinenumberIfEmpty(otherSlotted.getLinenumber)
+    case otherMap: MapCypherRow =>
+      otherMap.toMap.foreach { case (k, v) => set(k, v) }
+      otherMap.foreachCachedProperty(setCachedProperty)
+      setLinenumberIfEmpty(otherMap.getLinenumber)
+    case _ => fail()
+  }
+
+  private[runtime] def foreachCachedProperty(f: (ASTCachedProperty.RuntimeKey, Value) => Unit): Unit =
+    if (cachedProperties != null) {
+      cachedProperties.foreach { case (k, v) => f(k, v) }
+    }
+
+  private def mergeCachedProperties(otherCachedProperties: mutable.Map[ASTCachedProperty.RuntimeKey, Value]): Unit = {
+    if (otherCachedProperties != null) {
+      if (cachedProperties == null) {
+        cachedProperties = otherCachedProperties.clone()
+      } else {
+        cachedProperties ++= otherCachedProperties
+      }
+    }
+  }
+
+  private def setLinenumberIfEmpty(line: Option[ResourceLinenumber]): Unit = linenumber match {
+    case None => linenumber = line
+    case _ =>
+  }
+
+  override def copyAllFrom(input: ReadableRow): Unit = input match {
+    case other: SlottedCypherRow if other.slots eq slots =>
+      System.arraycopy(other.longs, 0, longs, 0, longs.length)
+      System.arraycopy(other.refs, 0, refs, 0, refs.length)
+      extras = if (other.extras == null) null else other.extras.clone()
+      cachedProperties = if (other.cachedProperties == null) null else other.cachedProperties.clone()
+      linenumber = other.linenumber
+    case _ => fail()
+  }
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit =
+    copyFromOffset(input, 0, 0, 0, 0, nLongs, nRefs)
+
+  override def copyFromOffset(input: ReadableRow,
+                              sourceLongOffset: Int,
+                              sourceRefOffset: Int,
+                              targetLongOffset: Int,
+                              targetRefOffset: Int): Unit = input match {
+    case other: SlottedCypherRow =>
+      copyFromOffset(other, sourceLongOffset, sourceRefOffset, targetLongOffset, targetRefOffset,
+        other.longs.length - sourceLongOffset, other.refs.length - sourceRefOffset)
+    case _ => fail()
+  }
+
+  private def copyFromOffset(input: ReadableRow,
+                             sourceLongOffset: Int,
+                             sourceRefOffset: Int,
+                             targetLongOffset: Int,
+                             targetRefOffset: Int,
+                             nLongs: Int,
+                             nRefs: Int): Unit = input match {
+    case other: SlottedCypherRow =>
+      if (nLongs > longs.length - targetLongOffset || nRefs > refs.length - targetRefOffset) {
+        throw new InternalException("A bug has occurred in the slotted row: copy from a larger row is not supported")
+      }
+      System.arraycopy(other.longs, sourceLongOffset, longs, targetLongOffset, nLongs)
+      System.arraycopy(other.refs, sourceRefOffset, refs, targetRefOffset, nRefs)
+    case _ => fail()
+  }
+
+  private def fail(): Nothing = throw new InternalException("Tried using a map context as a slotted context")
+
+  override def createClone(): SlottedCypherRow = {
+    val clone = new SlottedCypherRow(slots,
+      longs.clone(),
+      refs.clone(),
+      if (extras == null) null else extras.clone(),
+      if (cachedProperties == null) null else cachedProperties.clone())
+    clone.linenumber = linenumber
+    clone
+  }
+
+  override def copyWith(key: String, value: AnyValue): CypherRow = {
+    val clone = createClone()
+    clone.set(key, value)
+    clone
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val clone = createClone()
+    clone.set(key1, value1)
+    clone.set(key2, value2)
+    clone
+  }
+
+  override def copyWith(key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): CypherRow = {
+    val clone = createClone()
+    clone.set(key1, value1)
+    clone.set(key2, value2)
+    clone.set(key3, value3)
+    clone
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val clone = createClone()
+    clone.set(newEntries)
+    clone
+  }
+
+  override def copyMapped(func: AnyValue => AnyValue): CypherRow = {
+    val row = SlottedCypherRow(slots)
+    foreachVariable((k, v) => row.set(k, func(v)))
+    if (cachedProperties != null) {
+      row.cachedProperties = cachedProperties.map({ case (k, v) => k -> func(v).asInstanceOf[Value] })
+    }
+    row.linenumber = linenumber
+    row
+  }
+
+  override def setCachedProperty(key: ASTCachedProperty.RuntimeKey, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = mutable.Map.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def getCachedProperty(key: ASTCachedProperty.RuntimeKey): Value = {
+    if (cachedProperties == null) {
+      null
+    } else {
+      cachedProperties.getOrElse(key, null)
+    }
+  }
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = fail()
+
+  override def getCachedPropertyAt(offset: Int): Value = fail()
+
+  override def invalidateCachedProperties(): Unit = {
+    cachedProperties = null
+  }
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case n: VirtualNodeValue => n.id() == node
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case r: VirtualRelationshipValue => r.id() == rel
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = SlottedCypherRow.SHALLOW_SIZE + sizeOfLongArray(longs.length) + shallowSizeOfObjectArray(refs.length)
+    var i = 0
+    while (i < refs.length) {
+      val value = refs(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (extras != null) {
+      extras.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    if (cachedProperties != null) {
+      cachedProperties.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    total
+  }
+
+  override def equals(other: Any): Boolean = other match {
+    case that: SlottedCypherRow =>
+      (that.slots eq slots) &&
+        Arrays.equals(longs, that.longs) &&
+        Arrays.equals(refs.asInstanceOf[Array[AnyRef]], that.refs.asInstanceOf[Array[AnyRef]]) &&
+        extras == that.extras
+    case _ => false
+  }
+
+  override def hashCode(): Int = 31 * Arrays.hashCode(longs) + Arrays.hashCode(refs.asInstanceOf[Array[AnyRef]])
+
+  override def toString: String = {
+    val entries = mutable.ArrayBuffer[String]()
+    foreachVariable((k, v) => entries += s"$k -> $v")
+    s"SlottedCypherRow(${entries.mkString(", ")}, cached=$cachedProperties)"
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandIntersection
+import org.neo4j.cypher.internal.logical.plans.LogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.MultiNodeLogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.NodeLogicalLeafPlan
+import org.neo4j.cypher.internal.logical.plans.OptionalExpand
+import org.neo4j.cypher.internal.logical.plans.RelationshipLogicalLeafPlan
+
+import scala.collection.mutable
+
+/**
+ * Piece of physical planning which allocates a [[RowSlots]] layout for all variables of a logical plan,
+ * including the plans of nested plan expressions.
+ *
+ * A variable gets a long slot if every plan that introduces it is known to produce a node (or a relationship)
+ * for it, e.g. scans, seeks and expands. All other variables get ref slots. A single layout is used for the
+ * whole query, which means that rows can be copied between operators without any remapping.
+ */
+object rowSlotAllocation {
+
+  def allocate(plan: LogicalPlan): RowSlots = {
+    val nodes = mutable.Set[String]()
+    val relationships = mutable.Set[String]()
+    val others = mutable.Set[String]()
+    val all = mutable.Set[String]()
+
+    plan.folder.findAllByClass[LogicalPlan].foreach { p =>
+      val (introducedNodes, introducedRelationships) = introducedEntities(p)
+      nodes ++= introducedNodes
+      relationships ++= introducedRelationships
+      others ++= (introducedSymbols(p) -- introducedNodes -- introducedRelationships)
+      all ++= p.availableSymbols
+    }
+
+    val longNodes = (nodes -- others -- relationships).toSeq.sorted
+    val longRelationships = (relationships -- others -- nodes).toSeq.sorted
+    val refs = (all -- longNodes -- longRelationships).toSeq.sorted
+    RowSlots(longNodes, longRelationships, refs)
+  }
+
+  private def introducedEntities(plan: LogicalPlan): (Set[String], Set[String]) = plan match {
+    case p: NodeLogicalLeafPlan => (Set(p.idName), Set.empty)
+    case p: MultiNodeLogicalLeafPlan => (p.idNames, Set.empty)
+    case p: RelationshipLogicalLeafPlan => (Set(p.leftNode, p.rightNode), Set(p.idName))
+    case p: Expand => (Set(p.to), Set(p.relName))
+    case p: ExpandIntersection => (Set(p.to), p.legs.map(_.relName).toSet)
+    case p: OptionalExpand => (Set(p.to), Set(p.relName))
+    case _ => (Set.empty, Set.empty)
+  }
+
+  private def introducedSymbols(plan: LogicalPlan): Set[String] = {
+    val fromChildren = plan.lhs.map(_.availableSymbols).getOrElse(Set.empty) ++ plan.rhs.map(_.availableSymbols).getOrElse(Set.empty)
+    val arguments = plan match {
+      case leaf: LogicalLeafPlan => leaf.argumentIds
+      case _ => Set.empty[String]
+    }
+    plan.availableSymbols -- fromChildren -- arguments
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Apply
+import org.neo4j.cypher.internal.logical.plans.Argument
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandInto
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.Union
+import org.neo4j.cypher.internal.logical.plans.UnwindCollection
+import org.neo4j.cypher.internal.util.attribution.IdGen
+import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class RowSlotAllocationTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private implicit val idGen: IdGen = new SequentialIdGen()
+
+  test("should allocate long slots for nodes and relationships introduced by scans and expands") {
+    // given
+    val plan = Projection(
+      Expand(AllNodesScan("a", Set.empty), "a", SemanticDirection.OUTGOING, Seq.empty, "b", "r"),
+      Map("x" -> prop("b", "prop")))
+
+    // when
+    val slots = rowSlotAllocation.allocate(plan)
+
+    // then
+    slots.numberOfLongs should be(3)
+    slots.numberOfRefs should be(1)
+    isNodeSlot(slots, "a") should be(true)
+    isNodeSlot(slots, "b") should be(true)
+    isNodeSlot(slots, "r") should be(false)
+    RowSlots.isLongSlot(slots.slot("r")) should be(true)
+    slots.slot("x") should be >= 0
+    slots.slot("y") should be(RowSlots.NO_SLOT)
+  }
+
+  test("should not allocate slots for arguments of leaf plans") {
+    // given
+    val plan = Apply(
+      UnwindCollection(Argument(), "a", listOfInt(1, 2)),
+      Expand(AllNodesScan("b", Set("a")), "b", SemanticDirection.OUTGOING, Seq.empty, "c", "r"))
+
+    // when
+    val slots = rowSlotAllocation.allocate(plan)
+
+    // then
+    slots.slot("a") should be >= 0
+    isNodeSlot(slots, "b") should be(true)
+    isNodeSlot(slots, "c") should be(true)
+    slots.numberOfLongs should be(3)
+  }
+
+  test("should allocate ref slot for variable that is not always an entity") {
+    // given
+    val plan = Union(
+      AllNodesScan("a", Set.empty),
+      UnwindCollection(Argument(), "a", listOfInt(1, 2)))
+
+    // when
+    val slots = rowSlotAllocation.allocate(plan)
+
+    // then
+    slots.numberOfLongs should be(0)
+    slots.slot("a") should be(0)
+  }
+
+  test("should not count expand into as introducing the end node") {
+    // given
+    val plan = Expand(
+      Projection(AllNodesScan("a", Set.empty), Map("b" -> varFor("a"))),
+      "a", SemanticDirection.OUTGOING, Seq.empty, "b", "r", ExpandInto)
+
+    // when
+    val slots = rowSlotAllocation.allocate(plan)
+
+    // then
+    isNodeSlot(slots, "a") should be(true)
+    isNodeSlot(slots, "r") should be(false)
+    slots.slot("b") should be >= 0
+  }
+
+  private def isNodeSlot(slots: RowSlots, name: String): Boolean = {
+    val slot = slots.slot(name)
+    RowSlots.isLongSlot(slot) && slots.isNodeSlot(RowSlots.longOffset(slot))
+  }
+}
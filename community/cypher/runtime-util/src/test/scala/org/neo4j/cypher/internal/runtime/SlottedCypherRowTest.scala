@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+
+class SlottedCypherRowTest extends CypherFunSuite {
+
+  private val slots = RowSlots(Seq("n"), Seq("r"), Seq("x"))
+
+  test("should store entities in long slots") {
+    val row = SlottedCypherRow(slots)
+
+    row.set("n", VirtualValues.node(42), "r", VirtualValues.relationship(7))
+
+    row.getLongAt(RowSlots.longOffset(slots.slot("n"))) should be(42)
+    row.getLongAt(RowSlots.longOffset(slots.slot("r"))) should be(7)
+    row.getByName("n") should be(VirtualValues.node(42))
+    row.getByName("r") should be(VirtualValues.relationship(7))
+  }
+
+  test("should store other values in ref slots") {
+    val row = SlottedCypherRow(slots)
+
+    row.set("x", stringValue("foo"))
+
+    row.getRefAt(slots.slot("x")) should be(stringValue("foo"))
+    row.getByName("x") should be(stringValue("foo"))
+  }
+
+  test("should store null entities") {
+    val row = SlottedCypherRow(slots)
+
+    row.set("n", NO_VALUE)
+
+    row.isNull("n") should be(true)
+    row.getByName("n") should be(NO_VALUE)
+    row.getLongAt(RowSlots.longOffset(slots.slot("n"))) should be(-1)
+  }
+
+  test("should keep values outside of the layout by name") {
+    val row = SlottedCypherRow(slots)
+
+    row.set("n", intValue(1), "y", intValue(2))
+
+    row.getByName("n") should be(intValue(1))
+    row.getByName("y") should be(intValue(2))
+    row.numberOfColumns should be(2)
+
+    row.set("n", VirtualValues.node(3))
+    row.getByName("n") should be(VirtualValues.node(3))
+    row.numberOfColumns should be(2)
+  }
+
+  test("should fail on unset variables") {
+    val row = SlottedCypherRow(slots)
+
+    row.containsName("n") should be(false)
+    row.containsName("x") should be(false)
+    row.containsName("y") should be(false)
+    a[NotFoundException] should be thrownBy row.getByName("n")
+    a[NotFoundException] should be thrownBy row.getByName("x")
+    a[NotFoundException] should be thrownBy row.getByName("y")
+  }
+
+  test("copies should not share state") {
+    val row = SlottedCypherRow(slots)
+    row.set("n", VirtualValues.node(1), "x", intValue(1), "y", intValue(1))
+
+    val copy = row.copyWith("n", VirtualValues.node(2), "x", intValue(2), "y", intValue(2))
+
+    row.getByName("n") should be(VirtualValues.node(1))
+    row.getByName("x") should be(intValue(1))
+    row.getByName("y") should be(intValue(1))
+    copy.getByName("n") should be(VirtualValues.node(2))
+    copy.getByName("x") should be(intValue(2))
+    copy.getByName("y") should be(intValue(2))
+    copy.createClone() should equal(copy)
+  }
+
+  test("should merge set variables only") {
+    val row = SlottedCypherRow(slots)
+    row.set("n", VirtualValues.node(1), "x", intValue(1))
+    val other = SlottedCypherRow(slots)
+    other.set("r", VirtualValues.relationship(2), "y", intValue(2))
+
+    row.mergeWith(other, null)
+
+    row.getByName("n") should be(VirtualValues.node(1))
+    row.getByName("r") should be(VirtualValues.relationship(2))
+    row.getByName("x") should be(intValue(1))
+    row.getByName("y") should be(intValue(2))
+  }
+
+  test("should merge with map rows both ways") {
+    val slotted = SlottedCypherRow(slots)
+    slotted.set("n", VirtualValues.node(1))
+    val map = CypherRow.from("x" -> intValue(1), "y" -> intValue(2))
+
+    map.mergeWith(slotted, null)
+    slotted.mergeWith(CypherRow.from("x" -> intValue(1), "y" -> intValue(2)), null)
+
+    map.getByName("n") should be(VirtualValues.node(1))
+    slotted.getByName("x") should be(intValue(1))
+    slotted.getByName("y") should be(intValue(2))
+  }
+}
@@ -47,7 +47,7 @@ class CrashGenerationCleaner
 {
     private static final String INDEX_CLEANER_TAG = "indexCleaner";
     private static final String NUMBER_OF_WORKERS_NAME = "number_of_workers";
-    private static final int NUMBER_OF_WORKERS_DEFAULT = min( 8, Runtime.getRuntime().availableProcessors() );
+    private static final int NUMBER_OF_WORKERS_DEFAULT = Runtime.getRuntime().availableProcessors();
     private static final int NUMBER_OF_WORKERS = FeatureToggles.getInteger( CrashGenerationCleaner.class, NUMBER_OF_WORKERS_NAME, NUMBER_OF_WORKERS_DEFAULT );
 
     private static final long MIN_BATCH_SIZE = 10;
@@ -76,6 +76,13 @@ class CrashGenerationCleaner
         this.treeName = treeName;
     }
 
+    static int numberOfThreads( long pagesToClean, int maxThreads )
+    {
+        // No point in having more threads than there are batches of the smallest size, small trees are cleaned by one or a few threads
+        long minBatches = (pagesToClean + MIN_BATCH_SIZE - 1) / MIN_BATCH_SIZE;
+        return (int) max( 1, min( maxThreads, minBatches ) );
+    }
+
     private static long batchSize( long pagesToClean, int threads )
     {
         // Batch size at most maxBatchSize, at least minBatchSize and trying to give each thread 100 batches each
@@ -92,7 +99,7 @@ class CrashGenerationCleaner
 
         Stopwatch startTime = Stopwatch.start();
         long pagesToClean = highTreeNodeId - lowTreeNodeId;
-        int threads = NUMBER_OF_WORKERS;
+        int threads = numberOfThreads( pagesToClean, NUMBER_OF_WORKERS );
         long batchSize = batchSize( pagesToClean, threads );
         AtomicLong nextId = new AtomicLong( lowTreeNodeId );
         AtomicBoolean stopFlag = new AtomicBoolean();
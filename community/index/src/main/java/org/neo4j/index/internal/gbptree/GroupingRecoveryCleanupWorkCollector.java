@@ -19,11 +19,13 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import java.util.Comparator;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobHandle;
@@ -33,10 +35,17 @@ import org.neo4j.util.Preconditions;
 
 /**
  * Runs cleanup work as they're added in {@link #add(CleanupJob)}, but the thread that calls {@link #add(CleanupJob)} will not execute them itself.
+ * <p>
+ * Jobs are run in the order they were added, except that jobs added through the {@link #prioritized()} view are run before all other jobs.
  */
 public class GroupingRecoveryCleanupWorkCollector extends RecoveryCleanupWorkCollector
 {
-    private final BlockingQueue<CleanupJob> jobs = new LinkedBlockingQueue<>();
+    private static final Comparator<QueuedJob> PRIORITY_ORDER =
+            Comparator.comparing( ( QueuedJob queued ) -> !queued.prioritized ).thenComparingLong( queued -> queued.sequenceNumber );
+
+    private final BlockingQueue<QueuedJob> jobs = new PriorityBlockingQueue<>( 16, PRIORITY_ORDER );
+    private final AtomicLong nextSequenceNumber = new AtomicLong();
+    private final RecoveryCleanupWorkCollector prioritized = new PrioritizedCollector();
     private final JobScheduler jobScheduler;
     private final Group group;
     private final Group workerGroup;
@@ -67,9 +76,20 @@ public class GroupingRecoveryCleanupWorkCollector extends RecoveryCleanupWorkCol
 
     @Override
     public void add( CleanupJob job )
+    {
+        queue( job, false );
+    }
+
+    @Override
+    public RecoveryCleanupWorkCollector prioritized()
+    {
+        return prioritized;
+    }
+
+    private void queue( CleanupJob job, boolean prioritized )
     {
         Preconditions.checkState( moreJobsAllowed, "Index clean jobs can't be added after collector start." );
-        jobs.add( job );
+        jobs.add( new QueuedJob( job, prioritized, nextSequenceNumber.getAndIncrement() ) );
     }
 
     @Override
@@ -90,10 +110,10 @@ public class GroupingRecoveryCleanupWorkCollector extends RecoveryCleanupWorkCol
             // before reaching that phase in the lifecycle.
             handle.waitTermination();
         }
-        CleanupJob job;
-        while ( (job = jobs.poll()) != null )
+        QueuedJob queued;
+        while ( (queued = jobs.poll()) != null )
         {
-            job.close();
+            queued.job.close();
         }
     }
 
@@ -111,7 +131,8 @@ public class GroupingRecoveryCleanupWorkCollector extends RecoveryCleanupWorkCol
             {
                 try
                 {
-                    job = jobs.poll( 100, TimeUnit.MILLISECONDS );
+                    QueuedJob queued = jobs.poll( 100, TimeUnit.MILLISECONDS );
+                    job = queued != null ? queued.job : null;
                     if ( job != null )
                     {
                         job.run( new CleanupJob.Executor()
@@ -143,4 +164,30 @@ public class GroupingRecoveryCleanupWorkCollector extends RecoveryCleanupWorkCol
             while ( !jobs.isEmpty() || moreJobsAllowed );
         };
     }
+
+    /**
+     * View of the collector adding jobs with priority, see {@link #prioritized()}. Its lifecycle is managed by the outer collector.
+     */
+    private class PrioritizedCollector extends RecoveryCleanupWorkCollector
+    {
+        @Override
+        void add( CleanupJob job )
+        {
+            queue( job, true );
+        }
+    }
+
+    private static class QueuedJob
+    {
+        private final CleanupJob job;
+        private final boolean prioritized;
+        private final long sequenceNumber;
+
+        QueuedJob( CleanupJob job, boolean prioritized, long sequenceNumber )
+        {
+            this.job = job;
+            this.prioritized = prioritized;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
 }
@@ -49,6 +49,18 @@ public abstract class RecoveryCleanupWorkCollector extends LifecycleAdapter
      */
     abstract void add( CleanupJob job );
 
+    /**
+     * A view of this collector where {@link #add(CleanupJob) added} jobs are run before jobs added directly to this collector,
+     * for trees that are needed as soon as possible after recovery, e.g. trees backing constraints.
+     * Collectors that don't reorder jobs return themselves.
+     *
+     * @return collector that adds jobs with higher priority to this collector.
+     */
+    public RecoveryCleanupWorkCollector prioritized()
+    {
+        return this;
+    }
+
     static void executeWithExecutor( CleanupJobGroupAction action )
     {
         ExecutorService executor = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors() );
@@ -134,6 +134,15 @@ class CrashGenerationCleanerTest
         pageCache.close();
     }
 
+    @Test
+    void shouldNotUseMoreThreadsThanThereAreBatches()
+    {
+        assertEquals( 1, CrashGenerationCleaner.numberOfThreads( 0, 8 ) );
+        assertEquals( 1, CrashGenerationCleaner.numberOfThreads( 5, 8 ) );
+        assertEquals( 3, CrashGenerationCleaner.numberOfThreads( 25, 8 ) );
+        assertEquals( 8, CrashGenerationCleaner.numberOfThreads( 10_000, 8 ) );
+    }
+
     @Test
     void shouldNotCrashOnEmptyFile() throws Exception
     {
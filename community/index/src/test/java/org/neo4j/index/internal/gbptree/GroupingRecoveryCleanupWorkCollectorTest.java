@@ -79,6 +79,29 @@ class GroupingRecoveryCleanupWorkCollectorTest
         assertEquals( allRuns, expectedJobs );
     }
 
+    @Test
+    void shouldRunPrioritizedJobsFirst() throws Exception
+    {
+        // given
+        List<DummyJob> allRuns = new ArrayList<>();
+        DummyJob first = new DummyJob( "first", allRuns );
+        DummyJob second = new DummyJob( "second", allRuns );
+        DummyJob prioritizedFirst = new DummyJob( "prioritizedFirst", allRuns );
+        DummyJob prioritizedSecond = new DummyJob( "prioritizedSecond", allRuns );
+        collector.add( first );
+        collector.prioritized().add( prioritizedFirst );
+        collector.add( second );
+        collector.prioritized().add( prioritizedSecond );
+
+        // when
+        collector.init();
+        collector.start();
+        collector.shutdown();
+
+        // then
+        assertEquals( Arrays.asList( prioritizedFirst, prioritizedSecond, first, second ), allRuns );
+    }
+
     @Test
     void mustThrowIfStartedMultipleTimes() throws ExecutionException, InterruptedException
     {
@@ -166,6 +166,28 @@ public interface PageSwapper extends Closeable
      */
     void truncate() throws IOException;
 
+    /**
+     * Release the disk space of the given range of pages, without changing the size of the file.
+     *
+     * @return the number of bytes released, or zero if releasing space is not supported.
+     * @see PagedFile#punchHoles(long, long)
+     */
+    default long punchHole( long startFilePageId, long pageCount ) throws IOException
+    {
+        return 0;
+    }
+
+    /**
+     * Truncate the file to the given number of pages.
+     *
+     * @return the number of bytes the file shrunk by, or zero if truncation is not supported.
+     * @see PagedFile#truncate(long)
+     */
+    default long truncate( long pagesToKeep ) throws IOException
+    {
+        return 0;
+    }
+
     /**
      * @return {@code true} if the given page swapper implementation supports pre-allocating files.
      */
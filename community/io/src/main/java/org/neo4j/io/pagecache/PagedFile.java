@@ -169,6 +169,39 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Release the disk space of the given range of pages, without changing the size of the file. The pages read back as zeros
+     * afterwards, unless they are still cached, in which case the cached content is kept until the pages are evicted.
+     * <p>
+     * This is only safe for pages whose content is equivalent to zeros to the owner of the file, and that nobody is writing to
+     * concurrently. Not all platforms and file systems support releasing space.
+     *
+     * @param startPageId the first page of the range.
+     * @param pageCount the number of pages in the range.
+     * @return the number of bytes released, or zero if releasing space is not supported.
+     * @throws IOException if the space could not be released.
+     */
+    default long punchHoles( long startPageId, long pageCount ) throws IOException
+    {
+        return 0;
+    }
+
+    /**
+     * Truncate the file to the given number of pages. Pages beyond the new end of the file can no longer be read, but can be written,
+     * which grows the file again. Cached copies of the truncated pages are not evicted.
+     * <p>
+     * This is only safe for pages whose content is equivalent to zeros to the owner of the file, and that nobody is writing to
+     * concurrently.
+     *
+     * @param pagesToKeep the number of pages to keep at the start of the file. Must be positive.
+     * @return the number of bytes the file shrunk by, or zero if truncation is not supported.
+     * @throws IOException if the file could not be truncated.
+     */
+    default long truncate( long pagesToKeep ) throws IOException
+    {
+        return 0;
+    }
+
     /**
      * Release a handle to a paged file.
      * <p>
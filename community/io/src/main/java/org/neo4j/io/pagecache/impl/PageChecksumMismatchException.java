@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Thrown when the content of a page read from a file does not match the checksum of what was last written to it.
+ *
+ * @see PageChecksums
+ */
+public class PageChecksumMismatchException extends IOException
+{
+    public PageChecksumMismatchException( Path file, long filePageId, long expected, long actual )
+    {
+        super( String.format( "Checksum mismatch for page %d of file '%s'. Expected %08x but was %08x. The file may have been corrupted on disk.",
+                filePageId, file, (int) expected, (int) actual ) );
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+/**
+ * The checksums of the pages of a single file, indexed by file page id.
+ * <p>
+ * An entry is either {@link #UNKNOWN}, or the checksum of the page with the {@link #KNOWN} bit set. The table is allocated in chunks as
+ * the file grows, such that sparse or small files don't pay for a table covering the whole id space. Chunks are only allocated while the
+ * {@link PageChecksums} have heap to spare, pages beyond that are left unknown.
+ * <p>
+ * The table is {@link #store(FileSystemAbstraction, Path, int) stored} in a file next to the paged file when the file is closed, and
+ * {@link #load(FileSystemAbstraction, Path, int) loaded} when it is opened again. The stored checksums are invalidated on load, such that
+ * checksums of a file that was not closed cleanly are never trusted, and are discarded if the paged file has been changed since.
+ */
+final class PageChecksumTable
+{
+    static final long UNKNOWN = 0;
+    static final long KNOWN = 1L << 32;
+    static final String CHECKSUM_FILE_SUFFIX = ".checksums";
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    static final long CHUNK_BYTES = (long) CHUNK_SIZE * Long.BYTES;
+
+    // The magic number is written last, and cleared first, such that a partially written or loaded file is never trusted
+    private static final long MAGIC = 0x7061676543686B31L;
+    private static final int MAGIC_POSITION = 0;
+    // magic, file page size, file size, last modified time
+    private static final int HEADER_SIZE = 4 * Long.BYTES;
+    // chunk index followed by the entries of the chunk
+    private static final int CHUNK_RECORD_SIZE = Long.BYTES + CHUNK_SIZE * Long.BYTES;
+
+    private final PageChecksums checksums;
+    private volatile AtomicLongArray[] chunks = new AtomicLongArray[0];
+
+    PageChecksumTable( PageChecksums checksums )
+    {
+        this.checksums = checksums;
+    }
+
+    long get( long filePageId )
+    {
+        AtomicLongArray[] chunks = this.chunks;
+        long chunkIndex = filePageId >>> CHUNK_SHIFT;
+        if ( chunkIndex >= chunks.length )
+        {
+            return UNKNOWN;
+        }
+        AtomicLongArray chunk = chunks[(int) chunkIndex];
+        return chunk == null ? UNKNOWN : chunk.get( (int) (filePageId & CHUNK_MASK) );
+    }
+
+    void set( long filePageId, long entry )
+    {
+        AtomicLongArray chunk = chunk( filePageId );
+        if ( chunk != null )
+        {
+            chunk.set( (int) (filePageId & CHUNK_MASK), entry );
+        }
+    }
+
+    void forget( long filePageId )
+    {
+        AtomicLongArray[] chunks = this.chunks;
+        long chunkIndex = filePageId >>> CHUNK_SHIFT;
+        if ( chunkIndex < chunks.length && chunks[(int) chunkIndex] != null )
+        {
+            chunks[(int) chunkIndex].set( (int) (filePageId & CHUNK_MASK), UNKNOWN );
+        }
+    }
+
+    synchronized void clear()
+    {
+        for ( AtomicLongArray chunk : chunks )
+        {
+            if ( chunk != null )
+            {
+                checksums.release( CHUNK_BYTES );
+            }
+        }
+        chunks = new AtomicLongArray[0];
+    }
+
+    static Path checksumFile( Path file )
+    {
+        return file.resolveSibling( file.getFileName() + CHECKSUM_FILE_SUFFIX );
+    }
+
+    /**
+     * Loads the checksums stored when the given file was last closed, if the file has not been changed since, and deletes the stored
+     * checksums such that they are not loaded again should the file not be closed cleanly this time.
+     */
+    synchronized void load( FileSystemAbstraction fs, Path file, int filePageSize ) throws IOException
+    {
+        Path checksumFile = checksumFile( file );
+        if ( !fs.fileExists( checksumFile ) )
+        {
+            return;
+        }
+        try ( StoreChannel channel = fs.write( checksumFile ) )
+        {
+            channel.tryMakeUninterruptible();
+            long size = channel.size();
+            if ( size < HEADER_SIZE || (size - HEADER_SIZE) % CHUNK_RECORD_SIZE != 0 )
+            {
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+            channel.readAll( header );
+            header.flip();
+            if ( header.getLong() != MAGIC || header.getLong() != filePageSize || header.getLong() != fs.getFileSize( file ) ||
+                 header.getLong() != fs.lastModifiedTime( file ) )
+            {
+                return;
+            }
+            ByteBuffer record = ByteBuffer.allocate( CHUNK_RECORD_SIZE );
+            for ( long records = (size - HEADER_SIZE) / CHUNK_RECORD_SIZE; records > 0; records-- )
+            {
+                record.clear();
+                channel.readAll( record );
+                record.flip();
+                AtomicLongArray chunk = chunk( record.getLong() << CHUNK_SHIFT );
+                if ( chunk == null )
+                {
+                    // Out of heap for checksums, the rest of the pages stay unknown
+                    break;
+                }
+                for ( int i = 0; i < CHUNK_SIZE; i++ )
+                {
+                    chunk.set( i, record.getLong() );
+                }
+            }
+            // Invalidate before the file can be written to, such that a crash doesn't leave checksums of pages written after this behind
+            channel.writeAll( ByteBuffer.allocate( Long.BYTES ), MAGIC_POSITION );
+            channel.force( false );
+        }
+        finally
+        {
+            fs.deleteFile( checksumFile );
+        }
+    }
+
+    /**
+     * Stores the checksums next to the given file, which must not be written to anymore, such that they can be {@link #load loaded}
+     * when the file is opened again.
+     */
+    synchronized void store( FileSystemAbstraction fs, Path file, int filePageSize ) throws IOException
+    {
+        AtomicLongArray[] chunks = this.chunks;
+        try ( StoreChannel channel = fs.write( checksumFile( file ) ) )
+        {
+            channel.tryMakeUninterruptible();
+            channel.truncate( 0 );
+            ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+            header.putLong( 0 ).putLong( filePageSize ).putLong( fs.getFileSize( file ) ).putLong( fs.lastModifiedTime( file ) ).flip();
+            channel.writeAll( header );
+            ByteBuffer record = ByteBuffer.allocate( CHUNK_RECORD_SIZE );
+            for ( int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++ )
+            {
+                AtomicLongArray chunk = chunks[chunkIndex];
+                if ( chunk != null )
+                {
+                    record.clear();
+                    record.putLong( chunkIndex );
+                    for ( int i = 0; i < CHUNK_SIZE; i++ )
+                    {
+                        record.putLong( chunk.get( i ) );
+                    }
+                    record.flip();
+                    channel.writeAll( record );
+                }
+            }
+            channel.force( false );
+            channel.writeAll( ByteBuffer.allocate( Long.BYTES ).putLong( 0, MAGIC ), MAGIC_POSITION );
+            channel.force( false );
+        }
+    }
+
+    private AtomicLongArray chunk( long filePageId )
+    {
+        AtomicLongArray[] chunks = this.chunks;
+        int chunkIndex = Math.toIntExact( filePageId >>> CHUNK_SHIFT );
+        if ( chunkIndex < chunks.length && chunks[chunkIndex] != null )
+        {
+            return chunks[chunkIndex];
+        }
+        return allocateChunk( chunkIndex );
+    }
+
+    private synchronized AtomicLongArray allocateChunk( int chunkIndex )
+    {
+        AtomicLongArray[] chunks = this.chunks;
+        if ( chunkIndex < chunks.length && chunks[chunkIndex] != null )
+        {
+            return chunks[chunkIndex];
+        }
+        if ( !checksums.reserve( CHUNK_BYTES ) )
+        {
+            return null;
+        }
+        if ( chunkIndex >= chunks.length )
+        {
+            chunks = Arrays.copyOf( chunks, Math.max( chunkIndex + 1, chunks.length * 2 ) );
+        }
+        chunks[chunkIndex] = new AtomicLongArray( CHUNK_SIZE );
+        this.chunks = chunks;
+        return chunks[chunkIndex];
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Optional page checksums for {@link SingleFilePageSwapper}s.
+ * <p>
+ * When a swapper factory is given an instance of this class, every swapper it creates will compute a CRC32C checksum of each page it
+ * writes to its file, and verify the checksum of each page it reads back. A page whose content on disk no longer matches what was last
+ * written makes the read fail with a {@link PageChecksumMismatchException}, rather than silently handing corrupt data to the store.
+ * <p>
+ * The checksums are kept in memory, per mapped file, at a cost of 8 bytes of heap per page, up to the given maximum heap size for all
+ * files together. They are stored in a {@link PageChecksumTable#CHECKSUM_FILE_SUFFIX checksum file} next to the mapped file when it is
+ * unmapped, and loaded again when it is mapped, unless the file was not unmapped cleanly or has been changed since. Pages without a known
+ * checksum, i.e. pages that have not been written since checksums were enabled or that did not fit in the heap, are read without
+ * verification.
+ * <p>
+ * The cost of computing checksums is measured, see {@link #checksummedPages()} and {@link #checksumNanos()}.
+ * <p>
+ * The swappers are registered here for as long as they are open, such that a {@link PageScrubber} can find them and verify their files in
+ * the background.
+ */
+public class PageChecksums
+{
+    private final Set<SingleFilePageSwapper> swappers = ConcurrentHashMap.newKeySet();
+    private final LongAdder verifiedPages = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder checksummedPages = new LongAdder();
+    private final LongAdder checksumNanos = new LongAdder();
+    private final AtomicLong usedHeapBytes = new AtomicLong();
+    private final long maxHeapBytes;
+
+    public PageChecksums()
+    {
+        this( Long.MAX_VALUE );
+    }
+
+    /**
+     * @param maxHeapBytes the maximum amount of heap to keep checksums in, for all files together.
+     */
+    public PageChecksums( long maxHeapBytes )
+    {
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    void register( SingleFilePageSwapper swapper )
+    {
+        swappers.add( swapper );
+    }
+
+    void unregister( SingleFilePageSwapper swapper )
+    {
+        swappers.remove( swapper );
+    }
+
+    Collection<SingleFilePageSwapper> swappers()
+    {
+        return Collections.unmodifiableSet( swappers );
+    }
+
+    void verified()
+    {
+        verifiedPages.increment();
+    }
+
+    void mismatch()
+    {
+        mismatches.increment();
+    }
+
+    /**
+     * @return the number of pages whose checksum has been verified, either when they were read into the page cache or by a scrubber.
+     */
+    public long verifiedPages()
+    {
+        return verifiedPages.sum();
+    }
+
+    /**
+     * @return the number of pages whose content on disk did not match the checksum of what was last written.
+     */
+    public long mismatches()
+    {
+        return mismatches.sum();
+    }
+
+    /**
+     * @return the number of pages whose checksum has been computed, either when written or when verified.
+     */
+    public long checksummedPages()
+    {
+        return checksummedPages.sum();
+    }
+
+    /**
+     * @return the total time spent computing checksums, in nanoseconds.
+     */
+    public long checksumNanos()
+    {
+        return checksumNanos.sum();
+    }
+
+    /**
+     * @return the amount of heap currently used to keep checksums in.
+     */
+    public long usedHeapBytes()
+    {
+        return usedHeapBytes.get();
+    }
+
+    boolean reserve( long bytes )
+    {
+        long used;
+        do
+        {
+            used = usedHeapBytes.get();
+            if ( used + bytes > maxHeapBytes )
+            {
+                return false;
+            }
+        }
+        while ( !usedHeapBytes.compareAndSet( used, used + bytes ) );
+        return true;
+    }
+
+    void release( long bytes )
+    {
+        usedHeapBytes.addAndGet( -bytes );
+    }
+
+    long checksum( ByteBuffer page )
+    {
+        long start = System.nanoTime();
+        CRC32C crc = new CRC32C();
+        crc.update( page );
+        long checksum = PageChecksumTable.KNOWN | crc.getValue();
+        checksumNanos.add( System.nanoTime() - start );
+        checksummedPages.increment();
+        return checksum;
+    }
+}
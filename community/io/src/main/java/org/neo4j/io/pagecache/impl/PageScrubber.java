@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Verifies the pages of all files with {@link PageChecksums} in the background, such that corruption on disk is detected before the
+ * corrupt pages are needed by a query.
+ * <p>
+ * Each {@link #run() run} makes one pass over all the currently mapped files, reading every page with a known checksum directly from
+ * disk, bypassing the page cache, and comparing it with the checksum of what was last written. The pass is rate limited to the given
+ * number of pages per second, to keep the scrubbing from competing with the database workload for IO bandwidth.
+ * <p>
+ * Mismatches are counted in the {@link PageChecksums}, and a pass carries on with the next page after finding one.
+ */
+public class PageScrubber implements Runnable
+{
+    private static final int DIRECT_IO_ALIGNMENT = 4096;
+
+    private final PageChecksums checksums;
+    private final long nanosPerPage;
+    private final LongAdder scrubbedPages = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+    private ByteBuffer scratch;
+
+    public PageScrubber( PageChecksums checksums, int pagesPerSecond )
+    {
+        if ( pagesPerSecond <= 0 )
+        {
+            throw new IllegalArgumentException( "Expected a positive scrub rate, got " + pagesPerSecond );
+        }
+        this.checksums = checksums;
+        this.nanosPerPage = TimeUnit.SECONDS.toNanos( 1 ) / pagesPerSecond;
+    }
+
+    @Override
+    public synchronized void run()
+    {
+        long start = System.nanoTime();
+        long pages = 0;
+        for ( SingleFilePageSwapper swapper : checksums.swappers() )
+        {
+            ByteBuffer scratch = scratch( swapper.filePageSize() );
+            long lastPageId = swapper.getLastPageId();
+            for ( long filePageId = 0; lastPageId != PageCursor.UNBOUND_PAGE_ID && filePageId <= lastPageId; filePageId++ )
+            {
+                if ( Thread.currentThread().isInterrupted() )
+                {
+                    return;
+                }
+                try
+                {
+                    if ( swapper.scrub( filePageId, scratch ) )
+                    {
+                        scrubbedPages.increment();
+                        pages++;
+                        throttle( start, pages );
+                    }
+                }
+                catch ( PageChecksumMismatchException e )
+                {
+                    // Already counted by the swapper.
+                }
+                catch ( IOException e )
+                {
+                    // Typically because the file was unmapped under our feet. Move on to the next file.
+                    failedFiles.increment();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of pages read and verified by this scrubber.
+     */
+    public long scrubbedPages()
+    {
+        return scrubbedPages.sum();
+    }
+
+    /**
+     * @return the number of times a file could not be read to the end of a pass.
+     */
+    public long failedFiles()
+    {
+        return failedFiles.sum();
+    }
+
+    private void throttle( long start, long pages )
+    {
+        long ahead = start + pages * nanosPerPage - System.nanoTime();
+        if ( ahead > 0 )
+        {
+            LockSupport.parkNanos( ahead );
+        }
+    }
+
+    private ByteBuffer scratch( int filePageSize )
+    {
+        if ( scratch == null || scratch.capacity() < filePageSize )
+        {
+            // Aligned, such that files opened with direct IO can also be read into it.
+            int alignedSize = (filePageSize + DIRECT_IO_ALIGNMENT - 1) / DIRECT_IO_ALIGNMENT * DIRECT_IO_ALIGNMENT;
+            scratch = ByteBuffer.allocateDirect( alignedSize + DIRECT_IO_ALIGNMENT ).alignedSlice( DIRECT_IO_ALIGNMENT );
+        }
+        return scratch;
+    }
+}
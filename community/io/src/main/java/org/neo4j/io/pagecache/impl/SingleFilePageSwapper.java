@@ -101,6 +101,8 @@ public class SingleFilePageSwapper implements PageSwapper
     private final boolean hasPositionLock;
     private final int swapperId;
     private final PageFileSwapperTracer fileSwapperTracer;
+    private final PageChecksums checksums;
+    private final PageChecksumTable checksumTable;
 
     // Guarded by synchronized(this). See tryReopen() and close().
     private boolean closed;
@@ -124,6 +126,13 @@ public class SingleFilePageSwapper implements PageSwapper
 
     SingleFilePageSwapper( Path path, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO,
             boolean preallocateStoreFiles, IOController ioController, SwapperSet swapperSet, PageFileSwapperTracer fileSwapperTracer ) throws IOException
+    {
+        this( path, fs, filePageSize, onEviction, useDirectIO, preallocateStoreFiles, ioController, swapperSet, fileSwapperTracer, null );
+    }
+
+    SingleFilePageSwapper( Path path, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO,
+            boolean preallocateStoreFiles, IOController ioController, SwapperSet swapperSet, PageFileSwapperTracer fileSwapperTracer,
+            PageChecksums checksums ) throws IOException
     {
         this.fs = fs;
         this.path = path;
@@ -161,7 +170,32 @@ public class SingleFilePageSwapper implements PageSwapper
             throw e;
         }
         hasPositionLock = channel.hasPositionLock();
+        this.checksums = checksums;
+        this.checksumTable = checksums == null ? null : new PageChecksumTable( checksums );
+        if ( checksumTable != null )
+        {
+            try
+            {
+                checksumTable.load( fs, path, filePageSize );
+            }
+            catch ( IOException e )
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch ( IOException ioe )
+                {
+                    e.addSuppressed( ioe );
+                }
+                throw e;
+            }
+        }
         swapperId = swapperSet.allocate( this );
+        if ( checksums != null )
+        {
+            checksums.register( this );
+        }
     }
 
     private StoreChannel createStoreChannel() throws IOException
@@ -288,6 +322,109 @@ public class SingleFilePageSwapper implements PageSwapper
         return bufferLength;
     }
 
+    private void forgetChecksums( long filePageId, int bufferLength )
+    {
+        if ( checksumTable != null )
+        {
+            for ( int offset = 0; offset < bufferLength; offset += filePageSize )
+            {
+                checksumTable.forget( filePageId++ );
+            }
+        }
+    }
+
+    private void recordChecksums( long filePageId, long bufferAddress, int bufferLength ) throws IOException
+    {
+        if ( checksumTable != null )
+        {
+            // Only whole pages are checksummed. A partially written page is left unknown, and thus unverified.
+            for ( int offset = 0; offset + filePageSize <= bufferLength; offset += filePageSize )
+            {
+                checksumTable.set( filePageId++, checksums.checksum( proxy( bufferAddress + offset, filePageSize ) ) );
+            }
+        }
+    }
+
+    private void verifyChecksums( long filePageId, long bufferAddress, int bufferLength ) throws IOException
+    {
+        if ( checksumTable != null )
+        {
+            for ( int offset = 0; offset + filePageSize <= bufferLength; offset += filePageSize )
+            {
+                verifyChecksum( filePageId++, proxy( bufferAddress + offset, filePageSize ) );
+            }
+        }
+    }
+
+    private void verifyChecksums( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        if ( checksumTable != null )
+        {
+            long filePageId = startFilePageId;
+            for ( int i = 0; i < length; i++ )
+            {
+                verifyChecksums( filePageId, bufferAddresses[i], bufferLengths[i] );
+                filePageId += bufferLengths[i] / filePageSize;
+            }
+        }
+    }
+
+    private void verifyChecksum( long filePageId, ByteBuffer page ) throws IOException
+    {
+        long expected = checksumTable.get( filePageId );
+        if ( expected == PageChecksumTable.UNKNOWN )
+        {
+            return;
+        }
+        long actual = checksums.checksum( page );
+        if ( actual != expected )
+        {
+            checksums.mismatch();
+            throw new PageChecksumMismatchException( path, filePageId, expected, actual );
+        }
+        checksums.verified();
+    }
+
+    /**
+     * Read the given page directly from the file, bypassing the page cache, and verify it against its checksum.
+     * Pages without a known checksum, and pages that are written concurrently with the verification, are skipped.
+     *
+     * @param filePageId the page to verify.
+     * @param scratch a buffer of at least the file page size to read the page into.
+     * @return {@code true} if the page was verified, or {@code false} if it was skipped.
+     * @throws PageChecksumMismatchException if the content of the page on disk does not match its checksum.
+     * @throws IOException if the page could not be read.
+     */
+    boolean scrub( long filePageId, ByteBuffer scratch ) throws IOException
+    {
+        long expected = checksumTable.get( filePageId );
+        if ( expected == PageChecksumTable.UNKNOWN )
+        {
+            return false;
+        }
+        long fileOffset = pageIdToPosition( filePageId );
+        scratch.clear().limit( filePageSize );
+        int read;
+        do
+        {
+            read = channel.read( scratch, fileOffset + scratch.position() );
+        }
+        while ( read != -1 && scratch.hasRemaining() );
+        if ( scratch.hasRemaining() || checksumTable.get( filePageId ) != expected )
+        {
+            // Truncated, or written while we were reading it.
+            return false;
+        }
+        scratch.flip();
+        verifyChecksum( filePageId, scratch );
+        return true;
+    }
+
+    int filePageSize()
+    {
+        return filePageSize;
+    }
+
     private static void clear( long bufferAddress, int bufferSize )
     {
         UnsafeUtil.setMemory( bufferAddress, bufferSize, MuninnPageCache.ZERO_BYTE );
@@ -311,7 +448,9 @@ public class SingleFilePageSwapper implements PageSwapper
                     long fileOffset = pageIdToPosition( filePageId );
                     if ( fileOffset < getCurrentFileSize() )
                     {
-                        return swapIn( bufferAddress, fileOffset, bufferLength );
+                        int bytesRead = swapIn( bufferAddress, fileOffset, bufferLength );
+                        verifyChecksums( filePageId, bufferAddress, bufferLength );
+                        return bytesRead;
                     }
 
                     clear( bufferAddress, bufferLength );
@@ -388,6 +527,7 @@ public class SingleFilePageSwapper implements PageSwapper
                 }
             }
         }
+        verifyChecksums( startFilePageId, bufferAddresses, bufferLengths, length );
         return bytesRead;
     }
 
@@ -455,7 +595,10 @@ public class SingleFilePageSwapper implements PageSwapper
             {
                 try
                 {
-                    return swapOut( bufferAddress, fileOffset, bufferLength, countIo );
+                    forgetChecksums( filePageId, bufferLength );
+                    int bytesWritten = swapOut( bufferAddress, fileOffset, bufferLength, countIo );
+                    recordChecksums( filePageId, bufferAddress, bufferLength );
+                    return bytesWritten;
                 }
                 catch ( ClosedChannelException e )
                 {
@@ -505,7 +648,20 @@ public class SingleFilePageSwapper implements PageSwapper
         long bytesToWrite = countBuffersLengths(bufferLengths, length );
         increaseFileSizeTo( fileOffset + bytesToWrite );
         ByteBuffer[] srcs = convertToByteBuffers( bufferAddresses, bufferLengths, length );
-        return lockPositionWriteVector( fileOffset, srcs, bytesToWrite );
+        long filePageId = startFilePageId;
+        for ( int i = 0; i < length; i++ )
+        {
+            forgetChecksums( filePageId, bufferLengths[i] );
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        long bytesWritten = lockPositionWriteVector( fileOffset, srcs, bytesToWrite );
+        filePageId = startFilePageId;
+        for ( int i = 0; i < length; i++ )
+        {
+            recordChecksums( filePageId, bufferAddresses[i], bufferLengths[i] );
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytesWritten;
     }
 
     private static ByteBuffer[] convertToByteBuffers( long[] bufferAddresses, int[] bufferLengths, int length )
@@ -666,13 +822,32 @@ public class SingleFilePageSwapper implements PageSwapper
     @Override
     public synchronized void close() throws IOException
     {
+        close( true );
+    }
+
+    private void close( boolean storeChecksums ) throws IOException
+    {
+        // Checksums are only stored on the first close, when they still cover everything written to the file
+        storeChecksums &= !closed;
         closed = true;
+        if ( checksums != null )
+        {
+            checksums.unregister( this );
+        }
         try
         {
             channel.close();
+            if ( checksumTable != null && storeChecksums )
+            {
+                checksumTable.store( fs, path, filePageSize );
+            }
         }
         finally
         {
+            if ( checksumTable != null )
+            {
+                checksumTable.clear();
+            }
             // Eagerly relinquish our reference to the onEviction callback, because even though
             // we've closed the PagedFile at this point, there are likely still pages in the cache that are bound to
             // this swapper, and will stay bound, until the eviction threads eventually gets around to kicking them out.
@@ -685,7 +860,7 @@ public class SingleFilePageSwapper implements PageSwapper
     @Override
     public synchronized void closeAndDelete() throws IOException
     {
-        close();
+        close( false );
         fs.deleteFile( path );
     }
 
@@ -726,6 +901,10 @@ public class SingleFilePageSwapper implements PageSwapper
     public void truncate() throws IOException
     {
         setCurrentFileSize( 0 );
+        if ( checksumTable != null )
+        {
+            checksumTable.clear();
+        }
         try ( Retry retry = new Retry() )
         {
             do
@@ -743,6 +922,63 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
+    @Override
+    public long punchHole( long startFilePageId, long pageCount ) throws IOException
+    {
+        NativeAccess access = NativeAccessProvider.getNativeAccess();
+        int fileDescriptor = channel.getFileDescriptor();
+        if ( pageCount <= 0 || !access.isAvailable() || fileDescriptor == INVALID_FILE_DESCRIPTOR )
+        {
+            return 0;
+        }
+        if ( checksumTable != null )
+        {
+            for ( long filePageId = startFilePageId; filePageId < startFilePageId + pageCount; filePageId++ )
+            {
+                checksumTable.forget( filePageId );
+            }
+        }
+        long length = Math.multiplyExact( pageCount, (long) filePageSize );
+        NativeCallResult result = access.tryPunchHole( fileDescriptor, pageIdToPosition( startFilePageId ), length );
+        return result.isError() ? 0 : length;
+    }
+
+    @Override
+    public long truncate( long pagesToKeep ) throws IOException
+    {
+        long newFileSize = pageIdToPosition( pagesToKeep );
+        long currentFileSize = getCurrentFileSize();
+        if ( newFileSize >= currentFileSize )
+        {
+            return 0;
+        }
+        if ( checksumTable != null )
+        {
+            long lastPageId = getLastPageId();
+            for ( long filePageId = pagesToKeep; filePageId <= lastPageId; filePageId++ )
+            {
+                checksumTable.forget( filePageId );
+            }
+        }
+        setCurrentFileSize( newFileSize );
+        try ( Retry retry = new Retry() )
+        {
+            do
+            {
+                try
+                {
+                    channel.truncate( newFileSize );
+                }
+                catch ( ClosedChannelException e )
+                {
+                    retry.caught( e );
+                }
+            }
+            while ( retry.shouldRetry() );
+        }
+        return currentFileSize - newFileSize;
+    }
+
     @Override
     public boolean canAllocate()
     {
@@ -40,11 +40,21 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
 {
     private final FileSystemAbstraction fs;
     private final PageCacheTracer pageCacheTracer;
+    private final PageChecksums checksums;
 
     public SingleFilePageSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer )
+    {
+        this( fs, pageCacheTracer, null );
+    }
+
+    /**
+     * @param checksums the page checksums that the created swappers maintain and verify, or {@code null} to not checksum pages.
+     */
+    public SingleFilePageSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, PageChecksums checksums )
     {
         this.fs = fs;
         this.pageCacheTracer = pageCacheTracer;
+        this.checksums = checksums;
     }
 
     @Override
@@ -56,6 +66,6 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
             throw new NoSuchFileException( file.toString(), null, "Cannot map non-existing file" );
         }
         return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, useDirectIO, preallocateStoreFiles, ioController, swappers,
-                pageCacheTracer.createFileSwapperTracer() );
+                pageCacheTracer.createFileSwapperTracer(), checksums );
     }
 }
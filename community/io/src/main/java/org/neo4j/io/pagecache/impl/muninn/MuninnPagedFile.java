@@ -48,6 +48,7 @@ import static java.util.Arrays.fill;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.util.FeatureToggles.flag;
 import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
@@ -679,6 +680,24 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         swapper.force();
     }
 
+    @Override
+    public long punchHoles( long startPageId, long pageCount ) throws IOException
+    {
+        return swapper.punchHole( startPageId, pageCount );
+    }
+
+    @Override
+    public long truncate( long pagesToKeep ) throws IOException
+    {
+        requirePositive( pagesToKeep );
+        long bytes = swapper.truncate( pagesToKeep );
+        if ( bytes > 0 )
+        {
+            lowerLastPageIdTo( pagesToKeep - 1 );
+        }
+        return bytes;
+    }
+
     @Override
     public long getLastPageId() throws FileIsNotMappedException
     {
@@ -741,6 +760,20 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         while ( lastPageId < newLastPageId && !HEADER_STATE.weakCompareAndSet( this, current, update ) );
     }
 
+    private void lowerLastPageIdTo( long newLastPageId )
+    {
+        long current;
+        long update;
+        long lastPageId;
+        do
+        {
+            current = getHeaderState();
+            update = newLastPageId + (current & headerStateRefCountMask);
+            lastPageId = current & headerStateLastPageIdMask;
+        }
+        while ( lastPageId > newLastPageId && !HEADER_STATE.weakCompareAndSet( this, current, update ) );
+    }
+
     /**
      * Atomically increment the reference count for this mapped file.
      */
@@ -209,6 +209,30 @@ public abstract class PropertyIndexQuery implements IndexQuery
         return ValueTuple.of( values );
     }
 
+    /**
+     * A composite query that starts with one or more {@link IndexQueryType#EXISTS exists} predicates, followed by a predicate
+     * that actually restricts the values, can be answered by skipping between the distinct values of the leading properties
+     * and seeking the restricting predicate within each of them, instead of scanning the whole index.
+     *
+     * @param query the composite query.
+     * @return the number of leading {@link IndexQueryType#EXISTS exists} predicates, if the query can be answered with
+     * a skip scan; {@code 0} otherwise.
+     */
+    public static int skipScanPrefixLength( PropertyIndexQuery... query )
+    {
+        int prefixLength = 0;
+        while ( prefixLength < query.length && query[prefixLength].type() == IndexQueryType.EXISTS )
+        {
+            prefixLength++;
+        }
+        if ( prefixLength == 0 || prefixLength == query.length )
+        {
+            return 0;
+        }
+        IndexQueryType type = query[prefixLength].type();
+        return type == IndexQueryType.EXACT || type == IndexQueryType.RANGE || type == IndexQueryType.STRING_PREFIX ? prefixLength : 0;
+    }
+
     private final int propertyKeyId;
 
     protected PropertyIndexQuery( int propertyKeyId )
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.api.index;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 public final class IndexSample
 {
@@ -27,6 +28,7 @@ public final class IndexSample
     private final long uniqueValues;
     private final long sampleSize;
     private final long updates;
+    private final IndexValueHistogram histogram;
 
     public IndexSample()
     {
@@ -39,11 +41,17 @@ public final class IndexSample
     }
 
     public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates )
+    {
+        this( indexSize, uniqueValues, sampleSize, updates, null );
+    }
+
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, long updates, IndexValueHistogram histogram )
     {
         this.indexSize = indexSize;
         this.uniqueValues = uniqueValues;
         this.sampleSize = sampleSize;
         this.updates = updates;
+        this.histogram = histogram;
     }
 
     public long indexSize()
@@ -66,6 +74,17 @@ public final class IndexSample
         return updates;
     }
 
+    /**
+     * The histogram is only available for samplers that see all values of an index, and isn't part of {@link #equals(Object)}
+     * since it's derived from the same values as the counts.
+     *
+     * @return the distribution of the values in the index, if the sampler produced one.
+     */
+    public Optional<IndexValueHistogram> histogram()
+    {
+        return Optional.ofNullable( histogram );
+    }
+
     @Override
     public boolean equals( Object o )
     {
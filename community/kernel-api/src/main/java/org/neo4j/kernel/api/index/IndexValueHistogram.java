@@ -0,0 +1,573 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.util.Preconditions;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Distribution of the values in a single-property index, in the form of an equi-depth histogram and a list of the most common values.
+ * For a composite index it's the distribution of the values of its first property.
+ * <p>
+ * The buckets are in index order. Each bucket holds the entries with values above the upper bound of the previous bucket,
+ * up to and including its own upper bound. The buckets have roughly the same number of entries, so that the histogram is as precise
+ * for dense parts of the value space as for sparse ones.
+ * <p>
+ * Index order and {@link Values#COMPARATOR} only agree for values of the same {@link ValueGroup}, so values are only ever compared
+ * to bounds of their own group. A bucket can start in one group and end in another, such a bucket is treated as partly covering both.
+ * <p>
+ * The counts are kept up to date between samplings by applying the {@link Delta changes} of index updates, see {@link #withChanges(Delta)}.
+ * The bucket bounds only change when the index is sampled again, which is due once the counts have {@link #drift() drifted} too far.
+ */
+public final class IndexValueHistogram
+{
+    private final Value lowest;
+    private final Value[] upperBounds;
+    private final long[] counts;
+    private final long[] distinctCounts;
+    private final Value[] mostCommonValues;
+    private final long[] mostCommonCounts;
+    // The counts of the buckets when the histogram was sampled, or read, before any changes were applied
+    private final long[] sampledCounts;
+    // Identifies the bucket bounds, which are shared by all histograms derived from the same sample with withChanges
+    private final Object bounds;
+    // For each value group, the first and the last bucket with an upper bound in that group
+    private final Map<ValueGroup,int[]> bucketsByGroup = new EnumMap<>( ValueGroup.class );
+
+    private IndexValueHistogram( Value lowest, Value[] upperBounds, long[] counts, long[] distinctCounts, Value[] mostCommonValues,
+            long[] mostCommonCounts, long[] sampledCounts, Object bounds )
+    {
+        this.lowest = lowest;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+        this.distinctCounts = distinctCounts;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonCounts = mostCommonCounts;
+        this.sampledCounts = sampledCounts;
+        this.bounds = bounds;
+        for ( int i = 0; i < upperBounds.length; i++ )
+        {
+            int bucket = i;
+            bucketsByGroup.compute( upperBounds[i].valueGroup(),
+                    ( group, range ) -> range == null ? new int[]{bucket, bucket} : new int[]{range[0], bucket} );
+        }
+    }
+
+    /**
+     * Recreates a histogram from its parts, as previously read from {@link #lowest()}, {@link #upperBound(int)}, {@link #count(int)},
+     * {@link #distinctCount(int)}, {@link #mostCommonValues()} and {@link #mostCommonCounts()}.
+     */
+    public static IndexValueHistogram of( Value lowest, Value[] upperBounds, long[] counts, long[] distinctCounts, Value[] mostCommonValues,
+            long[] mostCommonCounts )
+    {
+        Preconditions.checkArgument( upperBounds.length > 0, "A histogram needs at least one bucket" );
+        Preconditions.checkArgument( counts.length == upperBounds.length && distinctCounts.length == upperBounds.length,
+                "Expected %d bucket counts", upperBounds.length );
+        Preconditions.checkArgument( mostCommonCounts.length == mostCommonValues.length, "Expected %d most common counts", mostCommonValues.length );
+        long[] sampledCounts = counts.clone();
+        return new IndexValueHistogram( lowest, upperBounds.clone(), sampledCounts, distinctCounts.clone(), mostCommonValues.clone(),
+                mostCommonCounts.clone(), sampledCounts, new Object() );
+    }
+
+    public int numberOfBuckets()
+    {
+        return upperBounds.length;
+    }
+
+    /**
+     * @return the lowest value in the index, the lower bound of the first bucket.
+     */
+    public Value lowest()
+    {
+        return lowest;
+    }
+
+    public Value upperBound( int bucket )
+    {
+        return upperBounds[bucket];
+    }
+
+    public long count( int bucket )
+    {
+        return counts[bucket];
+    }
+
+    public long distinctCount( int bucket )
+    {
+        return distinctCounts[bucket];
+    }
+
+    /**
+     * @return the number of distinct values in the index when it was sampled.
+     */
+    public long distinctValues()
+    {
+        long distinctValues = 0;
+        for ( long distinctCount : distinctCounts )
+        {
+            distinctValues += distinctCount;
+        }
+        return distinctValues;
+    }
+
+    /**
+     * @return the most common values in the index, most common first.
+     */
+    public Value[] mostCommonValues()
+    {
+        return mostCommonValues.clone();
+    }
+
+    /**
+     * @return the number of entries of each of the {@link #mostCommonValues() most common values}.
+     */
+    public long[] mostCommonCounts()
+    {
+        return mostCommonCounts.clone();
+    }
+
+    /**
+     * @param value the value to look for.
+     * @return estimated number of index entries with the given value.
+     */
+    public long estimateEquals( Value value )
+    {
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            if ( mostCommonValues[i].equals( value ) )
+            {
+                return mostCommonCounts[i];
+            }
+        }
+        int bucket = bucketOf( value );
+        if ( bucket < 0 || counts[bucket] == 0 )
+        {
+            return 0;
+        }
+        return Math.max( 1, counts[bucket] / distinctCounts[bucket] );
+    }
+
+    /**
+     * A bucket only partly covered by the range contributes half of its entries to the estimate. Only the buckets holding values
+     * of the {@link PropertyIndexQuery.RangePredicate#valueGroup() value group} of the range are considered.
+     *
+     * @param range the range to estimate.
+     * @return estimated number of index entries matching the given range.
+     */
+    public long estimateRange( PropertyIndexQuery.RangePredicate<?> range )
+    {
+        ValueGroup group = range.valueGroup();
+        int[] buckets = bucketsByGroup.get( group );
+        if ( buckets == null )
+        {
+            // No bucket ends in this group, so only the first bucket can hold values of it, if it starts in it
+            return lowest.valueGroup() == group && endsAfter( range, lowest ) ? Math.max( 1, counts[0] / 2 ) : 0;
+        }
+
+        long estimate = 0;
+        int last = Math.min( buckets[1] + 1, upperBounds.length - 1 );
+        for ( int i = buckets[0]; i <= last; i++ )
+        {
+            Value bucketLow = i == 0 ? lowest : upperBounds[i - 1];
+            Value bucketHigh = upperBounds[i];
+            boolean startsInGroup = bucketLow.valueGroup() == group;
+            boolean endsInGroup = bucketHigh.valueGroup() == group;
+            boolean covered = false;
+            boolean overlapping;
+            if ( startsInGroup && endsInGroup )
+            {
+                boolean lowAccepted = range.acceptsValue( bucketLow );
+                boolean highAccepted = range.acceptsValue( bucketHigh );
+                covered = lowAccepted && highAccepted;
+                overlapping = lowAccepted || highAccepted || within( range.fromValue(), bucketLow, bucketHigh ) ||
+                              within( range.toValue(), bucketLow, bucketHigh );
+            }
+            else if ( endsInGroup )
+            {
+                // The bucket starts in another group, its values of this group are the ones up to its upper bound
+                overlapping = startsBefore( range, bucketHigh );
+            }
+            else
+            {
+                // The bucket ends in another group, its values of this group are the ones above its lower bound
+                overlapping = endsAfter( range, bucketLow );
+            }
+
+            if ( covered )
+            {
+                estimate += counts[i];
+            }
+            else if ( overlapping && counts[i] > 0 )
+            {
+                estimate += Math.max( 1, counts[i] / 2 );
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Updates concentrated in a few buckets make the bucket bounds stale, and the estimates of ranges over those buckets coarse,
+     * well before they are many enough compared to the size of the index to trigger a new sample of it.
+     *
+     * @return the largest factor by which the number of entries of a bucket has grown or shrunk through the {@link #withChanges(Delta) changes}
+     * applied since the histogram was sampled, or read, or {@code 1} if no bucket changed.
+     */
+    public double drift()
+    {
+        double drift = 1;
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            double growth = (counts[i] + 1.0) / (sampledCounts[i] + 1.0);
+            drift = Math.max( drift, Math.max( growth, 1 / growth ) );
+        }
+        return drift;
+    }
+
+    /**
+     * @return a new, empty, set of changes to the counts of this histogram.
+     */
+    public Delta newDelta()
+    {
+        return new Delta( this );
+    }
+
+    /**
+     * Applies changes collected from index updates. Changes collected for a histogram of an earlier sample of the index are ignored,
+     * since its bucket bounds may differ from the ones of this histogram.
+     *
+     * @param delta the changes to apply.
+     * @return a histogram with the changes applied, or this histogram if the changes don't apply to it.
+     */
+    public IndexValueHistogram withChanges( Delta delta )
+    {
+        if ( delta.bounds != bounds || delta.isEmpty() )
+        {
+            return this;
+        }
+        long[] newCounts = new long[counts.length];
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            newCounts[i] = Math.max( 0, counts[i] + delta.counts[i] );
+        }
+        long[] newMostCommonCounts = new long[mostCommonCounts.length];
+        for ( int i = 0; i < mostCommonCounts.length; i++ )
+        {
+            newMostCommonCounts[i] = Math.max( 0, mostCommonCounts[i] + delta.mostCommonCounts[i] );
+        }
+        Value newLowest = lowest;
+        if ( delta.lowest != null && Values.COMPARATOR.compare( delta.lowest, lowest ) < 0 )
+        {
+            newLowest = delta.lowest;
+        }
+        Value[] newUpperBounds = upperBounds;
+        int lastBucket = upperBounds.length - 1;
+        if ( delta.highest != null && Values.COMPARATOR.compare( delta.highest, upperBounds[lastBucket] ) > 0 )
+        {
+            newUpperBounds = upperBounds.clone();
+            newUpperBounds[lastBucket] = delta.highest;
+        }
+        return new IndexValueHistogram( newLowest, newUpperBounds, newCounts, distinctCounts, mostCommonValues, newMostCommonCounts, sampledCounts, bounds );
+    }
+
+    private int bucketOf( Value value )
+    {
+        ValueGroup group = value.valueGroup();
+        int[] buckets = bucketsByGroup.get( group );
+        if ( buckets == null )
+        {
+            // No bucket ends in this group, so only the first bucket can hold values of it, if it starts in it
+            return lowest.valueGroup() == group && Values.COMPARATOR.compare( value, lowest ) >= 0 ? 0 : -1;
+        }
+        if ( buckets[0] == 0 && lowest.valueGroup() == group && Values.COMPARATOR.compare( value, lowest ) < 0 )
+        {
+            return -1;
+        }
+        int bucket = Arrays.binarySearch( upperBounds, buckets[0], buckets[1] + 1, value, Values.COMPARATOR );
+        if ( bucket < 0 )
+        {
+            // Either a bucket ending in this group, or the one after them, which starts in this group and ends in another
+            bucket = -bucket - 1;
+        }
+        return bucket < upperBounds.length ? bucket : -1;
+    }
+
+    private static boolean startsBefore( PropertyIndexQuery.RangePredicate<?> range, Value value )
+    {
+        Value from = range.fromValue();
+        return from == Values.NO_VALUE || Values.COMPARATOR.compare( from, value ) <= 0;
+    }
+
+    private static boolean endsAfter( PropertyIndexQuery.RangePredicate<?> range, Value value )
+    {
+        Value to = range.toValue();
+        return to == Values.NO_VALUE || Values.COMPARATOR.compare( to, value ) >= 0;
+    }
+
+    private static boolean within( Value value, Value low, Value high )
+    {
+        return value != Values.NO_VALUE && Values.COMPARATOR.compare( value, low ) >= 0 && Values.COMPARATOR.compare( value, high ) <= 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexValueHistogram{" +
+               "buckets=" + upperBounds.length +
+               ", lowest=" + lowest +
+               ", upperBounds=" + Arrays.toString( upperBounds ) +
+               ", counts=" + Arrays.toString( counts ) +
+               ", mostCommonValues=" + Arrays.toString( mostCommonValues ) +
+               '}';
+    }
+
+    /**
+     * Changes to the counts of a histogram, collected from the values added to and removed from an index by index updates.
+     * Values below the lowest or above the highest value of the histogram extend the first or the last bucket, if they are of the same
+     * value group. Values that can't be placed in a bucket are not counted. Not thread safe.
+     */
+    public static final class Delta
+    {
+        private final IndexValueHistogram histogram;
+        private final Object bounds;
+        private final long[] counts;
+        private final long[] mostCommonCounts;
+        private Value lowest;
+        private Value highest;
+        private boolean empty = true;
+
+        private Delta( IndexValueHistogram histogram )
+        {
+            this.histogram = histogram;
+            this.bounds = histogram.bounds;
+            this.counts = new long[histogram.counts.length];
+            this.mostCommonCounts = new long[histogram.mostCommonCounts.length];
+        }
+
+        public void add( Value value )
+        {
+            change( value, 1 );
+        }
+
+        public void remove( Value value )
+        {
+            change( value, -1 );
+        }
+
+        public boolean isEmpty()
+        {
+            return empty;
+        }
+
+        private void change( Value value, long change )
+        {
+            Value[] mostCommonValues = histogram.mostCommonValues;
+            for ( int i = 0; i < mostCommonValues.length; i++ )
+            {
+                if ( mostCommonValues[i].equals( value ) )
+                {
+                    mostCommonCounts[i] += change;
+                    empty = false;
+                    break;
+                }
+            }
+
+            int bucket = histogram.bucketOf( value );
+            if ( bucket < 0 && change > 0 )
+            {
+                bucket = extend( value );
+            }
+            if ( bucket >= 0 )
+            {
+                counts[bucket] += change;
+                empty = false;
+            }
+        }
+
+        private int extend( Value value )
+        {
+            Value histogramLowest = histogram.lowest;
+            if ( value.valueGroup() == histogramLowest.valueGroup() && Values.COMPARATOR.compare( value, histogramLowest ) < 0 )
+            {
+                if ( lowest == null || Values.COMPARATOR.compare( value, lowest ) < 0 )
+                {
+                    lowest = value;
+                }
+                return 0;
+            }
+            int lastBucket = histogram.upperBounds.length - 1;
+            Value histogramHighest = histogram.upperBounds[lastBucket];
+            if ( value.valueGroup() == histogramHighest.valueGroup() && Values.COMPARATOR.compare( value, histogramHighest ) > 0 )
+            {
+                if ( highest == null || Values.COMPARATOR.compare( value, highest ) > 0 )
+                {
+                    highest = value;
+                }
+                return lastBucket;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Builds a histogram in a single pass over the distinct values of an index, in ascending order. The number of entries per bucket
+     * isn't known up front, so buckets start out small and pairs of adjacent buckets are merged whenever the maximum number of buckets
+     * is exceeded, which keeps the buckets roughly equi-depth regardless of the size of the index.
+     * <p>
+     * Values are passed as {@link Supplier suppliers} and only materialized when they become a bucket bound or a most common value,
+     * such that scanning an index with many distinct values doesn't have to deserialize every one of them.
+     */
+    public static class Builder
+    {
+        private final int maxBuckets;
+        private final int maxMostCommonValues;
+        private final PriorityQueue<ValueCount> mostCommon;
+        private Value[] upperBounds;
+        private long[] counts;
+        private long[] distinctCounts;
+        private int numberOfBuckets;
+        private long depth = 1;
+        private Value lowest;
+        private long openCount;
+        private long openDistinctCount;
+
+        /**
+         * @param maxBuckets the histogram will have between {@code maxBuckets / 2} and {@code maxBuckets} buckets, given enough distinct values.
+         * @param maxMostCommonValues the number of most common values to keep.
+         */
+        public Builder( int maxBuckets, int maxMostCommonValues )
+        {
+            Preconditions.checkArgument( maxBuckets > 0 && maxBuckets % 2 == 0, "Number of buckets must be positive and even, was %d", maxBuckets );
+            Preconditions.requireNonNegative( maxMostCommonValues );
+            this.maxBuckets = maxBuckets;
+            this.maxMostCommonValues = maxMostCommonValues;
+            this.mostCommon = new PriorityQueue<>( Math.max( 1, maxMostCommonValues ), ( a, b ) -> Long.compare( a.count, b.count ) );
+            this.upperBounds = new Value[maxBuckets];
+            this.counts = new long[maxBuckets];
+            this.distinctCounts = new long[maxBuckets];
+        }
+
+        /**
+         * @param count number of index entries with this value.
+         * @param value the next distinct value, larger than all previously added values.
+         */
+        public void add( long count, Supplier<Value> value )
+        {
+            if ( lowest == null )
+            {
+                lowest = value.get();
+            }
+
+            Value materialized = null;
+            if ( maxMostCommonValues > 0 && (mostCommon.size() < maxMostCommonValues || mostCommon.peek().count < count) )
+            {
+                materialized = value.get();
+                if ( mostCommon.size() == maxMostCommonValues )
+                {
+                    mostCommon.poll();
+                }
+                mostCommon.add( new ValueCount( materialized, count ) );
+            }
+
+            openCount += count;
+            openDistinctCount++;
+            if ( openCount >= depth )
+            {
+                closeBucket( materialized != null ? materialized : value.get() );
+                if ( numberOfBuckets == maxBuckets )
+                {
+                    mergeBuckets();
+                }
+            }
+        }
+
+        /**
+         * @param highest the last value passed to {@link #add(long, Supplier)}.
+         * @return the histogram, or {@code null} if no values were added.
+         */
+        public IndexValueHistogram build( Supplier<Value> highest )
+        {
+            if ( lowest == null )
+            {
+                return null;
+            }
+            if ( openDistinctCount > 0 )
+            {
+                closeBucket( highest.get() );
+            }
+
+            ValueCount[] common = mostCommon.toArray( new ValueCount[0] );
+            Arrays.sort( common, ( a, b ) -> Long.compare( b.count, a.count ) );
+            Value[] mostCommonValues = new Value[common.length];
+            long[] mostCommonCounts = new long[common.length];
+            for ( int i = 0; i < common.length; i++ )
+            {
+                mostCommonValues[i] = common[i].value;
+                mostCommonCounts[i] = common[i].count;
+            }
+            long[] sampledCounts = Arrays.copyOf( counts, numberOfBuckets );
+            return new IndexValueHistogram( lowest, Arrays.copyOf( upperBounds, numberOfBuckets ), sampledCounts,
+                    Arrays.copyOf( distinctCounts, numberOfBuckets ), mostCommonValues, mostCommonCounts, sampledCounts, new Object() );
+        }
+
+        private void closeBucket( Value upperBound )
+        {
+            upperBounds[numberOfBuckets] = upperBound;
+            counts[numberOfBuckets] = openCount;
+            distinctCounts[numberOfBuckets] = openDistinctCount;
+            numberOfBuckets++;
+            openCount = 0;
+            openDistinctCount = 0;
+        }
+
+        private void mergeBuckets()
+        {
+            for ( int i = 0; i < numberOfBuckets / 2; i++ )
+            {
+                upperBounds[i] = upperBounds[2 * i + 1];
+                counts[i] = counts[2 * i] + counts[2 * i + 1];
+                distinctCounts[i] = distinctCounts[2 * i] + distinctCounts[2 * i + 1];
+            }
+            numberOfBuckets /= 2;
+            Arrays.fill( upperBounds, numberOfBuckets, maxBuckets, null );
+            depth *= 2;
+        }
+    }
+
+    private static class ValueCount
+    {
+        private final Value value;
+        private final long count;
+
+        ValueCount( Value value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
@@ -73,6 +73,7 @@ public class LoggingMonitor implements IndexProvider.Monitor
         joiner.add( "Number of tree nodes: " + numberOfTreeNodes );
         joiner.add( "Number of cleaned crashed pointers: " + numberOfCleanedCrashPointers );
         joiner.add( "Time spent: " + duration( durationMillis ) );
+        joiner.add( "Pages per second: " + numberOfPagesVisited * 1000 / Math.max( 1, durationMillis ) );
         log.info( joiner.toString() );
     }
 
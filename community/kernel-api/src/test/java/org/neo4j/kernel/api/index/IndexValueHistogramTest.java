@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IndexValueHistogramTest
+{
+    @Test
+    void shouldNotBuildHistogramWithoutValues()
+    {
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 4, 2 );
+        assertNull( builder.build( () -> Values.intValue( 0 ) ) );
+    }
+
+    @Test
+    void shouldKeepBucketsRoughlyEquiDepth()
+    {
+        // given 1000 distinct values with one entry each
+        IndexValueHistogram histogram = build( 10, 0, 1000, 1 );
+
+        // then
+        assertThat( histogram.numberOfBuckets() ).isBetween( 5, 10 );
+        long total = 0;
+        for ( int i = 0; i < histogram.numberOfBuckets(); i++ )
+        {
+            total += histogram.count( i );
+            if ( i < histogram.numberOfBuckets() - 1 )
+            {
+                // all but the last bucket have the same depth
+                assertEquals( histogram.count( 0 ), histogram.count( i ) );
+            }
+        }
+        assertEquals( 1000, total );
+        assertEquals( Values.intValue( 999 ), histogram.upperBound( histogram.numberOfBuckets() - 1 ) );
+    }
+
+    @Test
+    void shouldEstimateEqualsFromMostCommonValues()
+    {
+        // given
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 10, 2 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            int value = i;
+            builder.add( i == 13 ? 500 : i == 42 ? 300 : 2, () -> Values.intValue( value ) );
+        }
+        IndexValueHistogram histogram = builder.build( () -> Values.intValue( 99 ) );
+
+        // then
+        assertThat( histogram.mostCommonValues() ).containsExactly( Values.intValue( 13 ), Values.intValue( 42 ) );
+        assertEquals( 500, histogram.estimateEquals( Values.intValue( 13 ) ) );
+        assertEquals( 300, histogram.estimateEquals( Values.intValue( 42 ) ) );
+        assertThat( histogram.estimateEquals( Values.intValue( 70 ) ) ).isBetween( 1L, 10L );
+        assertEquals( 0, histogram.estimateEquals( Values.intValue( -1 ) ) );
+        assertEquals( 0, histogram.estimateEquals( Values.intValue( 100 ) ) );
+    }
+
+    @Test
+    void shouldEstimateRange()
+    {
+        // given 1000 distinct values with 10 entries each
+        IndexValueHistogram histogram = build( 20, 5, 1000, 10 );
+
+        // then
+        assertEstimate( histogram, PropertyIndexQuery.range( 1, 0, true, 999, true ), 10_000 );
+        assertEstimate( histogram, PropertyIndexQuery.range( 1, 100, true, 300, false ), 2_000 );
+        assertEstimate( histogram, PropertyIndexQuery.range( 1, 500, false, null, false ), 5_000 );
+        assertEstimate( histogram, PropertyIndexQuery.range( 1, null, false, 250, true ), 2_500 );
+        assertEquals( 0, histogram.estimateRange( PropertyIndexQuery.range( 1, 2_000, true, 3_000, true ) ) );
+        assertEquals( 0, histogram.estimateRange( PropertyIndexQuery.range( 1, Values.stringValue( "a" ), true, Values.stringValue( "b" ), true ) ) );
+    }
+
+    @Test
+    void shouldOnlyEstimateRangeFromBucketsOfItsValueGroup()
+    {
+        // given 100 numbers followed by 100 strings, with 10 entries each
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 10, 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            Value value = Values.intValue( i );
+            builder.add( 10, () -> value );
+        }
+        for ( int i = 0; i < 100; i++ )
+        {
+            Value value = Values.stringValue( String.format( "s%03d", i ) );
+            builder.add( 10, () -> value );
+        }
+        IndexValueHistogram histogram = builder.build( () -> Values.stringValue( "s099" ) );
+
+        // then
+        assertThat( histogram.estimateRange( PropertyIndexQuery.range( 1, 0, true, 99, true ) ) ).isBetween( 700L, 1_300L );
+        assertThat( histogram.estimateRange( PropertyIndexQuery.range( 1, null, false, 1_000, true ) ) ).isBetween( 700L, 1_300L );
+        assertThat( histogram.estimateRange( PropertyIndexQuery.range( 1, Values.stringValue( "s000" ), true, Values.stringValue( "s099" ), true ) ) )
+                .isBetween( 700L, 1_300L );
+        assertThat( histogram.estimateRange( PropertyIndexQuery.range( 1, Values.stringValue( "a" ), true, null, false ) ) ).isBetween( 700L, 1_300L );
+        assertEquals( 0, histogram.estimateRange( PropertyIndexQuery.range( 1, Values.booleanValue( false ), true, Values.booleanValue( true ), true ) ) );
+        assertThat( histogram.estimateEquals( Values.stringValue( "s050" ) ) ).isBetween( 1L, 20L );
+        assertEquals( 0, histogram.estimateEquals( Values.stringValue( "t" ) ) );
+        assertEquals( 0, histogram.estimateEquals( Values.booleanValue( true ) ) );
+    }
+
+    @Test
+    void shouldApplyChangesOfIndexUpdates()
+    {
+        // given 100 distinct values with 10 entries each, and value 13 being the most common one
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 10, 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            Value value = Values.intValue( i );
+            builder.add( i == 13 ? 20 : 10, () -> value );
+        }
+        IndexValueHistogram histogram = builder.build( () -> Values.intValue( 99 ) );
+        long before = histogram.estimateRange( PropertyIndexQuery.range( 1, 0, true, 99, true ) );
+
+        // when
+        IndexValueHistogram.Delta delta = histogram.newDelta();
+        for ( int i = 0; i < 500; i++ )
+        {
+            delta.add( Values.intValue( 120 + i % 10 ) );
+        }
+        delta.add( Values.intValue( 13 ) );
+        delta.remove( Values.intValue( 50 ) );
+        delta.add( Values.stringValue( "not placed in any bucket" ) );
+        IndexValueHistogram changed = histogram.withChanges( delta );
+
+        // then
+        assertEquals( 21, changed.estimateEquals( Values.intValue( 13 ) ) );
+        assertEquals( Values.intValue( 129 ), changed.upperBound( changed.numberOfBuckets() - 1 ) );
+        assertThat( changed.estimateRange( PropertyIndexQuery.range( 1, 0, true, 200, true ) ) ).isGreaterThanOrEqualTo( before + 500 );
+        assertEquals( 0, changed.estimateRange( PropertyIndexQuery.range( 1, Values.stringValue( "a" ), true, null, false ) ) );
+        long total = 0;
+        for ( int i = 0; i < changed.numberOfBuckets(); i++ )
+        {
+            total += changed.count( i );
+        }
+        assertEquals( 1_010 + 500 + 1 - 1, total );
+    }
+
+    @Test
+    void shouldMeasureDriftOfBucketsSinceSampled()
+    {
+        // given 100 distinct values with 10 entries each
+        IndexValueHistogram histogram = build( 10, 0, 100, 10 );
+        assertEquals( 1, histogram.drift() );
+
+        // when values are appended past the last bucket, and removed from the first ones
+        IndexValueHistogram.Delta delta = histogram.newDelta();
+        for ( int i = 0; i < 400; i++ )
+        {
+            delta.add( Values.intValue( 100 + i ) );
+        }
+        for ( int i = 0; i < 100; i++ )
+        {
+            delta.remove( Values.intValue( i / 10 ) );
+        }
+        IndexValueHistogram changed = histogram.withChanges( delta );
+
+        // then
+        assertThat( changed.drift() ).isGreaterThan( 2 );
+        assertThat( changed.withChanges( changed.newDelta() ).drift() ).isEqualTo( changed.drift() );
+
+        // and a histogram read back from its parts is the new baseline
+        int buckets = changed.numberOfBuckets();
+        Value[] upperBounds = new Value[buckets];
+        long[] counts = new long[buckets];
+        long[] distinctCounts = new long[buckets];
+        for ( int i = 0; i < buckets; i++ )
+        {
+            upperBounds[i] = changed.upperBound( i );
+            counts[i] = changed.count( i );
+            distinctCounts[i] = changed.distinctCount( i );
+        }
+        IndexValueHistogram read = IndexValueHistogram.of( changed.lowest(), upperBounds, counts, distinctCounts, changed.mostCommonValues(),
+                changed.mostCommonCounts() );
+        assertEquals( 1, read.drift() );
+    }
+
+    @Test
+    void shouldIgnoreChangesCollectedForAnotherHistogram()
+    {
+        // given
+        IndexValueHistogram histogram = build( 4, 0, 10, 1 );
+        IndexValueHistogram.Delta delta = build( 4, 0, 10, 1 ).newDelta();
+        delta.add( Values.intValue( 5 ) );
+
+        // then
+        assertThat( histogram.withChanges( delta ) ).isSameAs( histogram );
+        assertThat( histogram.withChanges( histogram.newDelta() ) ).isSameAs( histogram );
+    }
+
+    private static void assertEstimate( IndexValueHistogram histogram, PropertyIndexQuery.RangePredicate<?> range, long expected )
+    {
+        // a bucket is 1/10 to 1/20 of the entries and at most two buckets are partly covered by a range
+        assertThat( histogram.estimateRange( range ) ).isBetween( expected - expected / 10 - 1_000, expected + 1_000 );
+    }
+
+    private static IndexValueHistogram build( int buckets, int mostCommonValues, int distinctValues, long entriesPerValue )
+    {
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( buckets, mostCommonValues );
+        for ( int i = 0; i < distinctValues; i++ )
+        {
+            Value value = Values.intValue( i );
+            builder.add( entriesPerValue, () -> value );
+        }
+        Value highest = Values.intValue( distinctValues - 1 );
+        return builder.build( () -> highest );
+    }
+}
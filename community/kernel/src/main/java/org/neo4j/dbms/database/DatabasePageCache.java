@@ -210,6 +210,18 @@ public class DatabasePageCache implements PageCache
             return delegate.getLastPageId();
         }
 
+        @Override
+        public long punchHoles( long startPageId, long pageCount ) throws IOException
+        {
+            return delegate.punchHoles( startPageId, pageCount );
+        }
+
+        @Override
+        public long truncate( long pagesToKeep ) throws IOException
+        {
+            return delegate.truncate( pagesToKeep );
+        }
+
         @Override
         public void close()
         {
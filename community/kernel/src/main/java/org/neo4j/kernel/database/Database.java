@@ -434,9 +434,10 @@ public class Database extends LifecycleAdapter
 
             idController.initialize( () -> kernelModule.kernelTransactions().get(), otherDatabaseMemoryTracker );
 
-            storageEngine = storageEngineFactory.instantiate( fs, databaseLayout, databaseConfig, databasePageCache, tokenHolders, databaseSchemaState,
-                    constraintSemantics, indexProviderMap, lockService, idGeneratorFactory, idController, databaseHealth, internalLogProvider, userLogProvider,
-                    recoveryCleanupWorkCollector, pageCacheTracer, !storageExists, readOnlyDatabaseChecker, otherDatabaseMemoryTracker );
+            storageEngine = storageEngineFactory.instantiate( fs, databaseLayout, databaseConfig, databasePageCache, scheduler, tokenHolders,
+                    databaseSchemaState, constraintSemantics, indexProviderMap, lockService, idGeneratorFactory, idController, databaseHealth,
+                    internalLogProvider, userLogProvider, recoveryCleanupWorkCollector, pageCacheTracer, !storageExists, readOnlyDatabaseChecker,
+                    otherDatabaseMemoryTracker );
 
             MetadataProvider metadataProvider = storageEngine.metadataProvider();
             databaseDependencies.satisfyDependency( metadataProvider );
@@ -456,7 +457,7 @@ public class Database extends LifecycleAdapter
                             lockService, internalLogProvider );
 
             // Schema indexes
-            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, databaseLayout, recoveryCleanupWorkCollector,
+            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, fs, databaseLayout, recoveryCleanupWorkCollector,
                     readOnlyDatabaseChecker, pageCacheTracer );
             IndexingService indexingService = buildIndexingService( storageEngine, databaseSchemaState, indexStoreViewFactory, indexStatisticsStore,
                     pageCacheTracer, otherDatabaseMemoryTracker );
@@ -499,6 +500,7 @@ public class Database extends LifecycleAdapter
             databaseDependencies.satisfyDependency( indexProviderMap );
             databaseDependencies.satisfyDependency( forceOperation );
             databaseDependencies.satisfyDependency( storageEngine.storeEntityCounters() );
+            databaseDependencies.satisfyDependency( storageEngine.adjacencyCacheCounters() );
 
             var providerSpi = QueryEngineProvider.spi( internalLogProvider, databaseMonitors, scheduler, life, getKernel(), databaseConfig );
             this.executionEngine = QueryEngineProvider.initialize( databaseDependencies, databaseFacade, engineProvider, isSystem(), providerSpi );
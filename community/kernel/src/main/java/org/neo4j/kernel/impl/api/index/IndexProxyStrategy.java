@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 
 /**
  * Representation of an index used by indexing services in this package.
@@ -37,7 +38,12 @@ interface IndexProxyStrategy
 
     void removeStatisticsForIndex();
 
-    void incrementUpdateStatisticsForIndex( long delta );
+    /**
+     * @return changes to the histogram of the index to collect the changes of index updates in, or {@code null} if there is no histogram to keep up to date.
+     */
+    IndexValueHistogram.Delta newHistogramDelta();
+
+    void incrementUpdateStatisticsForIndex( long delta, IndexValueHistogram.Delta histogramDelta );
 
     void replaceStatisticsForIndex( IndexSample sample );
 
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 
 /**
  * Method {@link #changeIndexDescriptor} allows changing the descriptor.
@@ -55,7 +56,13 @@ class TokenIndexProxyStrategy implements IndexProxyStrategy
     }
 
     @Override
-    public void incrementUpdateStatisticsForIndex( long delta )
+    public IndexValueHistogram.Delta newHistogramDelta()
+    {
+        return null;
+    }
+
+    @Override
+    public void incrementUpdateStatisticsForIndex( long delta, IndexValueHistogram.Delta histogramDelta )
     {
 
     }
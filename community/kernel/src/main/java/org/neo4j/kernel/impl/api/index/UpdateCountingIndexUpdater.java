@@ -21,18 +21,22 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
 
 public class UpdateCountingIndexUpdater implements IndexUpdater
 {
     private final IndexProxyStrategy indexProxyStrategy;
     private final IndexUpdater delegate;
+    private final IndexValueHistogram.Delta histogramDelta;
     private long updates;
 
     public UpdateCountingIndexUpdater( IndexProxyStrategy indexProxyStrategy, IndexUpdater delegate )
     {
         this.indexProxyStrategy = indexProxyStrategy;
         this.delegate = delegate;
+        this.histogramDelta = indexProxyStrategy.newHistogramDelta();
     }
 
     @Override
@@ -40,12 +44,36 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
     {
         delegate.process( update );
         updates++;
+        if ( histogramDelta != null && update instanceof ValueIndexEntryUpdate )
+        {
+            collectHistogramChanges( (ValueIndexEntryUpdate<?>) update );
+        }
     }
 
     @Override
     public void close() throws IndexEntryConflictException
     {
         delegate.close();
-        indexProxyStrategy.incrementUpdateStatisticsForIndex( updates );
+        indexProxyStrategy.incrementUpdateStatisticsForIndex( updates, histogramDelta );
+    }
+
+    private void collectHistogramChanges( ValueIndexEntryUpdate<?> update )
+    {
+        // Histograms are built over the first property of the index
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            histogramDelta.add( update.values()[0] );
+            break;
+        case CHANGED:
+            histogramDelta.remove( update.beforeValues()[0] );
+            histogramDelta.add( update.values()[0] );
+            break;
+        case REMOVED:
+            histogramDelta.remove( update.values()[0] );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
 
 class ValueIndexProxyStrategy implements IndexProxyStrategy
@@ -50,9 +51,15 @@ class ValueIndexProxyStrategy implements IndexProxyStrategy
     }
 
     @Override
-    public void incrementUpdateStatisticsForIndex( long delta )
+    public IndexValueHistogram.Delta newHistogramDelta()
     {
-        statisticsStore.incrementIndexUpdates( indexDescriptor.getId(), delta );
+        return statisticsStore.newHistogramDelta( indexDescriptor.getId() );
+    }
+
+    @Override
+    public void incrementUpdateStatisticsForIndex( long delta, IndexValueHistogram.Delta histogramDelta )
+    {
+        statisticsStore.incrementIndexUpdates( indexDescriptor.getId(), delta, histogramDelta );
     }
 
     @Override
@@ -24,9 +24,12 @@ import org.eclipse.collections.api.iterator.LongIterator;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.list.primitive.LongList;
 import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableLongDoubleMap;
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.map.mutable.primitive.LongDoubleHashMap;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -35,6 +38,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
@@ -63,6 +67,7 @@ public class IndexSamplingController
 {
     private final IndexSamplingJobFactory jobFactory;
     private final LongPredicate samplingUpdatePredicate;
+    private final LongToDoubleFunction histogramDrift;
     private final IndexSamplingJobTracker jobTracker;
     private final IndexMapSnapshotProvider indexMapSnapshotProvider;
     private final JobScheduler scheduler;
@@ -73,6 +78,8 @@ public class IndexSamplingController
     private final boolean logRecoverIndexSamples;
     private final boolean asyncRecoverIndexSamples;
     private final boolean asyncRecoverIndexSamplesWait;
+    private final double maxHistogramDrift;
+    private final int histogramRefreshLimit;
     private final String databaseName;
 
     private JobHandle backgroundSamplingHandle;
@@ -81,6 +88,7 @@ public class IndexSamplingController
     IndexSamplingController( IndexSamplingConfig samplingConfig,
                              IndexSamplingJobFactory jobFactory,
                              LongPredicate samplingUpdatePredicate,
+                             LongToDoubleFunction histogramDrift,
                              IndexSamplingJobTracker jobTracker,
                              IndexMapSnapshotProvider indexMapSnapshotProvider,
                              JobScheduler scheduler,
@@ -93,6 +101,7 @@ public class IndexSamplingController
         this.jobFactory = jobFactory;
         this.indexMapSnapshotProvider = indexMapSnapshotProvider;
         this.samplingUpdatePredicate = samplingUpdatePredicate;
+        this.histogramDrift = histogramDrift;
         this.jobTracker = jobTracker;
         this.scheduler = scheduler;
         this.indexRecoveryCondition = indexRecoveryCondition;
@@ -100,6 +109,8 @@ public class IndexSamplingController
         this.logRecoverIndexSamples = config.get( GraphDatabaseInternalSettings.log_recover_index_samples );
         this.asyncRecoverIndexSamples = config.get( GraphDatabaseInternalSettings.async_recover_index_samples );
         this.asyncRecoverIndexSamplesWait = config.get( GraphDatabaseInternalSettings.async_recover_index_samples_wait );
+        this.maxHistogramDrift = config.get( GraphDatabaseInternalSettings.index_sampling_histogram_drift );
+        this.histogramRefreshLimit = config.get( GraphDatabaseInternalSettings.index_sampling_histogram_refresh_limit );
         this.databaseName = databaseName;
     }
 
@@ -119,6 +130,37 @@ public class IndexSamplingController
         }
     }
 
+    /**
+     * Samples the indexes whose value histograms drifted the most through index updates since they were sampled, at most
+     * {@link GraphDatabaseInternalSettings#index_sampling_histogram_refresh_limit} of them. Only indexes that aren't due for sampling because
+     * of their number of updates are considered, such that refreshing histograms costs at most that many samplings each round.
+     */
+    public void refreshDriftedHistograms()
+    {
+        if ( histogramRefreshLimit == 0 )
+        {
+            return;
+        }
+        IndexMap indexMap = indexMapSnapshotProvider.indexMapSnapshot();
+        MutableLongDoubleMap drifted = new LongDoubleHashMap();
+        LongIterator allIndexes = indexMap.indexIds();
+        while ( allIndexes.hasNext() )
+        {
+            long indexId = allIndexes.next();
+            double drift = histogramDrift.applyAsDouble( indexId );
+            if ( drift > maxHistogramDrift && !samplingUpdatePredicate.test( indexId ) )
+            {
+                drifted.put( indexId, drift );
+            }
+        }
+        LongList mostDrifted = LongLists.immutable.ofAll( drifted.keySet().toList().primitiveStream()
+                .boxed()
+                .sorted( Comparator.comparingDouble( ( Long indexId ) -> drifted.get( indexId ) ).reversed() )
+                .limit( histogramRefreshLimit )
+                .mapToLong( Long::longValue ) );
+        scheduleAllSampling( mostDrifted, indexMap );
+    }
+
     public void recoverIndexSamples()
     {
         samplingLock.lock();
@@ -266,7 +308,11 @@ public class IndexSamplingController
     {
         if ( backgroundSampling )
         {
-            Runnable samplingRunner = () -> sampleIndexes( backgroundRebuildUpdated() );
+            Runnable samplingRunner = () ->
+            {
+                sampleIndexes( backgroundRebuildUpdated() );
+                refreshDriftedHistograms();
+            };
             var monitoringParams = JobMonitoringParams.systemJob( databaseName, "Background rebuilding of updated indexes" );
             backgroundSamplingHandle = scheduler.scheduleRecurring( Group.INDEX_SAMPLING, monitoringParams, samplingRunner, 10, SECONDS );
         }
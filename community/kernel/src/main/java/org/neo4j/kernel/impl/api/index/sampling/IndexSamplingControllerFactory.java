@@ -20,12 +20,14 @@
 package org.neo4j.kernel.impl.api.index.sampling;
 
 import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
 
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.api.index.IndexMapSnapshotProvider;
 import org.neo4j.kernel.impl.api.index.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.stats.IndexStatisticsStore;
@@ -62,9 +64,10 @@ public class IndexSamplingControllerFactory
     {
         OnlineIndexSamplingJobFactory jobFactory = new OnlineIndexSamplingJobFactory( indexStatisticsStore, tokenNameLookup, logProvider, cacheTracer );
         LongPredicate samplingUpdatePredicate = createSamplingPredicate();
+        LongToDoubleFunction histogramDrift = indexId -> indexStatisticsStore.indexSample( indexId ).histogram().map( IndexValueHistogram::drift ).orElse( 1.0 );
         IndexSamplingJobTracker jobTracker = new IndexSamplingJobTracker( scheduler, databaseName );
         RecoveryCondition indexRecoveryCondition = createIndexRecoveryCondition( logProvider, tokenNameLookup );
-        return new IndexSamplingController( samplingConfig, jobFactory, samplingUpdatePredicate, jobTracker, snapshotProvider, scheduler,
+        return new IndexSamplingController( samplingConfig, jobFactory, samplingUpdatePredicate, histogramDrift, jobTracker, snapshotProvider, scheduler,
                 indexRecoveryCondition, logProvider, config, databaseName );
     }
 
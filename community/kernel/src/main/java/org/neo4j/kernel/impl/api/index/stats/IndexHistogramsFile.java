@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.stats;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.kernel.impl.index.schema.IndexValueSerializer;
+import org.neo4j.values.storable.Value;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The {@link IndexValueHistogram histograms} of the {@link IndexStatisticsStore}, kept in a file next to the store and written on every
+ * checkpoint, just like the rest of the statistics. The histograms are not part of the statistics store itself, so that the format of
+ * the store is unchanged and versions that don't know about histograms can still read it.
+ * <p>
+ * Format:
+ * <pre>
+ * int format version
+ * int number of histograms
+ * for each histogram:
+ *   long index id
+ *   value lowest
+ *   int number of buckets, for each: value upper bound, long count, long distinct count
+ *   int number of most common values, for each: value, long count
+ * long CRC32 checksum of everything above
+ * </pre>
+ * Values are written as an int length followed by the value as {@link IndexValueSerializer serialized} by the index.
+ * A file that can't be read, because it's of an unknown version or only partly written, is ignored, and the histograms come back
+ * with the next sampling of the indexes.
+ */
+final class IndexHistogramsFile
+{
+    static final String SUFFIX = ".histograms";
+    private static final int FORMAT_VERSION = 1;
+
+    private IndexHistogramsFile()
+    {
+    }
+
+    static Path histogramsFile( Path statisticsStore )
+    {
+        return statisticsStore.resolveSibling( statisticsStore.getFileName() + SUFFIX );
+    }
+
+    static Map<Long,IndexValueHistogram> read( FileSystemAbstraction fs, Path file )
+    {
+        if ( !fs.fileExists( file ) )
+        {
+            return Map.of();
+        }
+        try ( StoreChannel channel = fs.read( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( Math.toIntExact( channel.size() ) );
+            channel.readAll( buffer );
+            buffer.flip();
+            return parse( buffer );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return Map.of();
+        }
+    }
+
+    static void write( FileSystemAbstraction fs, Path file, Map<Long,IndexValueHistogram> histograms ) throws IOException
+    {
+        if ( histograms.isEmpty() && !fs.fileExists( file ) )
+        {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeInt( FORMAT_VERSION );
+        out.writeInt( histograms.size() );
+        for ( Map.Entry<Long,IndexValueHistogram> entry : histograms.entrySet() )
+        {
+            IndexValueHistogram histogram = entry.getValue();
+            out.writeLong( entry.getKey() );
+            writeValue( out, histogram.lowest() );
+            out.writeInt( histogram.numberOfBuckets() );
+            for ( int i = 0; i < histogram.numberOfBuckets(); i++ )
+            {
+                writeValue( out, histogram.upperBound( i ) );
+                out.writeLong( histogram.count( i ) );
+                out.writeLong( histogram.distinctCount( i ) );
+            }
+            Value[] mostCommonValues = histogram.mostCommonValues();
+            long[] mostCommonCounts = histogram.mostCommonCounts();
+            out.writeInt( mostCommonValues.length );
+            for ( int i = 0; i < mostCommonValues.length; i++ )
+            {
+                writeValue( out, mostCommonValues[i] );
+                out.writeLong( mostCommonCounts[i] );
+            }
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update( bytes.toByteArray() );
+        out.writeLong( checksum.getValue() );
+        out.flush();
+
+        try ( StoreChannel channel = fs.open( file, Set.of( CREATE, WRITE, TRUNCATE_EXISTING ) ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( bytes.toByteArray() ) );
+            channel.force( false );
+        }
+    }
+
+    private static Map<Long,IndexValueHistogram> parse( ByteBuffer buffer ) throws IOException
+    {
+        if ( buffer.remaining() < Long.BYTES )
+        {
+            return Map.of();
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update( buffer.array(), 0, buffer.limit() - Long.BYTES );
+        if ( checksum.getValue() != buffer.getLong( buffer.limit() - Long.BYTES ) || buffer.getInt() != FORMAT_VERSION )
+        {
+            return Map.of();
+        }
+
+        int numberOfHistograms = buffer.getInt();
+        Map<Long,IndexValueHistogram> histograms = new HashMap<>();
+        for ( int h = 0; h < numberOfHistograms; h++ )
+        {
+            long indexId = buffer.getLong();
+            Value lowest = readValue( buffer );
+            int numberOfBuckets = buffer.getInt();
+            Value[] upperBounds = new Value[numberOfBuckets];
+            long[] counts = new long[numberOfBuckets];
+            long[] distinctCounts = new long[numberOfBuckets];
+            for ( int i = 0; i < numberOfBuckets; i++ )
+            {
+                upperBounds[i] = readValue( buffer );
+                counts[i] = buffer.getLong();
+                distinctCounts[i] = buffer.getLong();
+            }
+            int numberOfMostCommonValues = buffer.getInt();
+            Value[] mostCommonValues = new Value[numberOfMostCommonValues];
+            long[] mostCommonCounts = new long[numberOfMostCommonValues];
+            for ( int i = 0; i < numberOfMostCommonValues; i++ )
+            {
+                mostCommonValues[i] = readValue( buffer );
+                mostCommonCounts[i] = buffer.getLong();
+            }
+            histograms.put( indexId, IndexValueHistogram.of( lowest, upperBounds, counts, distinctCounts, mostCommonValues, mostCommonCounts ) );
+        }
+        return histograms;
+    }
+
+    private static void writeValue( DataOutputStream out, Value value ) throws IOException
+    {
+        byte[] bytes = IndexValueSerializer.serialize( value );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static Value readValue( ByteBuffer buffer ) throws IOException
+    {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get( bytes );
+        return IndexValueSerializer.deserialize( bytes );
+    }
+}
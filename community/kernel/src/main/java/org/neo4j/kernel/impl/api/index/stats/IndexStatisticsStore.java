@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,11 +37,13 @@ import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
 import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -49,13 +52,14 @@ import static org.eclipse.collections.api.factory.Sets.immutable;
 /**
  * A simple store for keeping index statistics counts, like number of updates, index size, number of unique values a.s.o.
  * These values aren't updated transactionally and so the data is just kept in memory and flushed to a {@link GBPTree} on every checkpoint.
+ * {@link IndexValueHistogram Histograms} of the index values are flushed to a {@link IndexHistogramsFile separate file} at the same time.
  * Neither reads, writes nor checkpoints block each other.
  *
  * The store is accessible after {@link #init()} has been called.
  */
 public class IndexStatisticsStore extends LifecycleAdapter implements IndexStatisticsVisitor.Visitable, ConsistencyCheckable
 {
-    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0 );
+    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0, null );
 
     // Used in GBPTree.seek. Please don't use for writes
     private static final IndexStatisticsKey LOWEST_KEY = new IndexStatisticsKey( Long.MIN_VALUE );
@@ -63,7 +67,9 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     private static final String INIT_TAG = "Initialize IndexStatisticsStore";
 
     private final PageCache pageCache;
+    private final FileSystemAbstraction fileSystem;
     private final Path path;
+    private final Path histogramsFile;
     private final RecoveryCleanupWorkCollector recoveryCleanupWorkCollector;
     private final String databaseName;
     private final PageCacheTracer pageCacheTracer;
@@ -74,11 +80,13 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     // It's assumed that the data in this map will be so small that everything can just be in it always.
     private final ConcurrentHashMap<Long,ImmutableIndexStatistics> cache = new ConcurrentHashMap<>();
 
-    public IndexStatisticsStore( PageCache pageCache, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+    public IndexStatisticsStore( PageCache pageCache, FileSystemAbstraction fileSystem, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
             DatabaseReadOnlyChecker readOnlyChecker, String databaseName, PageCacheTracer pageCacheTracer )
     {
         this.pageCache = pageCache;
+        this.fileSystem = fileSystem;
         this.path = path;
+        this.histogramsFile = IndexHistogramsFile.histogramsFile( path );
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
         this.databaseName = databaseName;
         this.pageCacheTracer = pageCacheTracer;
@@ -86,10 +94,10 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         this.readOnlyChecker = readOnlyChecker;
     }
 
-    public IndexStatisticsStore( PageCache pageCache, DatabaseLayout databaseLayout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
-            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer )
+    public IndexStatisticsStore( PageCache pageCache, FileSystemAbstraction fileSystem, DatabaseLayout databaseLayout,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer )
     {
-        this( pageCache, databaseLayout.indexStatisticsStore(), recoveryCleanupWorkCollector, readOnlyChecker, databaseLayout.getDatabaseName(),
+        this( pageCache, fileSystem, databaseLayout.indexStatisticsStore(), recoveryCleanupWorkCollector, readOnlyChecker, databaseLayout.getDatabaseName(),
                 pageCacheTracer );
     }
 
@@ -110,17 +118,20 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         {
             scanTree( ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorContext );
         }
+        IndexHistogramsFile.read( fileSystem, histogramsFile ).forEach(
+                ( indexId, histogram ) -> cache.computeIfPresent( indexId, ( id, existing ) -> existing.withHistogram( histogram ) ) );
     }
 
     public IndexSample indexSample( long indexId )
     {
         ImmutableIndexStatistics value = cache.getOrDefault( indexId, EMPTY_STATISTICS );
-        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount );
+        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount, value.histogram );
     }
 
     public void replaceStats( long indexId, IndexSample sample )
     {
-        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize() ) );
+        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize(),
+                sample.histogram().orElse( null ) ) );
     }
 
     public void removeIndex( long indexId )
@@ -129,9 +140,28 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     }
 
     public void incrementIndexUpdates( long indexId, long delta )
+    {
+        incrementIndexUpdates( indexId, delta, null );
+    }
+
+    /**
+     * @param histogramDelta changes to the histogram of the index caused by the updates, or {@code null} if there are none.
+     */
+    public void incrementIndexUpdates( long indexId, long delta, IndexValueHistogram.Delta histogramDelta )
     {
         cache.computeIfPresent( indexId, ( id, existing ) ->
-                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize ) );
+                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize,
+                        existing.histogram != null && histogramDelta != null ? existing.histogram.withChanges( histogramDelta ) : existing.histogram ) );
+    }
+
+    /**
+     * @return a new set of changes to the current histogram of the given index, to collect the changes of index updates in,
+     * or {@code null} if the index has no histogram.
+     */
+    public IndexValueHistogram.Delta newHistogramDelta( long indexId )
+    {
+        ImmutableIndexStatistics existing = cache.get( indexId );
+        return existing != null && existing.histogram != null ? existing.histogram.newDelta() : null;
     }
 
     @Override
@@ -153,6 +183,7 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         // There's an assumption that there will never be concurrent calls to checkpoint. This is guarded outside.
         clearTree( cursorContext );
         writeCacheContentsIntoTree( cursorContext );
+        writeHistograms();
         tree.checkpoint( cursorContext );
     }
 
@@ -217,6 +248,19 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         }
     }
 
+    private void writeHistograms() throws IOException
+    {
+        Map<Long,IndexValueHistogram> histograms = new HashMap<>();
+        cache.forEach( ( indexId, stats ) ->
+        {
+            if ( stats.histogram != null )
+            {
+                histograms.put( indexId, stats.histogram );
+            }
+        } );
+        IndexHistogramsFile.write( fileSystem, histogramsFile, histograms );
+    }
+
     public Path storeFile()
     {
         return path;
@@ -237,18 +281,25 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         private final long sampleSize;
         private final long updatesCount;
         private final long indexSize;
+        private final IndexValueHistogram histogram;
 
-        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize )
+        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize, IndexValueHistogram histogram )
         {
             this.sampleUniqueValues = sampleUniqueValues;
             this.sampleSize = sampleSize;
             this.updatesCount = updatesCount;
             this.indexSize = indexSize;
+            this.histogram = histogram;
         }
 
         ImmutableIndexStatistics( IndexStatisticsValue value )
         {
-            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize() );
+            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize(), null );
+        }
+
+        ImmutableIndexStatistics withHistogram( IndexValueHistogram histogram )
+        {
+            return new ImmutableIndexStatistics( sampleUniqueValues, sampleSize, updatesCount, indexSize, histogram );
         }
     }
 }
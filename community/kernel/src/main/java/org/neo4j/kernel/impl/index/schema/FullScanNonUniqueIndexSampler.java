@@ -21,12 +21,15 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.function.Supplier;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #sample(CursorContext)}.
@@ -36,13 +39,26 @@ import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
 class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
         extends NonUniqueIndexSampler.Adapter
 {
+    static final int HISTOGRAM_BUCKETS = 200;
+    static final int HISTOGRAM_MOST_COMMON_VALUES = 20;
+
     private final GBPTree<KEY,NullValue> gbpTree;
     private final IndexLayout<KEY> layout;
+    private final boolean buildHistogram;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,NullValue> gbpTree, IndexLayout<KEY> layout )
+    {
+        this( gbpTree, layout, false );
+    }
+
+    /**
+     * @param buildHistogram whether or not to also build a {@link IndexValueHistogram} of the values, of the first property for composite indexes.
+     */
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,NullValue> gbpTree, IndexLayout<KEY> layout, boolean buildHistogram )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
+        this.buildHistogram = buildHistogram;
     }
 
     @Override
@@ -55,6 +71,8 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        Supplier<Value> prevValue = () -> prev.asValues()[0];
+        IndexValueHistogram.Builder histogram = buildHistogram ? new IndexValueHistogram.Builder( HISTOGRAM_BUCKETS, HISTOGRAM_MOST_COMMON_VALUES ) : null;
         try ( Seeker<KEY,NullValue> seek = gbpTree.seek( lowest, highest, cursorContext ) )
         {
             long sampledValues = 0;
@@ -63,23 +81,36 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
             // Get the first one so that prev gets initialized
             if ( seek.next() )
             {
-                prev = layout.copyKey( seek.key(), prev );
+                layout.copyKey( seek.key(), prev );
                 sampledValues++;
                 uniqueValues++;
+                // Entries with the same value of the first property, the only one that the histogram is built over
+                long duplicates = 1;
 
                 // Then do the rest
                 while ( seek.next() )
                 {
-                    if ( layout.compareValue( prev, seek.key() ) != 0 )
+                    KEY key = seek.key();
+                    if ( layout.compareValue( prev, key ) != 0 )
                     {
+                        if ( histogram != null && prev.compareFirstValueTo( key ) != 0 )
+                        {
+                            histogram.add( duplicates, prevValue );
+                            duplicates = 0;
+                        }
                         uniqueValues++;
-                        layout.copyKey( seek.key(), prev );
+                        layout.copyKey( key, prev );
                     }
                     // else this is a duplicate of the previous one
+                    duplicates++;
                     sampledValues++;
                 }
+                if ( histogram != null )
+                {
+                    histogram.add( duplicates, prevValue );
+                }
             }
-            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+            return new IndexSample( sampledValues, uniqueValues, sampledValues, 0, histogram != null ? histogram.build( prevValue ) : null );
         }
         catch ( IOException e )
         {
@@ -237,6 +237,12 @@ public abstract class GenericKey<KEY extends GenericKey<KEY>> extends NativeInde
         return compareValueToInternal( other );
     }
 
+    @Override
+    int compareFirstValueTo( KEY other )
+    {
+        return stateSlot( 0 ).compareValueToInternal( other.stateSlot( 0 ) );
+    }
+
     int compareValueToInternal( KEY other )
     {
         if ( type != other.type )
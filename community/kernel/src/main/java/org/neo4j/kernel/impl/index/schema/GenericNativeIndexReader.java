@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
@@ -63,7 +66,9 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
     void validateQuery( IndexQueryConstraints constraints, PropertyIndexQuery[] predicates )
     {
         QueryValidator.validateOrder( GenericNativeIndexProvider.CAPABILITY, constraints.order(), predicates );
-        QueryValidator.validateCompositeQuery( predicates );
+        // Leading exists predicates followed by a more precise predicate are answered by a skip scan
+        int skipScanPrefixLength = PropertyIndexQuery.skipScanPrefixLength( predicates );
+        QueryValidator.validateCompositeQuery( Arrays.copyOfRange( predicates, skipScanPrefixLength, predicates.length ) );
     }
 
     @Override
@@ -93,7 +98,8 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
                     BtreeKey treeKeyFrom = layout.newKey();
                     BtreeKey treeKeyTo = layout.newKey();
                     initializeFromToKeys( treeKeyFrom, treeKeyTo );
-                    boolean needFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range );
+                    boolean needFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range ) ||
+                                            PropertyIndexQuery.skipScanPrefixLength( query ) > 0;
                     startSeekForInitializedRange( multiProgressor, treeKeyFrom, treeKeyTo, context.cursorContext(), accessMode,
                                                   needFiltering, constraints, query );
                 }
@@ -104,12 +110,39 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
                 client.initialize( descriptor, IndexProgressor.EMPTY, accessMode, false, constraints, query );
             }
         }
+        else if ( PropertyIndexQuery.skipScanPrefixLength( query ) > 0 )
+        {
+            skipScan( client, context, accessMode, constraints, query );
+        }
         else
         {
             super.query( client, context, accessMode, constraints, query );
         }
     }
 
+    private void skipScan( IndexProgressor.EntityValueClient client, QueryContext context, AccessMode accessMode,
+                           IndexQueryConstraints constraints, PropertyIndexQuery[] query )
+    {
+        context.monitor().queried( descriptor );
+        validateQuery( constraints, query );
+
+        BtreeKey treeKeyFrom = layout.newKey();
+        BtreeKey treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+        // Trailing suffix, contains or geometry array predicates only narrow the seek within each prefix down to their value group
+        boolean needsFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, null, null );
+        try
+        {
+            IndexProgressor progressor = new SkipScanIndexProgressor<>( tree, layout, client, PropertyIndexQuery.skipScanPrefixLength( query ),
+                    treeKeyFrom, treeKeyTo, needsFiltering ? query : null, constraints.order(), context.cursorContext() );
+            client.initialize( descriptor, progressor, accessMode, false, constraints, query );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     /**
      * Initializes {@code treeKeyFrom} and {@code treeKeyTo} from the {@link PropertyIndexQuery query}.
      * Geometry range queries makes an otherwise straight-forward key construction complex in that a geometry range internally is performed
@@ -212,7 +245,8 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
     @Override
     boolean initializeRangeForQuery( BtreeKey treeKeyFrom, BtreeKey treeKeyTo, PropertyIndexQuery[] query )
     {
-        return initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, null, null );
+        // A skip scan seeks within every distinct prefix, a plain seek over the same range must filter out the entries in between
+        return initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, null, null ) || PropertyIndexQuery.skipScanPrefixLength( query ) > 0;
     }
 
     private static void initFromForRange( int stateSlot, RangePredicate<?> rangePredicate, BtreeKey treeKeyFrom )
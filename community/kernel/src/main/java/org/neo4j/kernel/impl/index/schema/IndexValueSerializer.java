@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
+/**
+ * Serializes single values in the format of {@link RangeKey range index keys}, for keeping values that were read from an index
+ * outside of it, like the bounds of an {@link org.neo4j.kernel.api.index.IndexValueHistogram}.
+ */
+public final class IndexValueSerializer
+{
+    private IndexValueSerializer()
+    {
+    }
+
+    public static byte[] serialize( Value value )
+    {
+        RangeKey key = new RangeKey();
+        key.initialize( 0 );
+        key.writeValue( value, NEUTRAL );
+        byte[] bytes = new byte[key.size()];
+        key.put( ByteArrayPageCursor.wrap( bytes ) );
+        return bytes;
+    }
+
+    public static Value deserialize( byte[] bytes ) throws IOException
+    {
+        RangeKey key = new RangeKey();
+        PageCursor cursor = ByteArrayPageCursor.wrap( bytes );
+        key.get( cursor, bytes.length );
+        cursor.checkAndClearCursorException();
+        return key.asValue();
+    }
+}
@@ -76,7 +76,9 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>> implements Consisten
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
         Path storeFile = indexFiles.getStoreFile();
-        tree = new GBPTree<>( pageCache, storeFile, layout, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector, readOnlyChecker,
+        // Indexes backing constraints are needed to accept writes, so clean them up first
+        RecoveryCleanupWorkCollector cleanupWorkCollector = descriptor.isUnique() ? recoveryCleanupWorkCollector.prioritized() : recoveryCleanupWorkCollector;
+        tree = new GBPTree<>( pageCache, storeFile, layout, monitor, NO_HEADER_READER, headerWriter, cleanupWorkCollector, readOnlyChecker,
                 pageCacheTracer, immutable.empty(), databaseName, descriptor.getName() );
         afterTreeInstantiation( tree );
     }
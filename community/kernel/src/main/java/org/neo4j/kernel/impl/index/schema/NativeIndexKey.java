@@ -124,4 +124,16 @@ abstract class NativeIndexKey<SELF extends NativeIndexKey<SELF>> extends Tempora
      * @return comparison against the {@code other} key.
      */
     abstract int compareValueTo( SELF other );
+
+    /**
+     * Compares the value of the first property of this key to that of another key.
+     * For keys of a single property this is the same as {@link #compareValueTo(NativeIndexKey)}.
+     *
+     * @param other the key to compare to.
+     * @return comparison of the first property against that of the {@code other} key.
+     */
+    int compareFirstValueTo( SELF other )
+    {
+        return compareValueTo( other );
+    }
 }
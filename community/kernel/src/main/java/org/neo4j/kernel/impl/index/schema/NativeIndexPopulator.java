@@ -219,7 +219,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>>
 
     IndexSample buildNonUniqueIndexSample( CursorContext cursorContext )
     {
-        return new FullScanNonUniqueIndexSampler<>( tree, layout ).sample( cursorContext );
+        return new FullScanNonUniqueIndexSampler<>( tree, layout, true ).sample( cursorContext );
     }
 
     private void markTreeAsFailed( CursorContext cursorContext )
@@ -72,7 +72,7 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
         // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
         // be none in a unique index).
 
-        FullScanNonUniqueIndexSampler<KEY> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
+        FullScanNonUniqueIndexSampler<KEY> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout, true );
         return tracer ->
         {
             try
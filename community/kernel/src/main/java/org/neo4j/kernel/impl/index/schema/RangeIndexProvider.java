@@ -59,6 +59,7 @@ import static org.neo4j.internal.schema.IndexCapability.NO_CAPABILITY;
  * This index provider have some additional capabilities. It can combine the slot predicates under the following rules:
  * a. Exact can only follow another Exact or be in first slot.
  * b. Range can only follow Exact or be in first slot.
+ * c. Except that Exact or Range can also follow Exists, if all slots before it are Exists (skip scan).
  *
  * We use the following notation for the predicates:
  * x: Exact predicate
@@ -80,8 +81,8 @@ import static org.neo4j.internal.schema.IndexCapability.NO_CAPABILITY;
  *  8: a  .  .  .  .
  *  9: >  x  -  -  - (not allowed!)
  * 10: >  >  -  -  - (not allowed!)
- * 11: -  x  -  -  - (not allowed!)
- * 12: -  >  -  -  - (not allowed!)
+ * 11: -  x  -  -  - (skip scan)
+ * 12: -  >  -  -  - (skip scan)
  * 13: ?  a  ?  ?  ? (not allowed!)
  *
  *  1: Exact match on all slots. Supported by all index providers.
@@ -94,19 +95,21 @@ import static org.neo4j.internal.schema.IndexCapability.NO_CAPABILITY;
  *  8: AllEntries predicate being the only predicate.
  *  9: Not allowed because Exact can only follow another Exact.
  * 10: Not allowed because Range can only follow Exact.
- * 11: Not allowed because Exact can only follow another Exact.
- * 12: Not allowed because Range can only follow Exact.
+ * 11: Exists on first column(s) followed by Exact. Answered by seeking the Exact for every distinct value of the leading column(s).
+ * 12: Exists on first column(s) followed by Range. Answered by seeking the Range for every distinct value of the leading column(s).
  * 13: Not allowed because AllEntries can only be used alone.
  *
  * WHY?
  * In short, we only allow "restrictive" predicates (Exact or Range) if they help us restrict the scan range.
- * Let's take query 12 as example
+ * Let's take query 10 as example
  * p1 p2 p3 p4 p5
- * -  >  -  -  -
+ * >  >  -  -  -
  * Index is sorted first by p1, then p2, etc.
- * Because we have a complete scan on p1 the Range predicate on p2 can not restrict the range of the index we need to scan.
+ * Because we have a Range on p1 the Range predicate on p2 can not restrict the range of the index we need to scan.
  * We COULD allow this query and do filter during scan instead and take the extra cost into account when planning queries.
  * As of writing this, there is no such filtering implementation.
+ * Queries 11 and 12 are the exception. With a complete scan on p1 the predicate on p2 can instead be sought once for every distinct value of p1,
+ * see {@link SkipScanIndexProgressor}.
  */
 public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout>
 {
@@ -265,5 +268,11 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
             }
             return true;
         }
+
+        @Override
+        public boolean supportsSkipScan()
+        {
+            return true;
+        }
     }
 }
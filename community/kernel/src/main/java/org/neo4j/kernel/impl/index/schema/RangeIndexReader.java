@@ -19,13 +19,18 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
+import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
@@ -43,12 +48,44 @@ public class RangeIndexReader extends NativeIndexReader<RangeKey>
         super( tree, layout, descriptor );
     }
 
+    @Override
+    public void query( IndexProgressor.EntityValueClient client, QueryContext context, AccessMode accessMode,
+                       IndexQueryConstraints constraints, PropertyIndexQuery... predicates )
+    {
+        int skipScanPrefixLength = PropertyIndexQuery.skipScanPrefixLength( predicates );
+        if ( skipScanPrefixLength == 0 )
+        {
+            super.query( client, context, accessMode, constraints, predicates );
+            return;
+        }
+
+        context.monitor().queried( descriptor );
+        validateQuery( constraints, predicates );
+
+        RangeKey treeKeyFrom = layout.newKey();
+        RangeKey treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+        initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        try
+        {
+            IndexProgressor progressor = new SkipScanIndexProgressor<>( tree, layout, client, skipScanPrefixLength, treeKeyFrom, treeKeyTo, null,
+                    constraints.order(), context.cursorContext() );
+            client.initialize( descriptor, progressor, accessMode, false, constraints, predicates );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     @Override
     void validateQuery( IndexQueryConstraints constraints, PropertyIndexQuery[] predicates )
     {
         validateNoUnsupportedPredicates( predicates );
         QueryValidator.validateOrder( RangeIndexProvider.CAPABILITY, constraints.order(), predicates );
-        QueryValidator.validateCompositeQuery( predicates );
+        // Leading exists predicates followed by a more precise predicate are answered by a skip scan
+        int skipScanPrefixLength = PropertyIndexQuery.skipScanPrefixLength( predicates );
+        QueryValidator.validateCompositeQuery( Arrays.copyOfRange( predicates, skipScanPrefixLength, predicates.length ) );
     }
 
     @Override
@@ -90,7 +127,8 @@ public class RangeIndexReader extends NativeIndexReader<RangeKey>
                 throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
             }
         }
-        return false;
+        // A skip scan seeks within every distinct prefix, a plain seek over the same range must filter out the entries in between
+        return PropertyIndexQuery.skipScanPrefixLength( predicates ) > 0;
     }
 
     // all slots are required to be initialized such that the keys can be copied when scanning in parallel
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
+
+/**
+ * Answers a composite query where the first {@code prefixLength} slots only have exists predicates, by jumping between the
+ * distinct values of those leading slots and seeking the range of the trailing slots within each of them.
+ * <p>
+ * Two {@link Seeker seekers} are used and re-initialized for every distinct prefix. The probe seeker finds the next distinct prefix,
+ * by seeking from just past all entries of the previous prefix, and the other seeker reads the entries matching the query within that prefix.
+ * This visits at most one extra entry per distinct prefix compared to a seek on the exact prefix, instead of every entry in the index.
+ */
+class SkipScanIndexProgressor<KEY extends GenericKey<KEY>> implements IndexProgressor
+{
+    private final Seeker.Factory<KEY,NullValue> tree;
+    private final IndexLayout<KEY> layout;
+    private final EntityValueClient client;
+    private final int prefixLength;
+    private final boolean descending;
+    private final KEY lowest;
+    private final KEY highest;
+    private final PropertyIndexQuery[] filter;
+    private final KEY probeFrom;
+    private final KEY seekLow;
+    private final KEY seekHigh;
+    private final Seeker<KEY,NullValue> probe;
+    private final Seeker<KEY,NullValue> seeker;
+    private boolean seeking;
+    private boolean closed;
+
+    /**
+     * @param lowest low bound of the whole query, with the prefix slots initialized as lowest.
+     * @param highest high bound of the whole query, with the prefix slots initialized as highest.
+     * @param filter predicates that entries within the bounds must also be accepted by, or {@code null} if the bounds are exact.
+     */
+    SkipScanIndexProgressor( Seeker.Factory<KEY,NullValue> tree, IndexLayout<KEY> layout, EntityValueClient client, int prefixLength,
+            KEY lowest, KEY highest, PropertyIndexQuery[] filter, IndexOrder indexOrder, CursorContext cursorContext ) throws IOException
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.client = client;
+        this.prefixLength = prefixLength;
+        this.descending = indexOrder == IndexOrder.DESCENDING;
+        this.lowest = lowest;
+        this.highest = highest;
+        this.filter = filter;
+        this.probeFrom = layout.copyKey( descending ? highest : lowest, layout.newKey() );
+        this.seekLow = layout.copyKey( lowest, layout.newKey() );
+        this.seekHigh = layout.copyKey( highest, layout.newKey() );
+        this.probe = tree.allocateSeeker( cursorContext );
+        this.seeker = tree.allocateSeeker( cursorContext );
+    }
+
+    @Override
+    public boolean next()
+    {
+        try
+        {
+            while ( true )
+            {
+                if ( !seeking )
+                {
+                    if ( !seekNextPrefix() )
+                    {
+                        close();
+                        return false;
+                    }
+                    seeking = true;
+                }
+                while ( seeker.next() )
+                {
+                    KEY key = seeker.key();
+                    // We need to make sure to always deserialize, even if the client doesn't need the value, to be able to filter
+                    Value[] values = filter != null || client.needsValues() ? key.asValues() : null;
+                    if ( acceptValue( values ) && client.acceptEntity( key.getEntityId(), Float.NaN, client.needsValues() ? values : null ) )
+                    {
+                        return true;
+                    }
+                }
+                seeking = false;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private boolean acceptValue( Value[] values )
+    {
+        if ( filter != null )
+        {
+            for ( int i = 0; i < values.length; i++ )
+            {
+                if ( !filter[i].acceptsValue( values[i] ) )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean seekNextPrefix() throws IOException
+    {
+        tree.seek( probe, probeFrom, descending ? lowest : highest );
+        if ( !probe.next() )
+        {
+            return false;
+        }
+
+        KEY key = probe.key();
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            seekLow.stateSlot( i ).copyFromInternal( key.stateSlot( i ) );
+            seekHigh.stateSlot( i ).copyFromInternal( key.stateSlot( i ) );
+            probeFrom.stateSlot( i ).copyFromInternal( key.stateSlot( i ) );
+        }
+        if ( layout.compare( seekLow, seekHigh ) > 0 )
+        {
+            // The range of the trailing slots is the same for every prefix, so if it's empty for this one it's empty for all of them
+            return false;
+        }
+
+        // The next probe starts right after, or before if descending, all entries of this prefix
+        for ( int i = prefixLength; i < probeFrom.numberOfStateSlots(); i++ )
+        {
+            if ( descending )
+            {
+                probeFrom.initValueAsLowest( i, ValueGroup.UNKNOWN );
+            }
+            else
+            {
+                probeFrom.initValueAsHighest( i, ValueGroup.UNKNOWN );
+            }
+        }
+        probeFrom.initialize( descending ? Long.MIN_VALUE : Long.MAX_VALUE );
+
+        if ( descending )
+        {
+            tree.seek( seeker, seekHigh, seekLow );
+        }
+        else
+        {
+            tree.seek( seeker, seekLow, seekHigh );
+        }
+        return true;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            closeAllUnchecked( probe, seeker );
+        }
+    }
+}
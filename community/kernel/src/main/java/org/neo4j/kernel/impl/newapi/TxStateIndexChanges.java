@@ -84,7 +84,7 @@ class TxStateIndexChanges
             throw new IllegalStateException(
                     "Suffix and contains queries on multiple property queries should have been rewritten as existence and filter before now" );
         }
-        return indexUpdatesForScanAndFilter( txState, descriptor, query, indexOrder );
+        return indexUpdatesForScanAndFilter( txState, descriptor, new PropertyIndexQuery[]{query}, indexOrder );
     }
 
     static AddedWithValuesAndRemoved indexUpdatesWithValuesForSuffixOrContains( ReadableTransactionState txState,
@@ -97,6 +97,24 @@ class TxStateIndexChanges
             throw new IllegalStateException(
                     "Suffix and contains queries on multiple property queries should have been rewritten as existence and filter before now" );
         }
+        return indexUpdatesWithValuesScanAndFilter( txState, descriptor, new PropertyIndexQuery[]{query}, indexOrder );
+    }
+
+    // SKIP SCAN
+
+    static AddedAndRemoved indexUpdatesForSkipScan( ReadableTransactionState txState,
+                                                    IndexDescriptor descriptor,
+                                                    PropertyIndexQuery[] query,
+                                                    IndexOrder indexOrder )
+    {
+        return indexUpdatesForScanAndFilter( txState, descriptor, query, indexOrder );
+    }
+
+    static AddedWithValuesAndRemoved indexUpdatesWithValuesForSkipScan( ReadableTransactionState txState,
+                                                                        IndexDescriptor descriptor,
+                                                                        PropertyIndexQuery[] query,
+                                                                        IndexOrder indexOrder )
+    {
         return indexUpdatesWithValuesScanAndFilter( txState, descriptor, query, indexOrder );
     }
 
@@ -302,7 +320,7 @@ class TxStateIndexChanges
 
     private static AddedAndRemoved indexUpdatesForScanAndFilter( ReadableTransactionState txState,
                                                                  IndexDescriptor descriptor,
-                                                                 PropertyIndexQuery filter,
+                                                                 PropertyIndexQuery[] filter,
                                                                  IndexOrder indexOrder )
     {
         Map<ValueTuple,? extends LongDiffSets> updates = getUpdates( txState, descriptor, indexOrder );
@@ -319,7 +337,7 @@ class TxStateIndexChanges
         {
             Value[] values = entry.getKey().getValues();
             if ( descriptor.getCapability().areValuesAccepted( values )
-                 && (filter == null || filter.acceptsValue( values[0] )) )
+                 && (filter == null || acceptsValues( filter, values )) )
             {
                 LongDiffSets diffSet = entry.getValue();
                 added.addAll( diffSet.getAdded() );
@@ -331,7 +349,7 @@ class TxStateIndexChanges
 
     private static AddedWithValuesAndRemoved indexUpdatesWithValuesScanAndFilter( ReadableTransactionState txState,
                                                                                   IndexDescriptor descriptor,
-                                                                                  PropertyIndexQuery filter,
+                                                                                  PropertyIndexQuery[] filter,
                                                                                   IndexOrder indexOrder )
     {
         Map<ValueTuple,? extends LongDiffSets> updates = getUpdates( txState, descriptor, indexOrder );
@@ -348,7 +366,7 @@ class TxStateIndexChanges
         {
             Value[] values = entry.getKey().getValues();
             if ( descriptor.getCapability().areValuesAccepted( values )
-                 && (filter == null || filter.acceptsValue( values[0] )) )
+                 && (filter == null || acceptsValues( filter, values )) )
             {
                 LongDiffSets diffSet = entry.getValue();
                 diffSet.getAdded().each( nodeId -> added.add( new EntityWithPropertyValues( nodeId, values ) ) );
@@ -358,6 +376,18 @@ class TxStateIndexChanges
         return new AddedWithValuesAndRemoved( indexOrder == IndexOrder.DESCENDING ? added.asReversed() : added, removed );
     }
 
+    private static boolean acceptsValues( PropertyIndexQuery[] filter, Value[] values )
+    {
+        for ( int i = 0; i < filter.length; i++ )
+        {
+            if ( !filter[i].acceptsValue( values[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static Map<ValueTuple,? extends LongDiffSets> getUpdates( ReadableTransactionState txState,
                                                                       IndexDescriptor descriptor,
                                                                       IndexOrder indexOrder )
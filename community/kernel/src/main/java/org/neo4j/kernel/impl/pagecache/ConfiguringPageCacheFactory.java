@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.neo4j.configuration.Config;
@@ -29,6 +30,8 @@ import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.PageChecksums;
+import org.neo4j.io.pagecache.impl.PageScrubber;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -36,9 +39,14 @@ import org.neo4j.logging.Log;
 import org.neo4j.memory.MachineMemory;
 import org.neo4j.memory.MemoryPools;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobMonitoringParams;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_checksums;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_checksums_max_heap_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_scrub_pages_per_second;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.reserved_page_header_bytes;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
@@ -58,6 +66,7 @@ public class ConfiguringPageCacheFactory
     private final SystemNanoClock clock;
     private final MemoryPools memoryPools;
     private final Function<MuninnPageCache.Configuration,MuninnPageCache.Configuration> pageCacheConfigurator;
+    private PageChecksums checksums;
 
     public ConfiguringPageCacheFactory( FileSystemAbstraction fs, Config config, PageCacheTracer pageCacheTracer, Log log, JobScheduler scheduler,
             SystemNanoClock clock, MemoryPools memoryPools )
@@ -93,8 +102,10 @@ public class ConfiguringPageCacheFactory
     {
         if ( pageCache == null )
         {
-            this.swapperFactory = createAndConfigureSwapperFactory( fs, pageCacheTracer );
+            this.checksums = config.get( pagecache_checksums ) ? new PageChecksums( config.get( pagecache_checksums_max_heap_size ) ) : null;
+            this.swapperFactory = createAndConfigureSwapperFactory( fs, pageCacheTracer, checksums );
             this.pageCache = createPageCache();
+            scheduleScrubber();
         }
         return pageCache;
     }
@@ -197,8 +208,36 @@ public class ConfiguringPageCacheFactory
         log.info( msg );
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer )
+    private void scheduleScrubber()
     {
-        return new SingleFilePageSwapperFactory( fs, pageCacheTracer );
+        int pagesPerSecond = config.get( pagecache_scrub_pages_per_second );
+        if ( checksums == null || pagesPerSecond == 0 )
+        {
+            return;
+        }
+        PageScrubber scrubber = new PageScrubber( checksums, pagesPerSecond );
+        Runnable pass = () ->
+        {
+            long mismatchesBefore = checksums.mismatches();
+            scrubber.run();
+            long mismatches = checksums.mismatches() - mismatchesBefore;
+            if ( mismatches > 0 )
+            {
+                log.error( "Page scrubbing found " + mismatches + " pages whose content on disk does not match their checksum. " +
+                        "Verified " + scrubber.scrubbedPages() + " pages in total." );
+            }
+            long checksummedPages = checksums.checksummedPages();
+            log.debug( "Page checksums: computed %d checksums in %d ms, %d ns per page on average, using %d bytes of heap.", checksummedPages,
+                    TimeUnit.NANOSECONDS.toMillis( checksums.checksumNanos() ), checksummedPages == 0 ? 0 : checksums.checksumNanos() / checksummedPages,
+                    checksums.usedHeapBytes() );
+        };
+        var monitoringParams = JobMonitoringParams.systemJob( "Background verification of page checksums" );
+        scheduler.scheduleRecurring( Group.STORAGE_MAINTENANCE, monitoringParams, pass, 1, TimeUnit.MINUTES );
+    }
+
+    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer,
+            PageChecksums checksums )
+    {
+        return new SingleFilePageSwapperFactory( fs, pageCacheTracer, checksums );
     }
 }
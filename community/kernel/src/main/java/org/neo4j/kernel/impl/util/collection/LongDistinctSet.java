@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.neo4j.collection.trackable.HeapTrackingCollections.newLongSet;
+import static org.neo4j.memory.HeapEstimator.SCOPED_MEMORY_TRACKER_SHALLOW_SIZE;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+
+/**
+ * A specialized heap tracking set of primitive longs used for distinct query operators over entity ids.
+ */
+public class LongDistinctSet extends DefaultCloseListenable
+{
+    private static final long SHALLOW_SIZE = shallowSizeOfInstance( LongDistinctSet.class );
+    private final MemoryTracker scopedMemoryTracker;
+    private MutableLongSet distinctSet;
+
+    public static LongDistinctSet createLongDistinctSet( MemoryTracker memoryTracker )
+    {
+        MemoryTracker scopedMemoryTracker = memoryTracker.getScopedMemoryTracker();
+        scopedMemoryTracker.allocateHeap( SHALLOW_SIZE + SCOPED_MEMORY_TRACKER_SHALLOW_SIZE );
+        return new LongDistinctSet( scopedMemoryTracker );
+    }
+
+    private LongDistinctSet( MemoryTracker scopedMemoryTracker )
+    {
+        this.scopedMemoryTracker = scopedMemoryTracker;
+        distinctSet = newLongSet( scopedMemoryTracker );
+    }
+
+    public boolean add( long element )
+    {
+        return distinctSet.add( element );
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( distinctSet != null )
+        {
+            // No need to close distinctSet individually since it uses scopedMemoryTracker anyway
+            distinctSet = null;
+            scopedMemoryTracker.close();
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return distinctSet == null;
+    }
+}
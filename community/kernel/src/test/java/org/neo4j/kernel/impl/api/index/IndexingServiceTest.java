@@ -1277,7 +1277,7 @@ class IndexingServiceTest
         }
 
         // then
-        verify( indexStatisticsStore ).incrementIndexUpdates( indexId, 1L );
+        verify( indexStatisticsStore ).incrementIndexUpdates( indexId, 1L, null );
     }
 
     @Test
@@ -26,6 +26,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
@@ -64,7 +65,8 @@ class IndexSamplingControllerTest
 {
     private final IndexSamplingConfig samplingConfig = mock( IndexSamplingConfig.class );
     private final IndexSamplingJobFactory jobFactory = mock( IndexSamplingJobFactory.class );
-    private final LongPredicate samplingUpdatePredicate = id -> true;
+    private LongPredicate samplingUpdatePredicate = id -> true;
+    private LongToDoubleFunction histogramDrift = id -> 1;
     private final IndexSamplingJobTracker tracker = mock( IndexSamplingJobTracker.class, RETURNS_MOCKS );
     private final JobScheduler scheduler = mock( JobScheduler.class );
     private final IndexMapSnapshotProvider snapshotProvider = mock( IndexMapSnapshotProvider.class );
@@ -146,6 +148,47 @@ class IndexSamplingControllerTest
         verifyNoMoreInteractions( jobFactory, tracker );
     }
 
+    @Test
+    void shouldRefreshTheMostDriftedHistogramsOfIndexesNotDueForSampling()
+    {
+        // given
+        long dueIndexId = 4;
+        IndexProxy dueIndexProxy = mock( IndexProxy.class );
+        when( dueIndexProxy.getDescriptor() ).thenReturn( forSchema( forLabel( 7, 8 ), PROVIDER_DESCRIPTOR ).withName( "index_4" ).materialise( dueIndexId ) );
+        indexMap.putIndexProxy( anotherIndexProxy );
+        indexMap.putIndexProxy( dueIndexProxy );
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+        when( anotherIndexProxy.getState() ).thenReturn( ONLINE );
+        when( dueIndexProxy.getState() ).thenReturn( ONLINE );
+        samplingUpdatePredicate = id -> id == dueIndexId;
+        histogramDrift = id -> id == indexId ? 3 : id == anotherIndexId ? 5 : 10;
+        IndexSamplingController controller = newSamplingController( always( false ), logProvider );
+
+        // when
+        controller.refreshDriftedHistograms();
+
+        // then
+        verify( jobFactory ).create( anotherIndexId, anotherIndexProxy );
+        verify( tracker ).scheduleSamplingJob( anotherJob );
+        verifyNoMoreInteractions( jobFactory, tracker );
+    }
+
+    @Test
+    void shouldNotRefreshHistogramsThatDidNotDriftEnough()
+    {
+        // given
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+        samplingUpdatePredicate = id -> false;
+        histogramDrift = id -> 1.5;
+        IndexSamplingController controller = newSamplingController( always( false ), logProvider );
+
+        // when
+        controller.refreshDriftedHistograms();
+
+        // then
+        verifyNoMoreInteractions( jobFactory, tracker );
+    }
+
     @Test
     void shouldSampleAllTheOnlineIndexes()
     {
@@ -385,7 +428,7 @@ class IndexSamplingControllerTest
 
     private IndexSamplingController newSamplingController( RecoveryCondition recoveryPredicate, LogProvider logProvider, Config config )
     {
-        return new IndexSamplingController( samplingConfig, jobFactory, samplingUpdatePredicate, tracker, snapshotProvider, scheduler, recoveryPredicate,
+        return new IndexSamplingController( samplingConfig, jobFactory, samplingUpdatePredicate, histogramDrift, tracker, snapshotProvider, scheduler, recoveryPredicate,
                 logProvider, config, "Test DB" );
     }
 
@@ -25,12 +25,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
@@ -38,6 +40,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.exceptions.WriteOnReadOnlyAccessDbException;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.test.Race;
 import org.neo4j.test.RandomSupport;
@@ -45,6 +48,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -91,7 +95,7 @@ class IndexStatisticsStoreTest
     private IndexStatisticsStore openStore( PageCacheTracer pageCacheTracer, String fileName )
     {
         var statisticsStore =
-                new IndexStatisticsStore( pageCache, testDirectory.file( fileName ), immediate(), writable(), DEFAULT_DATABASE_NAME, pageCacheTracer );
+                new IndexStatisticsStore( pageCache, fs, testDirectory.file( fileName ), immediate(), writable(), DEFAULT_DATABASE_NAME, pageCacheTracer );
         return lifeSupport.add( statisticsStore );
     }
 
@@ -186,6 +190,131 @@ class IndexStatisticsStoreTest
                 initialSample.updates() + addedUpdates ), store.indexSample( indexId ) );
     }
 
+    @Test
+    void shouldStoreHistogramOnCheckpoint() throws IOException
+    {
+        // given
+        long indexId = 4;
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 2, 1 );
+        builder.add( 3, () -> Values.intValue( 1 ) );
+        builder.add( 7, () -> Values.stringValue( "a" ) );
+        IndexValueHistogram histogram = builder.build( () -> Values.stringValue( "a" ) );
+        store.replaceStats( indexId, new IndexSample( 10, 2, 10, 0, histogram ) );
+        store.incrementIndexUpdates( indexId, 5 );
+
+        // when
+        restartStore();
+
+        // then
+        IndexValueHistogram restored = store.indexSample( indexId ).histogram().orElseThrow();
+        assertEquals( new IndexSample( 10, 2, 10, 5 ), store.indexSample( indexId ) );
+        assertEquals( histogram.lowest(), restored.lowest() );
+        assertEquals( histogram.numberOfBuckets(), restored.numberOfBuckets() );
+        for ( int i = 0; i < histogram.numberOfBuckets(); i++ )
+        {
+            assertEquals( histogram.upperBound( i ), restored.upperBound( i ) );
+            assertEquals( histogram.count( i ), restored.count( i ) );
+            assertEquals( histogram.distinctCount( i ), restored.distinctCount( i ) );
+        }
+        assertThat( restored.mostCommonValues() ).containsExactly( histogram.mostCommonValues() );
+        assertThat( restored.mostCommonCounts() ).containsExactly( histogram.mostCommonCounts() );
+    }
+
+    @Test
+    void shouldNotRestoreHistogramOfRemovedIndex() throws IOException
+    {
+        // given
+        long indexId = 4;
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 2, 1 );
+        builder.add( 10, () -> Values.intValue( 1 ) );
+        store.replaceStats( indexId, new IndexSample( 10, 1, 10, 0, builder.build( () -> Values.intValue( 1 ) ) ) );
+        restartStore();
+
+        // when
+        store.removeIndex( indexId );
+        store.replaceStats( indexId, new IndexSample( 10, 1, 10 ) );
+        restartStore();
+
+        // then
+        assertThat( store.indexSample( indexId ).histogram() ).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreUnreadableHistogramsFile() throws IOException
+    {
+        // given
+        long indexId = 4;
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 2, 1 );
+        builder.add( 10, () -> Values.intValue( 1 ) );
+        store.replaceStats( indexId, new IndexSample( 10, 1, 10, 0, builder.build( () -> Values.intValue( 1 ) ) ) );
+        store.checkpoint( CursorContext.NULL );
+        lifeSupport.shutdown();
+
+        // when
+        Path histogramsFile = IndexHistogramsFile.histogramsFile( store.storeFile() );
+        try ( StoreChannel channel = fs.write( histogramsFile ) )
+        {
+            channel.truncate( channel.size() - 1 );
+        }
+        lifeSupport = new LifeSupport();
+        store = openStore( pageCacheTracer, "stats" );
+        lifeSupport.start();
+
+        // then
+        assertThat( store.indexSample( indexId ).histogram() ).isEmpty();
+        assertEquals( new IndexSample( 10, 1, 10 ), store.indexSample( indexId ) );
+    }
+
+    @Test
+    void shouldApplyHistogramChangesOfIndexUpdates() throws IOException
+    {
+        // given
+        long indexId = 4;
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 2, 0 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            int value = i;
+            builder.add( 1, () -> Values.intValue( value ) );
+        }
+        store.replaceStats( indexId, new IndexSample( 10, 10, 10, 0, builder.build( () -> Values.intValue( 9 ) ) ) );
+
+        // when
+        IndexValueHistogram.Delta delta = store.newHistogramDelta( indexId );
+        delta.add( Values.intValue( 1 ) );
+        delta.add( Values.intValue( 2 ) );
+        delta.remove( Values.intValue( 8 ) );
+        delta.add( Values.intValue( 20 ) );
+        store.incrementIndexUpdates( indexId, 4, delta );
+        restartStore();
+
+        // then
+        IndexValueHistogram histogram = store.indexSample( indexId ).histogram().orElseThrow();
+        assertEquals( 12, histogram.count( 0 ) + histogram.count( 1 ) );
+        assertEquals( Values.intValue( 20 ), histogram.upperBound( histogram.numberOfBuckets() - 1 ) );
+        assertEquals( 4, store.indexSample( indexId ).updates() );
+    }
+
+    @Test
+    void shouldIgnoreHistogramChangesOfEarlierSample()
+    {
+        // given
+        long indexId = 4;
+        IndexValueHistogram.Builder builder = new IndexValueHistogram.Builder( 2, 0 );
+        builder.add( 10, () -> Values.intValue( 1 ) );
+        store.replaceStats( indexId, new IndexSample( 10, 1, 10, 0, builder.build( () -> Values.intValue( 1 ) ) ) );
+        IndexValueHistogram.Delta delta = store.newHistogramDelta( indexId );
+        delta.add( Values.intValue( 1 ) );
+
+        // when
+        IndexValueHistogram.Builder resampled = new IndexValueHistogram.Builder( 2, 0 );
+        resampled.add( 20, () -> Values.intValue( 1 ) );
+        store.replaceStats( indexId, new IndexSample( 20, 1, 20, 0, resampled.build( () -> Values.intValue( 1 ) ) ) );
+        store.incrementIndexUpdates( indexId, 1, delta );
+
+        // then
+        assertEquals( 20, store.indexSample( indexId ).histogram().orElseThrow().count( 0 ) );
+    }
+
     @Test
     void shouldStoreDataOnCheckpoint() throws IOException
     {
@@ -284,7 +413,7 @@ class IndexStatisticsStoreTest
     void shouldNotStartWithoutFileIfReadOnly()
     {
         final IndexStatisticsStore indexStatisticsStore =
-                new IndexStatisticsStore( pageCache, testDirectory.file( "non-existing" ), immediate(), readOnly(), DEFAULT_DATABASE_NAME,
+                new IndexStatisticsStore( pageCache, fs, testDirectory.file( "non-existing" ), immediate(), readOnly(), DEFAULT_DATABASE_NAME,
                         PageCacheTracer.NULL );
         final Exception e = assertThrows( Exception.class, indexStatisticsStore::init );
         assertTrue( Exceptions.contains( e, t -> t instanceof WriteOnReadOnlyAccessDbException ) );
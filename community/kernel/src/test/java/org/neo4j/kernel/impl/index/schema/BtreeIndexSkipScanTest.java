@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.gis.spatial.index.curves.StandardConfiguration;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.internal.kernel.api.IndexQueryConstraints;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.security.AccessMode;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.kernel.api.index.ValueIndexReader;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.storageengine.api.schema.SimpleEntityValueClient;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.constrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.internal.kernel.api.QueryContext.NULL_CONTEXT;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.storageengine.api.IndexEntryUpdate.add;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+
+class BtreeIndexSkipScanTest extends IndexTestUtil<BtreeKey,NullValue,IndexLayout<BtreeKey>>
+{
+    private static final int NUMBER_OF_ENTITIES = 2_000;
+    private static final IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings =
+            IndexSpecificSpaceFillingCurveSettings.fromConfig( Config.defaults() );
+
+    private GenericNativeIndexAccessor accessor;
+    private final List<Entry> entries = new ArrayList<>();
+
+    @Override
+    IndexFiles createIndexFiles( FileSystemAbstraction fs, TestDirectory directory, IndexDescriptor indexDescriptor )
+    {
+        IndexDirectoryStructure indexDirectoryStructure =
+                directoriesByProvider( directory.directory( "root" ) ).forProvider( indexDescriptor.getIndexProvider() );
+        return new IndexFiles.Directory( fs, indexDirectoryStructure, indexDescriptor.getId() );
+    }
+
+    @Override
+    IndexDescriptor indexDescriptor()
+    {
+        return forSchema( forLabel( 42, 1, 2 ) ).withIndexProvider( GenericNativeIndexProvider.DESCRIPTOR )
+                                                .withName( "index" )
+                                                .materialise( 0 );
+    }
+
+    @Override
+    IndexLayout<BtreeKey> layout()
+    {
+        return new GenericLayout( 2, spaceFillingCurveSettings );
+    }
+
+    @BeforeEach
+    void setupAccessor() throws Exception
+    {
+        DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withReadOnlyChecker( writable() ).build();
+        accessor = new GenericNativeIndexAccessor( context, indexFiles, layout, RecoveryCleanupWorkCollector.immediate(), indexDescriptor,
+                spaceFillingCurveSettings, new StandardConfiguration(), tokenNameLookup );
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
+        {
+            for ( long entityId = 0; entityId < NUMBER_OF_ENTITIES; entityId++ )
+            {
+                // A few distinct values of mixed types for the leading property, many for the trailing one
+                Value first = random.nextBoolean() ? Values.intValue( random.nextInt( 10 ) ) : Values.stringValue( "v" + random.nextInt( 5 ) );
+                Value second;
+                switch ( random.nextInt( 10 ) )
+                {
+                case 0:
+                    second = Values.stringValue( "s" + random.nextInt( 100 ) );
+                    break;
+                case 1:
+                    second = Values.pointValue( Cartesian, random.nextInt( 100 ), random.nextInt( 100 ) );
+                    break;
+                case 2:
+                    second = Values.pointArray( new PointValue[]{Values.pointValue( Cartesian, random.nextInt( 10 ), random.nextInt( 10 ) )} );
+                    break;
+                default:
+                    second = Values.intValue( random.nextInt( 100 ) );
+                }
+                updater.process( add( entityId, indexDescriptor, first, second ) );
+                entries.add( new Entry( entityId, first, second ) );
+            }
+        }
+    }
+
+    @AfterEach
+    void closeAccessor()
+    {
+        accessor.close();
+    }
+
+    @Test
+    void shouldFindEntriesMatchingExactPredicateOnTrailingProperty() throws Exception
+    {
+        assertSkipScan( PropertyIndexQuery.exact( 2, 42 ) );
+    }
+
+    @Test
+    void shouldFindEntriesMatchingRangePredicateOnTrailingProperty() throws Exception
+    {
+        assertSkipScan( PropertyIndexQuery.range( 2, 10, true, 20, false ) );
+        assertSkipScan( PropertyIndexQuery.range( 2, 90, false, null, false ) );
+        assertSkipScan( PropertyIndexQuery.range( 2, null, false, 3, true ) );
+    }
+
+    @Test
+    void shouldFindEntriesMatchingPrefixPredicateOnTrailingProperty() throws Exception
+    {
+        assertSkipScan( PropertyIndexQuery.stringPrefix( 2, Values.utf8Value( "s1" ) ) );
+    }
+
+    @Test
+    void shouldFindNothingForEmptyRangeOnTrailingProperty() throws Exception
+    {
+        assertSkipScan( PropertyIndexQuery.range( 2, 20, true, 10, true ) );
+        assertSkipScan( PropertyIndexQuery.exact( 2, 1_000 ) );
+    }
+
+    @Test
+    void shouldFindEntriesMatchingGeometryRangePredicateOnTrailingProperty() throws Exception
+    {
+        // Geometry ranges are split into many sub-ranges of the space filling curve, which are sought over all values of the leading property and filtered
+        PropertyIndexQuery trailing = PropertyIndexQuery.range( 2, Values.pointValue( Cartesian, 10, 10 ), true, Values.pointValue( Cartesian, 40, 60 ), true );
+
+        assertThat( query( unorderedValues(), PropertyIndexQuery.exists( 1 ), trailing ) ).containsExactlyInAnyOrderElementsOf( expected( trailing ) );
+    }
+
+    @Test
+    void shouldFilterEntriesMatchingGeometryArrayRangePredicateOnTrailingProperty() throws Exception
+    {
+        // The bounds of a geometry array range can't be encoded in the key, so every geometry array of each prefix is sought and filtered
+        PropertyIndexQuery trailing = PropertyIndexQuery.range( 2, Values.pointArray( new PointValue[]{Values.pointValue( Cartesian, 3, 0 )} ), true,
+                Values.pointArray( new PointValue[]{Values.pointValue( Cartesian, 6, 0 )} ), false );
+
+        assertThat( query( unorderedValues(), PropertyIndexQuery.exists( 1 ), trailing ) ).containsExactlyInAnyOrderElementsOf( expected( trailing ) );
+    }
+
+    @Test
+    void shouldSampleDistinctValuesOfLeadingProperty() throws Exception
+    {
+        IndexSample sample;
+        try ( ValueIndexReader reader = accessor.newValueReader();
+              IndexSampler sampler = reader.createSampler() )
+        {
+            sample = sampler.sampleIndex( NULL );
+        }
+
+        assertThat( sample.histogram() ).isPresent();
+        IndexValueHistogram histogram = sample.histogram().get();
+        assertThat( histogram.distinctValues() ).isEqualTo( entries.stream().map( entry -> entry.first ).distinct().count() );
+        long total = 0;
+        for ( int i = 0; i < histogram.numberOfBuckets(); i++ )
+        {
+            total += histogram.count( i );
+        }
+        assertThat( total ).isEqualTo( NUMBER_OF_ENTITIES );
+    }
+
+    private void assertSkipScan( PropertyIndexQuery trailing ) throws Exception
+    {
+        PropertyIndexQuery[] query = {PropertyIndexQuery.exists( 1 ), trailing};
+        List<Entry> expected = expected( trailing );
+
+        assertThat( query( unorderedValues(), query ) ).containsExactlyInAnyOrderElementsOf( expected );
+        assertThat( query( constrained( IndexOrder.ASCENDING, true ), query ) ).containsExactlyElementsOf( expected );
+        List<Entry> descending = new ArrayList<>( expected );
+        descending.sort( Entry.ORDER.reversed() );
+        assertThat( query( constrained( IndexOrder.DESCENDING, true ), query ) ).containsExactlyElementsOf( descending );
+    }
+
+    private List<Entry> expected( PropertyIndexQuery trailing )
+    {
+        List<Entry> expected = new ArrayList<>();
+        for ( Entry entry : entries )
+        {
+            if ( trailing.acceptsValue( entry.second ) )
+            {
+                expected.add( entry );
+            }
+        }
+        expected.sort( Entry.ORDER );
+        return expected;
+    }
+
+    private List<Entry> query( IndexQueryConstraints constraints, PropertyIndexQuery... query ) throws Exception
+    {
+        List<Entry> result = new ArrayList<>();
+        try ( ValueIndexReader reader = accessor.newValueReader() )
+        {
+            SimpleEntityValueClient client = new SimpleEntityValueClient();
+            reader.query( client, NULL_CONTEXT, AccessMode.Static.READ, constraints, query );
+            while ( client.next() )
+            {
+                result.add( new Entry( client.reference, client.values[0], client.values[1] ) );
+            }
+        }
+        return result;
+    }
+
+    private static class Entry
+    {
+        static final Comparator<Entry> ORDER = Comparator.<Entry,Value>comparing( entry -> entry.first, Values.COMPARATOR )
+                                                         .thenComparing( entry -> entry.second, Values.COMPARATOR )
+                                                         .thenComparingLong( entry -> entry.entityId );
+
+        final long entityId;
+        final Value first;
+        final Value second;
+
+        Entry( long entityId, Value first, Value second )
+        {
+            this.entityId = entityId;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return entityId == entry.entityId && first.equals( entry.first ) && second.equals( entry.second );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode( entityId );
+        }
+
+        @Override
+        public String toString()
+        {
+            return entityId + ":" + first + "," + second;
+        }
+    }
+}
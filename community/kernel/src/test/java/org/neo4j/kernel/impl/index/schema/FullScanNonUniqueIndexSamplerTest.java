@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.index.internal.gbptree.GBPTree;
@@ -34,12 +35,14 @@ import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.test.utils.TestDirectory;
 import org.neo4j.values.storable.NumberValue;
 import org.neo4j.values.storable.RandomValues;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueType;
+import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -90,6 +93,56 @@ public class FullScanNonUniqueIndexSamplerTest extends IndexTestUtil<BtreeKey,Nu
         assertEquals( values.length, sample.indexSize() );
     }
 
+    @Test
+    void shouldBuildHistogramOfValuesInTree() throws Exception
+    {
+        // GIVEN
+        Value[] values = new Value[1_000];
+        for ( int i = 0; i < values.length; i++ )
+        {
+            values[i] = Values.intValue( i % 3 == 0 ? 42 : i % 100 );
+        }
+        buildTree( values );
+
+        // WHEN
+        IndexSample sample;
+        try ( GBPTree<BtreeKey,NullValue> gbpTree = getTree() )
+        {
+            FullScanNonUniqueIndexSampler<BtreeKey> sampler = new FullScanNonUniqueIndexSampler<>( gbpTree, layout, true );
+            sample = sampler.sample( NULL );
+        }
+
+        // THEN
+        assertThat( sample.histogram() ).isPresent();
+        IndexValueHistogram histogram = sample.histogram().get();
+        assertThat( histogram.numberOfBuckets() ).isLessThanOrEqualTo( FullScanNonUniqueIndexSampler.HISTOGRAM_BUCKETS );
+        long total = 0;
+        for ( int i = 0; i < histogram.numberOfBuckets(); i++ )
+        {
+            total += histogram.count( i );
+        }
+        assertEquals( values.length, total );
+        assertEquals( Values.intValue( 42 ), histogram.mostCommonValues()[0] );
+        assertEquals( Arrays.stream( values ).filter( Values.intValue( 42 )::equals ).count(), histogram.estimateEquals( Values.intValue( 42 ) ) );
+    }
+
+    @Test
+    void shouldNotBuildHistogramUnlessAsked() throws Exception
+    {
+        // GIVEN
+        buildTree( generateNumberValues() );
+
+        // WHEN
+        IndexSample sample;
+        try ( GBPTree<BtreeKey,NullValue> gbpTree = getTree() )
+        {
+            sample = new FullScanNonUniqueIndexSampler<>( gbpTree, layout ).sample( NULL );
+        }
+
+        // THEN
+        assertThat( sample.histogram() ).isEmpty();
+    }
+
     @Test
     void tracePageCacheAccessOnSampling() throws IOException
     {
@@ -60,10 +60,12 @@ import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRa
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForRangeSeekByPrefix;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForScan;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSeek;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSkipScan;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesForSuffixOrContains;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeek;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForRangeSeekByPrefix;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForScan;
+import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForSkipScan;
 import static org.neo4j.kernel.impl.newapi.TxStateIndexChanges.indexUpdatesWithValuesForSuffixOrContains;
 import static org.neo4j.kernel.impl.util.diffsets.TrackableDiffSets.newMutableLongDiffSets;
 import static org.neo4j.values.storable.Values.NO_VALUE;
@@ -578,6 +580,29 @@ class TxStateIndexChangesTest
                             entityWithPropertyValues( 43L, "43value1", "43value2" ) );
         }
 
+        @Test
+        void shouldSkipScanFilteringOnTrailingProperty()
+        {
+            // GIVEN
+            ReadableTransactionState state = new TxStateBuilder()
+                    .withAdded( 42L, "a", 10 )
+                    .withAdded( 43L, "b", 20 )
+                    .withAdded( 44L, "c", 30 )
+                    .withAdded( 45L, "c", "20" )
+                    .build();
+            PropertyIndexQuery[] query = {PropertyIndexQuery.exists( 1 ), PropertyIndexQuery.range( 2, 15, true, 30, true )};
+
+            // WHEN
+            AddedAndRemoved changes = indexUpdatesForSkipScan( state, compositeIndex, query, IndexOrder.NONE );
+            AddedWithValuesAndRemoved changesWithValues = indexUpdatesWithValuesForSkipScan( state, compositeIndex, query, IndexOrder.NONE );
+
+            // THEN
+            assertContains( changes.getAdded(), 43L, 44L );
+            assertContains( changesWithValues.getAdded(),
+                            entityWithPropertyValues( 43L, "b", 20 ),
+                            entityWithPropertyValues( 44L, "c", 30 ) );
+        }
+
         @Test
         void shouldSeekWhenThereAreNewStringEntities()
         {
@@ -862,6 +862,12 @@ class TransactionLogFileTest
             return NativeCallResult.SUCCESS;
         }
 
+        @Override
+        public NativeCallResult tryPunchHole( int fd, long offset, long length )
+        {
+            return NativeCallResult.SUCCESS;
+        }
+
         @Override
         public ErrorTranslator errorTranslator()
         {
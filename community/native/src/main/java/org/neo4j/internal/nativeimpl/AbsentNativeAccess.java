@@ -51,6 +51,12 @@ public class AbsentNativeAccess implements NativeAccess
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public NativeCallResult tryPunchHole( int fd, long offset, long length )
+    {
+        return new NativeCallResult( ERROR, "Punching holes in files is not supported on current platform." );
+    }
+
     @Override
     public ErrorTranslator errorTranslator()
     {
@@ -49,6 +49,18 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Constant defined in falloc.h and makes fallocate keep the file size unchanged.
+     * For more info check man page for fallocate.
+     */
+    private static final int FALLOC_FL_KEEP_SIZE = 0x01;
+
+    /**
+     * Constant defined in falloc.h and makes fallocate deallocate the given range. Must be combined with {@link #FALLOC_FL_KEEP_SIZE}.
+     * For more info check man page for fallocate.
+     */
+    private static final int FALLOC_FL_PUNCH_HOLE = 0x02;
+
     private static final boolean NATIVE_ACCESS_AVAILABLE;
     private static final Throwable INITIALIZATION_FAILURE;
 
@@ -97,6 +109,18 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static native int posix_fallocate( int fd, long offset, long len ) throws LastErrorException;
 
+    /**
+     * Manipulate the allocated disk space for the file referred to by the file descriptor fd for the bytes in the range starting at offset
+     * and continuing for len bytes. With {@code FALLOC_FL_PUNCH_HOLE | FALLOC_FL_KEEP_SIZE} the space is deallocated, and subsequent reads of
+     * the range return zeros. Not every file system supports punching holes.
+     * @param fd file descriptor
+     * @param mode operation mode
+     * @param offset offset in the file
+     * @param len len in bytes
+     * @return returns zero on success, or -1 on failure, with the error in errno
+     */
+    private static native int fallocate( int fd, int mode, long offset, long len ) throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -155,6 +179,21 @@ public class LinuxNativeAccess implements NativeAccess
         return wrapResult( () -> posix_fallocate( fd, 0, bytes ) );
     }
 
+    @Override
+    public NativeCallResult tryPunchHole( int fd, long offset, long length )
+    {
+        if ( fd <= 0 )
+        {
+            return new NativeCallResult( ERROR, "Incorrect file descriptor." );
+        }
+        if ( offset < 0 || length <= 0 )
+        {
+            return new NativeCallResult( ERROR, "Hole to punch should have non-negative offset and positive length. Requested: " +
+                    offset + ", " + length );
+        }
+        return wrapResult( () -> fallocate( fd, FALLOC_FL_PUNCH_HOLE | FALLOC_FL_KEEP_SIZE, offset, length ) );
+    }
+
     @Override
     public ErrorTranslator errorTranslator()
     {
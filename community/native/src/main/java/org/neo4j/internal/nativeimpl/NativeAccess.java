@@ -69,6 +69,16 @@ public interface NativeAccess
      */
     NativeCallResult tryPreallocateSpace( int fd, long bytes );
 
+    /**
+     * Try to release the disk space of a range of the file referenced by provided file descriptor, without changing the size of the file.
+     * The range reads back as zeros afterwards. Useful for ranges of store files that only contain unused records.
+     * @param fd file descriptor
+     * @param offset offset in the file
+     * @param length number of bytes to release
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryPunchHole( int fd, long offset, long length );
+
     /**
      * High level error translator to be able to map high level exceptions checks with low level error codes on particular system
      */
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.nativeimpl.NativeCallResult.SUCCESS;
 
 class AbsentNativeAccessTest
@@ -50,4 +51,10 @@ class AbsentNativeAccessTest
         assertEquals( SUCCESS, absentNativeAccess.tryPreallocateSpace( 1, 2L ) );
         assertEquals( SUCCESS, absentNativeAccess.tryPreallocateSpace( 3, 4L ) );
     }
+
+    @Test
+    void absentNativeAccessCannotPunchHoles()
+    {
+        assertTrue( absentNativeAccess.tryPunchHole( 1, 0, 1024 ).isError() );
+    }
 }
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.FileDescriptor;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileStore;
@@ -43,6 +44,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.neo4j.internal.nativeimpl.NativeAccess.ERROR;
 
 class LinuxNativeAccessTest
@@ -151,6 +153,50 @@ class LinuxNativeAccessTest
             }
         }
 
+        @Test
+        void failToPunchHoleOnLinuxForIncorrectArguments() throws IOException, IllegalAccessException, ClassNotFoundException
+        {
+            assertEquals( ERROR, nativeAccess.tryPunchHole( 0, 0, 1024 ).getErrorCode() );
+            assertEquals( ERROR, nativeAccess.tryPunchHole( -1, 0, 1024 ).getErrorCode() );
+
+            Path file = tempFile.resolve( "holeFile" );
+            try ( FileChannel channel = FileChannel.open( file, READ, WRITE, CREATE ) )
+            {
+                int descriptor = getDescriptor( channel );
+                assertEquals( ERROR, nativeAccess.tryPunchHole( descriptor, -1, 1024 ).getErrorCode() );
+                assertEquals( ERROR, nativeAccess.tryPunchHole( descriptor, 0, 0 ).getErrorCode() );
+            }
+            int descriptor = getClosedDescriptor( file );
+            assertTrue( nativeAccess.tryPunchHole( descriptor, 0, 1024 ).isError() );
+        }
+
+        @Test
+        void punchHoleOnLinuxKeepsFileSizeAndZeroesRange() throws IOException, IllegalAccessException, ClassNotFoundException
+        {
+            long blockSize = Files.getFileStore( tempFile ).getBlockSize();
+            Path file = tempFile.resolve( "punchedFile" );
+            try ( FileChannel channel = FileChannel.open( file, READ, WRITE, CREATE ) )
+            {
+                ByteBuffer data = ByteBuffer.allocate( (int) (3 * blockSize) );
+                while ( data.hasRemaining() )
+                {
+                    data.put( (byte) 1 );
+                }
+                channel.write( data.flip(), 0 );
+
+                var result = nativeAccess.tryPunchHole( getDescriptor( channel ), blockSize, blockSize );
+                assumeFalse( result.isError(), "File system does not support punching holes: " + result.getErrorMessage() );
+
+                ByteBuffer read = ByteBuffer.allocate( (int) (3 * blockSize) );
+                channel.read( read, 0 );
+                assertEquals( 3 * blockSize, channel.size() );
+                assertEquals( 1, read.get( 0 ) );
+                assertEquals( 0, read.get( (int) blockSize ) );
+                assertEquals( 0, read.get( (int) (2 * blockSize - 1) ) );
+                assertEquals( 1, read.get( (int) (2 * blockSize) ) );
+            }
+        }
+
         @Test
         void failToSkipCacheOnLinuxForIncorrectDescriptor() throws IOException, IllegalAccessException, ClassNotFoundException
         {
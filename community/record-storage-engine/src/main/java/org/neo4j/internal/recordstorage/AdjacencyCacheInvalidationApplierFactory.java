@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * Invalidates the nodes whose relationship chains are changed by a transaction in the {@link RelationshipAdjacencyCache}.
+ * Invalidation happens when the transaction applier is closed, which must be after the store has been updated. The factory
+ * should therefore be placed before the {@link NeoStoreTransactionApplierFactory} in the chain, since appliers are closed in reverse order.
+ */
+class AdjacencyCacheInvalidationApplierFactory implements TransactionApplierFactory
+{
+    private final RelationshipAdjacencyCache adjacencyCache;
+
+    AdjacencyCacheInvalidationApplierFactory( RelationshipAdjacencyCache adjacencyCache )
+    {
+        this.adjacencyCache = adjacencyCache;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
+    {
+        return new AdjacencyCacheInvalidationApplier();
+    }
+
+    private class AdjacencyCacheInvalidationApplier extends TransactionApplier.Adapter
+    {
+        private final MutableLongSet nodes = new LongHashSet();
+
+        @Override
+        public boolean visitNodeCommand( Command.NodeCommand command )
+        {
+            nodes.add( command.getKey() );
+            return false;
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            addNodes( command.getBefore() );
+            addNodes( command.getAfter() );
+            return false;
+        }
+
+        @Override
+        public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command )
+        {
+            addOwner( command.getBefore() );
+            addOwner( command.getAfter() );
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+            nodes.forEach( adjacencyCache::invalidate );
+        }
+
+        private void addNodes( RelationshipRecord relationship )
+        {
+            if ( relationship.inUse() )
+            {
+                nodes.add( relationship.getFirstNode() );
+                nodes.add( relationship.getSecondNode() );
+            }
+        }
+
+        private void addOwner( RelationshipGroupRecord group )
+        {
+            if ( group.inUse() )
+            {
+                nodes.add( group.getOwningNode() );
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.lang.reflect.Array;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+
+import static java.lang.Math.min;
+
+/**
+ * Reads records of an all-entity scan a whole page at a time, instead of one record at a time. Each page is pinned and read consistently once,
+ * after which the in-use records on it are handed to {@link #add(AbstractBaseRecord)}, or are available from {@link #record(int)} when
+ * read with {@link #readPage(long, long)}. The record scan cursors read their pages through this.
+ */
+abstract class BaseRecordBatchScanner<RECORD extends AbstractBaseRecord> implements AutoCloseable
+{
+    private final CommonAbstractStore<RECORD,?> store;
+    private final CursorContext cursorContext;
+    private final RECORD[] records;
+    private PageCursor pageCursor;
+
+    @SuppressWarnings( "unchecked" )
+    BaseRecordBatchScanner( CommonAbstractStore<RECORD,?> store, CursorContext cursorContext )
+    {
+        this.store = store;
+        this.cursorContext = cursorContext;
+        RECORD record = store.newRecord();
+        this.records = (RECORD[]) Array.newInstance( record.getClass(), store.getRecordsPerPage() );
+        for ( int i = 0; i < records.length; i++ )
+        {
+            records[i] = store.newRecord();
+        }
+    }
+
+    /**
+     * Claims ranges of {@code size} ids from {@code scan} until a range containing in-use records has been read, or the scan is exhausted.
+     *
+     * @return {@code true} if in-use records were added, otherwise {@code false} if there are no more records to scan.
+     */
+    boolean scanBatch( BaseRecordScan<?> scan, int size )
+    {
+        long highMark = store.getHighestPossibleIdInUse( cursorContext );
+        int found = 0;
+        while ( found == 0 )
+        {
+            long start = scan.nextBatchStart( size );
+            if ( start > highMark )
+            {
+                return false;
+            }
+            found = readRange( start, min( start + size - 1, highMark ) );
+        }
+        return true;
+    }
+
+    /**
+     * The records per page of the scanned store. Batches of this size, claimed by this scanner alone, read exactly one page each.
+     */
+    int recordsPerPage()
+    {
+        return records.length;
+    }
+
+    /**
+     * @return the id of the last record on the page of the record with the given id.
+     */
+    long lastIdOnPage( long id )
+    {
+        return (id / records.length + 1) * records.length - 1;
+    }
+
+    /**
+     * Reads the records with ids {@code start} up to and including {@code stop}, which must be on the same page. The records are not
+     * handed to {@link #add(AbstractBaseRecord)}, but are available from {@link #record(int)} until the next read.
+     *
+     * @return the number of records read, in use or not, which is {@code 0} if the page is beyond the end of the store.
+     */
+    int readPage( long start, long stop )
+    {
+        if ( pageCursor == null )
+        {
+            pageCursor = store.openPageCursorForReadingWithPrefetching( start, cursorContext );
+        }
+        return store.getRecordsOnPageByCursor( start, stop, records, RecordLoad.LENIENT_CHECK, pageCursor );
+    }
+
+    /**
+     * @return the record at the given index of the last {@link #readPage(long, long) read page}.
+     */
+    RECORD record( int index )
+    {
+        return records[index];
+    }
+
+    abstract void add( RECORD record );
+
+    private int readRange( long start, long stop )
+    {
+        int found = 0;
+        long pageStart = start;
+        while ( pageStart <= stop )
+        {
+            long pageStop = min( stop, lastIdOnPage( pageStart ) );
+            int read = readPage( pageStart, pageStop );
+            for ( int i = 0; i < read; i++ )
+            {
+                if ( records[i].inUse() )
+                {
+                    add( records[i] );
+                    found++;
+                }
+            }
+            pageStart = pageStop + 1;
+        }
+        return found;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( pageCursor != null )
+        {
+            pageCursor.close();
+            pageCursor = null;
+        }
+    }
+}
@@ -34,10 +34,20 @@ abstract class BaseRecordScan<C extends PrimitiveRecord>
 
     boolean scanBatch( int sizeHint, C cursor )
     {
-        long start = nextStart.getAndAdd( sizeHint );
+        long start = nextBatchStart( sizeHint );
         long stopInclusive = start + sizeHint - 1;
         return scanRange( cursor, start, stopInclusive );
     }
 
+    /**
+     * Claims the next range of {@code size} ids of this scan.
+     *
+     * @return the first id of the claimed range.
+     */
+    long nextBatchStart( int size )
+    {
+        return nextStart.getAndAdd( size );
+    }
+
     abstract boolean scanRange( C cursor, long start, long stopInclusive );
 }
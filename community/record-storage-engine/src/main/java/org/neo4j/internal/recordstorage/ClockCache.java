@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent map from node id to value which leaves the choice of what to evict to the clock, or second chance, policy:
+ * looking up an entry marks it as referenced and {@link #evict()} moves a hand over the entries, clearing the mark of referenced ones
+ * and evicting the first one that has not been referenced since the hand last passed it. Entries looked up often thereby stay
+ * while entries that are not looked up again are evicted first, at the cost of a flag per entry instead of an access ordered list.
+ * <p>
+ * Lookups and updates don't lock, evictions are serialized.
+ *
+ * @param <V> type of values.
+ */
+class ClockCache<V>
+{
+    private final ConcurrentHashMap<Long,Entry<V>> entries = new ConcurrentHashMap<>();
+    private Iterator<Entry<V>> hand;
+
+    /**
+     * @return the value of the node, or {@code null} if not cached.
+     */
+    V get( long nodeId )
+    {
+        Entry<V> entry = entries.get( nodeId );
+        if ( entry == null )
+        {
+            return null;
+        }
+        if ( !entry.referenced )
+        {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * @return the previous value of the node, or {@code null} if there was none.
+     */
+    V put( long nodeId, V value )
+    {
+        Entry<V> previous = entries.put( nodeId, new Entry<>( nodeId, value ) );
+        return previous != null ? previous.value : null;
+    }
+
+    /**
+     * @return the removed value of the node, or {@code null} if there was none.
+     */
+    V remove( long nodeId )
+    {
+        Entry<V> removed = entries.remove( nodeId );
+        return removed != null ? removed.value : null;
+    }
+
+    /**
+     * Removes the node only if it currently has the given value.
+     *
+     * @return whether the node was removed.
+     */
+    boolean remove( long nodeId, V value )
+    {
+        Entry<V> entry = entries.get( nodeId );
+        return entry != null && entry.value == value && entries.remove( nodeId, entry );
+    }
+
+    int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Evicts the first entry under the clock hand that has not been referenced since the hand last passed it.
+     *
+     * @return the value of the evicted entry, or {@code null} if the cache is empty.
+     */
+    synchronized V evict()
+    {
+        // After a full round all marks have been cleared, so the entry under the hand is evicted at the latest in the second round
+        long maxSteps = 2L * entries.size() + 1;
+        for ( long step = 0; step < maxSteps; step++ )
+        {
+            if ( hand == null || !hand.hasNext() )
+            {
+                hand = entries.values().iterator();
+                if ( !hand.hasNext() )
+                {
+                    return null;
+                }
+            }
+            Entry<V> entry = hand.next();
+            if ( entry.referenced )
+            {
+                entry.referenced = false;
+            }
+            else if ( entries.remove( entry.nodeId, entry ) )
+            {
+                // Only removed if not replaced or removed since the hand got to it
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry<V>
+    {
+        private final long nodeId;
+        private final V value;
+        private volatile boolean referenced;
+
+        Entry( long nodeId, V value )
+        {
+            this.nodeId = nodeId;
+            this.value = value;
+        }
+    }
+}
@@ -20,9 +20,12 @@
 package org.neo4j.internal.recordstorage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.internal.helpers.Numbers;
 import org.neo4j.internal.recordstorage.Command.BaseCommand;
+import org.neo4j.internal.recordstorage.ParallelStoreUpdateApplier.StoreUpdates;
 import org.neo4j.internal.schema.SchemaRule;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.KernelVersion;
@@ -30,6 +33,10 @@ import org.neo4j.kernel.impl.store.CommonAbstractStore;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
 import org.neo4j.lock.LockType;
@@ -54,6 +61,13 @@ import static org.neo4j.internal.recordstorage.RecordCursorTypes.SCHEMA_CURSOR;
  * <p>
  * For other modes of application, like recovery or external there are other, added functionality, decorated
  * outside this applier.
+ * <p>
+ * If a {@link ParallelStoreUpdateApplier} is given, node, relationship, property and relationship group updates are collected per store
+ * and written once all commands have been visited, or before a schema rule is changed. Transactions with at least
+ * {@link ParallelStoreUpdateApplier#threshold()} such updates have them written to the different stores in parallel.
+ * <p>
+ * The appliers after this one in the chain are closed before it, and the index applier reads entities from the stores when closed,
+ * so the collected updates must be written in {@link #commandsVisited()} rather than when this applier is closed.
  */
 public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
 {
@@ -66,9 +80,22 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
     private final IdUpdateListener idUpdateListener;
     private final CursorContext cursorContext;
     private final StoreCursors storeCursors;
+    private final ParallelStoreUpdateApplier parallelApplier;
+    private final StoreUpdates<NodeRecord> nodeUpdates;
+    private final StoreUpdates<RelationshipRecord> relationshipUpdates;
+    private final StoreUpdates<PropertyRecord> propertyUpdates;
+    private final StoreUpdates<RelationshipGroupRecord> groupUpdates;
+    private int pendingUpdates;
 
     public NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
             long transactionId, BatchContext batchContext, CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        this( version, neoStores, cacheAccess, lockService, transactionId, batchContext, cursorContext, storeCursors, null );
+    }
+
+    NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
+            long transactionId, BatchContext batchContext, CursorContext cursorContext, StoreCursors storeCursors,
+            ParallelStoreUpdateApplier parallelApplier )
     {
         this.version = version;
         this.lockGroup = batchContext.getLockGroup();
@@ -79,6 +106,33 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         this.idUpdateListener = batchContext.getIdUpdateListener();
         this.cursorContext = cursorContext;
         this.storeCursors = storeCursors;
+        this.parallelApplier = parallelApplier;
+        if ( parallelApplier != null )
+        {
+            this.nodeUpdates = new StoreUpdates<>( neoStores.getNodeStore(), NODE_CURSOR );
+            this.relationshipUpdates = new StoreUpdates<>( neoStores.getRelationshipStore(), RELATIONSHIP_CURSOR );
+            this.propertyUpdates = new StoreUpdates<>( neoStores.getPropertyStore(), PROPERTY_CURSOR );
+            this.groupUpdates = new StoreUpdates<>( neoStores.getRelationshipGroupStore(), GROUP_CURSOR );
+        }
+        else
+        {
+            this.nodeUpdates = null;
+            this.relationshipUpdates = null;
+            this.propertyUpdates = null;
+            this.groupUpdates = null;
+        }
+    }
+
+    @Override
+    public void commandsVisited() throws Exception
+    {
+        applyPendingUpdates();
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        applyPendingUpdates();
     }
 
     @Override
@@ -88,7 +142,7 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         lockGroup.add( lockService.acquireNodeLock( command.getKey(), LockType.EXCLUSIVE ) );
 
         // update store
-        updateStore( neoStores.getNodeStore(), command, NODE_CURSOR );
+        updateStore( neoStores.getNodeStore(), command, NODE_CURSOR, nodeUpdates );
         return false;
     }
 
@@ -97,7 +151,7 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
     {
         lockGroup.add( lockService.acquireRelationshipLock( command.getKey(), LockType.EXCLUSIVE ) );
 
-        updateStore( neoStores.getRelationshipStore(), command, RELATIONSHIP_CURSOR );
+        updateStore( neoStores.getRelationshipStore(), command, RELATIONSHIP_CURSOR, relationshipUpdates );
         return false;
     }
 
@@ -114,14 +168,14 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
             lockGroup.add( lockService.acquireRelationshipLock( command.getRelId(), LockType.EXCLUSIVE ) );
         }
 
-        updateStore( neoStores.getPropertyStore(), command, PROPERTY_CURSOR );
+        updateStore( neoStores.getPropertyStore(), command, PROPERTY_CURSOR, propertyUpdates );
         return false;
     }
 
     @Override
     public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command )
     {
-        updateStore( neoStores.getRelationshipGroupStore(), command, GROUP_CURSOR );
+        updateStore( neoStores.getRelationshipGroupStore(), command, GROUP_CURSOR, groupUpdates );
         return false;
     }
 
@@ -147,8 +201,11 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
     }
 
     @Override
-    public boolean visitSchemaRuleCommand( Command.SchemaRuleCommand command )
+    public boolean visitSchemaRuleCommand( Command.SchemaRuleCommand command ) throws IOException
     {
+        // Schema changes may apply pending index updates, which read from the stores, so the stores must be up to date
+        applyPendingUpdates();
+
         // schema rules. Execute these after generating the property updates so. If executed
         // before and we've got a transaction that sets properties/labels as well as creating an index
         // we might end up with this corner-case:
@@ -207,6 +264,55 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         }
     }
 
+    private <RECORD extends AbstractBaseRecord> void updateStore( CommonAbstractStore<RECORD,?> store, BaseCommand<RECORD> command, CursorType cursorType,
+            StoreUpdates<RECORD> pending )
+    {
+        if ( pending != null )
+        {
+            pending.add( selectRecordByCommandVersion( command ) );
+            pendingUpdates++;
+        }
+        else
+        {
+            updateStore( store, command, cursorType );
+        }
+    }
+
+    private void applyPendingUpdates() throws IOException
+    {
+        if ( pendingUpdates == 0 )
+        {
+            return;
+        }
+        // Don't try to write the same updates again when closing after a failure to write them
+        int numberOfUpdates = pendingUpdates;
+        pendingUpdates = 0;
+        List<StoreUpdates<?>> updates = new ArrayList<>( 4 );
+        addIfNotEmpty( updates, nodeUpdates );
+        addIfNotEmpty( updates, relationshipUpdates );
+        addIfNotEmpty( updates, propertyUpdates );
+        addIfNotEmpty( updates, groupUpdates );
+        if ( updates.size() > 1 && numberOfUpdates >= parallelApplier.threshold() )
+        {
+            parallelApplier.apply( updates, idUpdateListener, cursorContext );
+        }
+        else
+        {
+            for ( StoreUpdates<?> storeUpdates : updates )
+            {
+                storeUpdates.apply( idUpdateListener, cursorContext, storeCursors );
+            }
+        }
+    }
+
+    private static void addIfNotEmpty( List<StoreUpdates<?>> updates, StoreUpdates<?> storeUpdates )
+    {
+        if ( !storeUpdates.isEmpty() )
+        {
+            updates.add( storeUpdates );
+        }
+    }
+
     private <RECORD extends AbstractBaseRecord> void updateStore( CommonAbstractStore<RECORD,?> store, BaseCommand<RECORD> command, CursorType cursorType )
     {
         try ( var cursor = storeCursors.writeCursor( cursorType ) )
@@ -38,20 +38,28 @@ public class NeoStoreTransactionApplierFactory implements TransactionApplierFact
     // Ideally we don't want any cache access in here, but it is how it is. At least we try to minimize use of it
     private final CacheAccessBackDoor cacheAccess;
     private final LockService lockService;
+    private final ParallelStoreUpdateApplier parallelApplier;
 
     NeoStoreTransactionApplierFactory( TransactionApplicationMode mode, NeoStores store, CacheAccessBackDoor cacheAccess, LockService lockService )
+    {
+        this( mode, store, cacheAccess, lockService, null );
+    }
+
+    NeoStoreTransactionApplierFactory( TransactionApplicationMode mode, NeoStores store, CacheAccessBackDoor cacheAccess, LockService lockService,
+            ParallelStoreUpdateApplier parallelApplier )
     {
         this.version = mode.version();
         this.neoStores = store;
         this.cacheAccess = cacheAccess;
         this.lockService = lockService;
+        this.parallelApplier = parallelApplier;
     }
 
     @Override
     public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
     {
         return new NeoStoreTransactionApplier( version, neoStores, cacheAccess, lockService, transaction.transactionId(), batchContext,
-                transaction.cursorContext(), transaction.storeCursors() );
+                transaction.cursorContext(), transaction.storeCursors(), parallelApplier );
     }
 
 }
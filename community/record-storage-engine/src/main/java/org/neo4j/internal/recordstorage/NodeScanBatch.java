@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+/**
+ * A batch of in-use node records of a batched all-node scan, laid out as one primitive array per field.
+ * Filled by {@link RecordNodeBatchScanner#scanBatch(org.neo4j.storageengine.api.AllNodeScan, NodeScanBatch)}.
+ */
+public final class NodeScanBatch
+{
+    private final long[] ids;
+    private final long[] labelFields;
+    private final long[] firstRelationships;
+    private final long[] firstProperties;
+    private final boolean[] dense;
+    private int size;
+
+    public NodeScanBatch( int capacity )
+    {
+        this.ids = new long[capacity];
+        this.labelFields = new long[capacity];
+        this.firstRelationships = new long[capacity];
+        this.firstProperties = new long[capacity];
+        this.dense = new boolean[capacity];
+    }
+
+    public int capacity()
+    {
+        return ids.length;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long id( int index )
+    {
+        return ids[index];
+    }
+
+    /**
+     * @return the raw labels field of the node, see {@link org.neo4j.kernel.impl.store.NodeLabelsField}.
+     */
+    public long labelField( int index )
+    {
+        return labelFields[index];
+    }
+
+    /**
+     * @return the first relationship of the node, or its first relationship group if the node is {@link #isDense(int) dense}.
+     */
+    public long firstRelationship( int index )
+    {
+        return firstRelationships[index];
+    }
+
+    public long firstProperty( int index )
+    {
+        return firstProperties[index];
+    }
+
+    public boolean isDense( int index )
+    {
+        return dense[index];
+    }
+
+    void add( long id, long labelField, long firstRelationship, long firstProperty, boolean isDense )
+    {
+        ids[size] = id;
+        labelFields[size] = labelField;
+        firstRelationships[size] = firstRelationship;
+        firstProperties[size] = firstProperty;
+        dense[size] = isDense;
+        size++;
+    }
+
+    void clear()
+    {
+        size = 0;
+    }
+}
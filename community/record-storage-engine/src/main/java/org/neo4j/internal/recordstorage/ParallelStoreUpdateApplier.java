@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.cursor.CursorType;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.storageengine.util.IdUpdateListener;
+
+/**
+ * Applies record updates of a transaction to the node, relationship, property and relationship group stores concurrently,
+ * one thread per store. The stores are backed by separate files, including their dynamic stores, so updates to different
+ * stores never touch the same pages. Updates to any single store are applied in the order they were added.
+ * <p>
+ * Id updates are buffered by each thread and handed to the transaction's {@link IdUpdateListener} in the applying thread,
+ * since those listeners are not thread safe.
+ * <p>
+ * The updates are written by the {@link Group#STORE_UPDATE_APPLY} executor of the {@link JobScheduler}, which owns its threads and
+ * shuts them down together with the rest of the scheduler.
+ */
+class ParallelStoreUpdateApplier
+{
+    static final String PARALLEL_STORE_APPLY_TAG = "parallelStoreApply";
+
+    private final NeoStores neoStores;
+    private final PageCacheTracer cacheTracer;
+    private final int threshold;
+    private final CallableExecutor executor;
+
+    ParallelStoreUpdateApplier( NeoStores neoStores, PageCacheTracer cacheTracer, JobScheduler jobScheduler, int threshold )
+    {
+        this.neoStores = neoStores;
+        this.cacheTracer = cacheTracer;
+        this.threshold = threshold;
+        this.executor = jobScheduler.executor( Group.STORE_UPDATE_APPLY );
+    }
+
+    /**
+     * @return minimum number of record updates in a transaction for them to be applied in parallel.
+     */
+    int threshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * Applies the given updates, one task per store, and waits for all of them to complete.
+     *
+     * @param updates updates to apply, each for a different store.
+     * @param idUpdateListener listener receiving the id updates of all stores once they have been applied.
+     * @param cursorContext context of the applying transaction.
+     */
+    void apply( List<StoreUpdates<?>> updates, IdUpdateListener idUpdateListener, CursorContext cursorContext ) throws IOException
+    {
+        List<Future<BufferedIdUpdates>> futures = new ArrayList<>( updates.size() );
+        for ( StoreUpdates<?> storeUpdates : updates )
+        {
+            futures.add( executor.submit( () -> applyInOwnContext( storeUpdates, cursorContext ) ) );
+        }
+
+        Throwable failure = null;
+        for ( Future<BufferedIdUpdates> future : futures )
+        {
+            try
+            {
+                BufferedIdUpdates idUpdates = future.get();
+                if ( failure == null )
+                {
+                    idUpdates.replay( idUpdateListener, cursorContext );
+                }
+            }
+            catch ( ExecutionException e )
+            {
+                failure = addSuppressed( failure, e.getCause() );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = addSuppressed( failure, e );
+            }
+        }
+        if ( failure != null )
+        {
+            if ( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+            if ( failure instanceof Error )
+            {
+                throw (Error) failure;
+            }
+            throw new IOException( "Failed to apply store updates", failure );
+        }
+    }
+
+    private BufferedIdUpdates applyInOwnContext( StoreUpdates<?> storeUpdates, CursorContext transactionContext )
+    {
+        BufferedIdUpdates idUpdates = new BufferedIdUpdates();
+        try ( var cursorContext = new CursorContext( cacheTracer.createPageCursorTracer( PARALLEL_STORE_APPLY_TAG ),
+                      transactionContext.getVersionContext() );
+              var storeCursors = new CachedStoreCursors( neoStores, cursorContext ) )
+        {
+            storeUpdates.apply( idUpdates, cursorContext, storeCursors );
+        }
+        return idUpdates;
+    }
+
+    private static Throwable addSuppressed( Throwable failure, Throwable cause )
+    {
+        if ( failure == null )
+        {
+            return cause;
+        }
+        failure.addSuppressed( cause );
+        return failure;
+    }
+
+    /**
+     * Records of one transaction, to be written to a single store.
+     */
+    static class StoreUpdates<RECORD extends AbstractBaseRecord>
+    {
+        private final CommonAbstractStore<RECORD,?> store;
+        private final CursorType cursorType;
+        private final List<RECORD> records = new ArrayList<>();
+
+        StoreUpdates( CommonAbstractStore<RECORD,?> store, CursorType cursorType )
+        {
+            this.store = store;
+            this.cursorType = cursorType;
+        }
+
+        void add( RECORD record )
+        {
+            records.add( record );
+        }
+
+        boolean isEmpty()
+        {
+            return records.isEmpty();
+        }
+
+        void apply( IdUpdateListener idUpdateListener, CursorContext cursorContext, StoreCursors storeCursors )
+        {
+            try ( PageCursor cursor = storeCursors.writeCursor( cursorType ) )
+            {
+                for ( RECORD record : records )
+                {
+                    store.updateRecord( record, idUpdateListener, cursor, cursorContext, storeCursors );
+                }
+            }
+            records.clear();
+        }
+    }
+
+    /**
+     * Keeps id updates in the order they were made, so that they can be replayed in another thread.
+     */
+    private static class BufferedIdUpdates implements IdUpdateListener
+    {
+        private final List<IdGenerator> idGenerators = new ArrayList<>();
+        private final MutableLongList ids = LongLists.mutable.empty();
+
+        @Override
+        public void markIdAsUsed( IdGenerator idGenerator, long id, int size, CursorContext cursorContext )
+        {
+            add( idGenerator, id, size, true );
+        }
+
+        @Override
+        public void markIdAsUnused( IdGenerator idGenerator, long id, int size, CursorContext cursorContext )
+        {
+            add( idGenerator, id, size, false );
+        }
+
+        private void add( IdGenerator idGenerator, long id, int size, boolean used )
+        {
+            idGenerators.add( idGenerator );
+            ids.add( id );
+            ids.add( used ? size : -size );
+        }
+
+        void replay( IdUpdateListener target, CursorContext cursorContext )
+        {
+            for ( int i = 0; i < idGenerators.size(); i++ )
+            {
+                long size = ids.get( i * 2 + 1 );
+                target.markId( idGenerators.get( i ), ids.get( i * 2 ), (int) Math.abs( size ), size > 0, cursorContext );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            // nothing to close, the updates are replayed
+        }
+    }
+}
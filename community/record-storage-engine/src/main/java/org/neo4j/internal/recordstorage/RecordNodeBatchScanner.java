@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.storageengine.api.AllNodeScan;
+
+/**
+ * Batched all-node scan which fills a {@link NodeScanBatch} with the in-use nodes of a page at a time.
+ * The scan can be shared with other scanners, as well as {@link RecordNodeCursor node cursors}, to scan the store from multiple threads.
+ */
+public final class RecordNodeBatchScanner extends BaseRecordBatchScanner<NodeRecord>
+{
+    private NodeScanBatch batch;
+
+    RecordNodeBatchScanner( NodeStore nodeStore, CursorContext cursorContext )
+    {
+        super( nodeStore, cursorContext );
+    }
+
+    /**
+     * @return a new batch sized so that each {@link #scanBatch(AllNodeScan, NodeScanBatch)} reads a single page.
+     */
+    public NodeScanBatch newBatch()
+    {
+        return new NodeScanBatch( recordsPerPage() );
+    }
+
+    /**
+     * Replaces the contents of {@code batch} with the in-use nodes of the next range of {@link NodeScanBatch#capacity()} ids of {@code scan}.
+     *
+     * @return {@code true} if the batch contains nodes, or {@code false} if the scan is exhausted.
+     */
+    public boolean scanBatch( AllNodeScan scan, NodeScanBatch batch )
+    {
+        this.batch = batch;
+        batch.clear();
+        return scanBatch( (RecordNodeScan) scan, batch.capacity() );
+    }
+
+    @Override
+    void add( NodeRecord record )
+    {
+        batch.add( record.getId(), record.getLabelField(), record.getNextRel(), record.getNextProp(), record.isDense() );
+    }
+}
@@ -57,10 +57,14 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
     private PageCursor pageCursor;
+    // Scans read a page at a time through this, and then return the in-use nodes of the page one by one
+    private RecordNodeBatchScanner pageScanner;
+    private int pageIndex;
+    private int pageSize;
     private long next;
     private long highMark;
-    private long nextStoreReference;
     private boolean open;
+    private boolean scanning;
     private boolean batched;
     private RecordRelationshipGroupCursor groupCursor;
     private RecordRelationshipTraversalCursor relationshipCursor;
@@ -87,14 +91,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = nodePage( 0 );
-        }
+        ensurePageScannerInitialized();
         this.next = 0;
         this.highMark = nodeHighMark();
-        this.nextStoreReference = NO_ID;
         this.open = true;
+        this.scanning = true;
         this.batched = false;
     }
 
@@ -110,10 +111,9 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             pageCursor = nodePage( reference );
         }
         this.next = reference >= 0 ? reference : NO_ID;
-        //This marks the cursor as a "single cursor"
         this.highMark = NO_ID;
-        this.nextStoreReference = NO_ID;
         this.open = true;
+        this.scanning = false;
         this.batched = false;
     }
 
@@ -125,8 +125,8 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             reset();
         }
         this.batched = true;
+        this.scanning = true;
         this.open = true;
-        this.nextStoreReference = NO_ID;
 
         return ((RecordNodeScan) scan).scanBatch( sizeHint , this);
     }
@@ -144,10 +144,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             reset();
             return true;
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = nodePage( start );
-        }
+        ensurePageScannerInitialized();
         next = start;
         highMark = min( stop, max );
         return true;
@@ -374,50 +371,61 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public boolean next()
     {
+        if ( scanning )
+        {
+            return nextInScan();
+        }
         if ( next == NO_ID )
         {
             resetState();
             return false;
         }
 
-        do
+        node( this, next, pageCursor );
+        next = NO_ID;
+        return inUse();
+    }
+
+    private boolean nextInScan()
+    {
+        while ( true )
         {
-            if ( nextStoreReference == next )
+            while ( pageIndex < pageSize )
             {
-                nodeAdvance( this, pageCursor );
-                next++;
-                nextStoreReference++;
+                NodeRecord record = pageScanner.record( pageIndex++ );
+                if ( record.inUse() )
+                {
+                    initialize( true, record.getNextProp(), record.isDense(), record.getNextRel(), record.getLabelField() );
+                    setId( record.getId() );
+                    return true;
+                }
             }
-            else
+
+            if ( next == NO_ID )
             {
-                node( this, next++, pageCursor );
-                nextStoreReference = next;
+                resetState();
+                return false;
             }
-
             if ( next > highMark )
             {
-                if ( isSingle() || batched )
-                {
-                    //we are a "single cursor" or a "batched scan"
-                    //we don't want to set a new highMark
-                    next = NO_ID;
-                    return inUse();
-                }
-                else
+                if ( !batched )
                 {
                     //we are a "scan cursor"
                     //Check if there is a new high mark
                     highMark = nodeHighMark();
-                    if ( next > highMark )
-                    {
-                        next = NO_ID;
-                        return inUse();
-                    }
                 }
+                if ( batched || next > highMark )
+                {
+                    next = NO_ID;
+                }
+                continue;
             }
+
+            long stop = min( highMark, pageScanner.lastIdOnPage( next ) );
+            pageSize = pageScanner.readPage( next, stop );
+            pageIndex = 0;
+            next = stop + 1;
         }
-        while ( !inUse() );
-        return true;
     }
 
     @Override
@@ -433,6 +441,8 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private void resetState()
     {
         next = NO_ID;
+        pageIndex = 0;
+        pageSize = 0;
         setId( NO_ID );
         clear();
         this.loadMode = RecordLoadOverride.none();
@@ -442,11 +452,6 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
     }
 
-    private boolean isSingle()
-    {
-        return highMark == NO_ID;
-    }
-
     @Override
     public RecordNodeCursor copy()
     {
@@ -477,6 +482,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             pageCursor.close();
             pageCursor = null;
         }
+        if ( pageScanner != null )
+        {
+            pageScanner.close();
+            pageScanner = null;
+        }
         if ( groupCursor != null )
         {
             groupCursor.close();
@@ -494,6 +504,14 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
     }
 
+    private void ensurePageScannerInitialized()
+    {
+        if ( pageScanner == null )
+        {
+            pageScanner = new RecordNodeBatchScanner( read, cursorContext );
+        }
+    }
+
     private PageCursor nodePage( long reference )
     {
         return read.openPageCursorForReading( reference, cursorContext );
@@ -508,9 +526,4 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     {
         read.getRecordByCursor( reference, record, loadMode.orElse( RecordLoad.CHECK ).lenient(), pageCursor );
     }
-
-    private void nodeAdvance( NodeRecord record, PageCursor pageCursor )
-    {
-        read.nextRecordByCursor( record, loadMode.orElse( RecordLoad.CHECK ).lenient(), pageCursor );
-    }
 }
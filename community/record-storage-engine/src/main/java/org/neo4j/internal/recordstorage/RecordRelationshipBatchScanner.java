@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.AllRelationshipsScan;
+
+/**
+ * Batched all-relationship scan which fills a {@link RelationshipScanBatch} with the in-use relationships of a page at a time.
+ * The scan can be shared with other scanners, as well as {@link RecordRelationshipScanCursor relationship cursors}, to scan the store from multiple
+ * threads.
+ */
+public final class RecordRelationshipBatchScanner extends BaseRecordBatchScanner<RelationshipRecord>
+{
+    private RelationshipScanBatch batch;
+
+    RecordRelationshipBatchScanner( RelationshipStore relationshipStore, CursorContext cursorContext )
+    {
+        super( relationshipStore, cursorContext );
+    }
+
+    /**
+     * @return a new batch sized so that each {@link #scanBatch(AllRelationshipsScan, RelationshipScanBatch)} reads a single page.
+     */
+    public RelationshipScanBatch newBatch()
+    {
+        return new RelationshipScanBatch( recordsPerPage() );
+    }
+
+    /**
+     * Replaces the contents of {@code batch} with the in-use relationships of the next range of {@link RelationshipScanBatch#capacity()} ids of
+     * {@code scan}.
+     *
+     * @return {@code true} if the batch contains relationships, or {@code false} if the scan is exhausted.
+     */
+    public boolean scanBatch( AllRelationshipsScan scan, RelationshipScanBatch batch )
+    {
+        this.batch = batch;
+        batch.clear();
+        return scanBatch( (RecordRelationshipScan) scan, batch.capacity() );
+    }
+
+    @Override
+    void add( RelationshipRecord record )
+    {
+        batch.add( record.getId(), record.getType(), record.getFirstNode(), record.getSecondNode(), record.getNextProp() );
+    }
+}
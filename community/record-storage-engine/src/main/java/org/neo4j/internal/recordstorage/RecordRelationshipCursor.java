@@ -38,7 +38,7 @@ abstract class RecordRelationshipCursor extends RelationshipRecord implements Re
 {
     final RelationshipStore relationshipStore;
     RecordLoadOverride loadMode;
-    private final CursorContext cursorContext;
+    final CursorContext cursorContext;
 
     RecordRelationshipCursor( RelationshipStore relationshipStore, CursorContext cursorContext )
     {
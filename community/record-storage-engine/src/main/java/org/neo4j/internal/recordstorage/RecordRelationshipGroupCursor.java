@@ -84,6 +84,19 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
         }
     }
 
+    /**
+     * Dense node, reads only the group with the given reference, e.g. looked up in a {@link RelationshipGroupDirectory}.
+     *
+     * @return whether the group is in use and owned by the node.
+     */
+    boolean single( long nodeReference, long reference )
+    {
+        direct( nodeReference, reference );
+        group( this, reference, page );
+        setNext( NO_ID );
+        return inUse() && getOwningNode() == nodeReference;
+    }
+
     boolean next()
     {
         do
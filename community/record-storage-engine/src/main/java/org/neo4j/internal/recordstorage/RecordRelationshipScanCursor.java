@@ -27,15 +27,18 @@ import org.neo4j.storageengine.api.AllRelationshipsScan;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 
 import static java.lang.Math.min;
-import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 
 public class RecordRelationshipScanCursor extends RecordRelationshipCursor implements StorageRelationshipScanCursor
 {
     private long next;
     private long highMark;
-    private long nextStoreReference;
     private PageCursor pageCursor;
+    // Scans read a page at a time through this, and then return the in-use relationships of the page one by one
+    private RecordRelationshipBatchScanner pageScanner;
+    private int pageIndex;
+    private int pageSize;
     private boolean open;
+    private boolean scanning;
     private boolean batched;
 
     RecordRelationshipScanCursor( RelationshipStore relationshipStore, CursorContext cursorContext )
@@ -50,14 +53,12 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         {
             resetState();
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = relationshipPage( 0 );
-        }
+        ensurePageScannerInitialized();
         this.next = 0;
         this.highMark = relationshipHighMark();
-        this.nextStoreReference = NO_ID;
         this.open = true;
+        this.scanning = true;
+        this.batched = false;
     }
 
     @Override
@@ -73,8 +74,9 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
         this.next = reference >= 0 ? reference : NO_ID;
         this.highMark = NO_ID;
-        this.nextStoreReference = NO_ID;
         this.open = true;
+        this.scanning = false;
+        this.batched = false;
     }
 
     @Override
@@ -91,8 +93,8 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
             reset();
         }
         this.batched = true;
+        this.scanning = true;
         this.open = true;
-        this.nextStoreReference = NO_ID;
 
         return ((RecordRelationshipScan) scan).scanBatch( sizeHint , this);
     }
@@ -110,10 +112,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
             reset();
             return true;
         }
-        if ( pageCursor == null )
-        {
-            pageCursor = relationshipPage( start );
-        }
+        ensurePageScannerInitialized();
         next = start;
         highMark = min( stop, max );
         return true;
@@ -122,50 +121,63 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     @Override
     public boolean next()
     {
+        if ( scanning )
+        {
+            return nextInScan();
+        }
         if ( next == NO_ID )
         {
             resetState();
             return false;
         }
 
-        do
+        relationship( this, next, pageCursor );
+        next = NO_ID;
+        return inUse();
+    }
+
+    private boolean nextInScan()
+    {
+        while ( true )
         {
-            if ( nextStoreReference == next )
+            while ( pageIndex < pageSize )
             {
-                relationshipAdvance( this, pageCursor );
-                next++;
-                nextStoreReference++;
+                RelationshipRecord record = pageScanner.record( pageIndex++ );
+                if ( record.inUse() )
+                {
+                    initialize( true, record.getNextProp(), record.getFirstNode(), record.getSecondNode(), record.getType(), record.getFirstPrevRel(),
+                            record.getFirstNextRel(), record.getSecondPrevRel(), record.getSecondNextRel(), record.isFirstInFirstChain(),
+                            record.isFirstInSecondChain() );
+                    setId( record.getId() );
+                    return true;
+                }
             }
-            else
+
+            if ( next == NO_ID )
             {
-                relationship( this, next++, pageCursor );
-                nextStoreReference = next;
+                resetState();
+                return false;
             }
-
             if ( next > highMark )
             {
-                if ( isSingle() || batched )
-                {
-                    //we are a "single cursor" or a "batched scan"
-                    //we don't want to set a new highMark
-                    next = NO_ID;
-                    return inUse();
-                }
-                else
+                if ( !batched )
                 {
                     //we are a "scan cursor"
                     //Check if there is a new high mark
                     highMark = relationshipHighMark();
-                    if ( next > highMark )
-                    {
-                        next = NO_ID;
-                        return inUse();
-                    }
                 }
+                if ( batched || next > highMark )
+                {
+                    next = NO_ID;
+                }
+                continue;
             }
+
+            long stop = min( highMark, pageScanner.lastIdOnPage( next ) );
+            pageSize = pageScanner.readPage( next, stop );
+            pageIndex = 0;
+            next = stop + 1;
         }
-        while ( !inUse() );
-        return true;
     }
 
     @Override
@@ -182,6 +194,8 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     protected void resetState()
     {
         super.resetState();
+        pageIndex = 0;
+        pageSize = 0;
         setId( next = NO_ID );
     }
 
@@ -199,11 +213,6 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
     }
 
-    private boolean isSingle()
-    {
-        return highMark == NO_ID;
-    }
-
     @Override
     public void close()
     {
@@ -212,11 +221,18 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
             pageCursor.close();
             pageCursor = null;
         }
+        if ( pageScanner != null )
+        {
+            pageScanner.close();
+            pageScanner = null;
+        }
     }
 
-    private void relationshipAdvance( RelationshipRecord record, PageCursor pageCursor )
+    private void ensurePageScannerInitialized()
     {
-        // When scanning, we inspect RelationshipRecord.inUse(), so using RecordLoad.CHECK is fine
-        relationshipStore.nextRecordByCursor( record, loadMode.orElse( CHECK ).lenient(), pageCursor );
+        if ( pageScanner == null )
+        {
+            pageScanner = new RecordRelationshipBatchScanner( relationshipStore, cursorContext );
+        }
     }
 }
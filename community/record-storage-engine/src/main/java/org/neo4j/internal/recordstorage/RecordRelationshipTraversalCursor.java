@@ -19,15 +19,25 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.util.Arrays;
+
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.storageengine.api.ReadTracer;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.ENTRY_SIZE;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.FIRST_NODE;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.ID;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.NEXT_PROP;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.OVERSIZED;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.SECOND_NODE;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.TYPE;
 import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
 import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
 import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
@@ -52,12 +62,38 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState = GroupState.NONE;
     private boolean open;
+    private final RelationshipAdjacencyCache adjacencyCache;
+    // Relationships of the origin node, if served from the adjacency cache
+    private long[] cachedRelationships;
+    private int cachedPosition;
+    // Relationships of the origin node read from the store so far, if they are to be put in the adjacency cache when the traversal ends
+    private long[] recordedRelationships;
+    private int recordedSize;
+    private long recordingStamp;
+    private final RelationshipGroupDirectory groupDirectory;
+    // Groups of the selected types of a dense node, if looked up in the group directory
+    private long[] directGroups;
+    private int directGroupPosition;
 
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
             CursorContext cursorContext )
+    {
+        this( relationshipStore, groupStore, groupDegreesStore, null, cursorContext );
+    }
+
+    RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            RelationshipAdjacencyCache adjacencyCache, CursorContext cursorContext )
+    {
+        this( relationshipStore, groupStore, groupDegreesStore, adjacencyCache, null, cursorContext );
+    }
+
+    RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            RelationshipAdjacencyCache adjacencyCache, RelationshipGroupDirectory groupDirectory, CursorContext cursorContext )
     {
         super( relationshipStore, cursorContext );
         this.group = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext );
+        this.adjacencyCache = adjacencyCache;
+        this.groupDirectory = groupDirectory;
     }
 
     void init( RecordNodeCursor nodeCursor, RelationshipSelection selection )
@@ -88,11 +124,55 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             return;
         }
 
+        if ( adjacencyCache != null && loadMode == RecordLoadOverride.none() )
+        {
+            long[] relationships = adjacencyCache.get( nodeReference );
+            if ( relationships == null )
+            {
+                long stamp = adjacencyCache.stamp( nodeReference );
+                startTraversal( nodeReference, reference, isDense, selection );
+                if ( !isDense || !selection.isLimited() )
+                {
+                    // This traversal reads all relationships of the node from the store anyway, so record them for the cache
+                    recordingStamp = stamp;
+                    recordedRelationships = new long[Math.min( 16, adjacencyCache.maxRelationshipsPerNode() ) * ENTRY_SIZE];
+                    recordedSize = 0;
+                }
+                return;
+            }
+            if ( relationships != OVERSIZED )
+            {
+                setId( NO_ID );
+                this.next = NO_ID;
+                this.groupState = GroupState.NONE;
+                this.originNodeReference = nodeReference;
+                this.selection = selection;
+                this.cachedRelationships = relationships;
+                this.cachedPosition = 0;
+                this.recordedRelationships = null;
+                open = true;
+                return;
+            }
+        }
+
+        startTraversal( nodeReference, reference, isDense, selection );
+    }
+
+    private void startTraversal( long nodeReference, long reference, boolean isDense, RelationshipSelection selection )
+    {
         this.selection = selection;
+        this.cachedRelationships = null;
+        this.recordedRelationships = null;
+        this.directGroups = null;
         if ( isDense )
         {
             // The reference points to a relationship group record
             groups( nodeReference, reference );
+            if ( groupDirectory != null && selection.isTypeLimited() && loadMode == RecordLoadOverride.none() )
+            {
+                directGroups = lookupGroups( nodeReference, reference, selection );
+                directGroupPosition = 0;
+            }
         }
         else
         {
@@ -102,6 +182,102 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         open = true;
     }
 
+    /**
+     * Records the relationship read from the store for the adjacency cache, or marks the origin node as {@link RelationshipAdjacencyCache#OVERSIZED}
+     * if it turns out to have too many relationships to be cached.
+     */
+    private void recordRelationship()
+    {
+        if ( recordedSize == recordedRelationships.length )
+        {
+            int maxSize = adjacencyCache.maxRelationshipsPerNode() * ENTRY_SIZE;
+            if ( recordedSize == maxSize )
+            {
+                adjacencyCache.put( originNodeReference, recordingStamp, OVERSIZED );
+                recordedRelationships = null;
+                return;
+            }
+            recordedRelationships = Arrays.copyOf( recordedRelationships, Math.min( recordedSize * 2, maxSize ) );
+        }
+        recordedRelationships[recordedSize + ID] = getId();
+        recordedRelationships[recordedSize + FIRST_NODE] = getFirstNode();
+        recordedRelationships[recordedSize + SECOND_NODE] = getSecondNode();
+        recordedRelationships[recordedSize + TYPE] = getType();
+        recordedRelationships[recordedSize + NEXT_PROP] = getNextProp();
+        recordedSize += ENTRY_SIZE;
+    }
+
+    /**
+     * Looks up the groups of the selected types of a dense node in the group directory, adding the node to the directory if not there.
+     *
+     * @return ids of the groups of the selected types, ordered by type, or {@code null} if the group chain should be walked instead.
+     */
+    private long[] lookupGroups( long nodeReference, long firstGroupReference, RelationshipSelection selection )
+    {
+        RelationshipGroupDirectory.Groups groups = groupDirectory.get( nodeReference );
+        if ( groups == null )
+        {
+            long stamp = groupDirectory.stamp( nodeReference );
+            int[] types = new int[16];
+            long[] groupIds = new long[16];
+            int count = 0;
+            while ( group.next() )
+            {
+                if ( tracer != null )
+                {
+                    tracer.dbHit();
+                }
+                if ( count == types.length )
+                {
+                    types = Arrays.copyOf( types, count * 2 );
+                    groupIds = Arrays.copyOf( groupIds, count * 2 );
+                }
+                types[count] = group.getType();
+                groupIds[count] = group.getId();
+                count++;
+            }
+            group.direct( nodeReference, firstGroupReference );
+            groups = groupDirectory.put( nodeReference, stamp, types, groupIds, count );
+        }
+        if ( groups.isChain() )
+        {
+            return null;
+        }
+
+        int[] selectedTypes = new int[selection.numberOfCriteria()];
+        for ( int i = 0; i < selectedTypes.length; i++ )
+        {
+            selectedTypes[i] = selection.criterion( i ).type();
+        }
+        Arrays.sort( selectedTypes );
+        long[] groupIds = new long[selectedTypes.length];
+        int count = 0;
+        for ( int i = 0; i < selectedTypes.length; i++ )
+        {
+            long groupId = groups.groupId( selectedTypes[i] );
+            if ( groupId != NO_ID && (i == 0 || selectedTypes[i] != selectedTypes[i - 1]) )
+            {
+                groupIds[count++] = groupId;
+            }
+        }
+        return count == groupIds.length ? groupIds : Arrays.copyOf( groupIds, count );
+    }
+
+    /**
+     * Moves the group cursor to the next group looked up in the group directory, skipping groups that have been removed concurrently.
+     */
+    private boolean nextDirectGroup()
+    {
+        while ( directGroupPosition < directGroups.length )
+        {
+            if ( group.single( originNodeReference, directGroups[directGroupPosition++] ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /*
      * Normal traversal. Traversal returns mixed types and directions.
      */
@@ -156,6 +332,11 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     @Override
     public boolean next()
     {
+        if ( cachedRelationships != null )
+        {
+            return nextCached();
+        }
+
         boolean traversingDenseNode;
         do
         {
@@ -167,6 +348,10 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
 
             if ( next == NO_ID )
             {
+                if ( recordedRelationships != null )
+                {
+                    adjacencyCache.put( originNodeReference, recordingStamp, Arrays.copyOf( recordedRelationships, recordedSize ) );
+                }
                 resetState();
                 return false;
             }
@@ -177,11 +362,39 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             {
                 tracer.onRelationship( entityReference() );
             }
+            if ( recordedRelationships != null && inUse() )
+            {
+                recordRelationship();
+            }
         }
         while ( !inUse() || (!traversingDenseNode && !selection.test( getType(), directionOfStrict( originNodeReference, getFirstNode(), getSecondNode() ) )) );
         return true;
     }
 
+    private boolean nextCached()
+    {
+        while ( cachedPosition < cachedRelationships.length )
+        {
+            int position = cachedPosition;
+            cachedPosition += ENTRY_SIZE;
+            long firstNode = cachedRelationships[position + FIRST_NODE];
+            long secondNode = cachedRelationships[position + SECOND_NODE];
+            int type = (int) cachedRelationships[position + TYPE];
+            if ( selection.test( type, directionOfStrict( originNodeReference, firstNode, secondNode ) ) )
+            {
+                setId( cachedRelationships[position + ID] );
+                initialize( true, cachedRelationships[position + NEXT_PROP], firstNode, secondNode, type, NO_ID, NO_ID, NO_ID, NO_ID, false, false );
+                if ( tracer != null )
+                {
+                    tracer.onRelationship( entityReference() );
+                }
+                return true;
+            }
+        }
+        resetState();
+        return false;
+    }
+
     private void traverseDenseNode()
     {
         while ( next == NO_ID )
@@ -221,7 +434,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             switch ( groupState )
             {
             case INCOMING:
-                boolean hasNext = group.next();
+                boolean hasNext = directGroups != null ? nextDirectGroup() : group.next();
                 if ( !hasNext )
                 {
                     assert next == NO_ID;
@@ -338,6 +551,9 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         setId( next = NO_ID );
         groupState = GroupState.NONE;
         selection = null;
+        cachedRelationships = null;
+        recordedRelationships = null;
+        directGroups = null;
     }
 
     @Override
@@ -73,6 +73,7 @@ import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.SchemaStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StoreSpaceReclaimer;
 import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
 import org.neo4j.kernel.impl.store.format.RecordFormat;
@@ -80,6 +81,7 @@ import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.MetaDataRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.stats.RecordDatabaseEntityCounters;
+import org.neo4j.kernel.impl.store.stats.AdjacencyCacheCounters;
 import org.neo4j.kernel.impl.store.stats.StoreEntityCounters;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
@@ -91,6 +93,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Health;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.CommandStream;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -116,6 +119,8 @@ import org.neo4j.util.Preconditions;
 import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.counts_store_max_cached_entries;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.reclaim_unused_store_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.truncate_unused_trailing_store_pages;
 import static org.neo4j.function.ThrowingAction.executeAll;
 import static org.neo4j.lock.LockService.NO_LOCK_SERVICE;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
@@ -131,6 +136,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final NeoStores neoStores;
     private final RecordDatabaseLayout databaseLayout;
     private final Config config;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
     private final LogProvider internalLogProvider;
     private final TokenHolders tokenHolders;
     private final Health databaseHealth;
@@ -142,6 +148,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final ConstraintRuleAccessor constraintSemantics;
     private final LockService lockService;
     private final boolean consistencyCheckApply;
+    private final ParallelStoreUpdateApplier parallelStoreUpdateApplier;
+    private final RelationshipAdjacencyCache adjacencyCache;
+    private final RelationshipGroupDirectory groupDirectory;
     private IndexUpdatesWorkSync indexUpdatesSync;
     private final IdController idController;
     private final PageCacheTracer cacheTracer;
@@ -161,6 +170,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     public RecordStorageEngine( RecordDatabaseLayout databaseLayout,
             Config config,
             PageCache pageCache,
+            JobScheduler jobScheduler,
             FileSystemAbstraction fs,
             LogProvider internalLogProvider,
             LogProvider userLogProvider,
@@ -183,6 +193,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         this.databaseLayout = databaseLayout;
         this.config = config;
+        this.readOnlyChecker = readOnlyChecker;
         this.internalLogProvider = internalLogProvider;
         this.tokenHolders = tokenHolders;
         this.schemaState = schemaState;
@@ -218,6 +229,13 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                     readOnlyChecker, config, cacheTracer );
 
             consistencyCheckApply = config.get( GraphDatabaseInternalSettings.consistency_check_on_apply );
+            int parallelApplyThreshold = config.get( GraphDatabaseInternalSettings.parallel_store_apply_threshold );
+            parallelStoreUpdateApplier =
+                    parallelApplyThreshold > 0 ? new ParallelStoreUpdateApplier( neoStores, cacheTracer, jobScheduler, parallelApplyThreshold ) : null;
+            long adjacencyCacheSize = config.get( GraphDatabaseInternalSettings.relationship_adjacency_cache_size );
+            adjacencyCache = adjacencyCacheSize > 0 ? new RelationshipAdjacencyCache( adjacencyCacheSize ) : null;
+            int groupDirectorySize = config.get( GraphDatabaseInternalSettings.relationship_group_directory_size );
+            groupDirectory = groupDirectorySize > 0 ? new RelationshipGroupDirectory( groupDirectorySize ) : null;
             storeEntityCounters = new RecordDatabaseEntityCounters( idGeneratorFactory, countsStore );
         }
         catch ( Throwable failure )
@@ -245,7 +263,16 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         {
             appliers.add( new ConsistencyCheckingApplierFactory( neoStores ) );
         }
-        appliers.add( new NeoStoreTransactionApplierFactory( mode, neoStores, cacheAccess, lockService( mode ) ) );
+        if ( adjacencyCache != null )
+        {
+            // Placed before the store applier since it invalidates when closed, and appliers are closed in reverse order
+            appliers.add( new AdjacencyCacheInvalidationApplierFactory( adjacencyCache ) );
+        }
+        if ( groupDirectory != null )
+        {
+            appliers.add( new GroupDirectoryInvalidationApplierFactory( groupDirectory ) );
+        }
+        appliers.add( new NeoStoreTransactionApplierFactory( mode, neoStores, cacheAccess, lockService( mode ), parallelStoreUpdateApplier ) );
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdTransactionApplierFactory( neoStores ) );
@@ -317,7 +344,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public RecordStorageReader newReader()
     {
-        return new RecordStorageReader( tokenHolders, neoStores, countsStore, groupDegreesStore, schemaCache );
+        return new RecordStorageReader( tokenHolders, neoStores, countsStore, groupDegreesStore, schemaCache, adjacencyCache, groupDirectory );
     }
 
     @Override
@@ -555,10 +582,20 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             neoStores.start( cursorContext );
             countsStore.start( cursorContext, storeCursors, otherMemoryTracker );
             groupDegreesStore.start( cursorContext, storeCursors, otherMemoryTracker );
+            reclaimUnusedStorePages( cursorContext );
             idController.start();
         }
     }
 
+    private void reclaimUnusedStorePages( CursorContext cursorContext ) throws IOException
+    {
+        if ( config.get( reclaim_unused_store_pages ) && !readOnlyChecker.isReadOnly() )
+        {
+            var reclaimer = new StoreSpaceReclaimer( neoStores, config.get( truncate_unused_trailing_store_pages ) );
+            internalLogProvider.getLog( RecordStorageEngine.class ).info( reclaimer.reclaim( cursorContext ).toString() );
+        }
+    }
+
     @VisibleForTesting
     public void loadSchemaCache()
     {
@@ -572,7 +609,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void stop() throws Exception
     {
-        executeAll( idController::stop );
+        executeAll( idController::stop, this::logAdjacencyCacheStatistics );
     }
 
     @Override
@@ -581,6 +618,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         executeAll( countsStore::close, groupDegreesStore::close, neoStores::close );
     }
 
+    private void logAdjacencyCacheStatistics()
+    {
+        if ( adjacencyCache != null )
+        {
+            internalLogProvider.getLog( RecordStorageEngine.class ).info( "Relationship adjacency cache hits: %d, misses: %d, hit ratio: %.2f, size: %d bytes",
+                    adjacencyCache.hits(), adjacencyCache.misses(), adjacencyCache.hitRatio(), adjacencyCache.usedBytes() );
+        }
+    }
+
     @Override
     public void flushAndForce( CursorContext cursorContext ) throws IOException
     {
@@ -693,4 +739,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         return storeEntityCounters;
     }
+
+    @Override
+    public AdjacencyCacheCounters adjacencyCacheCounters()
+    {
+        return adjacencyCache != null ? adjacencyCache : AdjacencyCacheCounters.NONE;
+    }
 }
@@ -68,11 +68,19 @@ public class RecordStorageReader implements StorageReader
     private final CountsAccessor counts;
     private final RelationshipGroupDegreesStore groupDegreesStore;
     private final SchemaCache schemaCache;
+    private final RelationshipAdjacencyCache adjacencyCache;
+    private final RelationshipGroupDirectory groupDirectory;
 
     private boolean closed;
 
     RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, RelationshipGroupDegreesStore groupDegreesStore,
             SchemaCache schemaCache )
+    {
+        this( tokenHolders, neoStores, counts, groupDegreesStore, schemaCache, null, null );
+    }
+
+    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, RelationshipGroupDegreesStore groupDegreesStore,
+            SchemaCache schemaCache, RelationshipAdjacencyCache adjacencyCache, RelationshipGroupDirectory groupDirectory )
     {
         this.tokenHolders = tokenHolders;
         this.nodeStore = neoStores.getNodeStore();
@@ -82,6 +90,8 @@ public class RecordStorageReader implements StorageReader
         this.counts = counts;
         this.groupDegreesStore = groupDegreesStore;
         this.schemaCache = schemaCache;
+        this.adjacencyCache = adjacencyCache;
+        this.groupDirectory = groupDirectory;
     }
 
     /**
@@ -339,7 +349,8 @@ public class RecordStorageReader implements StorageReader
     @Override
     public RecordRelationshipTraversalCursor allocateRelationshipTraversalCursor( CursorContext cursorContext, StoreCursors storeCursors )
     {
-        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, groupDegreesStore, cursorContext );
+        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, groupDegreesStore, adjacencyCache, groupDirectory,
+                cursorContext );
     }
 
     @Override
@@ -348,6 +359,23 @@ public class RecordStorageReader implements StorageReader
         return new RecordRelationshipScanCursor( relationshipStore, cursorContext );
     }
 
+    /**
+     * @return a new {@link RecordNodeBatchScanner} for reading the nodes of an {@link #allNodeScan() all-node scan} a page at a time.
+     */
+    public RecordNodeBatchScanner allocateNodeBatchScanner( CursorContext cursorContext )
+    {
+        return new RecordNodeBatchScanner( nodeStore, cursorContext );
+    }
+
+    /**
+     * @return a new {@link RecordRelationshipBatchScanner} for reading the relationships of an {@link #allRelationshipScan() all-relationship scan}
+     * a page at a time.
+     */
+    public RecordRelationshipBatchScanner allocateRelationshipBatchScanner( CursorContext cursorContext )
+    {
+        return new RecordRelationshipBatchScanner( relationshipStore, cursorContext );
+    }
+
     @Override
     public StorageSchemaReader schemaSnapshot()
     {
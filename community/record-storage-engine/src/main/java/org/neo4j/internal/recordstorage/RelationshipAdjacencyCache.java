@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.kernel.impl.store.stats.AdjacencyCacheCounters;
+
+/**
+ * Memory-bounded cache of the relationships of nodes, used by {@link RecordRelationshipTraversalCursor} to serve traversals
+ * of hot nodes without chasing relationship and relationship group record pointers through the page cache.
+ * <p>
+ * For each cached node all its relationships are kept, {@link #ENTRY_SIZE} longs per relationship:
+ * relationship id, first node, second node, type and first property record id. The cache holds committed state only and
+ * is populated by traversals that read all relationships of a node from the store anyway. Nodes with more than
+ * {@link #maxRelationshipsPerNode()} relationships are cached as {@link #OVERSIZED}, so that traversals of them don't record their
+ * relationships again. Nodes are invalidated after their relationship chains have been changed in the store,
+ * see {@link AdjacencyCacheInvalidationApplierFactory}.
+ * <p>
+ * Population races with invalidation are resolved using stamps: a traversal takes the {@link #stamp(long) stamp} of the node
+ * before reading its relationships from the store and the {@link #put(long, long, long[]) put} is undone if the node has been
+ * invalidated since.
+ * <p>
+ * When full, entries are evicted by the {@link ClockCache clock} policy to make room for new ones.
+ */
+public class RelationshipAdjacencyCache implements AdjacencyCacheCounters
+{
+    /**
+     * Marker of nodes with too many relationships to be cached, compared by identity.
+     */
+    static final long[] OVERSIZED = new long[0];
+
+    static final int ENTRY_SIZE = 5;
+    static final int ID = 0;
+    static final int FIRST_NODE = 1;
+    static final int SECOND_NODE = 2;
+    static final int TYPE = 3;
+    static final int NEXT_PROP = 4;
+
+    private static final int DEFAULT_MAX_RELATIONSHIPS_PER_NODE = 10_000;
+    private static final int NUMBER_OF_STAMPS = 1 << 12;
+    // Rough per-entry overhead of the map node, boxed key, clock entry and array header
+    private static final int ENTRY_OVERHEAD = 104;
+
+    private final ClockCache<long[]> adjacency = new ClockCache<>();
+    private final AtomicLongArray stamps = new AtomicLongArray( NUMBER_OF_STAMPS );
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long maxBytes;
+    private final int maxRelationshipsPerNode;
+
+    public RelationshipAdjacencyCache( long maxBytes )
+    {
+        this( maxBytes, DEFAULT_MAX_RELATIONSHIPS_PER_NODE );
+    }
+
+    RelationshipAdjacencyCache( long maxBytes, int maxRelationshipsPerNode )
+    {
+        this.maxBytes = maxBytes;
+        this.maxRelationshipsPerNode = maxRelationshipsPerNode;
+    }
+
+    /**
+     * @return the cached relationships of the node, {@link #OVERSIZED} if the node has too many relationships to be cached,
+     * or {@code null} if not cached.
+     */
+    long[] get( long nodeId )
+    {
+        long[] relationships = adjacency.get( nodeId );
+        (relationships != null && relationships != OVERSIZED ? hits : misses).increment();
+        return relationships;
+    }
+
+    /**
+     * @return stamp to pass to {@link #put(long, long, long[])} after reading the relationships of the node from the store.
+     */
+    long stamp( long nodeId )
+    {
+        return stamps.get( stampIndex( nodeId ) );
+    }
+
+    /**
+     * @return maximum number of relationships a node can have to be cached.
+     */
+    int maxRelationshipsPerNode()
+    {
+        return maxRelationshipsPerNode;
+    }
+
+    /**
+     * Caches the relationships of the node, or {@link #OVERSIZED}, unless the node has been invalidated after the given {@code stamp} was taken.
+     */
+    void put( long nodeId, long stamp, long[] relationships )
+    {
+        long size = sizeOf( relationships );
+        if ( size > maxBytes || stamp( nodeId ) != stamp )
+        {
+            return;
+        }
+        makeRoom( size );
+        long[] previous = adjacency.put( nodeId, relationships );
+        usedBytes.addAndGet( previous == null ? size : size - sizeOf( previous ) );
+        if ( stamp( nodeId ) != stamp )
+        {
+            // Invalidated while we were putting, so what we put may be stale
+            remove( nodeId, relationships );
+        }
+    }
+
+    /**
+     * Removes the node from the cache and makes sure that relationships read from the store before this call are not cached.
+     */
+    public void invalidate( long nodeId )
+    {
+        stamps.incrementAndGet( stampIndex( nodeId ) );
+        long[] removed = adjacency.remove( nodeId );
+        if ( removed != null )
+        {
+            usedBytes.addAndGet( -sizeOf( removed ) );
+        }
+    }
+
+    @Override
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long misses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * @return fraction of lookups that were served from the cache, or {@code 0} if there have been no lookups.
+     */
+    public double hitRatio()
+    {
+        long hits = hits();
+        long lookups = hits + misses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long usedBytes()
+    {
+        return usedBytes.get();
+    }
+
+    private void makeRoom( long size )
+    {
+        while ( usedBytes.get() + size > maxBytes )
+        {
+            long[] evicted = adjacency.evict();
+            if ( evicted == null )
+            {
+                return;
+            }
+            usedBytes.addAndGet( -sizeOf( evicted ) );
+        }
+    }
+
+    private void remove( long nodeId, long[] relationships )
+    {
+        if ( adjacency.remove( nodeId, relationships ) )
+        {
+            usedBytes.addAndGet( -sizeOf( relationships ) );
+        }
+    }
+
+    private static int stampIndex( long nodeId )
+    {
+        return Long.hashCode( nodeId ) & (NUMBER_OF_STAMPS - 1);
+    }
+
+    private static long sizeOf( long[] relationships )
+    {
+        return ENTRY_OVERHEAD + (long) relationships.length * Long.BYTES;
+    }
+}
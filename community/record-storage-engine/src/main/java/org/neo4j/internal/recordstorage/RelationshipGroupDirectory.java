@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+/**
+ * Directory of the relationship groups of dense nodes by relationship type, used by {@link RecordRelationshipTraversalCursor} to go
+ * straight to the groups of the selected types instead of walking the whole group chain, which is linear in the number of types of the node.
+ * <p>
+ * Directories are built lazily from the group chain by traversals and hold committed state only. Nodes are invalidated after their
+ * groups have been changed in the store, see {@link GroupDirectoryInvalidationApplierFactory}. Population races with invalidation
+ * are resolved using stamps, like in {@link RelationshipAdjacencyCache}.
+ * <p>
+ * Nodes with fewer groups than the {@link #minGroups() minimum} are looked up as {@link Groups#isChain() chain} nodes, telling traversals
+ * to walk the chain, since a short chain is cheaper to walk than to look up. Those are kept apart from the directory, in a table with
+ * one slot per node id hash, so that they can't evict the groups of nodes with many types. A node taking the slot of another one
+ * just makes the other one walk its chain once more to find out again.
+ * <p>
+ * When full, the directory evicts nodes that haven't been looked up recently, see {@link ClockCache}.
+ */
+public class RelationshipGroupDirectory
+{
+    private static final int DEFAULT_MIN_GROUPS = 10;
+    private static final int NUMBER_OF_STAMPS = 1 << 12;
+    private static final Groups CHAIN = new Groups( new int[0], new long[0] );
+    private static final int MAX_CHAIN_SLOTS = 1 << 30;
+    private static final long EMPTY_SLOT = 0;
+
+    private final ClockCache<Groups> directory = new ClockCache<>();
+    private final AtomicLongArray stamps = new AtomicLongArray( NUMBER_OF_STAMPS );
+    // Holds nodeId + 1 of chain nodes, so that zero means empty
+    private final AtomicLongArray chainNodes;
+    private final int maxNodes;
+    private final int minGroups;
+
+    public RelationshipGroupDirectory( int maxNodes )
+    {
+        this( maxNodes, DEFAULT_MIN_GROUPS );
+    }
+
+    RelationshipGroupDirectory( int maxNodes, int minGroups )
+    {
+        this.maxNodes = maxNodes;
+        this.minGroups = minGroups;
+        this.chainNodes = new AtomicLongArray( Integer.highestOneBit( Math.max( 1, Math.min( maxNodes, MAX_CHAIN_SLOTS ) - 1 ) ) << 1 );
+    }
+
+    /**
+     * @return the groups of the node, or {@code null} if not in the directory.
+     */
+    Groups get( long nodeId )
+    {
+        if ( chainNodes.get( chainSlot( nodeId ) ) == nodeId + 1 )
+        {
+            return CHAIN;
+        }
+        return directory.get( nodeId );
+    }
+
+    /**
+     * @return stamp to pass to {@link #put(long, long, int[], long[], int)} before reading the groups of the node from the store.
+     */
+    long stamp( long nodeId )
+    {
+        return stamps.get( stampIndex( nodeId ) );
+    }
+
+    int minGroups()
+    {
+        return minGroups;
+    }
+
+    /**
+     * Adds the first {@code count} groups of {@code types} and {@code groupIds} of the node to the directory, unless the node has been
+     * invalidated after the given {@code stamp} was taken.
+     *
+     * @return the added groups.
+     */
+    Groups put( long nodeId, long stamp, int[] types, long[] groupIds, int count )
+    {
+        if ( count < minGroups )
+        {
+            putChain( nodeId, stamp );
+            return CHAIN;
+        }
+        Groups groups = Groups.sorted( types, groupIds, count );
+        if ( stamp( nodeId ) != stamp )
+        {
+            return groups;
+        }
+        makeRoom();
+        directory.put( nodeId, groups );
+        if ( stamp( nodeId ) != stamp )
+        {
+            // Invalidated while we were putting, so what we put may be stale
+            directory.remove( nodeId, groups );
+        }
+        return groups;
+    }
+
+    private void putChain( long nodeId, long stamp )
+    {
+        if ( stamp( nodeId ) != stamp )
+        {
+            return;
+        }
+        int slot = chainSlot( nodeId );
+        chainNodes.set( slot, nodeId + 1 );
+        if ( stamp( nodeId ) != stamp )
+        {
+            // Invalidated while we were putting, so what we put may be stale
+            chainNodes.compareAndSet( slot, nodeId + 1, EMPTY_SLOT );
+        }
+    }
+
+    /**
+     * Removes the node from the directory and makes sure that groups read from the store before this call are not added.
+     */
+    public void invalidate( long nodeId )
+    {
+        stamps.incrementAndGet( stampIndex( nodeId ) );
+        directory.remove( nodeId );
+        chainNodes.compareAndSet( chainSlot( nodeId ), nodeId + 1, EMPTY_SLOT );
+    }
+
+    /**
+     * @return number of nodes with groups in the directory, not counting the chain nodes.
+     */
+    public int size()
+    {
+        return directory.size();
+    }
+
+    private void makeRoom()
+    {
+        while ( directory.size() >= maxNodes )
+        {
+            if ( directory.evict() == null )
+            {
+                return;
+            }
+        }
+    }
+
+    private int chainSlot( long nodeId )
+    {
+        return Long.hashCode( nodeId ) & (chainNodes.length() - 1);
+    }
+
+    private static int stampIndex( long nodeId )
+    {
+        return Long.hashCode( nodeId ) & (NUMBER_OF_STAMPS - 1);
+    }
+
+    /**
+     * The groups of a node, sorted by type.
+     */
+    static final class Groups
+    {
+        private final int[] types;
+        private final long[] groupIds;
+
+        private Groups( int[] types, long[] groupIds )
+        {
+            this.types = types;
+            this.groupIds = groupIds;
+        }
+
+        static Groups sorted( int[] types, long[] groupIds, int count )
+        {
+            Integer[] order = new Integer[count];
+            Arrays.setAll( order, i -> i );
+            Arrays.sort( order, ( a, b ) -> Integer.compare( types[a], types[b] ) );
+            int[] sortedTypes = new int[count];
+            long[] sortedGroupIds = new long[count];
+            for ( int i = 0; i < count; i++ )
+            {
+                sortedTypes[i] = types[order[i]];
+                sortedGroupIds[i] = groupIds[order[i]];
+            }
+            return new Groups( sortedTypes, sortedGroupIds );
+        }
+
+        /**
+         * @return whether the node has too few groups to be looked up in the directory.
+         */
+        boolean isChain()
+        {
+            return types.length == 0;
+        }
+
+        /**
+         * @return id of the group of the given type, or {@link org.neo4j.kernel.impl.store.record.AbstractBaseRecord#NO_ID} if the node has none.
+         */
+        long groupId( int type )
+        {
+            int index = Arrays.binarySearch( types, type );
+            return index >= 0 ? groupIds[index] : NO_ID;
+        }
+    }
+}
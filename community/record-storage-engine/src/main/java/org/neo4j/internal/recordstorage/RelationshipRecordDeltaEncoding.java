@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+/**
+ * Variable length encoding of {@link RelationshipRecord relationship records} where node, relationship and property pointers are
+ * stored as zig-zag encoded variable length deltas relative to the id of the record itself. Records of a graph with good locality,
+ * i.e. where relationships are stored close to their nodes and chain neighbours, encode to a fraction of the fixed record size.
+ * <p>
+ * Layout:
+ * <pre>
+ * [header byte][type][first node][second node][first prev][first next][second prev][second next][next prop]
+ * </pre>
+ * The header holds the in-use flag, the first-in-chain flags and a flag per pointer which is {@code null}, in which case that pointer
+ * is left out. The prev pointer of a relationship first in a chain is the degree of that chain and is stored as an absolute value.
+ */
+public final class RelationshipRecordDeltaEncoding
+{
+    /**
+     * Upper bound of the encoded size of a record: the header, the type and seven pointers of at most 10 bytes each.
+     */
+    public static final int MAX_ENCODED_SIZE = 1 + 5 + 7 * 10;
+
+    private static final int IN_USE = 0x1;
+    private static final int FIRST_IN_FIRST_CHAIN = 0x2;
+    private static final int FIRST_IN_SECOND_CHAIN = 0x4;
+    private static final int NO_FIRST_NEXT = 0x8;
+    private static final int NO_SECOND_NEXT = 0x10;
+    private static final int NO_NEXT_PROP = 0x20;
+
+    private static final long NULL = NO_NEXT_RELATIONSHIP.longValue();
+
+    private RelationshipRecordDeltaEncoding()
+    {
+    }
+
+    /**
+     * Writes the record at the current offset of the cursor. Only the header is written for records that are not in use.
+     */
+    public static void encode( RelationshipRecord record, PageCursor cursor )
+    {
+        if ( !record.inUse() )
+        {
+            cursor.putByte( (byte) 0 );
+            return;
+        }
+        long id = record.getId();
+        cursor.putByte( (byte) header( record ) );
+        putVarLong( cursor, record.getType() );
+        putDelta( cursor, record.getFirstNode(), id );
+        putDelta( cursor, record.getSecondNode(), id );
+        putPrev( cursor, record.getFirstPrevRel(), record.isFirstInFirstChain(), id );
+        putNullableDelta( cursor, record.getFirstNextRel(), NULL, id );
+        putPrev( cursor, record.getSecondPrevRel(), record.isFirstInSecondChain(), id );
+        putNullableDelta( cursor, record.getSecondNextRel(), NULL, id );
+        putNullableDelta( cursor, record.getNextProp(), NO_NEXT_PROPERTY.longValue(), id );
+    }
+
+    /**
+     * Reads a record with the given id from the current offset of the cursor.
+     */
+    public static void decode( long id, PageCursor cursor, RelationshipRecord record )
+    {
+        record.setId( id );
+        int header = cursor.getByte() & 0xFF;
+        if ( (header & IN_USE) == 0 )
+        {
+            record.clear();
+            return;
+        }
+        boolean firstInFirstChain = (header & FIRST_IN_FIRST_CHAIN) != 0;
+        boolean firstInSecondChain = (header & FIRST_IN_SECOND_CHAIN) != 0;
+        int type = (int) getVarLong( cursor );
+        long firstNode = getDelta( cursor, id );
+        long secondNode = getDelta( cursor, id );
+        long firstPrev = getPrev( cursor, firstInFirstChain, id );
+        long firstNext = (header & NO_FIRST_NEXT) != 0 ? NULL : getDelta( cursor, id );
+        long secondPrev = getPrev( cursor, firstInSecondChain, id );
+        long secondNext = (header & NO_SECOND_NEXT) != 0 ? NULL : getDelta( cursor, id );
+        long nextProp = (header & NO_NEXT_PROP) != 0 ? NO_NEXT_PROPERTY.longValue() : getDelta( cursor, id );
+        record.initialize( true, nextProp, firstNode, secondNode, type, firstPrev, firstNext, secondPrev, secondNext, firstInFirstChain,
+                firstInSecondChain );
+    }
+
+    /**
+     * @return the number of bytes {@link #encode(RelationshipRecord, PageCursor)} writes for the record.
+     */
+    public static int encodedSize( RelationshipRecord record )
+    {
+        if ( !record.inUse() )
+        {
+            return 1;
+        }
+        long id = record.getId();
+        int size = 1 + varLongSize( record.getType() );
+        size += varLongSize( zigZag( record.getFirstNode() - id ) );
+        size += varLongSize( zigZag( record.getSecondNode() - id ) );
+        size += varLongSize( record.isFirstInFirstChain() ? record.getFirstPrevRel() : zigZag( record.getFirstPrevRel() - id ) );
+        size += record.getFirstNextRel() == NULL ? 0 : varLongSize( zigZag( record.getFirstNextRel() - id ) );
+        size += varLongSize( record.isFirstInSecondChain() ? record.getSecondPrevRel() : zigZag( record.getSecondPrevRel() - id ) );
+        size += record.getSecondNextRel() == NULL ? 0 : varLongSize( zigZag( record.getSecondNextRel() - id ) );
+        size += record.getNextProp() == NO_NEXT_PROPERTY.longValue() ? 0 : varLongSize( zigZag( record.getNextProp() - id ) );
+        return size;
+    }
+
+    private static int header( RelationshipRecord record )
+    {
+        int header = IN_USE;
+        header |= record.isFirstInFirstChain() ? FIRST_IN_FIRST_CHAIN : 0;
+        header |= record.isFirstInSecondChain() ? FIRST_IN_SECOND_CHAIN : 0;
+        header |= record.getFirstNextRel() == NULL ? NO_FIRST_NEXT : 0;
+        header |= record.getSecondNextRel() == NULL ? NO_SECOND_NEXT : 0;
+        header |= record.getNextProp() == NO_NEXT_PROPERTY.longValue() ? NO_NEXT_PROP : 0;
+        return header;
+    }
+
+    private static void putPrev( PageCursor cursor, long prev, boolean firstInChain, long id )
+    {
+        if ( firstInChain )
+        {
+            putVarLong( cursor, prev );
+        }
+        else
+        {
+            putDelta( cursor, prev, id );
+        }
+    }
+
+    private static long getPrev( PageCursor cursor, boolean firstInChain, long id )
+    {
+        return firstInChain ? getVarLong( cursor ) : getDelta( cursor, id );
+    }
+
+    private static void putNullableDelta( PageCursor cursor, long pointer, long nullValue, long id )
+    {
+        if ( pointer != nullValue )
+        {
+            putDelta( cursor, pointer, id );
+        }
+    }
+
+    private static void putDelta( PageCursor cursor, long pointer, long id )
+    {
+        putVarLong( cursor, zigZag( pointer - id ) );
+    }
+
+    private static long getDelta( PageCursor cursor, long id )
+    {
+        long zigZagged = getVarLong( cursor );
+        return id + ((zigZagged >>> 1) ^ -(zigZagged & 1));
+    }
+
+    private static long zigZag( long value )
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void putVarLong( PageCursor cursor, long value )
+    {
+        while ( (value & ~0x7FL) != 0 )
+        {
+            cursor.putByte( (byte) ((value & 0x7F) | 0x80) );
+            value >>>= 7;
+        }
+        cursor.putByte( (byte) value );
+    }
+
+    private static long getVarLong( PageCursor cursor )
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = cursor.getByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ( (b & 0x80) != 0 && shift < Long.SIZE );
+        return value;
+    }
+
+    private static int varLongSize( long value )
+    {
+        int size = 1;
+        while ( (value & ~0x7FL) != 0 )
+        {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+/**
+ * A batch of in-use relationship records of a batched all-relationship scan, laid out as one primitive array per field.
+ * Filled by {@link RecordRelationshipBatchScanner#scanBatch(org.neo4j.storageengine.api.AllRelationshipsScan, RelationshipScanBatch)}.
+ */
+public final class RelationshipScanBatch
+{
+    private final long[] ids;
+    private final int[] types;
+    private final long[] sourceNodes;
+    private final long[] targetNodes;
+    private final long[] firstProperties;
+    private int size;
+
+    public RelationshipScanBatch( int capacity )
+    {
+        this.ids = new long[capacity];
+        this.types = new int[capacity];
+        this.sourceNodes = new long[capacity];
+        this.targetNodes = new long[capacity];
+        this.firstProperties = new long[capacity];
+    }
+
+    public int capacity()
+    {
+        return ids.length;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long id( int index )
+    {
+        return ids[index];
+    }
+
+    public int type( int index )
+    {
+        return types[index];
+    }
+
+    public long sourceNode( int index )
+    {
+        return sourceNodes[index];
+    }
+
+    public long targetNode( int index )
+    {
+        return targetNodes[index];
+    }
+
+    public long firstProperty( int index )
+    {
+        return firstProperties[index];
+    }
+
+    void add( long id, int type, long sourceNode, long targetNode, long firstProperty )
+    {
+        ids[size] = id;
+        types[size] = type;
+        sourceNodes[size] = sourceNode;
+        targetNodes[size] = targetNode;
+        firstProperties[size] = firstProperty;
+        size++;
+    }
+
+    void clear()
+    {
+        size = 0;
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.format.RecordFormat;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.util.Preconditions;
+
+import static java.lang.String.format;
+import static org.neo4j.internal.recordstorage.RelationshipRecordDeltaEncoding.MAX_ENCODED_SIZE;
+
+/**
+ * Compares the size and decoding throughput of the relationships in a {@link RelationshipStore} in their current fixed size record format
+ * with the {@link RelationshipRecordDeltaEncoding delta encoding}, to tell how much a store would shrink with pointers relative to record ids.
+ * <p>
+ * The comparison runs in two phases. First the whole store is read a page at a time and the in-use records of each page are encoded in both
+ * ways, to measure their sizes. The encoded copies of the first pages are kept in memory as a sample for the second phase, which decodes the
+ * sample in both formats a number of warmup rounds before timing the measured rounds. Decoding from memory keeps page cache access,
+ * and the JIT compilation of the first rounds, out of the throughput numbers.
+ */
+public class RelationshipStoreEncodingComparison
+{
+    public static final int DEFAULT_SAMPLE_PAGES = 1_000;
+    public static final int DEFAULT_WARMUP_ROUNDS = 10;
+    public static final int DEFAULT_MEASURED_ROUNDS = 10;
+
+    private final RelationshipStore store;
+    private final RecordFormat<RelationshipRecord> format;
+    private final CursorContext cursorContext;
+    private final int samplePages;
+
+    public RelationshipStoreEncodingComparison( RelationshipStore store, RecordFormat<RelationshipRecord> format, CursorContext cursorContext )
+    {
+        this( store, format, cursorContext, DEFAULT_SAMPLE_PAGES );
+    }
+
+    /**
+     * @param samplePages the number of pages of in-use records to keep in memory to measure the decoding throughput with.
+     */
+    public RelationshipStoreEncodingComparison( RelationshipStore store, RecordFormat<RelationshipRecord> format, CursorContext cursorContext,
+            int samplePages )
+    {
+        Preconditions.requirePositive( samplePages );
+        this.store = store;
+        this.format = format;
+        this.cursorContext = cursorContext;
+        this.samplePages = samplePages;
+    }
+
+    public Comparison compare() throws IOException
+    {
+        return compare( DEFAULT_WARMUP_ROUNDS, DEFAULT_MEASURED_ROUNDS );
+    }
+
+    /**
+     * @param warmupRounds number of times to decode the sample before measuring.
+     * @param measuredRounds number of times to decode the sample while timed.
+     */
+    public Comparison compare( int warmupRounds, int measuredRounds ) throws IOException
+    {
+        Preconditions.requireNonNegative( warmupRounds );
+        Preconditions.requirePositive( measuredRounds );
+        Comparison comparison = new Comparison();
+        List<SamplePage> sample = measureSizes( comparison );
+        measureDecoding( sample, warmupRounds, measuredRounds, comparison );
+        return comparison;
+    }
+
+    private List<SamplePage> measureSizes( Comparison comparison ) throws IOException
+    {
+        int recordSize = store.getRecordSize();
+        int recordsPerPage = store.getRecordsPerPage();
+        RelationshipRecord[] records = new RelationshipRecord[recordsPerPage];
+        for ( int i = 0; i < recordsPerPage; i++ )
+        {
+            records[i] = store.newRecord();
+        }
+        PageCursor fixedPage = ByteArrayPageCursor.wrap( recordsPerPage * recordSize );
+        PageCursor deltaPage = ByteArrayPageCursor.wrap( recordsPerPage * MAX_ENCODED_SIZE );
+        List<SamplePage> sample = new ArrayList<>();
+
+        long highId = store.getHighestPossibleIdInUse( cursorContext );
+        try ( PageCursor cursor = store.openPageCursorForReadingWithPrefetching( 0, cursorContext ) )
+        {
+            for ( long pageStart = 0; pageStart <= highId; pageStart += recordsPerPage )
+            {
+                long pageStop = Math.min( highId, pageStart + recordsPerPage - 1 );
+                int read = store.getRecordsOnPageByCursor( pageStart, pageStop, records, RecordLoad.LENIENT_CHECK, cursor );
+                long[] ids = new long[read];
+                int inUse = 0;
+                fixedPage.setOffset( 0 );
+                deltaPage.setOffset( 0 );
+                for ( int i = 0; i < read; i++ )
+                {
+                    RelationshipRecord record = records[i];
+                    if ( record.inUse() )
+                    {
+                        format.write( record, fixedPage, recordSize, recordsPerPage );
+                        RelationshipRecordDeltaEncoding.encode( record, deltaPage );
+                        ids[inUse++] = record.getId();
+                    }
+                }
+                comparison.records += inUse;
+                comparison.fixedBytes += (long) inUse * recordSize;
+                comparison.deltaBytes += deltaPage.getOffset();
+
+                if ( inUse > 0 && sample.size() < samplePages )
+                {
+                    sample.add( new SamplePage( Arrays.copyOf( ids, inUse ), copyOf( fixedPage ), copyOf( deltaPage ) ) );
+                }
+            }
+        }
+        return sample;
+    }
+
+    private void measureDecoding( List<SamplePage> sample, int warmupRounds, int measuredRounds, Comparison comparison )
+    {
+        int recordSize = store.getRecordSize();
+        int recordsPerPage = store.getRecordsPerPage();
+        RelationshipRecord decoded = store.newRecord();
+        for ( int round = 0; round < warmupRounds; round++ )
+        {
+            checkSameRecords( decodeFixed( sample, decoded, recordSize, recordsPerPage ), decodeDelta( sample, decoded ) );
+        }
+        for ( int round = 0; round < measuredRounds; round++ )
+        {
+            long start = System.nanoTime();
+            long fixedChecksum = decodeFixed( sample, decoded, recordSize, recordsPerPage );
+            long fixedDone = System.nanoTime();
+            long deltaChecksum = decodeDelta( sample, decoded );
+            comparison.fixedDecodeNanos += fixedDone - start;
+            comparison.deltaDecodeNanos += System.nanoTime() - fixedDone;
+            checkSameRecords( fixedChecksum, deltaChecksum );
+        }
+        for ( SamplePage page : sample )
+        {
+            comparison.decodedRecords += (long) page.ids.length * measuredRounds;
+        }
+    }
+
+    private long decodeFixed( List<SamplePage> sample, RelationshipRecord decoded, int recordSize, int recordsPerPage )
+    {
+        long checksum = 0;
+        for ( SamplePage page : sample )
+        {
+            PageCursor cursor = ByteArrayPageCursor.wrap( page.fixed );
+            for ( int i = 0; i < page.ids.length; i++ )
+            {
+                decoded.setId( page.ids[i] );
+                try
+                {
+                    format.read( decoded, cursor, RecordLoad.NORMAL, recordSize, recordsPerPage );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+                checksum += checksum( decoded );
+            }
+        }
+        return checksum;
+    }
+
+    private static long decodeDelta( List<SamplePage> sample, RelationshipRecord decoded )
+    {
+        long checksum = 0;
+        for ( SamplePage page : sample )
+        {
+            PageCursor cursor = ByteArrayPageCursor.wrap( page.delta );
+            for ( long id : page.ids )
+            {
+                RelationshipRecordDeltaEncoding.decode( id, cursor, decoded );
+                checksum += checksum( decoded );
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Combines the fields of a decoded record, both to verify that the two encodings decode to the same records and so that the decoding
+     * can't be optimized away.
+     */
+    private static long checksum( RelationshipRecord record )
+    {
+        long checksum = record.getFirstNode() * 31 + record.getSecondNode();
+        checksum = checksum * 31 + record.getType();
+        checksum = checksum * 31 + record.getFirstPrevRel();
+        checksum = checksum * 31 + record.getFirstNextRel();
+        checksum = checksum * 31 + record.getSecondPrevRel();
+        checksum = checksum * 31 + record.getSecondNextRel();
+        return checksum * 31 + record.getNextProp();
+    }
+
+    private static void checkSameRecords( long fixedChecksum, long deltaChecksum )
+    {
+        if ( fixedChecksum != deltaChecksum )
+        {
+            throw new IllegalStateException( "Relationships decoded from the delta encoding differ from the ones decoded from the fixed size format" );
+        }
+    }
+
+    private static byte[] copyOf( PageCursor page )
+    {
+        byte[] bytes = new byte[page.getOffset()];
+        page.setOffset( 0 );
+        page.getBytes( bytes );
+        return bytes;
+    }
+
+    private static class SamplePage
+    {
+        private final long[] ids;
+        private final byte[] fixed;
+        private final byte[] delta;
+
+        SamplePage( long[] ids, byte[] fixed, byte[] delta )
+        {
+            this.ids = ids;
+            this.fixed = fixed;
+            this.delta = delta;
+        }
+    }
+
+    public static class Comparison
+    {
+        private long records;
+        private long fixedBytes;
+        private long deltaBytes;
+        private long decodedRecords;
+        private long fixedDecodeNanos;
+        private long deltaDecodeNanos;
+
+        public long records()
+        {
+            return records;
+        }
+
+        /**
+         * @return the number of bytes the in-use relationships occupy in the fixed size record format.
+         */
+        public long fixedBytes()
+        {
+            return fixedBytes;
+        }
+
+        /**
+         * @return the number of bytes the in-use relationships would occupy with the delta encoding.
+         */
+        public long deltaBytes()
+        {
+            return deltaBytes;
+        }
+
+        /**
+         * @return delta encoded size relative to the fixed size, where e.g. {@code 0.4} means that the delta encoding needs 40% of the space.
+         */
+        public double sizeRatio()
+        {
+            return fixedBytes == 0 ? 1D : (double) deltaBytes / fixedBytes;
+        }
+
+        /**
+         * @return the number of records decoded in each format during the measured rounds.
+         */
+        public long decodedRecords()
+        {
+            return decodedRecords;
+        }
+
+        public long fixedDecodeNanos()
+        {
+            return fixedDecodeNanos;
+        }
+
+        public long deltaDecodeNanos()
+        {
+            return deltaDecodeNanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return format( "Relationships: %d, fixed size: %d bytes (%.1f records/ms), delta encoded: %d bytes (%.1f%%, %.1f records/ms)",
+                    records, fixedBytes, recordsPerMilli( fixedDecodeNanos ), deltaBytes, sizeRatio() * 100, recordsPerMilli( deltaDecodeNanos ) );
+        }
+
+        private double recordsPerMilli( long nanos )
+        {
+            return nanos == 0 ? 0D : decodedRecords * 1_000_000D / nanos;
+        }
+    }
+}
@@ -41,6 +41,16 @@ import org.neo4j.storageengine.api.StorageCommand;
  */
 public interface TransactionApplier extends Visitor<StorageCommand,IOException>, CommandVisitor, AutoCloseable
 {
+    /**
+     * Called when all commands of the transaction have been visited, before {@link #close()}. A {@link TransactionApplierFacade} calls this
+     * on all its appliers in order before closing them in reverse order, so appliers that defer writes to the stores must write them here
+     * for the appliers after them in the chain, e.g. the index applier reading entities from the stores, to see them.
+     */
+    default void commandsVisited() throws Exception
+    {
+        // Do nothing
+    }
+
     /**
      * Delegates to individual visit methods (see {@link CommandVisitor}) which need to be implemented, as well as
      * {@link #close()} if applicable.
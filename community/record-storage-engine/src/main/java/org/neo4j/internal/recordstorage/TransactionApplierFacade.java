@@ -26,7 +26,7 @@ import org.neo4j.storageengine.api.StorageCommand;
 /**
  * Wraps several {@link TransactionApplier}s. In this case, each individual visit-call will delegate to {@link
  * #visit(StorageCommand)} instead, which will call each wrapped {@link TransactionApplier} in turn. In
- * {@link #close()},
+ * {@link #close()}, {@link #commandsVisited()} is first called on the appliers in order, then
  * the appliers are closed in reversed order.
  */
 public class TransactionApplierFacade implements TransactionApplier
@@ -38,14 +38,30 @@ public class TransactionApplierFacade implements TransactionApplier
         this.appliers = appliers;
     }
 
+    @Override
+    public void commandsVisited() throws Exception
+    {
+        for ( TransactionApplier applier : appliers )
+        {
+            applier.commandsVisited();
+        }
+    }
+
     @Override
     public void close() throws Exception
     {
-        // Need to close in reverse order or LuceneRecoveryIT can hang on database shutdown, when
-        // errors are thrown
-        for ( int i = appliers.length - 1; i >= 0; i-- )
+        try
+        {
+            commandsVisited();
+        }
+        finally
         {
-            appliers[i].close();
+            // Need to close in reverse order or LuceneRecoveryIT can hang on database shutdown, when
+            // errors are thrown
+            for ( int i = appliers.length - 1; i >= 0; i-- )
+            {
+                appliers[i].close();
+            }
         }
     }
 
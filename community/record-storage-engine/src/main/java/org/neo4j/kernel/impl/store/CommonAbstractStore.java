@@ -708,6 +708,33 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         return recordFormat.isInUse( cursor );
     }
 
+    /**
+     * @param pageId the page to check.
+     * @param cursor cursor to read the page with.
+     * @return whether the page exists and none of the records on it are in use. Pages holding reserved low ids are never unused.
+     */
+    boolean isPageUnused( long pageId, PageCursor cursor ) throws IOException
+    {
+        long firstId = pageId * recordsPerPage;
+        if ( firstId < getNumberOfReservedLowIds() || !cursor.next( pageId ) )
+        {
+            return false;
+        }
+        boolean unused;
+        do
+        {
+            unused = true;
+            for ( int record = 0; record < recordsPerPage && unused; record++ )
+            {
+                cursor.setOffset( offsetForId( firstId + record ) );
+                unused = !isInUse( cursor );
+            }
+        }
+        while ( cursor.shouldRetry() );
+        checkIdScanCursorBounds( cursor );
+        return unused;
+    }
+
     @Override
     public void flush( CursorContext cursorContext )
     {
@@ -884,6 +911,57 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         }
     }
 
+    /**
+     * Reads the records with ids {@code startId} up to and including {@code stopId} into {@code records}, starting at index 0.
+     * All ids must reside on the same page, which is pinned once and read consistently for the whole range, instead of once per record.
+     *
+     * @param startId id of the first record to read.
+     * @param stopId id of the last record to read, on the same page as {@code startId}.
+     * @param records records to read into, at least {@code stopId - startId + 1} long.
+     * @param mode {@link RecordLoad} mode of the records.
+     * @param cursor page cursor to read the page with.
+     * @return the number of records read, which is {@code 0} if the page is beyond the end of the store.
+     */
+    public int getRecordsOnPageByCursor( long startId, long stopId, RECORD[] records, RecordLoad mode, PageCursor cursor ) throws UnderlyingStorageException
+    {
+        long pageId = pageIdForRecord( startId );
+        if ( pageIdForRecord( stopId ) != pageId )
+        {
+            throw new IllegalArgumentException( "Records " + startId + " and " + stopId + " are not on the same page" );
+        }
+        int count = (int) (stopId - startId + 1);
+        try
+        {
+            if ( !cursor.next( pageId ) )
+            {
+                return 0;
+            }
+            int startOffset = offsetForId( startId );
+            do
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    RECORD record = records[i];
+                    record.setId( startId + i );
+                    record.setInUse( false );
+                    cursor.setOffset( startOffset + i * recordSize );
+                    recordFormat.read( record, cursor, mode, recordSize, recordsPerPage );
+                }
+            }
+            while ( cursor.shouldRetry() );
+            checkForDecodingErrors( cursor, startId, mode );
+            for ( int i = 0; i < count; i++ )
+            {
+                verifyAfterReading( records[i], mode );
+            }
+            return count;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     private void readRecordFromPage( long id, RECORD record, RecordLoad mode, PageCursor cursor ) throws IOException
     {
         cursor.mark();
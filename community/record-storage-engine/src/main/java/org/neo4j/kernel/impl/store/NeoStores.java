@@ -276,7 +276,7 @@ public class NeoStores implements AutoCloseable
      * @return store of requested type
      * @throws IllegalStateException if opened store not found
      */
-    private CommonAbstractStore getStore( StoreType storeType )
+    CommonAbstractStore getStore( StoreType storeType )
     {
         CommonAbstractStore store = stores[storeType.ordinal()];
         if ( store == null )
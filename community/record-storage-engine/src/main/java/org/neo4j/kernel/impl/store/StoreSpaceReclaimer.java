@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.kernel.impl.store.format.RecordStorageCapability.SECONDARY_RECORD_UNITS;
+
+/**
+ * Releases the disk space of store file pages that hold no records in use, typically left behind by large deletes.
+ * <p>
+ * Runs of unused pages in the middle of a store file get holes punched in them, see {@link org.neo4j.io.pagecache.PagedFile#punchHoles(long, long)}.
+ * A run of unused pages at the end of a store file either gets a hole punched in it as well, or optionally truncates the file. The high ids
+ * of the stores are left as they are, since the id generators may still hand out the freed ids, which will simply grow the files again.
+ * <p>
+ * An unused record reads the same as a zeroed record in all formats without secondary record units, which is what makes this safe.
+ * Stores of formats with secondary record units are left alone, since a record unit that looks unused may be the secondary unit of
+ * another record. The reclaimer must only run when nothing writes to the stores concurrently, such as when the database starts.
+ */
+public class StoreSpaceReclaimer
+{
+    private static final List<StoreType> RECLAIMABLE_STORES = List.of( StoreType.NODE, StoreType.NODE_LABEL, StoreType.RELATIONSHIP,
+            StoreType.RELATIONSHIP_GROUP, StoreType.PROPERTY, StoreType.PROPERTY_STRING, StoreType.PROPERTY_ARRAY );
+
+    private final NeoStores neoStores;
+    private final boolean truncateTrailingPages;
+
+    public StoreSpaceReclaimer( NeoStores neoStores, boolean truncateTrailingPages )
+    {
+        this.neoStores = neoStores;
+        this.truncateTrailingPages = truncateTrailingPages;
+    }
+
+    public Report reclaim( CursorContext cursorContext ) throws IOException
+    {
+        Report report = new Report();
+        if ( neoStores.getRecordFormats().hasCapability( SECONDARY_RECORD_UNITS ) )
+        {
+            return report;
+        }
+        for ( StoreType type : RECLAIMABLE_STORES )
+        {
+            reclaim( neoStores.getStore( type ), report, cursorContext );
+        }
+        return report;
+    }
+
+    private void reclaim( CommonAbstractStore<?,?> store, Report report, CursorContext cursorContext ) throws IOException
+    {
+        // Dirty pages would otherwise refill the holes, or grow the file past where it is truncated, when they are flushed later.
+        store.pagedFile.flushAndForce();
+        long lastPageId = store.getLastPageId();
+        report.pagesBefore += lastPageId + 1;
+        long unusedFrom = -1;
+        try ( PageCursor cursor = store.pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, cursorContext ) )
+        {
+            for ( long pageId = 0; pageId <= lastPageId; pageId++ )
+            {
+                if ( store.isPageUnused( pageId, cursor ) )
+                {
+                    unusedFrom = unusedFrom == -1 ? pageId : unusedFrom;
+                }
+                else if ( unusedFrom != -1 )
+                {
+                    report.punchedBytes += store.pagedFile.punchHoles( unusedFrom, pageId - unusedFrom );
+                    unusedFrom = -1;
+                }
+            }
+        }
+        if ( unusedFrom != -1 )
+        {
+            if ( truncateTrailingPages && unusedFrom > 0 )
+            {
+                report.truncatedBytes += store.pagedFile.truncate( unusedFrom );
+            }
+            else
+            {
+                report.punchedBytes += store.pagedFile.punchHoles( unusedFrom, lastPageId + 1 - unusedFrom );
+            }
+        }
+        report.pagesAfter += store.getLastPageId() + 1;
+    }
+
+    public static final class Report
+    {
+        private long punchedBytes;
+        private long truncatedBytes;
+        private long pagesBefore;
+        private long pagesAfter;
+
+        /**
+         * @return the number of bytes released by punching holes in store files.
+         */
+        public long punchedBytes()
+        {
+            return punchedBytes;
+        }
+
+        /**
+         * @return the number of bytes released by truncating store files.
+         */
+        public long truncatedBytes()
+        {
+            return truncatedBytes;
+        }
+
+        public long reclaimedBytes()
+        {
+            return punchedBytes + truncatedBytes;
+        }
+
+        /**
+         * @return the number of pages the store files spanned before reclaiming, which is what the page cache may have to map.
+         */
+        public long pagesBefore()
+        {
+            return pagesBefore;
+        }
+
+        /**
+         * @return the number of pages the store files span after reclaiming.
+         */
+        public long pagesAfter()
+        {
+            return pagesAfter;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format( "Reclaimed %d bytes of unused store pages, %d by punching holes and %d by truncating files. " +
+                    "Store files span %d pages, down from %d.", reclaimedBytes(), punchedBytes, truncatedBytes, pagesAfter, pagesBefore );
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.helpers.ArrayUtil.concatArrays;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
+
+class CachedRecordRelationshipTraversalCursorTest extends RecordRelationshipTraversalCursorTest
+{
+    private RelationshipAdjacencyCache adjacencyCache = new RelationshipAdjacencyCache( Long.MAX_VALUE );
+
+    @Override
+    protected RecordRelationshipTraversalCursor getNodeRelationshipCursor()
+    {
+        return new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null, adjacencyCache,
+                CursorContext.NULL );
+    }
+
+    @Test
+    void shouldServeRepeatedTraversalsFromCache()
+    {
+        // given
+        long reference = createRelationshipStructure( false, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+
+        // when
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+        }
+
+        // then
+        assertThat( adjacencyCache.misses() ).isEqualTo( 1 );
+        assertThat( adjacencyCache.hits() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldReadFromStoreAfterInvalidation()
+    {
+        // given
+        neoStores.getRelationshipStore().setHighId( 10 );
+        long reference = createRelationshipStructure( false, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+
+            // when
+            unUseRecord( 2 );
+            adjacencyCache.invalidate( FIRST_OWNING_NODE );
+
+            // then
+            assertThat( count( cursor, reference ) ).isEqualTo( 3 );
+        }
+    }
+
+    @Test
+    void shouldTraverseNodesWithTooManyRelationshipsToCache()
+    {
+        // given
+        adjacencyCache = new RelationshipAdjacencyCache( Long.MAX_VALUE, 2 );
+        long reference = createRelationshipStructure( true, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+
+        // when
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+        }
+
+        // then
+        assertThat( adjacencyCache.hits() ).isZero();
+        assertThat( adjacencyCache.misses() ).isEqualTo( 2 );
+        assertThat( adjacencyCache.get( FIRST_OWNING_NODE ) ).isSameAs( RelationshipAdjacencyCache.OVERSIZED );
+    }
+
+    @Test
+    void shouldNotCacheTypeLimitedTraversalOfDenseNode()
+    {
+        // given
+        long reference = createRelationshipStructure( true, concatArrays(
+                homogenousRelationships( 2, TYPE1, OUTGOING ),
+                homogenousRelationships( 3, TYPE2, OUTGOING ) ) );
+
+        // when
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( count( cursor, reference, selection( TYPE1, Direction.BOTH ) ) ).isEqualTo( 2 );
+            assertThat( count( cursor, reference, ALL_RELATIONSHIPS ) ).isEqualTo( 5 );
+            assertThat( count( cursor, reference, selection( TYPE2, Direction.OUTGOING ) ) ).isEqualTo( 3 );
+        }
+
+        // then
+        assertThat( adjacencyCache.misses() ).isEqualTo( 2 );
+        assertThat( adjacencyCache.hits() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldCacheDirectionLimitedTraversalOfSparseNode()
+    {
+        // given
+        long reference = createRelationshipStructure( false, concatArrays(
+                homogenousRelationships( 2, TYPE1, OUTGOING ),
+                homogenousRelationships( 3, TYPE1, INCOMING ) ) );
+
+        // when
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( count( cursor, reference, selection( TYPE1, Direction.OUTGOING ) ) ).isEqualTo( 2 );
+            assertThat( count( cursor, reference, selection( TYPE1, Direction.INCOMING ) ) ).isEqualTo( 3 );
+        }
+
+        // then
+        assertThat( adjacencyCache.misses() ).isEqualTo( 1 );
+        assertThat( adjacencyCache.hits() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldNotCacheAbandonedTraversal()
+    {
+        // given
+        long reference = createRelationshipStructure( false, homogenousRelationships( 4, TYPE1, OUTGOING ) );
+
+        // when
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            cursor.init( FIRST_OWNING_NODE, reference, ALL_RELATIONSHIPS );
+            assertThat( cursor.next() ).isTrue();
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+            assertThat( count( cursor, reference ) ).isEqualTo( 4 );
+        }
+
+        // then
+        assertThat( adjacencyCache.misses() ).isEqualTo( 2 );
+        assertThat( adjacencyCache.hits() ).isEqualTo( 1 );
+    }
+
+    private static int count( RecordRelationshipTraversalCursor cursor, long reference )
+    {
+        return count( cursor, reference, ALL_RELATIONSHIPS );
+    }
+
+    private static int count( RecordRelationshipTraversalCursor cursor, long reference, RelationshipSelection selection )
+    {
+        cursor.init( FIRST_OWNING_NODE, reference, selection );
+        int count = 0;
+        while ( cursor.next() )
+        {
+            count++;
+        }
+        return count;
+    }
+}
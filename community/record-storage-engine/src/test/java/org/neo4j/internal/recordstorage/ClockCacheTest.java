@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClockCacheTest
+{
+    @Test
+    void shouldEvictEntriesNotLookedUpSinceHandPassed()
+    {
+        // given
+        ClockCache<String> cache = new ClockCache<>();
+        cache.put( 1, "one" );
+        cache.put( 2, "two" );
+        cache.put( 3, "three" );
+        cache.get( 1 );
+        cache.get( 3 );
+
+        // when
+        String evicted = cache.evict();
+
+        // then
+        assertThat( evicted ).isEqualTo( "two" );
+        assertThat( cache.size() ).isEqualTo( 2 );
+        assertThat( cache.get( 2 ) ).isNull();
+    }
+
+    @Test
+    void shouldEvictReferencedEntriesAfterClearingTheirReferences()
+    {
+        // given
+        ClockCache<String> cache = new ClockCache<>();
+        cache.put( 1, "one" );
+        cache.put( 2, "two" );
+        cache.get( 1 );
+        cache.get( 2 );
+
+        // when
+        String first = cache.evict();
+        String second = cache.evict();
+
+        // then
+        assertThat( first ).isNotNull();
+        assertThat( second ).isNotNull().isNotEqualTo( first );
+        assertThat( cache.size() ).isZero();
+        assertThat( cache.evict() ).isNull();
+    }
+
+    @Test
+    void shouldOnlyRemoveNodeWithGivenValue()
+    {
+        // given
+        ClockCache<String> cache = new ClockCache<>();
+        cache.put( 1, "one" );
+
+        // when/then
+        assertThat( cache.remove( 1, new String( "one" ) ) ).isFalse();
+        assertThat( cache.get( 1 ) ).isEqualTo( "one" );
+        assertThat( cache.remove( 1, cache.get( 1 ) ) ).isTrue();
+        assertThat( cache.get( 1 ) ).isNull();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.storageengine.api.ReadTracer;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
+
+class GroupDirectoryRecordRelationshipTraversalCursorTest extends RecordRelationshipTraversalCursorTest
+{
+    private final RelationshipGroupDirectory groupDirectory = new RelationshipGroupDirectory( 100, 1 );
+
+    @Override
+    protected RecordRelationshipTraversalCursor getNodeRelationshipCursor()
+    {
+        return new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null, null, groupDirectory,
+                CursorContext.NULL );
+    }
+
+    @Test
+    void shouldGoStraightToGroupOfSelectedType()
+    {
+        // given a dense node with many relationship types
+        int types = 100;
+        RelationshipSpec[] specs = new RelationshipSpec[types];
+        for ( int type = 0; type < types; type++ )
+        {
+            specs[type] = new RelationshipSpec( type, OUTGOING );
+        }
+        long reference = createRelationshipStructure( true, specs );
+        RelationshipSelection lastType = selection( types - 1, Direction.OUTGOING );
+
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            // when the first traversal has added the node to the directory
+            assertThat( traverse( cursor, reference, lastType ) ).isEqualTo( 1 );
+            assertThat( groupDirectory.size() ).isEqualTo( 1 );
+
+            // then
+            DbHits dbHits = new DbHits();
+            cursor.setTracer( dbHits );
+            assertThat( traverse( cursor, reference, lastType ) ).isEqualTo( 1 );
+            assertThat( dbHits.count ).isEqualTo( 1 );
+        }
+    }
+
+    @Test
+    void shouldWalkGroupChainAfterInvalidation()
+    {
+        // given
+        long reference = createRelationshipStructure( true, new RelationshipSpec( TYPE1, OUTGOING ), new RelationshipSpec( TYPE2, OUTGOING ) );
+        try ( RecordRelationshipTraversalCursor cursor = getNodeRelationshipCursor() )
+        {
+            assertThat( traverse( cursor, reference, selection( TYPE2, Direction.OUTGOING ) ) ).isEqualTo( 1 );
+
+            // when
+            groupDirectory.invalidate( FIRST_OWNING_NODE );
+
+            // then
+            assertThat( groupDirectory.size() ).isZero();
+            assertThat( traverse( cursor, reference, selection( TYPE2, Direction.OUTGOING ) ) ).isEqualTo( 1 );
+            assertThat( groupDirectory.size() ).isEqualTo( 1 );
+        }
+    }
+
+    private static int traverse( RecordRelationshipTraversalCursor cursor, long reference, RelationshipSelection selection )
+    {
+        cursor.init( FIRST_OWNING_NODE, reference, selection );
+        int count = 0;
+        while ( cursor.next() )
+        {
+            count++;
+        }
+        return count;
+    }
+
+    private static class DbHits implements ReadTracer
+    {
+        private int count;
+
+        @Override
+        public void onNode( long nodeReference )
+        {
+        }
+
+        @Override
+        public void onAllNodesScan()
+        {
+        }
+
+        @Override
+        public void onRelationship( long relationshipReference )
+        {
+        }
+
+        @Override
+        public void onProperty( int propertyKey )
+        {
+        }
+
+        @Override
+        public void dbHit()
+        {
+            count++;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.impl.factory.Sets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.util.stream.Stream;
 
@@ -73,6 +74,7 @@ import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.storageengine.util.IdGeneratorUpdatesWorkSync;
 import org.neo4j.storageengine.util.IdUpdateListener;
 import org.neo4j.storageengine.util.IndexUpdatesWorkSync;
+import org.neo4j.test.scheduler.JobSchedulerAdapter;
 import org.neo4j.token.api.NamedToken;
 
 import static java.util.Arrays.asList;
@@ -86,6 +88,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -179,6 +182,29 @@ class NeoStoreTransactionApplierTest
         verify( nodeStore ).updateRecord( eq( after ), any(), any(), any(), any() );
     }
 
+    @Test
+    void shouldWriteCollectedUpdatesBeforeLaterAppliersAreClosed() throws Exception
+    {
+        // given an applier collecting its updates, followed by one which is closed before it, like the index applier
+        ParallelStoreUpdateApplier parallelApplier =
+                new ParallelStoreUpdateApplier( neoStores, PageCacheTracer.NULL, new JobSchedulerAdapter(), Integer.MAX_VALUE );
+        TransactionApplier laterApplier = mock( TransactionApplier.class );
+        TransactionApplierFactory applier = newApplierFacade( new NeoStoreTransactionApplierFactory( INTERNAL, neoStores, cacheAccess, lockService,
+                parallelApplier ), ( transaction, batchContext ) -> laterApplier );
+        NodeRecord before = new NodeRecord( 11 );
+        NodeRecord after = new NodeRecord( 11 );
+        after.setInUse( true );
+        Command.NodeCommand command = new Command.NodeCommand( before, after );
+
+        // when
+        apply( applier, command::handle, transactionToApply );
+
+        // then
+        InOrder inOrder = inOrder( nodeStore, laterApplier );
+        inOrder.verify( nodeStore ).updateRecord( eq( after ), any(), any(), any(), any() );
+        inOrder.verify( laterApplier ).close();
+    }
+
     @Test
     void shouldApplyNodeCommandToTheStoreAndInvalidateTheCache() throws Exception
     {
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.recordstorage.ParallelStoreUpdateApplier.StoreUpdates;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.util.IdUpdateListener;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class ParallelStoreUpdateApplierTest
+{
+    private static final int COUNT = 1_000;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private final JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+    private NeoStores neoStores;
+    private ParallelStoreUpdateApplier applier;
+
+    @BeforeEach
+    void setup()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
+        applier = new ParallelStoreUpdateApplier( neoStores, PageCacheTracer.NULL, jobScheduler, 1 );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        neoStores.close();
+        jobScheduler.close();
+    }
+
+    @Test
+    void shouldApplyUpdatesToAllStores() throws Exception
+    {
+        // given
+        StoreUpdates<NodeRecord> nodeUpdates = new StoreUpdates<>( neoStores.getNodeStore(), NODE_CURSOR );
+        StoreUpdates<RelationshipRecord> relationshipUpdates = new StoreUpdates<>( neoStores.getRelationshipStore(), RELATIONSHIP_CURSOR );
+        for ( int id = 0; id < COUNT; id++ )
+        {
+            NodeRecord node = new NodeRecord( id ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(),
+                    NO_LABELS_FIELD.longValue() );
+            node.setCreated();
+            nodeUpdates.add( node );
+            RelationshipRecord relationship = new RelationshipRecord( id ).initialize( true, NO_NEXT_PROPERTY.longValue(), id, id, 0,
+                    1, NO_NEXT_RELATIONSHIP.longValue(), 1, NO_NEXT_RELATIONSHIP.longValue(), true, true );
+            relationship.setCreated();
+            relationshipUpdates.add( relationship );
+        }
+        RecordingIdUpdateListener idUpdates = new RecordingIdUpdateListener();
+
+        // when
+        applier.apply( List.of( nodeUpdates, relationshipUpdates ), idUpdates, NULL );
+
+        // then
+        try ( CachedStoreCursors storeCursors = new CachedStoreCursors( neoStores, NULL ) )
+        {
+            PageCursor nodeCursor = storeCursors.readCursor( NODE_CURSOR );
+            PageCursor relationshipCursor = storeCursors.readCursor( RELATIONSHIP_CURSOR );
+            for ( int id = 0; id < COUNT; id++ )
+            {
+                assertThat( neoStores.getNodeStore().isInUse( id, nodeCursor ) ).isTrue();
+                assertThat( neoStores.getRelationshipStore().isInUse( id, relationshipCursor ) ).isTrue();
+            }
+        }
+        assertThat( idUpdates.ids( neoStores.getNodeStore().getIdGenerator() ) ).hasSize( COUNT ).isSorted();
+        assertThat( idUpdates.ids( neoStores.getRelationshipStore().getIdGenerator() ) ).hasSize( COUNT ).isSorted();
+        assertThat( nodeUpdates.isEmpty() ).isTrue();
+        assertThat( relationshipUpdates.isEmpty() ).isTrue();
+    }
+
+    @Test
+    void shouldPropagateFailureOfAnyStore()
+    {
+        // given
+        StoreUpdates<NodeRecord> nodeUpdates = new StoreUpdates<>( neoStores.getNodeStore(), NODE_CURSOR );
+        nodeUpdates.add( new NodeRecord( 0 ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(),
+                NO_LABELS_FIELD.longValue() ) );
+        StoreUpdates<RelationshipRecord> relationshipUpdates = new StoreUpdates<>( neoStores.getRelationshipStore(), RELATIONSHIP_CURSOR );
+        relationshipUpdates.add( new RelationshipRecord( -5 ) );
+
+        // when/then
+        assertThatThrownBy( () -> applier.apply( List.of( nodeUpdates, relationshipUpdates ), IdUpdateListener.IGNORE, NULL ) )
+                .isInstanceOf( RuntimeException.class );
+    }
+
+    private static class RecordingIdUpdateListener implements IdUpdateListener
+    {
+        private final List<IdGenerator> idGenerators = new ArrayList<>();
+        private final List<Long> ids = new ArrayList<>();
+
+        @Override
+        public void markIdAsUsed( IdGenerator idGenerator, long id, int size, CursorContext cursorContext )
+        {
+            idGenerators.add( idGenerator );
+            ids.add( id );
+        }
+
+        @Override
+        public void markIdAsUnused( IdGenerator idGenerator, long id, int size, CursorContext cursorContext )
+        {
+            throw new AssertionError( "No ids should be freed" );
+        }
+
+        List<Long> ids( IdGenerator idGenerator )
+        {
+            List<Long> result = new ArrayList<>();
+            for ( int i = 0; i < idGenerators.size(); i++ )
+            {
+                if ( idGenerators.get( i ) == idGenerator )
+                {
+                    result.add( ids.get( i ) );
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+@ExtendWith( RandomExtension.class )
+class RecordBatchScannerTest
+{
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+    @Inject
+    private RandomSupport random;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+
+    @BeforeEach
+    void setup()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldScanAllNodesInUse()
+    {
+        // given
+        NodeStore nodeStore = neoStores.getNodeStore();
+        MutableLongSet expected = createNodes( nodeStore.getRecordsPerPage() * 5 + 3 );
+
+        // when
+        MutableLongSet found = new LongHashSet();
+        RecordNodeScan scan = new RecordNodeScan();
+        try ( RecordNodeBatchScanner scanner = new RecordNodeBatchScanner( nodeStore, NULL ) )
+        {
+            NodeScanBatch batch = scanner.newBatch();
+            while ( scanner.scanBatch( scan, batch ) )
+            {
+                assertThat( batch.size() ).isPositive();
+                for ( int i = 0; i < batch.size(); i++ )
+                {
+                    assertThat( found.add( batch.id( i ) ) ).isTrue();
+                    assertThat( batch.labelField( i ) ).isEqualTo( batch.id( i ) * 2 );
+                    assertThat( batch.firstProperty( i ) ).isEqualTo( batch.id( i ) * 3 );
+                    assertThat( batch.firstRelationship( i ) ).isEqualTo( NO_NEXT_RELATIONSHIP.longValue() );
+                    assertThat( batch.isDense( i ) ).isEqualTo( batch.id( i ) % 2 == 0 );
+                }
+            }
+        }
+
+        // then
+        assertThat( found ).isEqualTo( expected );
+    }
+
+    @Test
+    void shouldShareNodeScanBetweenScannersAndCursors()
+    {
+        // given
+        NodeStore nodeStore = neoStores.getNodeStore();
+        MutableLongSet expected = createNodes( nodeStore.getRecordsPerPage() * 7 );
+
+        // when
+        MutableLongSet found = new LongHashSet();
+        RecordNodeScan scan = new RecordNodeScan();
+        try ( RecordNodeBatchScanner first = new RecordNodeBatchScanner( nodeStore, NULL );
+              RecordNodeBatchScanner second = new RecordNodeBatchScanner( nodeStore, NULL );
+              RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null,
+                      NULL, storeCursors ) )
+        {
+            NodeScanBatch batch = new NodeScanBatch( 17 );
+            boolean more = true;
+            while ( more )
+            {
+                more = false;
+                for ( RecordNodeBatchScanner scanner : new RecordNodeBatchScanner[]{first, second} )
+                {
+                    if ( scanner.scanBatch( scan, batch ) )
+                    {
+                        more = true;
+                        for ( int i = 0; i < batch.size(); i++ )
+                        {
+                            assertThat( found.add( batch.id( i ) ) ).isTrue();
+                        }
+                    }
+                }
+                if ( cursor.scanBatch( scan, 11 ) )
+                {
+                    more = true;
+                    while ( cursor.next() )
+                    {
+                        assertThat( found.add( cursor.entityReference() ) ).isTrue();
+                    }
+                }
+            }
+        }
+
+        // then
+        assertThat( found ).isEqualTo( expected );
+    }
+
+    @Test
+    void shouldScanNodesWithCursorOnePageAtATime()
+    {
+        // given
+        NodeStore nodeStore = neoStores.getNodeStore();
+        int pages = 4;
+        MutableLongSet expected = createNodes( nodeStore.getRecordsPerPage() * pages );
+        var pageCacheTracer = new DefaultPageCacheTracer();
+
+        // when
+        MutableLongSet found = new LongHashSet();
+        try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( "scan" ) );
+              RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null,
+                      cursorContext, storeCursors ) )
+        {
+            cursor.scan();
+            while ( cursor.next() )
+            {
+                long id = cursor.entityReference();
+                assertThat( found.add( id ) ).isTrue();
+                assertThat( cursor.getLabelField() ).isEqualTo( id * 2 );
+                assertThat( cursor.getNextProp() ).isEqualTo( id * 3 );
+                assertThat( cursor.isDense() ).isEqualTo( id % 2 == 0 );
+            }
+
+            // then each page is pinned once, rather than once per record
+            assertThat( cursorContext.getCursorTracer().pins() ).isEqualTo( pages );
+        }
+        assertThat( found ).isEqualTo( expected );
+    }
+
+    @Test
+    void shouldScanAllRelationshipsInUse()
+    {
+        // given
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        MutableLongSet expected = new LongHashSet();
+        int count = relationshipStore.getRecordsPerPage() * 3 + 1;
+        try ( PageCursor cursor = storeCursors.writeCursor( RELATIONSHIP_CURSOR ) )
+        {
+            for ( long id = 0; id < count; id++ )
+            {
+                boolean inUse = random.nextBoolean();
+                RelationshipRecord relationship = new RelationshipRecord( id ).initialize( inUse, id * 5, id, id + 1, (int) (id % 4),
+                        NO_NEXT_RELATIONSHIP.longValue(), NO_NEXT_RELATIONSHIP.longValue(), NO_NEXT_RELATIONSHIP.longValue(),
+                        NO_NEXT_RELATIONSHIP.longValue(), true, true );
+                relationshipStore.updateRecord( relationship, cursor, NULL, storeCursors );
+                if ( inUse )
+                {
+                    expected.add( id );
+                }
+            }
+        }
+        relationshipStore.setHighestPossibleIdInUse( count - 1 );
+
+        // when
+        MutableLongSet found = new LongHashSet();
+        RecordRelationshipScan scan = new RecordRelationshipScan();
+        try ( RecordRelationshipBatchScanner scanner = new RecordRelationshipBatchScanner( relationshipStore, NULL ) )
+        {
+            RelationshipScanBatch batch = scanner.newBatch();
+            while ( scanner.scanBatch( scan, batch ) )
+            {
+                for ( int i = 0; i < batch.size(); i++ )
+                {
+                    long id = batch.id( i );
+                    assertThat( found.add( id ) ).isTrue();
+                    assertThat( batch.sourceNode( i ) ).isEqualTo( id );
+                    assertThat( batch.targetNode( i ) ).isEqualTo( id + 1 );
+                    assertThat( batch.type( i ) ).isEqualTo( id % 4 );
+                    assertThat( batch.firstProperty( i ) ).isEqualTo( id * 5 );
+                }
+            }
+        }
+
+        // then
+        assertThat( found ).isEqualTo( expected );
+    }
+
+    private MutableLongSet createNodes( int count )
+    {
+        NodeStore nodeStore = neoStores.getNodeStore();
+        MutableLongSet inUse = new LongHashSet();
+        try ( PageCursor cursor = storeCursors.writeCursor( NODE_CURSOR ) )
+        {
+            for ( long id = 0; id < count; id++ )
+            {
+                // Leave whole pages, as well as single records, unused
+                boolean used = (id / nodeStore.getRecordsPerPage()) % 3 != 1 && random.nextBoolean();
+                NodeRecord node = new NodeRecord( id ).initialize( used, used ? id * 3 : NO_NEXT_PROPERTY.longValue(), id % 2 == 0,
+                        NO_NEXT_RELATIONSHIP.longValue(), id * 2 );
+                nodeStore.updateRecord( node, cursor, NULL, storeCursors );
+                if ( used )
+                {
+                    inUse.add( id );
+                }
+            }
+        }
+        nodeStore.setHighestPossibleIdInUse( count - 1 );
+        return inUse;
+    }
+}
@@ -57,21 +57,21 @@ class RecordNodeCursorTest
         NodeStore nodeStore = mock( NodeStore.class );
         when( nodeStore.getHighestPossibleIdInUse( NULL ) ).thenReturn( 200L );
         when( nodeStore.getHighId() ).thenReturn( 20L );
+        when( nodeStore.getRecordsPerPage() ).thenReturn( 50 );
+        when( nodeStore.newRecord() ).thenAnswer( invocationOnMock -> new NodeRecord( -1 ) );
         doAnswer( invocationOnMock ->
         {
-            long id = invocationOnMock.getArgument( 0 );
-            NodeRecord record = invocationOnMock.getArgument( 1 );
-            record.setId( id );
-            record.initialize( id == 200, 1L, false, 1L, NO_LABELS_FIELD.longValue() );
-            return null;
-        } ).when( nodeStore ).getRecordByCursor( anyLong(), any(), any(), any() );
-        doAnswer( invocationOnMock ->
-        {
-            NodeRecord record = invocationOnMock.getArgument( 0 );
-            record.setId( record.getId() + 1 );
-            record.initialize( record.getId() == 200, 1L, false, 1L, 0L );
-            return null;
-        } ).when( nodeStore ).nextRecordByCursor( any(), any(), any() );
+            long startId = invocationOnMock.getArgument( 0 );
+            long stopId = invocationOnMock.getArgument( 1 );
+            NodeRecord[] records = invocationOnMock.getArgument( 2 );
+            for ( long id = startId; id <= stopId; id++ )
+            {
+                NodeRecord record = records[(int) (id - startId)];
+                record.setId( id );
+                record.initialize( id == 200, 1L, false, 1L, NO_LABELS_FIELD.longValue() );
+            }
+            return (int) (stopId - startId + 1);
+        } ).when( nodeStore ).getRecordsOnPageByCursor( anyLong(), anyLong(), any(), any(), any() );
         RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, null, null, null, NULL, StoreCursors.NULL );
 
         // when
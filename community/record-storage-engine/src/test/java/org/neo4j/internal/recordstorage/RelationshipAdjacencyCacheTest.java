@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.ENTRY_SIZE;
+import static org.neo4j.internal.recordstorage.RelationshipAdjacencyCache.OVERSIZED;
+
+class RelationshipAdjacencyCacheTest
+{
+    @Test
+    void shouldCacheRelationships()
+    {
+        // given
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 1_000 );
+        long[] relationships = relationships( 2 );
+
+        // when
+        cache.put( 1, cache.stamp( 1 ), relationships );
+
+        // then
+        assertArrayEquals( relationships, cache.get( 1 ) );
+        assertNull( cache.get( 2 ) );
+        assertThat( cache.hits() ).isEqualTo( 1 );
+        assertThat( cache.misses() ).isEqualTo( 1 );
+        assertThat( cache.hitRatio() ).isEqualTo( 0.5 );
+    }
+
+    @Test
+    void shouldNotCacheRelationshipsReadBeforeInvalidation()
+    {
+        // given
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 1_000 );
+        long stamp = cache.stamp( 1 );
+
+        // when
+        cache.invalidate( 1 );
+        cache.put( 1, stamp, relationships( 2 ) );
+
+        // then
+        assertNull( cache.get( 1 ) );
+        assertThat( cache.usedBytes() ).isZero();
+    }
+
+    @Test
+    void shouldRemoveInvalidatedNode()
+    {
+        // given
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 1_000 );
+        cache.put( 1, cache.stamp( 1 ), relationships( 2 ) );
+
+        // when
+        cache.invalidate( 1 );
+
+        // then
+        assertNull( cache.get( 1 ) );
+        assertThat( cache.usedBytes() ).isZero();
+    }
+
+    @Test
+    void shouldStayWithinMemoryBudget()
+    {
+        // given
+        long maxBytes = 2_000;
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( maxBytes );
+
+        // when
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            cache.put( nodeId, cache.stamp( nodeId ), relationships( 3 ) );
+            assertThat( cache.usedBytes() ).isLessThanOrEqualTo( maxBytes );
+        }
+
+        // then
+        assertThat( cache.get( 99 ) ).isNotNull();
+    }
+
+    @Test
+    void shouldKeepRecentlyLookedUpNodesWhenFull()
+    {
+        // given
+        long[] relationships = relationships( 3 );
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 10 * sizeOf( relationships ) );
+        for ( long nodeId = 0; nodeId < 10; nodeId++ )
+        {
+            cache.put( nodeId, cache.stamp( nodeId ), relationships( 3 ) );
+        }
+        cache.get( 3 );
+
+        // when
+        for ( long nodeId = 10; nodeId < 15; nodeId++ )
+        {
+            cache.put( nodeId, cache.stamp( nodeId ), relationships( 3 ) );
+        }
+
+        // then
+        assertThat( cache.get( 3 ) ).isNotNull();
+        assertThat( cache.get( 14 ) ).isNotNull();
+    }
+
+    @Test
+    void shouldCountLookupsOfOversizedNodesAsMisses()
+    {
+        // given
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 1_000 );
+        cache.put( 1, cache.stamp( 1 ), OVERSIZED );
+
+        // when
+        long[] relationships = cache.get( 1 );
+
+        // then
+        assertThat( relationships ).isSameAs( OVERSIZED );
+        assertThat( cache.hits() ).isZero();
+        assertThat( cache.misses() ).isEqualTo( 1 );
+        assertThat( cache.usedBytes() ).isPositive();
+    }
+
+    @Test
+    void shouldNotCacheEntryLargerThanBudget()
+    {
+        // given
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( 100 );
+
+        // when
+        cache.put( 1, cache.stamp( 1 ), relationships( 10 ) );
+
+        // then
+        assertNull( cache.get( 1 ) );
+        assertThat( cache.usedBytes() ).isZero();
+    }
+
+    private static long sizeOf( long[] relationships )
+    {
+        RelationshipAdjacencyCache cache = new RelationshipAdjacencyCache( Long.MAX_VALUE );
+        cache.put( 1, cache.stamp( 1 ), relationships );
+        return cache.usedBytes();
+    }
+
+    private static long[] relationships( int count )
+    {
+        long[] relationships = new long[count * ENTRY_SIZE];
+        for ( int i = 0; i < relationships.length; i++ )
+        {
+            relationships[i] = i;
+        }
+        return relationships;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.recordstorage.RelationshipGroupDirectory.Groups;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+class RelationshipGroupDirectoryTest
+{
+    @Test
+    void shouldLookUpGroupsByType()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 10, 2 );
+
+        // when
+        directory.put( 1, directory.stamp( 1 ), new int[]{7, 3, 5, 0}, new long[]{70, 30, 50, 0}, 3 );
+
+        // then
+        Groups groups = directory.get( 1 );
+        assertThat( groups.isChain() ).isFalse();
+        assertThat( groups.groupId( 3 ) ).isEqualTo( 30 );
+        assertThat( groups.groupId( 5 ) ).isEqualTo( 50 );
+        assertThat( groups.groupId( 7 ) ).isEqualTo( 70 );
+        assertThat( groups.groupId( 0 ) ).isEqualTo( NO_ID );
+        assertThat( groups.groupId( 4 ) ).isEqualTo( NO_ID );
+        assertThat( directory.get( 2 ) ).isNull();
+    }
+
+    @Test
+    void shouldTellToWalkChainOfNodesWithFewGroups()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 10, 2 );
+
+        // when
+        Groups groups = directory.put( 1, directory.stamp( 1 ), new int[]{3}, new long[]{30}, 1 );
+
+        // then
+        assertThat( groups.isChain() ).isTrue();
+        assertThat( directory.get( 1 ) ).isSameAs( groups );
+    }
+
+    @Test
+    void shouldNotAddGroupsReadBeforeInvalidation()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 10, 1 );
+        long stamp = directory.stamp( 1 );
+
+        // when
+        directory.invalidate( 1 );
+        Groups groups = directory.put( 1, stamp, new int[]{3}, new long[]{30}, 1 );
+
+        // then
+        assertThat( groups.groupId( 3 ) ).isEqualTo( 30 );
+        assertThat( directory.get( 1 ) ).isNull();
+    }
+
+    @Test
+    void shouldStayWithinMaxNodes()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 10, 1 );
+
+        // when
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            directory.put( nodeId, directory.stamp( nodeId ), new int[]{1}, new long[]{nodeId}, 1 );
+            assertThat( directory.size() ).isLessThanOrEqualTo( 10 );
+        }
+
+        // then
+        assertThat( directory.get( 99 ).groupId( 1 ) ).isEqualTo( 99 );
+    }
+
+    @Test
+    void shouldKeepRecentlyLookedUpNodesWhenFull()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 3, 1 );
+        for ( long nodeId = 0; nodeId < 3; nodeId++ )
+        {
+            directory.put( nodeId, directory.stamp( nodeId ), new int[]{1}, new long[]{nodeId}, 1 );
+        }
+
+        // when
+        for ( long nodeId = 3; nodeId < 10; nodeId++ )
+        {
+            assertThat( directory.get( 0 ) ).isNotNull();
+            directory.put( nodeId, directory.stamp( nodeId ), new int[]{1}, new long[]{nodeId}, 1 );
+        }
+
+        // then
+        assertThat( directory.size() ).isEqualTo( 3 );
+        assertThat( directory.get( 0 ).groupId( 1 ) ).isEqualTo( 0 );
+    }
+
+    @Test
+    void shouldNotEvictNodesWithGroupsForChainNodes()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 2, 2 );
+        directory.put( 1, directory.stamp( 1 ), new int[]{1, 2}, new long[]{10, 20}, 2 );
+        directory.put( 2, directory.stamp( 2 ), new int[]{1, 2}, new long[]{30, 40}, 2 );
+
+        // when
+        for ( long nodeId = 3; nodeId < 100; nodeId++ )
+        {
+            directory.put( nodeId, directory.stamp( nodeId ), new int[]{1}, new long[]{nodeId}, 1 );
+        }
+
+        // then
+        assertThat( directory.size() ).isEqualTo( 2 );
+        assertThat( directory.get( 1 ).groupId( 2 ) ).isEqualTo( 20 );
+        assertThat( directory.get( 2 ).groupId( 2 ) ).isEqualTo( 40 );
+        assertThat( directory.get( 99 ).isChain() ).isTrue();
+    }
+
+    @Test
+    void shouldInvalidateChainNodes()
+    {
+        // given
+        RelationshipGroupDirectory directory = new RelationshipGroupDirectory( 10, 2 );
+        directory.put( 1, directory.stamp( 1 ), new int[]{3}, new long[]{30}, 1 );
+
+        // when
+        directory.invalidate( 1 );
+
+        // then
+        assertThat( directory.get( 1 ) ).isNull();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.format.standard.RelationshipRecordFormat;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.recordstorage.RelationshipRecordDeltaEncoding.MAX_ENCODED_SIZE;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@ExtendWith( RandomExtension.class )
+class RelationshipRecordDeltaEncodingTest
+{
+    private static final long MAX_ID = 1L << 50;
+
+    @Inject
+    private RandomSupport random;
+
+    @RepeatedTest( 100 )
+    void shouldEncodeAndDecodeRecords()
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( MAX_ENCODED_SIZE * 10 );
+        RelationshipRecord[] records = new RelationshipRecord[10];
+        for ( int i = 0; i < records.length; i++ )
+        {
+            records[i] = randomRecord();
+            int offset = cursor.getOffset();
+            RelationshipRecordDeltaEncoding.encode( records[i], cursor );
+            assertThat( cursor.getOffset() - offset ).isEqualTo( RelationshipRecordDeltaEncoding.encodedSize( records[i] ) );
+        }
+
+        cursor.setOffset( 0 );
+        for ( RelationshipRecord expected : records )
+        {
+            RelationshipRecord decoded = new RelationshipRecord( -1 );
+            RelationshipRecordDeltaEncoding.decode( expected.getId(), cursor, decoded );
+            assertThat( decoded ).isEqualTo( expected );
+        }
+    }
+
+    @Test
+    void shouldEncodeOnlyHeaderOfUnusedRecord()
+    {
+        RelationshipRecord record = new RelationshipRecord( 10 );
+        PageCursor cursor = ByteArrayPageCursor.wrap( MAX_ENCODED_SIZE );
+
+        RelationshipRecordDeltaEncoding.encode( record, cursor );
+        cursor.setOffset( 0 );
+        RelationshipRecord decoded = new RelationshipRecord( -1 );
+        RelationshipRecordDeltaEncoding.decode( 10, cursor, decoded );
+
+        assertThat( cursor.getOffset() ).isEqualTo( 1 );
+        assertThat( decoded.inUse() ).isFalse();
+        assertThat( decoded.getId() ).isEqualTo( 10 );
+    }
+
+    @Test
+    void shouldEncodeLocalRecordInFractionOfFixedRecordSize()
+    {
+        long id = 4_000_000_000L;
+        RelationshipRecord record = new RelationshipRecord( id ).initialize( true, id + 12, id - 3, id + 40, 7, 12, id + 1, id - 1, id + 2,
+                true, false );
+
+        assertThat( RelationshipRecordDeltaEncoding.encodedSize( record ) ).isLessThan( RelationshipRecordFormat.RECORD_SIZE / 2 );
+    }
+
+    private RelationshipRecord randomRecord()
+    {
+        long id = random.nextLong( MAX_ID );
+        RelationshipRecord record = new RelationshipRecord( id );
+        if ( random.nextInt( 10 ) == 0 )
+        {
+            return record;
+        }
+        boolean firstInFirstChain = random.nextBoolean();
+        boolean firstInSecondChain = random.nextBoolean();
+        return record.initialize( true, random.nextBoolean() ? NO_NEXT_PROPERTY.longValue() : pointer( id ), pointer( id ), pointer( id ),
+                random.nextInt( 1 << 16 ), firstInFirstChain ? random.nextLong( MAX_ID ) : pointer( id ), nullablePointer( id ),
+                firstInSecondChain ? random.nextLong( MAX_ID ) : pointer( id ), nullablePointer( id ), firstInFirstChain, firstInSecondChain );
+    }
+
+    private long nullablePointer( long id )
+    {
+        return random.nextBoolean() ? NO_NEXT_RELATIONSHIP.longValue() : pointer( id );
+    }
+
+    private long pointer( long id )
+    {
+        return random.nextBoolean() ? random.nextLong( MAX_ID ) : Math.max( 0, id + random.nextInt( -1000, 1000 ) );
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.RelationshipStoreEncodingComparison.Comparison;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class RelationshipStoreEncodingComparisonTest
+{
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+
+    @BeforeEach
+    void setup()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldCompareEmptyStore() throws IOException
+    {
+        Comparison comparison = comparison().compare();
+
+        assertThat( comparison.records() ).isZero();
+        assertThat( comparison.fixedBytes() ).isZero();
+        assertThat( comparison.deltaBytes() ).isZero();
+    }
+
+    @Test
+    void shouldCompareStoreWithLocalRelationships() throws IOException
+    {
+        // given a path of nodes where each relationship is stored next to its chain neighbours, with every third one deleted
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        int count = relationshipStore.getRecordsPerPage() * 10;
+        createPath( count );
+
+        // when
+        Comparison comparison = comparison().compare();
+
+        // then
+        long inUse = count - count / 3;
+        assertThat( comparison.records() ).isEqualTo( inUse );
+        assertThat( comparison.fixedBytes() ).isEqualTo( inUse * relationshipStore.getRecordSize() );
+        assertThat( comparison.deltaBytes() ).isLessThan( comparison.fixedBytes() / 2 );
+        assertThat( comparison.sizeRatio() ).isLessThan( 0.5 );
+        assertThat( comparison.toString() ).contains( "Relationships: " + inUse );
+    }
+
+    @Test
+    void shouldOnlyMeasureDecodingOfSampledPagesInMeasuredRounds() throws IOException
+    {
+        // given
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        int recordsPerPage = relationshipStore.getRecordsPerPage();
+        createPath( recordsPerPage * 10 );
+
+        // when
+        Comparison comparison = comparison( 2 ).compare( 3, 4 );
+
+        // then
+        long inUsePerPage = 0;
+        for ( long id = 0; id < recordsPerPage * 2; id++ )
+        {
+            inUsePerPage += id % 3 != 2 ? 1 : 0;
+        }
+        assertThat( comparison.decodedRecords() ).isEqualTo( inUsePerPage * 4 );
+        assertThat( comparison.fixedDecodeNanos() ).isPositive();
+        assertThat( comparison.deltaDecodeNanos() ).isPositive();
+    }
+
+    @Test
+    void shouldNotMeasureDecodingOfEmptyStore() throws IOException
+    {
+        Comparison comparison = comparison().compare( 0, 1 );
+
+        assertThat( comparison.decodedRecords() ).isZero();
+        assertThat( comparison.toString() ).contains( "0.0 records/ms" );
+    }
+
+    private void createPath( int count )
+    {
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        try ( PageCursor cursor = storeCursors.writeCursor( RELATIONSHIP_CURSOR ) )
+        {
+            for ( long id = 0; id < count; id++ )
+            {
+                RelationshipRecord relationship = new RelationshipRecord( id ).initialize( id % 3 != 2, NO_NEXT_PROPERTY.longValue(), id, id + 1, 0,
+                        id == 0 ? 1 : id - 1, NO_NEXT_RELATIONSHIP.longValue(), 1, id + 1 == count ? NO_NEXT_RELATIONSHIP.longValue() : id + 1,
+                        id == 0, true );
+                relationshipStore.updateRecord( relationship, cursor, NULL, storeCursors );
+            }
+        }
+        relationshipStore.setHighestPossibleIdInUse( count - 1 );
+    }
+
+    private RelationshipStoreEncodingComparison comparison()
+    {
+        return comparison( RelationshipStoreEncodingComparison.DEFAULT_SAMPLE_PAGES );
+    }
+
+    private RelationshipStoreEncodingComparison comparison( int samplePages )
+    {
+        return new RelationshipStoreEncodingComparison( neoStores.getRelationshipStore(), neoStores.getRecordFormats().relationship(), NULL,
+                samplePages );
+    }
+}
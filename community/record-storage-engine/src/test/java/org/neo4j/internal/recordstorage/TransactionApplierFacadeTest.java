@@ -62,6 +62,23 @@ class TransactionApplierFacadeTest
         inOrder.verify( txApplier1 ).close();
     }
 
+    @Test
+    void shouldCallCommandsVisitedInOrderBeforeClosing() throws Exception
+    {
+        // WHEN
+        facade.close();
+
+        // THEN
+        InOrder inOrder = inOrder( txApplier1, txApplier2, txApplier3 );
+
+        inOrder.verify( txApplier1 ).commandsVisited();
+        inOrder.verify( txApplier2 ).commandsVisited();
+        inOrder.verify( txApplier3 ).commandsVisited();
+        inOrder.verify( txApplier3 ).close();
+        inOrder.verify( txApplier2 ).close();
+        inOrder.verify( txApplier1 ).close();
+    }
+
     @Test
     void testVisit() throws Exception
     {
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.LongPredicate;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class StoreSpaceReclaimerTest
+{
+    private static final int PAGES = 6;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+    private NodeStore nodeStore;
+    private int recordsPerPage;
+
+    @BeforeEach
+    void setup()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+        nodeStore = neoStores.getNodeStore();
+        recordsPerPage = nodeStore.getRecordsPerPage();
+        writeNodes( 0, PAGES * recordsPerPage, true );
+        nodeStore.setHighestPossibleIdInUse( PAGES * recordsPerPage - 1 );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldNotReclaimPagesWithRecordsInUse() throws IOException
+    {
+        // given
+        deleteNodesOnPage( 2 );
+        writeNodes( 2L * recordsPerPage + 7, 2L * recordsPerPage + 8, true );
+
+        // when
+        StoreSpaceReclaimer.Report report = new StoreSpaceReclaimer( neoStores, true ).reclaim( NULL );
+
+        // then
+        assertThat( report.reclaimedBytes() ).isZero();
+        assertThat( report.pagesAfter() ).isEqualTo( report.pagesBefore() );
+        assertThat( nodeStore.getLastPageId() ).isEqualTo( PAGES - 1 );
+    }
+
+    @Test
+    void shouldPunchHolesInUnusedPagesAndKeepRecordsInUse() throws IOException
+    {
+        // given
+        deleteNodesOnPage( 2 );
+        deleteNodesOnPage( 3 );
+        deleteNodesOnPage( PAGES - 1 );
+
+        // when
+        StoreSpaceReclaimer.Report report = new StoreSpaceReclaimer( neoStores, false ).reclaim( NULL );
+
+        // then
+        assertThat( report.truncatedBytes() ).isZero();
+        assertThat( report.punchedBytes() ).isIn( 0L, 3L * nodeStore.pagedFile.pageSize() );
+        assertThat( nodeStore.getLastPageId() ).isEqualTo( PAGES - 1 );
+        assertNodesInUse( page -> page != 2 && page != 3 && page != PAGES - 1 );
+    }
+
+    @Test
+    void shouldTruncateTrailingUnusedPages() throws IOException
+    {
+        // given
+        deleteNodesOnPage( 1 );
+        deleteNodesOnPage( PAGES - 2 );
+        deleteNodesOnPage( PAGES - 1 );
+
+        // when
+        StoreSpaceReclaimer.Report report = new StoreSpaceReclaimer( neoStores, true ).reclaim( NULL );
+
+        // then
+        int pageSize = nodeStore.pagedFile.pageSize();
+        assertThat( report.truncatedBytes() ).isEqualTo( 2L * pageSize );
+        assertThat( report.punchedBytes() ).isIn( 0L, (long) pageSize );
+        assertThat( report.pagesAfter() ).isEqualTo( report.pagesBefore() - 2 );
+        assertThat( nodeStore.getLastPageId() ).isEqualTo( PAGES - 3 );
+        assertThat( fs.getFileSize( nodeStore.getStorageFile() ) ).isEqualTo( (PAGES - 2L) * pageSize );
+        assertNodesInUse( page -> page != 1 && page < PAGES - 2 );
+
+        // and the freed ids at the end can be used again
+        long id = (PAGES - 1L) * recordsPerPage + 3;
+        writeNodes( id, id + 1, true );
+        NodeRecord record = nodeStore.getRecordByCursor( id, nodeStore.newRecord(), RecordLoad.NORMAL, storeCursors.readCursor( NODE_CURSOR ) );
+        assertThat( record.inUse() ).isTrue();
+        assertThat( nodeStore.getLastPageId() ).isEqualTo( PAGES - 1 );
+    }
+
+    private void assertNodesInUse( LongPredicate pageInUse )
+    {
+        NodeRecord record = nodeStore.newRecord();
+        for ( long id = 0; id < PAGES * recordsPerPage; id++ )
+        {
+            nodeStore.getRecordByCursor( id, record, RecordLoad.CHECK, storeCursors.readCursor( NODE_CURSOR ) );
+            assertThat( record.inUse() ).as( "node %d", id ).isEqualTo( pageInUse.test( id / recordsPerPage ) );
+        }
+    }
+
+    private void deleteNodesOnPage( long pageId )
+    {
+        writeNodes( pageId * recordsPerPage, (pageId + 1) * recordsPerPage, false );
+    }
+
+    private void writeNodes( long fromId, long toId, boolean inUse )
+    {
+        // A write cursor of its own, because a pinned write cursor would keep the reclaimer from reading its page.
+        try ( PageCursor cursor = nodeStore.openPageCursorForWriting( fromId, NULL ) )
+        {
+            for ( long id = fromId; id < toId; id++ )
+            {
+                NodeRecord record = new NodeRecord( id ).initialize( inUse, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(), 0 );
+                nodeStore.updateRecord( record, cursor, NULL, storeCursors );
+            }
+        }
+    }
+}
@@ -55,6 +55,7 @@ import org.neo4j.monitoring.PanicEventGenerator;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
 import org.neo4j.storageengine.api.IndexUpdateListener;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.test.scheduler.JobSchedulerAdapter;
 import org.neo4j.token.TokenHolders;
 import org.neo4j.token.api.TokenHolder;
 
@@ -219,8 +220,8 @@ public class RecordStorageEngineSupport
                 IdGeneratorFactory idGeneratorFactory, IdController idController,
                 Function<TransactionApplierFactoryChain,TransactionApplierFactoryChain> transactionApplierTransformer )
         {
-            super( databaseLayout, config, pageCache, fs, internalLogProvider, userLogProvider, tokenHolders, schemaState, constraintSemantics,
-                    indexConfigCompleter, lockService, databaseHealth, idGeneratorFactory, idController, RecoveryCleanupWorkCollector.immediate(),
+            super( databaseLayout, config, pageCache, new JobSchedulerAdapter(), fs, internalLogProvider, userLogProvider, tokenHolders, schemaState,
+                    constraintSemantics, indexConfigCompleter, lockService, databaseHealth, idGeneratorFactory, idController, RecoveryCleanupWorkCollector.immediate(),
                     PageCacheTracer.NULL, true, EmptyMemoryTracker.INSTANCE, DatabaseReadOnlyChecker.writable(),
                     CommandLockVerification.Factory.IGNORE, LockVerificationMonitor.Factory.IGNORE );
             this.transactionApplierTransformer = transactionApplierTransformer;
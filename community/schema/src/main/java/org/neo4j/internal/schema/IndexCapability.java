@@ -121,6 +121,18 @@ public interface IndexCapability
      */
     boolean supportPartitionedScan( IndexQuery... queries );
 
+    /**
+     * Does the index support skip scan of composite queries, i.e. queries where the leading properties only have
+     * {@link IndexQueryType#EXISTS} predicates, followed by a predicate that restricts the values. Such an index can answer the
+     * query by seeking once per distinct value of the leading properties, rather than by scanning all entries.
+     *
+     * @return {@code true} if the index supports skip scan; false otherwise.
+     */
+    default boolean supportsSkipScan()
+    {
+        return false;
+    }
+
     /**
      * @return an array of behaviours that are particular to the implementation or configuration of this index.
      * It could be anything that planning could look at and either try to avoid, seek out, or issue warning for.
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.stats;
+
+/**
+ * Counters of a storage engine cache of node adjacency, i.e. the relationships of nodes, serving relationship traversals.
+ */
+public interface AdjacencyCacheCounters
+{
+    AdjacencyCacheCounters NONE = new AdjacencyCacheCounters()
+    {
+        @Override
+        public long hits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long misses()
+        {
+            return 0;
+        }
+
+        @Override
+        public long usedBytes()
+        {
+            return 0;
+        }
+    };
+
+    /**
+     * @return number of traversals served from the cache.
+     */
+    long hits();
+
+    /**
+     * @return number of traversals that had to read the relationships from the store.
+     */
+    long misses();
+
+    /**
+     * @return estimated heap size of the cached relationships, in bytes.
+     */
+    long usedBytes();
+}
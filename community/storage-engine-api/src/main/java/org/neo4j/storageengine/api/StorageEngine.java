@@ -29,6 +29,7 @@ import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.api.InjectedNLIUpgradeCallback;
+import org.neo4j.kernel.impl.store.stats.AdjacencyCacheCounters;
 import org.neo4j.kernel.impl.store.stats.StoreEntityCounters;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.lock.LockGroup;
@@ -199,6 +200,15 @@ public interface StorageEngine extends Lifecycle
      */
     StoreEntityCounters storeEntityCounters();
 
+    /**
+     * @return {@link AdjacencyCacheCounters} of the cache of node adjacency of this storage engine,
+     * or {@link AdjacencyCacheCounters#NONE} if it has no such cache.
+     */
+    default AdjacencyCacheCounters adjacencyCacheCounters()
+    {
+        return AdjacencyCacheCounters.NONE;
+    }
+
     /**
      * @return specific behaviour of transaction state that is optimal for this storage engine.
      */
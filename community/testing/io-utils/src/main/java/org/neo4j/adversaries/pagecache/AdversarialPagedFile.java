@@ -94,6 +94,20 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public long punchHoles( long startPageId, long pageCount ) throws IOException
+    {
+        adversary.injectFailure( IOException.class, SecurityException.class );
+        return delegate.punchHoles( startPageId, pageCount );
+    }
+
+    @Override
+    public long truncate( long pagesToKeep ) throws IOException
+    {
+        adversary.injectFailure( IOException.class, SecurityException.class );
+        return delegate.truncate( pagesToKeep );
+    }
+
     @Override
     public void close()
     {
@@ -52,6 +52,18 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public long punchHoles( long startPageId, long pageCount ) throws IOException
+    {
+        return delegate.punchHoles( startPageId, pageCount );
+    }
+
+    @Override
+    public long truncate( long pagesToKeep ) throws IOException
+    {
+        return delegate.truncate( pagesToKeep );
+    }
+
     @Override
     public int pageSize()
     {